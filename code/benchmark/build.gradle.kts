@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 Adobe. All rights reserved.
+ * This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ * OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+import com.adobe.marketing.mobile.gradle.BuildConstants
+
+plugins {
+    id("com.android.library")
+}
+
+val mavenCoreVersion: String by project
+val jmhVersion = "1.37"
+
+android {
+    namespace = "com.adobe.marketing.mobile.optimize.benchmark"
+
+    defaultConfig {
+        compileSdk = BuildConstants.Versions.COMPILE_SDK_VERSION
+        minSdk = BuildConstants.Versions.MIN_SDK_VERSION
+    }
+
+    // Benchmarks run on the JVM against the unit test classpath, no device is needed.
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+        // Usage: ./gradlew -p code/benchmark testReleaseUnitTest -PstressRounds=<rounds>
+        unitTests.all { test ->
+            project.findProperty("stressRounds")?.let {
+                test.systemProperty("optimize.stress.rounds", it.toString())
+            }
+        }
+    }
+}
+
+dependencies {
+    testImplementation(project(":optimize"))
+    testImplementation("com.adobe.marketing.mobile:core:$mavenCoreVersion")
+    testImplementation("org.json:json:20231013")
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.mockito:mockito-core:4.11.0")
+    testImplementation("org.openjdk.jol:jol-core:0.17")
+    testImplementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    testAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+// Runs the JMH benchmarks from the release unit test classpath.
+// Usage: ./gradlew -p code/benchmark jmh [-PjmhIncludes=<regex>]
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+val jmh = tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks and writes the results to build/reports/jmh."
+    dependsOn("compileReleaseUnitTestJavaWithJavac")
+    mainClass.set("org.openjdk.jmh.Main")
+    outputs.upToDateWhen { false }
+
+    val includes = project.findProperty("jmhIncludes")?.toString()
+    doFirst {
+        jmhResults.get().asFile.parentFile.mkdirs()
+    }
+    args(listOfNotNull(
+        includes,
+        "-prof", "gc",
+        "-rf", "json",
+        "-rff", jmhResults.get().asFile.absolutePath
+    ))
+}
+
+// Runs the end-to-end load harness against the scripted Edge stand-in.
+// Usage: ./gradlew -p code/benchmark loadHarness [-PloadHarnessArgs="requests=20000"]
+val loadHarnessResults = layout.buildDirectory.file("reports/load-harness/results.json")
+val loadHarness = tasks.register<JavaExec>("loadHarness") {
+    group = "benchmark"
+    description = "Runs the load harness and writes the report to build/reports/load-harness."
+    dependsOn("compileReleaseUnitTestJavaWithJavac")
+    mainClass.set("com.adobe.marketing.mobile.optimize.OptimizeLoadHarness")
+    outputs.upToDateWhen { false }
+
+    val harnessArgs = project.findProperty("loadHarnessArgs")?.toString()
+    args(listOfNotNull(
+        harnessArgs,
+        "output=" + loadHarnessResults.get().asFile.absolutePath
+    ))
+}
+
+// Measures the retained heap of the propositions cache with JOL.
+// Usage: ./gradlew -p code/benchmark heapBenchmark [-PheapBenchmarkArgs="payloadSize=MEDIUM"]
+val heapBenchmarkResults = layout.buildDirectory.file("reports/heap/results.json")
+val heapBenchmark = tasks.register<JavaExec>("heapBenchmark") {
+    group = "benchmark"
+    description = "Runs the retained heap benchmark and writes the results to build/reports/heap."
+    dependsOn("compileReleaseUnitTestJavaWithJavac")
+    mainClass.set("com.adobe.marketing.mobile.optimize.PropositionsHeapBenchmark")
+    outputs.upToDateWhen { false }
+    maxHeapSize = "4g"
+    // JOL attaches its agent to the running JVM to read the object layout.
+    jvmArgs(
+        "-XX:+IgnoreUnrecognizedVMOptions",
+        "-XX:+EnableDynamicAgentLoading",
+        "-Djdk.attach.allowAttachSelf=true"
+    )
+
+    val heapArgs = project.findProperty("heapBenchmarkArgs")?.toString()
+    args(listOfNotNull(
+        heapArgs,
+        "output=" + heapBenchmarkResults.get().asFile.absolutePath
+    ))
+}
+
+// Compares the JMH, load harness and retained heap results against the baselines committed in
+// baselines/, and fails on throughput, average time, p99 latency, allocation per operation or
+// retained bytes regressions, and on results without a baseline. Baseline files that are not
+// recorded yet are skipped with a warning.
+// Usage: ./gradlew -p code/benchmark perfGate [-PperfTolerance=0.1] [-PperfRecord=true]
+val perfGateResults = layout.buildDirectory.file("reports/perf-gate/results.json")
+val perfGate = tasks.register<JavaExec>("perfGate") {
+    group = "benchmark"
+    description = "Runs the benchmarks and fails if they regress from the committed baselines."
+    dependsOn(jmh, heapBenchmark)
+    mainClass.set("com.adobe.marketing.mobile.optimize.PerformanceGate")
+    outputs.upToDateWhen { false }
+
+    val tolerance = project.findProperty("perfTolerance")?.toString()
+    val record = project.findProperty("perfRecord")?.toString()
+    args(listOfNotNull(
+        "jmhResults=" + jmhResults.get().asFile.absolutePath,
+        "heapResults=" + heapBenchmarkResults.get().asFile.absolutePath,
+        "baselines=" + layout.projectDirectory.dir("baselines").asFile.absolutePath,
+        tolerance?.let { "tolerance=$it" },
+        record?.let { "record=$it" },
+        "output=" + perfGateResults.get().asFile.absolutePath
+    ))
+}
+
+afterEvaluate {
+    val unitTestClasspath = files(tasks.named<Test>("testReleaseUnitTest").map { it.classpath })
+    jmh.configure { classpath = unitTestClasspath }
+    loadHarness.configure { classpath = unitTestClasspath }
+    heapBenchmark.configure { classpath = unitTestClasspath }
+    perfGate.configure { classpath = unitTestClasspath }
+}
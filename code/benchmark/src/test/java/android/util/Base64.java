@@ -0,0 +1,56 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package android.util;
+
+/**
+ * JVM stand-in for {@code android.util.Base64}, backed by {@link java.util.Base64}.
+ *
+ * <p>The unit test {@code android.jar} only contains stubs, so without this class the decision
+ * scope encoding and validation benchmarks would measure stubbed no-ops. It is loaded ahead of the
+ * stubs as test classes come first on the unit test classpath.
+ */
+public final class Base64 {
+    public static final int DEFAULT = 0;
+    public static final int NO_PADDING = 1;
+    public static final int NO_WRAP = 2;
+    public static final int CRLF = 4;
+    public static final int URL_SAFE = 8;
+
+    private Base64() {}
+
+    public static String encodeToString(final byte[] input, final int flags) {
+        java.util.Base64.Encoder encoder =
+                (flags & URL_SAFE) != 0
+                        ? java.util.Base64.getUrlEncoder()
+                        : (flags & NO_WRAP) != 0
+                                ? java.util.Base64.getEncoder()
+                                : java.util.Base64.getMimeEncoder();
+        if ((flags & NO_PADDING) != 0) {
+            encoder = encoder.withoutPadding();
+        }
+        return encoder.encodeToString(input);
+    }
+
+    public static byte[] decode(final String str, final int flags) {
+        // like the Android decoder, ignore line breaks and whitespace in the input.
+        String input = str;
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isWhitespace(str.charAt(i))) {
+                input = str.replaceAll("\\s", "");
+                break;
+            }
+        }
+        return (flags & URL_SAFE) != 0
+                ? java.util.Base64.getUrlDecoder().decode(input)
+                : java.util.Base64.getDecoder().decode(input);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the {@link DecisionScope} encoding and validation, which run for every
+ * decision scope passed to the public APIs.
+ *
+ * <p>Run with the GC profiler, enabled by default in the {@code jmh} task, to report the
+ * allocation rate alongside the throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecisionScopeBenchmark {
+
+    /** Decision scope shapes accepted, or rejected, by {@link DecisionScope#isValid()}. */
+    public enum Shape {
+        MBOX("benchmarkMbox"),
+        XDM_NAME(encode("{\"xdm:name\":\"com.adobe.benchmark.surface\"}")),
+        ACTIVITY_PLACEMENT(
+                DecisionScope.generateEncodedScope(
+                        "xcore:offer-activity:1111111111111111",
+                        "xcore:offer-placement:1111111111111111",
+                        3)),
+        INVALID_EMPTY_NAME(""),
+        INVALID_EMPTY_XDM_NAME(encode("{\"xdm:name\":\"\"}")),
+        INVALID_ITEM_COUNT(
+                encode(
+                        "{\"activityId\":\"xcore:offer-activity:1111111111111111\","
+                                + "\"placementId\":\"xcore:offer-placement:1111111111111111\","
+                                + "\"itemCount\":0}"));
+
+        final String name;
+
+        Shape(final String name) {
+            this.name = name;
+        }
+    }
+
+    @Param({
+        "MBOX",
+        "XDM_NAME",
+        "ACTIVITY_PLACEMENT",
+        "INVALID_EMPTY_NAME",
+        "INVALID_EMPTY_XDM_NAME",
+        "INVALID_ITEM_COUNT"
+    })
+    public Shape shape;
+
+    private DecisionScope scope;
+
+    @Setup
+    public void setup() {
+        scope = new DecisionScope(shape.name);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return scope.isValid();
+    }
+
+    @Benchmark
+    public DecisionScope createMboxScope() {
+        return new DecisionScope("benchmarkMbox");
+    }
+
+    @Benchmark
+    public DecisionScope createActivityPlacementScope() {
+        return new DecisionScope(
+                "xcore:offer-activity:1111111111111111",
+                "xcore:offer-placement:1111111111111111",
+                3);
+    }
+
+    @Benchmark
+    public boolean createAndValidateActivityPlacementScope() {
+        return new DecisionScope(
+                        "xcore:offer-activity:1111111111111111",
+                        "xcore:offer-placement:1111111111111111",
+                        3)
+                .isValid();
+    }
+
+    private static String encode(final String json) {
+        return OptimizeUtils.base64Encode(json);
+    }
+}
@@ -0,0 +1,304 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scripted stand-in for the Edge network, replying to the Edge personalization requests
+ * dispatched by {@link OptimizeExtension}.
+ *
+ * <p>Each request is answered, after a random latency, with one or more {@code
+ * personalization:decisions} chunks followed by the completion response, with an Edge error
+ * response followed by the completion response, or with a callback timeout. The proposition ids
+ * embed the update request event id, so that responses containing propositions from another
+ * request can be detected, and the scripted outcomes are recorded for each update request.
+ */
+final class EdgeStandIn {
+    private static final String SELF_TAG = "EdgeStandIn";
+
+    private final FakeEventHub eventHub;
+    private final Script script;
+    private final Random random;
+    private final PersonalizationPayloadGenerator payloadGenerator;
+    private final ScheduledExecutorService scheduler =
+            Executors.newScheduledThreadPool(
+                    2, runnable -> new Thread(runnable, "EdgeStandIn"));
+    private final Map<String, List<Outcome>> outcomes = new ConcurrentHashMap<>();
+
+    /** Scripted outcome of an Edge personalization request. */
+    enum Outcome {
+        DECISIONS,
+        ERROR,
+        TIMEOUT
+    }
+
+    /** Edge stand-in behavior, with the latency range and the error and timeout rates. */
+    static final class Script {
+        final long minLatencyMillis;
+        final long maxLatencyMillis;
+        final int chunkCount;
+        final double errorRate;
+        final double timeoutRate;
+        final long seed;
+        final PropositionPayloads.Size payloadSize;
+        final PersonalizationPayloadGenerator.Profile payloadProfile;
+
+        Script(
+                final long minLatencyMillis,
+                final long maxLatencyMillis,
+                final int chunkCount,
+                final double errorRate,
+                final double timeoutRate,
+                final long seed,
+                final PropositionPayloads.Size payloadSize,
+                final PersonalizationPayloadGenerator.Profile payloadProfile) {
+            this.minLatencyMillis = minLatencyMillis;
+            this.maxLatencyMillis = Math.max(minLatencyMillis, maxLatencyMillis);
+            this.chunkCount = Math.max(1, chunkCount);
+            this.errorRate = errorRate;
+            this.timeoutRate = timeoutRate;
+            this.seed = seed;
+            this.payloadSize = payloadSize;
+            this.payloadProfile = payloadProfile;
+        }
+    }
+
+    EdgeStandIn(final FakeEventHub eventHub, final Script script) {
+        this.eventHub = eventHub;
+        this.script = script;
+        this.random = new Random(script.seed);
+        this.payloadGenerator =
+                script.payloadProfile != null
+                        ? new PersonalizationPayloadGenerator(script.seed, script.payloadProfile)
+                        : null;
+    }
+
+    /**
+     * Handles the given Edge personalization {@code edgeEvent} according to the script.
+     *
+     * @param edgeEvent Edge personalization request {@link Event}.
+     * @param timeoutMillis {@code long} containing the response timeout in milliseconds.
+     * @param callback {@code AdobeCallbackWithError<Event>} invoked with the completion response.
+     */
+    void handleRequest(
+            final Event edgeEvent,
+            final long timeoutMillis,
+            final AdobeCallbackWithError<Event> callback) {
+        final String edgeEventId = edgeEvent.getUniqueIdentifier();
+        final double outcome;
+        final long latencyMillis;
+        synchronized (random) {
+            outcome = random.nextDouble();
+            latencyMillis =
+                    script.minLatencyMillis
+                            + (long)
+                                    (random.nextDouble()
+                                            * (script.maxLatencyMillis - script.minLatencyMillis));
+        }
+
+        final Outcome result;
+        if (outcome < script.timeoutRate || latencyMillis >= timeoutMillis) {
+            result = Outcome.TIMEOUT;
+        } else if (outcome < script.timeoutRate + script.errorRate) {
+            result = Outcome.ERROR;
+        } else {
+            result = Outcome.DECISIONS;
+        }
+        recordOutcome(edgeEvent.getParentID(), result);
+
+        if (outcome < script.timeoutRate) {
+            scheduler.schedule(
+                    () -> callback.fail(AdobeError.CALLBACK_TIMEOUT),
+                    timeoutMillis,
+                    TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        // like Mobile Core, the completion callback is invoked on the hub thread, after the
+        // personalization:decisions events dispatched before the completion response.
+        eventHub.registerResponseCallback(edgeEventId, callback::call);
+        scheduler.schedule(
+                () -> {
+                    // the response arrived after the timeout, the callback already failed.
+                    if (latencyMillis >= timeoutMillis) {
+                        final AdobeCallback<Event> pending =
+                                eventHub.unregisterResponseCallback(edgeEventId);
+                        if (pending != null) {
+                            callback.fail(AdobeError.CALLBACK_TIMEOUT);
+                        }
+                        return;
+                    }
+
+                    if (result == Outcome.ERROR) {
+                        eventHub.dispatch(createErrorResponseEvent(edgeEventId));
+                    } else {
+                        for (final Event chunk : createDecisionsEvents(edgeEvent)) {
+                            eventHub.dispatch(chunk);
+                        }
+                    }
+                    eventHub.dispatch(createCompletionEvent(edgeEvent));
+                },
+                latencyMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the scripted outcomes of the Edge requests sent for the given update request, one per
+     * chunk, in the order the requests were sent.
+     *
+     * @param updateRequestEventId {@code String} containing the update request event id.
+     * @return {@code List<Outcome>} containing the outcomes, empty if no Edge request was sent.
+     */
+    List<Outcome> getOutcomes(final String updateRequestEventId) {
+        final List<Outcome> requestOutcomes = outcomes.get(updateRequestEventId);
+        if (requestOutcomes == null) {
+            return Collections.emptyList();
+        }
+        synchronized (requestOutcomes) {
+            return new ArrayList<>(requestOutcomes);
+        }
+    }
+
+    /** Stops the scheduler replying to the Edge requests. */
+    void shutdown() throws InterruptedException {
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Builds the proposition id for the given update request and scope.
+     *
+     * @param updateRequestEventId {@code String} containing the update request event id.
+     * @param scope {@code String} containing the decision scope name.
+     * @return {@code String} containing the proposition id.
+     */
+    static String propositionId(final String updateRequestEventId, final String scope) {
+        return "AT:" + updateRequestEventId + ":" + scope;
+    }
+
+    private void recordOutcome(final String updateRequestEventId, final Outcome outcome) {
+        if (updateRequestEventId == null) {
+            return;
+        }
+        List<Outcome> requestOutcomes = outcomes.get(updateRequestEventId);
+        if (requestOutcomes == null) {
+            final List<Outcome> newOutcomes = Collections.synchronizedList(new ArrayList<>());
+            final List<Outcome> existing = outcomes.putIfAbsent(updateRequestEventId, newOutcomes);
+            requestOutcomes = existing != null ? existing : newOutcomes;
+        }
+        requestOutcomes.add(outcome);
+    }
+
+    private Map<String, Object> createProposition(final String scope) {
+        if (payloadGenerator == null) {
+            return PropositionPayloads.proposition(
+                    scope, script.payloadSize, PropositionPayloads.Content.STRING);
+        }
+        synchronized (payloadGenerator) {
+            return payloadGenerator.proposition(scope);
+        }
+    }
+
+    private List<Event> createDecisionsEvents(final Event edgeEvent) {
+        final List<String> scopes = getRequestedScopes(edgeEvent);
+        final int chunkCount = Math.min(script.chunkCount, Math.max(1, scopes.size()));
+        final List<List<Map<String, Object>>> chunkPayloads = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            chunkPayloads.add(new ArrayList<Map<String, Object>>());
+        }
+
+        for (int i = 0; i < scopes.size(); i++) {
+            final Map<String, Object> proposition = createProposition(scopes.get(i));
+            proposition.put("id", propositionId(edgeEvent.getParentID(), scopes.get(i)));
+            chunkPayloads.get(i % chunkCount).add(proposition);
+        }
+
+        final List<Event> events = new ArrayList<>();
+        for (final List<Map<String, Object>> payload : chunkPayloads) {
+            final Map<String, Object> eventData = new HashMap<>();
+            eventData.put(OptimizeConstants.Edge.PAYLOAD, payload);
+            eventData.put(
+                    OptimizeConstants.Edge.EVENT_HANDLE,
+                    OptimizeConstants.Edge.EVENT_HANDLE_TYPE_PERSONALIZATION);
+            eventData.put(
+                    OptimizeConstants.EventDataKeys.REQUEST_EVENT_ID,
+                    edgeEvent.getUniqueIdentifier());
+            events.add(
+                    new Event.Builder(
+                                    "AEP Response Event Handle",
+                                    OptimizeConstants.EventType.EDGE,
+                                    OptimizeConstants.EventSource.EDGE_PERSONALIZATION_DECISIONS)
+                            .setEventData(eventData)
+                            .build());
+        }
+        return events;
+    }
+
+    private static Event createErrorResponseEvent(final String edgeEventId) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(OptimizeConstants.EventDataKeys.REQUEST_EVENT_ID, edgeEventId);
+        eventData.put(
+                OptimizeConstants.Edge.ErrorKeys.TYPE,
+                "https://ns.adobe.com/aep/errors/EXEG-0201-500");
+        eventData.put(OptimizeConstants.Edge.ErrorKeys.STATUS, 500);
+        eventData.put(OptimizeConstants.Edge.ErrorKeys.TITLE, "Internal Server Error");
+        eventData.put(OptimizeConstants.Edge.ErrorKeys.DETAIL, "Scripted error from " + SELF_TAG);
+        return new Event.Builder(
+                        "AEP Error Response",
+                        OptimizeConstants.EventType.EDGE,
+                        OptimizeConstants.EventSource.ERROR_RESPONSE_CONTENT)
+                .setEventData(eventData)
+                .build();
+    }
+
+    private static Event createCompletionEvent(final Event edgeEvent) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_EVENT_ID, edgeEvent.getUniqueIdentifier());
+        return new Event.Builder(
+                        "AEP Response Complete",
+                        OptimizeConstants.EventType.EDGE,
+                        "com.adobe.eventSource.contentComplete")
+                .setEventData(eventData)
+                .inResponseToEvent(edgeEvent)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getRequestedScopes(final Event edgeEvent) {
+        try {
+            final Map<String, Object> query =
+                    (Map<String, Object>)
+                            edgeEvent.getEventData().get(OptimizeConstants.JsonKeys.QUERY);
+            final Map<String, Object> personalization =
+                    (Map<String, Object>)
+                            query.get(OptimizeConstants.JsonKeys.QUERY_PERSONALIZATION);
+            return (List<String>) personalization.get(OptimizeConstants.JsonKeys.DECISION_SCOPES);
+        } catch (final ClassCastException | NullPointerException e) {
+            return Collections.emptyList();
+        }
+    }
+}
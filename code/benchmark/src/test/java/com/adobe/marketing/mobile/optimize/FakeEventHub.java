@@ -0,0 +1,155 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.AdobeCallback;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.ExtensionEventListener;
+import com.adobe.marketing.mobile.SharedStateResolution;
+import com.adobe.marketing.mobile.SharedStateResult;
+import com.adobe.marketing.mobile.SharedStateStatus;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * In-process stand-in for the Mobile Core event hub, backing a fake {@link ExtensionApi}.
+ *
+ * <p>Like the Mobile Core event hub, events are routed on a single hub thread, where the response
+ * callbacks are invoked, and the extension listeners are invoked serially on a separate extension
+ * thread. This keeps the same threading model as on a device, so the harness exercises the same
+ * interleavings between the event listeners and the Edge response callbacks.
+ */
+final class FakeEventHub {
+    private final ExtensionApi extensionApi;
+    private final Map<String, ExtensionEventListener> listeners = new ConcurrentHashMap<>();
+    private final Map<String, AdobeCallback<Event>> responseCallbacks = new ConcurrentHashMap<>();
+    private final ExecutorService hubExecutor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "FakeEventHub"));
+    private final ExecutorService extensionExecutor =
+            Executors.newSingleThreadExecutor(
+                    runnable -> new Thread(runnable, "FakeEventHub-Optimize"));
+
+    FakeEventHub(final Map<String, Object> configuration) {
+        // stub only mocks don't record invocations, so memory doesn't grow under load.
+        extensionApi = Mockito.mock(ExtensionApi.class, Mockito.withSettings().stubOnly());
+        Mockito.doAnswer(
+                        invocation -> {
+                            listeners.put(
+                                    key(invocation.getArgument(0), invocation.getArgument(1)),
+                                    invocation.getArgument(2));
+                            return null;
+                        })
+                .when(extensionApi)
+                .registerEventListener(
+                        ArgumentMatchers.anyString(),
+                        ArgumentMatchers.anyString(),
+                        ArgumentMatchers.any(ExtensionEventListener.class));
+        Mockito.doAnswer(
+                        invocation -> {
+                            dispatch(invocation.getArgument(0));
+                            return null;
+                        })
+                .when(extensionApi)
+                .dispatch(ArgumentMatchers.any(Event.class));
+        Mockito.when(
+                        extensionApi.getSharedState(
+                                ArgumentMatchers.eq(OptimizeConstants.Configuration.EXTENSION_NAME),
+                                ArgumentMatchers.any(),
+                                ArgumentMatchers.anyBoolean(),
+                                ArgumentMatchers.any(SharedStateResolution.class)))
+                .thenReturn(new SharedStateResult(SharedStateStatus.SET, configuration));
+    }
+
+    /**
+     * Gets the fake {@link ExtensionApi} to be used by the extension under test.
+     *
+     * @return {@link ExtensionApi} backed by this event hub.
+     */
+    ExtensionApi getApi() {
+        return extensionApi;
+    }
+
+    /**
+     * Dispatches the given {@code event} through the hub thread.
+     *
+     * @param event {@link Event} to be dispatched.
+     */
+    void dispatch(final Event event) {
+        hubExecutor.execute(() -> deliver(event));
+    }
+
+    /**
+     * Dispatches the given {@code event} and invokes the {@code callback} with its response event.
+     *
+     * @param event {@link Event} to be dispatched.
+     * @param callback {@code AdobeCallback<Event>} invoked on the hub thread with the response.
+     */
+    void dispatch(final Event event, final AdobeCallback<Event> callback) {
+        registerResponseCallback(event.getUniqueIdentifier(), callback);
+        dispatch(event);
+    }
+
+    /**
+     * Registers the {@code callback} invoked with the response event to the given event.
+     *
+     * @param eventId {@code String} containing the unique identifier of the request event.
+     * @param callback {@code AdobeCallback<Event>} invoked on the hub thread with the response.
+     */
+    void registerResponseCallback(final String eventId, final AdobeCallback<Event> callback) {
+        responseCallbacks.put(eventId, callback);
+    }
+
+    /**
+     * Unregisters the response callback for the given event.
+     *
+     * @param eventId {@code String} containing the unique identifier of the request event.
+     * @return {@code AdobeCallback<Event>} which was registered, or null if already invoked.
+     */
+    AdobeCallback<Event> unregisterResponseCallback(final String eventId) {
+        return responseCallbacks.remove(eventId);
+    }
+
+    /** Stops the hub and extension threads. */
+    void shutdown() throws InterruptedException {
+        hubExecutor.shutdown();
+        hubExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        extensionExecutor.shutdown();
+        extensionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void deliver(final Event event) {
+        final String responseId = event.getResponseID();
+        if (responseId != null) {
+            final AdobeCallback<Event> callback = responseCallbacks.remove(responseId);
+            if (callback != null) {
+                callback.call(event);
+            }
+        }
+
+        final ExtensionEventListener listener =
+                listeners.get(key(event.getType(), event.getSource()));
+        if (listener != null) {
+            extensionExecutor.execute(() -> listener.hear(event));
+        }
+    }
+
+    private static String key(final String type, final String source) {
+        return type.toLowerCase(Locale.ROOT) + "|" + source.toLowerCase(Locale.ROOT);
+    }
+}
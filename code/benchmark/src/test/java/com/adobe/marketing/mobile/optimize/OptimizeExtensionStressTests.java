@@ -0,0 +1,521 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.Event;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Concurrency stress tests for the propositions cache and the in-progress maps of {@link
+ * OptimizeExtension}, run against a {@link FakeEventHub} and a scripted {@link EdgeStandIn}.
+ *
+ * <p>Each round starts a set of actors together, sending update, get, clear and cancel requests
+ * while the Edge stand-in replies with chunks, errors and timeouts. Once the actors are done, the
+ * round is checked at quiescence: no update may be lost, no response may contain propositions for
+ * another request, the in-progress maps must be empty and the events dispatcher must not be left
+ * paused.
+ *
+ * <p>The number of rounds can be increased with the {@code optimize.stress.rounds} system property.
+ */
+@SuppressWarnings("unchecked")
+public class OptimizeExtensionStressTests {
+    private static final int ROUNDS = Integer.getInteger("optimize.stress.rounds", 10);
+    private static final int UPDATE_ACTORS = 4;
+    private static final int GET_ACTORS = 2;
+    private static final int SCOPES_PER_ACTOR = 4;
+    private static final int REQUESTS_PER_ACTOR = 20;
+    private static final long TIMEOUT_MILLIS = 100;
+    private static final long RESPONSE_WAIT_MILLIS = 5000;
+    private static final long QUIESCENCE_WAIT_MILLIS = 5000;
+
+    private FakeEventHub eventHub;
+    private EdgeStandIn edge;
+    private OptimizeExtension extension;
+    private int probeCount;
+
+    @Before
+    public void setup() {
+        OptimizeMetrics.reset();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        if (edge != null) {
+            edge.shutdown();
+        }
+        if (eventHub != null) {
+            eventHub.shutdown();
+        }
+        OptimizeMetrics.reset();
+    }
+
+    @Test
+    public void testConcurrentUpdatesAndGets_noLostUpdatesOrBleed() throws Exception {
+        // setup
+        start(1, 0.1, 0.05, SCOPES_PER_ACTOR);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            // expected cached proposition id for each scope, updated by the actor owning the scope
+            final Map<String, String> expectedIds = new ConcurrentHashMap<>();
+            final List<String> roundScopes = roundScopes(round);
+            final List<Actor> actors = new ArrayList<>();
+            for (int i = 0; i < UPDATE_ACTORS; i++) {
+                final List<String> scopes = actorScopes(round, i);
+                actors.add(random -> updateAndRecordExpectedIds(scopes, random, expectedIds));
+            }
+            for (int i = 0; i < GET_ACTORS; i++) {
+                actors.add(random -> get(roundScopes, random));
+            }
+
+            // test
+            runActors(actors, round);
+
+            // verify
+            assertQuiescent();
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions =
+                    extension.getCachedPropositions();
+            for (int i = 0; i < UPDATE_ACTORS; i++) {
+                for (final String scope : actorScopes(round, i)) {
+                    final OptimizeProposition cached =
+                            cachedPropositions.get(new DecisionScope(scope));
+                    Assert.assertEquals(
+                            "Lost update for scope " + scope,
+                            expectedIds.get(scope),
+                            cached != null ? cached.getId() : null);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClearInterleavedWithChunkedUpdates_noBleedOrStuckDispatcher()
+            throws Exception {
+        // setup
+        start(2, 0.1, 0.05, 2);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final List<String> roundScopes = roundScopes(round);
+            final List<Actor> actors = new ArrayList<>();
+            for (int i = 0; i < UPDATE_ACTORS; i++) {
+                final List<String> scopes = actorScopes(round, i);
+                actors.add(random -> update(scopes, random));
+            }
+            for (int i = 0; i < GET_ACTORS; i++) {
+                actors.add(random -> get(roundScopes, random));
+            }
+            actors.add(
+                    random -> {
+                        for (int i = 0; i < REQUESTS_PER_ACTOR; i++) {
+                            eventHub.dispatch(clearEvent());
+                            Thread.sleep(random.nextInt(5));
+                        }
+                    });
+
+            // test
+            runActors(actors, round);
+
+            // verify
+            assertQuiescent();
+            eventHub.dispatch(clearEvent());
+            probeDispatcher();
+            Assert.assertTrue(extension.getCachedPropositions().isEmpty());
+        }
+    }
+
+    @Test
+    public void testCancelInterleavedWithChunkedUpdates_noBleedOrStuckDispatcher()
+            throws Exception {
+        // setup
+        start(2, 0.05, 0.05, 2);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final List<String> roundScopes = roundScopes(round);
+            final List<Actor> actors = new ArrayList<>();
+            for (int i = 0; i < UPDATE_ACTORS; i++) {
+                final List<String> scopes = actorScopes(round, i);
+                actors.add(random -> updateAndCancel(scopes, random));
+            }
+            for (int i = 0; i < GET_ACTORS; i++) {
+                actors.add(random -> get(roundScopes, random));
+            }
+
+            // test
+            runActors(actors, round);
+
+            // verify
+            assertQuiescent();
+            verifyCachedPropositions(roundScopes);
+        }
+    }
+
+    /** Actor sending requests in a stress round, with its own seeded {@link Random}. */
+    private interface Actor {
+        void run(Random random) throws Exception;
+    }
+
+    private void start(
+            final int chunkCount,
+            final double errorRate,
+            final double timeoutRate,
+            final int scopesChunkSize) {
+        final Map<String, Object> configuration = new HashMap<>();
+        configuration.put("edge.configId", "stressTests");
+        configuration.put("optimize.scopesChunkSize", scopesChunkSize);
+        eventHub = new FakeEventHub(configuration);
+        edge =
+                new EdgeStandIn(
+                        eventHub,
+                        new EdgeStandIn.Script(
+                                0,
+                                5,
+                                chunkCount,
+                                errorRate,
+                                timeoutRate,
+                                42,
+                                PropositionPayloads.Size.SMALL,
+                                null));
+        extension =
+                new OptimizeExtension(eventHub.getApi()) {
+                    @Override
+                    void dispatchEventWithResponseCallback(
+                            @NonNull final Event event,
+                            final long timeoutMillis,
+                            @NonNull final AdobeCallbackWithError<Event> callback) {
+                        edge.handleRequest(event, timeoutMillis, callback);
+                    }
+                };
+        extension.onRegistered();
+    }
+
+    private void runActors(final List<Actor> actors, final int round) throws Exception {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < actors.size(); i++) {
+            final Actor actor = actors.get(i);
+            final Random random = new Random(31L * round + i);
+            final Thread thread =
+                    new Thread(
+                            () -> {
+                                try {
+                                    startLatch.await();
+                                    actor.run(random);
+                                } catch (final Throwable t) {
+                                    failure.compareAndSet(null, t);
+                                }
+                            },
+                            "StressActor-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+
+        startLatch.countDown();
+        for (final Thread thread : threads) {
+            thread.join(TimeUnit.MINUTES.toMillis(1));
+            Assert.assertFalse("Stress actor did not finish.", thread.isAlive());
+        }
+        if (failure.get() instanceof AssertionError) {
+            throw (AssertionError) failure.get();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Stress actor failed.", failure.get());
+        }
+    }
+
+    private void updateAndRecordExpectedIds(
+            final List<String> scopes, final Random random, final Map<String, String> expectedIds)
+            throws Exception {
+        for (int i = 0; i < REQUESTS_PER_ACTOR; i++) {
+            final List<String> requestedScopes = randomSubset(scopes, random);
+            final Event event = updateEvent(requestedScopes);
+            final Event response = sendAndAwait(event, RESPONSE_WAIT_MILLIS);
+            Assert.assertNotNull("Missing update response.", response);
+            verifyUpdateResponse(event, response, requestedScopes);
+
+            // a single Edge request is sent, scopes are only left unchanged on timeout.
+            final List<EdgeStandIn.Outcome> outcomes =
+                    edge.getOutcomes(event.getUniqueIdentifier());
+            Assert.assertEquals(1, outcomes.size());
+            for (final String scope : requestedScopes) {
+                switch (outcomes.get(0)) {
+                    case DECISIONS:
+                        expectedIds.put(
+                                scope,
+                                EdgeStandIn.propositionId(event.getUniqueIdentifier(), scope));
+                        break;
+                    case ERROR:
+                        expectedIds.remove(scope);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    private void update(final List<String> scopes, final Random random) throws Exception {
+        for (int i = 0; i < REQUESTS_PER_ACTOR; i++) {
+            final List<String> requestedScopes = randomSubset(scopes, random);
+            final Event event = updateEvent(requestedScopes);
+            final Event response = sendAndAwait(event, RESPONSE_WAIT_MILLIS);
+            Assert.assertNotNull("Missing update response.", response);
+            verifyUpdateResponse(event, response, requestedScopes);
+        }
+    }
+
+    private void updateAndCancel(final List<String> scopes, final Random random)
+            throws Exception {
+        for (int i = 0; i < REQUESTS_PER_ACTOR; i++) {
+            final List<String> requestedScopes = randomSubset(scopes, random);
+            final Event event = updateEvent(requestedScopes);
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicReference<Event> response = new AtomicReference<>();
+            eventHub.dispatch(
+                    event,
+                    responseEvent -> {
+                        response.set(responseEvent);
+                        latch.countDown();
+                    });
+
+            final boolean cancel = random.nextBoolean();
+            if (cancel) {
+                Thread.sleep(random.nextInt(4));
+                eventHub.dispatch(cancelEvent(event.getUniqueIdentifier()));
+            }
+
+            // a cancelled request is only answered if it completed before the cancellation.
+            final boolean responded =
+                    latch.await(
+                            cancel ? TIMEOUT_MILLIS * 2 : RESPONSE_WAIT_MILLIS,
+                            TimeUnit.MILLISECONDS);
+            if (!responded) {
+                eventHub.unregisterResponseCallback(event.getUniqueIdentifier());
+                Assert.assertTrue("Missing update response.", cancel);
+                continue;
+            }
+            verifyUpdateResponse(event, response.get(), requestedScopes);
+        }
+    }
+
+    private void get(final List<String> scopes, final Random random) throws Exception {
+        for (int i = 0; i < REQUESTS_PER_ACTOR; i++) {
+            final List<String> requestedScopes = randomSubset(scopes, random);
+            final Event response = sendAndAwait(getEvent(requestedScopes), RESPONSE_WAIT_MILLIS);
+            Assert.assertNotNull("Missing get response.", response);
+            for (final Map<String, Object> proposition : getPropositions(response)) {
+                final String scope = (String) proposition.get("scope");
+                Assert.assertTrue(
+                        "Get response contains unrequested scope " + scope,
+                        requestedScopes.contains(scope));
+                Assert.assertTrue(
+                        "Get response contains another scope's proposition for " + scope,
+                        ((String) proposition.get("id")).endsWith(":" + scope));
+            }
+        }
+    }
+
+    private static void verifyUpdateResponse(
+            final Event event, final Event response, final List<String> requestedScopes) {
+        // propositions can be missing if the completion races the last chunk, as on device, but
+        // they must all be for this request.
+        for (final Map<String, Object> proposition : getPropositions(response)) {
+            final String scope = (String) proposition.get("scope");
+            Assert.assertTrue(
+                    "Update response contains unrequested scope " + scope,
+                    requestedScopes.contains(scope));
+            Assert.assertEquals(
+                    "Update response contains another request's proposition",
+                    EdgeStandIn.propositionId(event.getUniqueIdentifier(), scope),
+                    proposition.get("id"));
+        }
+    }
+
+    private void verifyCachedPropositions(final List<String> scopes) {
+        for (final Map.Entry<DecisionScope, OptimizeProposition> entry :
+                extension.getCachedPropositions().entrySet()) {
+            final String scope = entry.getKey().getName();
+            if (scopes.contains(scope)) {
+                Assert.assertTrue(
+                        "Cache contains another scope's proposition for " + scope,
+                        entry.getValue().getId().endsWith(":" + scope));
+            }
+        }
+    }
+
+    /**
+     * Waits for the in-progress update requests to be completed, then verifies that the
+     * in-progress maps are empty and that the events dispatcher is not left paused.
+     */
+    private void assertQuiescent() throws Exception {
+        final long deadline = System.currentTimeMillis() + QUIESCENCE_WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline
+                && !(extension.getUpdateRequestEventIdsInProgress().isEmpty()
+                        && extension.getPropositionsInProgress().isEmpty())) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(
+                "Update requests left in progress.",
+                extension.getUpdateRequestEventIdsInProgress().isEmpty());
+        Assert.assertTrue(
+                "Propositions left in progress.", extension.getPropositionsInProgress().isEmpty());
+        probeDispatcher();
+    }
+
+    /**
+     * Sends a get propositions request for a scope which is not cached, so that it goes through
+     * the events dispatcher, and verifies that it is answered and the events queue is drained.
+     */
+    private void probeDispatcher() throws Exception {
+        final List<String> probeScopes = new ArrayList<>();
+        probeScopes.add("stressProbe-" + probeCount++);
+        final Event response = sendAndAwait(getEvent(probeScopes), RESPONSE_WAIT_MILLIS);
+        Assert.assertNotNull("Events dispatcher is stuck paused.", response);
+
+        final long deadline = System.currentTimeMillis() + QUIESCENCE_WAIT_MILLIS;
+        while (System.currentTimeMillis() < deadline && getEventsQueueDepth() != 0) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(0, getEventsQueueDepth());
+    }
+
+    private Event sendAndAwait(final Event event, final long waitMillis) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Event> response = new AtomicReference<>();
+        eventHub.dispatch(
+                event,
+                responseEvent -> {
+                    response.set(responseEvent);
+                    latch.countDown();
+                });
+        if (!latch.await(waitMillis, TimeUnit.MILLISECONDS)) {
+            eventHub.unregisterResponseCallback(event.getUniqueIdentifier());
+            return null;
+        }
+        return response.get();
+    }
+
+    private static Event updateEvent(final List<String> scopes) {
+        final Map<String, Object> eventData =
+                requestEventData(OptimizeConstants.EventDataValues.REQUEST_TYPE_UPDATE, scopes);
+        eventData.put(OptimizeConstants.EventDataKeys.TIMEOUT, TIMEOUT_MILLIS);
+        return new Event.Builder(
+                        OptimizeConstants.EventNames.UPDATE_PROPOSITIONS_REQUEST,
+                        OptimizeConstants.EventType.OPTIMIZE,
+                        OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(eventData)
+                .build();
+    }
+
+    private static Event getEvent(final List<String> scopes) {
+        return new Event.Builder(
+                        OptimizeConstants.EventNames.GET_PROPOSITIONS_REQUEST,
+                        OptimizeConstants.EventType.OPTIMIZE,
+                        OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(
+                        requestEventData(
+                                OptimizeConstants.EventDataValues.REQUEST_TYPE_GET, scopes))
+                .build();
+    }
+
+    private static Map<String, Object> requestEventData(
+            final String requestType, final List<String> scopes) {
+        final List<Map<String, Object>> decisionScopes = new ArrayList<>();
+        for (final String scope : scopes) {
+            decisionScopes.add(new DecisionScope(scope).toEventData());
+        }
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(OptimizeConstants.EventDataKeys.REQUEST_TYPE, requestType);
+        eventData.put(OptimizeConstants.EventDataKeys.DECISION_SCOPES, decisionScopes);
+        return eventData;
+    }
+
+    private static Event cancelEvent(final String updateRequestEventId) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_CANCEL_UPDATE);
+        eventData.put(OptimizeConstants.EventDataKeys.CANCEL_UPDATE_EVENT_ID, updateRequestEventId);
+        return new Event.Builder(
+                        OptimizeConstants.EventNames.CANCEL_UPDATE_PROPOSITIONS_REQUEST,
+                        OptimizeConstants.EventType.OPTIMIZE,
+                        OptimizeConstants.EventSource.REQUEST_CONTENT)
+                .setEventData(eventData)
+                .build();
+    }
+
+    private static Event clearEvent() {
+        return new Event.Builder(
+                        OptimizeConstants.EventNames.CLEAR_PROPOSITIONS_REQUEST,
+                        OptimizeConstants.EventType.OPTIMIZE,
+                        OptimizeConstants.EventSource.REQUEST_RESET)
+                .build();
+    }
+
+    private static List<String> actorScopes(final int round, final int actor) {
+        final List<String> scopes = new ArrayList<>();
+        for (int i = 0; i < SCOPES_PER_ACTOR; i++) {
+            scopes.add("stressMbox-" + round + "-" + actor + "-" + i);
+        }
+        return scopes;
+    }
+
+    private static List<String> roundScopes(final int round) {
+        final List<String> scopes = new ArrayList<>();
+        for (int i = 0; i < UPDATE_ACTORS; i++) {
+            scopes.addAll(actorScopes(round, i));
+        }
+        return scopes;
+    }
+
+    private static List<String> randomSubset(final List<String> scopes, final Random random) {
+        final List<String> subset = new ArrayList<>();
+        for (final String scope : scopes) {
+            if (random.nextBoolean()) {
+                subset.add(scope);
+            }
+        }
+        if (subset.isEmpty()) {
+            subset.add(scopes.get(random.nextInt(scopes.size())));
+        }
+        return subset;
+    }
+
+    private static List<Map<String, Object>> getPropositions(final Event response) {
+        final Object propositions =
+                response.getEventData().get(OptimizeConstants.EventDataKeys.PROPOSITIONS);
+        return propositions instanceof List
+                ? (List<Map<String, Object>>) propositions
+                : new ArrayList<Map<String, Object>>();
+    }
+
+    private static long getEventsQueueDepth() {
+        final Map<String, Object> gauges =
+                (Map<String, Object>)
+                        OptimizeMetrics.snapshot().get(OptimizeConstants.Metrics.GAUGES);
+        final Object depth = gauges.get(OptimizeConstants.Metrics.GAUGE_EVENTS_QUEUE_DEPTH);
+        return depth instanceof Long ? (Long) depth : 0;
+    }
+}
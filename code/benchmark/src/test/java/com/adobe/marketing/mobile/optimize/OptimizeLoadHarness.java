@@ -0,0 +1,388 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.Event;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.json.JSONObject;
+
+/**
+ * End-to-end load harness driving {@link OptimizeExtension} on the JVM, against a {@link
+ * FakeEventHub} and a scripted {@link EdgeStandIn}.
+ *
+ * <p>Client threads send update and get propositions requests in a closed loop, the same way the
+ * public APIs do, and verify each response: update responses must contain exactly the requested
+ * scopes with the propositions returned for that request, unless an error is reported, and get
+ * responses must only contain requested scopes. The report contains the throughput, the latency
+ * percentiles and the number of incorrect or missing responses.
+ *
+ * <p>Usage: {@code ./gradlew -p code/benchmark loadHarness -PloadHarnessArgs="requests=20000
+ * concurrency=32"}, see {@link Config} for the supported arguments.
+ */
+public final class OptimizeLoadHarness {
+    private static final long RESPONSE_GRACE_MILLIS = 5000;
+
+    private final Config config;
+    private final OptimizeMetrics.LatencyHistogram updateLatency =
+            new OptimizeMetrics.LatencyHistogram();
+    private final OptimizeMetrics.LatencyHistogram getLatency =
+            new OptimizeMetrics.LatencyHistogram();
+    private final AtomicLong updateRequests = new AtomicLong();
+    private final AtomicLong getRequests = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong edgeErrors = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong missingResponses = new AtomicLong();
+    private final AtomicLong incompleteResponses = new AtomicLong();
+    private final AtomicLong bleedResponses = new AtomicLong();
+
+    /** Load harness configuration, parsed from {@code key=value} arguments. */
+    static final class Config {
+        int requests = 10000;
+        int concurrency = 16;
+        int scopes = 200;
+        int scopesPerRequest = 4;
+        double getRatio = 0.5;
+        long minLatencyMillis = 5;
+        long maxLatencyMillis = 50;
+        int chunks = 1;
+        double errorRate = 0.01;
+        double timeoutRate = 0.01;
+        long timeoutMillis = 500;
+        long seed = 42;
+        PropositionPayloads.Size payloadSize = PropositionPayloads.Size.SMALL;
+        PersonalizationPayloadGenerator.Profile payloadProfile;
+        String output;
+
+        static Config fromArgs(final String[] args) {
+            final Config config = new Config();
+            for (final String arg : args) {
+                for (final String token : arg.trim().split("\\s+")) {
+                    final int separator = token.indexOf('=');
+                    if (separator <= 0) {
+                        continue;
+                    }
+                    config.set(token.substring(0, separator), token.substring(separator + 1));
+                }
+            }
+            return config;
+        }
+
+        private void set(final String key, final String value) {
+            switch (key) {
+                case "requests":
+                    requests = Integer.parseInt(value);
+                    break;
+                case "concurrency":
+                    concurrency = Integer.parseInt(value);
+                    break;
+                case "scopes":
+                    scopes = Integer.parseInt(value);
+                    break;
+                case "scopesPerRequest":
+                    scopesPerRequest = Integer.parseInt(value);
+                    break;
+                case "getRatio":
+                    getRatio = Double.parseDouble(value);
+                    break;
+                case "minLatencyMillis":
+                    minLatencyMillis = Long.parseLong(value);
+                    break;
+                case "maxLatencyMillis":
+                    maxLatencyMillis = Long.parseLong(value);
+                    break;
+                case "chunks":
+                    chunks = Integer.parseInt(value);
+                    break;
+                case "errorRate":
+                    errorRate = Double.parseDouble(value);
+                    break;
+                case "timeoutRate":
+                    timeoutRate = Double.parseDouble(value);
+                    break;
+                case "timeoutMillis":
+                    timeoutMillis = Long.parseLong(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "payloadSize":
+                    payloadSize = PropositionPayloads.Size.valueOf(value);
+                    break;
+                case "payloadProfile":
+                    payloadProfile = PersonalizationPayloadGenerator.Profile.valueOf(value);
+                    break;
+                case "output":
+                    output = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown load harness argument: " + key);
+            }
+        }
+    }
+
+    OptimizeLoadHarness(@NonNull final Config config) {
+        this.config = config;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Config config = Config.fromArgs(args);
+        final JSONObject report = new OptimizeLoadHarness(config).run();
+        System.out.println(report.toString(2));
+        if (config.output != null) {
+            final File outputFile = new File(config.output);
+            if (outputFile.getParentFile() != null) {
+                outputFile.getParentFile().mkdirs();
+            }
+            try (Writer writer =
+                    new OutputStreamWriter(
+                            new FileOutputStream(outputFile), StandardCharsets.UTF_8)) {
+                writer.write(report.toString(2));
+            }
+        }
+        // the extension dispatcher threads are not daemon threads.
+        System.exit(0);
+    }
+
+    /**
+     * Runs the configured load against a new {@link OptimizeExtension} instance.
+     *
+     * @return {@link JSONObject} containing the load report.
+     */
+    JSONObject run() throws Exception {
+        OptimizeMetrics.reset();
+        final Map<String, Object> configuration = new HashMap<>();
+        configuration.put("edge.configId", "loadHarness");
+        final FakeEventHub eventHub = new FakeEventHub(configuration);
+        final EdgeStandIn edge =
+                new EdgeStandIn(
+                        eventHub,
+                        new EdgeStandIn.Script(
+                                config.minLatencyMillis,
+                                config.maxLatencyMillis,
+                                config.chunks,
+                                config.errorRate,
+                                config.timeoutRate,
+                                config.seed,
+                                config.payloadSize,
+                                config.payloadProfile));
+        final OptimizeExtension extension =
+                new OptimizeExtension(eventHub.getApi()) {
+                    @Override
+                    void dispatchEventWithResponseCallback(
+                            @NonNull final Event event,
+                            final long timeoutMillis,
+                            @NonNull final AdobeCallbackWithError<Event> callback) {
+                        edge.handleRequest(event, timeoutMillis, callback);
+                    }
+                };
+        extension.onRegistered();
+
+        final AtomicInteger remainingRequests = new AtomicInteger(config.requests);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> clients = new ArrayList<>();
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < config.concurrency; i++) {
+            final Random random = new Random(config.seed + i);
+            final Thread client =
+                    new Thread(
+                            () -> {
+                                try {
+                                    while (remainingRequests.getAndDecrement() > 0) {
+                                        sendRequest(eventHub, random);
+                                    }
+                                } catch (final Throwable t) {
+                                    failure.compareAndSet(null, t);
+                                }
+                            },
+                            "LoadHarnessClient-" + i);
+            clients.add(client);
+            client.start();
+        }
+        for (final Thread client : clients) {
+            client.join();
+        }
+        final long durationNanos = System.nanoTime() - startNanos;
+
+        edge.shutdown();
+        eventHub.shutdown();
+        if (failure.get() != null) {
+            throw new IllegalStateException("Load harness client failed.", failure.get());
+        }
+        return report(durationNanos);
+    }
+
+    private void sendRequest(final FakeEventHub eventHub, final Random random)
+            throws InterruptedException {
+        final Set<String> scopes = new HashSet<>();
+        while (scopes.size() < Math.min(config.scopesPerRequest, config.scopes)) {
+            scopes.add("loadHarnessMbox-" + random.nextInt(config.scopes));
+        }
+        final List<Map<String, Object>> decisionScopes = new ArrayList<>();
+        for (final String scope : scopes) {
+            decisionScopes.add(new DecisionScope(scope).toEventData());
+        }
+
+        final boolean isGet = random.nextDouble() < config.getRatio;
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                isGet
+                        ? OptimizeConstants.EventDataValues.REQUEST_TYPE_GET
+                        : OptimizeConstants.EventDataValues.REQUEST_TYPE_UPDATE);
+        eventData.put(OptimizeConstants.EventDataKeys.DECISION_SCOPES, decisionScopes);
+        if (!isGet) {
+            eventData.put(OptimizeConstants.EventDataKeys.TIMEOUT, config.timeoutMillis);
+        }
+        final Event event =
+                new Event.Builder(
+                                isGet
+                                        ? OptimizeConstants.EventNames.GET_PROPOSITIONS_REQUEST
+                                        : OptimizeConstants.EventNames.UPDATE_PROPOSITIONS_REQUEST,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .build();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Event> response = new AtomicReference<>();
+        final long requestStartNanos = System.nanoTime();
+        eventHub.dispatch(
+                event,
+                responseEvent -> {
+                    response.set(responseEvent);
+                    latch.countDown();
+                });
+        final boolean responded =
+                latch.await(config.timeoutMillis + RESPONSE_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        final long latencyMicros =
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - requestStartNanos);
+
+        if (isGet) {
+            getRequests.incrementAndGet();
+        } else {
+            updateRequests.incrementAndGet();
+        }
+        if (!responded) {
+            eventHub.unregisterResponseCallback(event.getUniqueIdentifier());
+            missingResponses.incrementAndGet();
+            return;
+        }
+
+        if (isGet) {
+            getLatency.record(latencyMicros);
+            verifyGetResponse(response.get(), scopes);
+        } else {
+            updateLatency.record(latencyMicros);
+            verifyUpdateResponse(event, response.get(), scopes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyUpdateResponse(
+            final Event event, final Event responseEvent, final Set<String> scopes) {
+        final Map<String, Object> eventData = responseEvent.getEventData();
+        final Object error = eventData.get(OptimizeConstants.EventDataKeys.RESPONSE_ERROR);
+        if (error instanceof Map) {
+            final Object status = ((Map<String, Object>) error).get("status");
+            if (OptimizeConstants.ErrorData.Timeout.STATUS.equals(status)) {
+                timeouts.incrementAndGet();
+            } else {
+                edgeErrors.incrementAndGet();
+            }
+        }
+
+        final Set<String> returnedScopes = new HashSet<>();
+        boolean bleed = false;
+        for (final Map<String, Object> proposition : getPropositions(eventData)) {
+            final String scope = (String) proposition.get("scope");
+            final String id = (String) proposition.get("id");
+            returnedScopes.add(scope);
+            if (!scopes.contains(scope)
+                    || !EdgeStandIn.propositionId(event.getUniqueIdentifier(), scope).equals(id)) {
+                bleed = true;
+            }
+        }
+        if (bleed) {
+            bleedResponses.incrementAndGet();
+        }
+        if (error == null) {
+            if (returnedScopes.equals(scopes)) {
+                succeeded.incrementAndGet();
+            } else {
+                incompleteResponses.incrementAndGet();
+            }
+        }
+    }
+
+    private void verifyGetResponse(final Event responseEvent, final Set<String> scopes) {
+        boolean bleed = false;
+        for (final Map<String, Object> proposition :
+                getPropositions(responseEvent.getEventData())) {
+            if (!scopes.contains((String) proposition.get("scope"))) {
+                bleed = true;
+            }
+        }
+        if (bleed) {
+            bleedResponses.incrementAndGet();
+        } else {
+            succeeded.incrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getPropositions(final Map<String, Object> eventData) {
+        final Object propositions = eventData.get(OptimizeConstants.EventDataKeys.PROPOSITIONS);
+        return propositions instanceof List
+                ? (List<Map<String, Object>>) propositions
+                : new ArrayList<Map<String, Object>>();
+    }
+
+    private JSONObject report(final long durationNanos) throws Exception {
+        final long totalRequests = updateRequests.get() + getRequests.get();
+        final JSONObject report = new JSONObject();
+        report.put("requests", totalRequests);
+        report.put("updateRequests", updateRequests.get());
+        report.put("getRequests", getRequests.get());
+        report.put("succeeded", succeeded.get());
+        report.put("edgeErrors", edgeErrors.get());
+        report.put("timeouts", timeouts.get());
+        report.put("missingResponses", missingResponses.get());
+        report.put("incompleteResponses", incompleteResponses.get());
+        report.put("bleedResponses", bleedResponses.get());
+        report.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        final double durationSeconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        report.put("throughputPerSecond", totalRequests / Math.max(1e-9, durationSeconds));
+        report.put("updateLatency", new JSONObject(updateLatency.snapshot()));
+        report.put("getLatency", new JSONObject(getLatency.snapshot()));
+        report.put("metrics", new JSONObject(OptimizeMetrics.snapshot()));
+        return report;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptimizeLoadHarnessTests {
+
+    @Test
+    public void testRun_sequentialRequestsAreCorrect() throws Exception {
+        // setup
+        final OptimizeLoadHarness.Config config =
+                OptimizeLoadHarness.Config.fromArgs(
+                        new String[] {
+                            "requests=200 concurrency=1 scopes=20 minLatencyMillis=0"
+                                    + " maxLatencyMillis=2 errorRate=0 timeoutRate=0"
+                        });
+
+        // test
+        final JSONObject report = new OptimizeLoadHarness(config).run();
+
+        // verify
+        Assert.assertEquals(200, report.getLong("requests"));
+        Assert.assertEquals(0, report.getLong("missingResponses"));
+        Assert.assertEquals(0, report.getLong("bleedResponses"));
+        Assert.assertEquals(0, report.getLong("edgeErrors"));
+        Assert.assertEquals(0, report.getLong("timeouts"));
+        // the completion callback can race the last personalization:decisions event, as on device.
+        Assert.assertEquals(
+                200, report.getLong("succeeded") + report.getLong("incompleteResponses"));
+    }
+
+    @Test
+    public void testRun_concurrentRequestsWithErrorsAndTimeoutsAreAnswered() throws Exception {
+        // setup
+        final OptimizeLoadHarness.Config config =
+                OptimizeLoadHarness.Config.fromArgs(
+                        new String[] {
+                            "requests=500 concurrency=8 scopes=20 chunks=2 minLatencyMillis=0"
+                                    + " maxLatencyMillis=5 errorRate=0.1 timeoutRate=0.05"
+                                    + " timeoutMillis=50"
+                        });
+
+        // test
+        final JSONObject report = new OptimizeLoadHarness(config).run();
+
+        // verify
+        Assert.assertEquals(500, report.getLong("requests"));
+        Assert.assertEquals(0, report.getLong("missingResponses"));
+        Assert.assertTrue(report.getLong("edgeErrors") > 0);
+        Assert.assertTrue(report.getLong("timeouts") > 0);
+        Assert.assertTrue(report.getDouble("throughputPerSecond") > 0);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** JMH benchmarks for the {@link OptimizeProposition} model hot paths. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OptimizePropositionBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PropositionPayloads.Size size;
+
+    @Param({"STRING", "MAP"})
+    public PropositionPayloads.Content content;
+
+    private Map<String, Object> propositionData;
+    private OptimizeProposition proposition;
+    private OptimizeProposition equalProposition;
+
+    @Setup
+    public void setup() {
+        propositionData = PropositionPayloads.proposition("benchmarkMbox", size, content);
+        proposition = OptimizeProposition.fromEventData(propositionData);
+        equalProposition = OptimizeProposition.fromEventData(propositionData);
+    }
+
+    @Benchmark
+    public OptimizeProposition fromEventData() {
+        return OptimizeProposition.fromEventData(propositionData);
+    }
+
+    @Benchmark
+    public Map<String, Object> toEventData() {
+        return proposition.toEventData();
+    }
+
+    @Benchmark
+    public boolean equalsDistinctInstances() {
+        return proposition.equals(equalProposition);
+    }
+
+    @Benchmark
+    public int hashCodeProposition() {
+        return proposition.hashCode();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for {@link OptimizePropositionCodec}, against the event data and JSON forms of
+ * the same propositions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OptimizePropositionCodecBenchmark {
+
+    @Param({"TARGET", "MIXED", "HEAVY"})
+    public PersonalizationPayloadGenerator.Profile profile;
+
+    @Param({"100"})
+    public int count;
+
+    private List<OptimizeProposition> propositions;
+    private List<Map<String, Object>> propositionsData;
+    private byte[] encoded;
+    private String json;
+
+    @Setup
+    public void setup() {
+        final PersonalizationPayloadGenerator generator =
+                new PersonalizationPayloadGenerator(42, profile);
+        propositions = new ArrayList<>();
+        propositionsData = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final OptimizeProposition proposition =
+                    OptimizeProposition.fromEventData(generator.proposition("mbox" + i));
+            propositions.add(proposition);
+            propositionsData.add(proposition.toEventData());
+        }
+        encoded = OptimizePropositionCodec.encode(propositions);
+        json = new JSONArray(propositionsData).toString();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return OptimizePropositionCodec.encode(propositions);
+    }
+
+    @Benchmark
+    public List<OptimizeProposition> decode() {
+        return OptimizePropositionCodec.decode(ByteBuffer.wrap(encoded));
+    }
+
+    @Benchmark
+    public OptimizeProposition readSingleProposition() {
+        return OptimizePropositionCodec.Reader.open(ByteBuffer.wrap(encoded))
+                .readProposition(count / 2);
+    }
+
+    @Benchmark
+    public String encodeJson() {
+        return new JSONArray(propositionsData).toString();
+    }
+
+    @Benchmark
+    public List<OptimizeProposition> decodeJson() throws Exception {
+        final JSONArray array = new JSONArray(json);
+        final List<OptimizeProposition> decoded = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            decoded.add(OptimizeProposition.fromEventData(array.getJSONObject(i).toMap()));
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the cold start reads of the persisted propositions: opening the snapshot file
+ * and reading one proposition, against reading and decoding the whole file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OptimizePropositionSnapshotBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int count;
+
+    private File snapshotFile;
+    private String scope;
+
+    @Setup
+    public void setup() throws IOException {
+        final PersonalizationPayloadGenerator generator =
+                new PersonalizationPayloadGenerator(
+                        42, PersonalizationPayloadGenerator.Profile.MIXED);
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            propositions.add(OptimizeProposition.fromEventData(generator.proposition("mbox" + i)));
+        }
+        scope = "mbox" + count / 2;
+        snapshotFile = File.createTempFile("propositions", ".snapshot");
+        OptimizePropositionSnapshot.write(snapshotFile, propositions);
+    }
+
+    @TearDown
+    public void teardown() {
+        snapshotFile.delete();
+    }
+
+    @Benchmark
+    public OptimizeProposition openAndGetOne() {
+        return OptimizePropositionSnapshot.open(snapshotFile).get(scope);
+    }
+
+    @Benchmark
+    public List<OptimizeProposition> readAndDecodeAll() throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotFile.toPath()));
+        return OptimizePropositionSnapshot.open(buffer).getAll();
+    }
+}
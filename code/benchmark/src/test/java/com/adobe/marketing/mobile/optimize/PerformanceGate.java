@@ -0,0 +1,674 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Performance regression gate comparing the JMH, load harness and retained heap results against the
+ * baselines committed in {@code code/benchmark/baselines}.
+ *
+ * <p>The JMH and retained heap results are read from the JSON files written by the {@code jmh} and
+ * {@code heapBenchmark} tasks, and the load harness is run in-process with the arguments stored in
+ * its baseline, so that the load is the same as when the baseline was recorded. The gate fails when
+ * a throughput drops, or an average time, a p99 latency, an allocation per operation or the
+ * retained bytes of the propositions cache grow, by more than the tolerance configured in the
+ * baseline. The JMH scores are checked under the metric of their benchmark mode. Results without a
+ * baseline also fail the gate, so that a new benchmark cannot pass unchecked, while baselines
+ * without results are only reported. A baseline file that was never recorded is reported and its
+ * results are not checked, until the baselines are recorded on the reference machine.
+ *
+ * <p>With {@code record=true}, the baselines are replaced by the current results instead. They
+ * should only be recorded on the reference machine used to run the gate.
+ *
+ * <p>Usage: {@code ./gradlew -p code/benchmark perfGate [-PperfTolerance=0.1]
+ * [-PperfRecord=true]}.
+ */
+public final class PerformanceGate {
+    static final String JMH_BASELINE = "jmh.json";
+    static final String LOAD_HARNESS_BASELINE = "load-harness.json";
+    static final String HEAP_BASELINE = "heap.json";
+
+    static final String THROUGHPUT = "throughput";
+    static final String AVERAGE_TIME = "averageTime";
+    static final String SAMPLE_TIME = "sampleTime";
+    static final String SINGLE_SHOT_TIME = "singleShotTime";
+    static final String P99 = "p99";
+    static final String ALLOCATION = "allocation";
+    static final String RETAINED_BYTES = "retainedBytes";
+
+    private static final String BENCHMARK_PACKAGE = "com.adobe.marketing.mobile.optimize.";
+    // the gc profiler metrics are prefixed with a middle dot before JMH 1.36.
+    private static final String[] ALLOCATION_METRICS = {
+        "gc.alloc.rate.norm", "\u00b7gc.alloc.rate.norm"
+    };
+    private static final String[] CORRECTNESS_COUNTERS = {"missingResponses", "bleedResponses"};
+    private static final String[] LATENCY_REPORTS = {"updateLatency", "getLatency"};
+
+    private PerformanceGate() {}
+
+    /** Comparison of a single metric against its baseline. */
+    static final class Check {
+        final String name;
+        final String metric;
+        final double baseline;
+        final double current;
+        final double tolerance;
+        final boolean regressed;
+        final boolean missingBaseline;
+
+        Check(
+                final String name,
+                final String metric,
+                final double baseline,
+                final double current,
+                final double tolerance,
+                final boolean regressed) {
+            this.name = name;
+            this.metric = metric;
+            this.baseline = baseline;
+            this.current = current;
+            this.tolerance = tolerance;
+            this.regressed = regressed;
+            this.missingBaseline = false;
+        }
+
+        private Check(final String name, final String metric, final double current) {
+            this.name = name;
+            this.metric = metric;
+            this.baseline = Double.NaN;
+            this.current = current;
+            this.tolerance = Double.NaN;
+            this.regressed = true;
+            this.missingBaseline = true;
+        }
+
+        /**
+         * Creates a failed check for a result without a baseline.
+         *
+         * @param name {@link String} containing the benchmark or load harness metric name.
+         * @param metric {@link String} containing the metric checked.
+         * @param current {@code double} containing the current value.
+         * @return {@link Check} marked as regressed.
+         */
+        static Check missingBaseline(final String name, final String metric, final double current) {
+            return new Check(name, metric, current);
+        }
+
+        JSONObject toJson() throws Exception {
+            final JSONObject json = new JSONObject();
+            json.put("name", name);
+            json.put("metric", metric);
+            if (!missingBaseline) {
+                json.put("baseline", baseline);
+                json.put("tolerance", tolerance);
+            }
+            json.put("current", current);
+            json.put("regressed", regressed);
+            json.put("missingBaseline", missingBaseline);
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            if (missingBaseline) {
+                return String.format(
+                        "%-11s %-70s %-14s current=%.2f, record the baselines with record=true",
+                        "NO BASELINE",
+                        name,
+                        metric,
+                        current);
+            }
+            final double change = baseline != 0 ? (current - baseline) / baseline * 100 : 0;
+            return String.format(
+                    "%-11s %-70s %-14s baseline=%.2f current=%.2f (%+.1f%%, tolerance %.0f%%)",
+                    regressed ? "REGRESSED" : "ok",
+                    name,
+                    metric,
+                    baseline,
+                    current,
+                    change,
+                    tolerance * 100);
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        String jmhResultsPath = null;
+        String heapResultsPath = null;
+        String baselinesPath = "baselines";
+        String output = null;
+        double toleranceOverride = -1;
+        boolean record = false;
+        for (final String arg : args) {
+            for (final String token : arg.trim().split("\\s+")) {
+                if (token.startsWith("jmhResults=")) {
+                    jmhResultsPath = token.substring("jmhResults=".length());
+                } else if (token.startsWith("heapResults=")) {
+                    heapResultsPath = token.substring("heapResults=".length());
+                } else if (token.startsWith("baselines=")) {
+                    baselinesPath = token.substring("baselines=".length());
+                } else if (token.startsWith("tolerance=")) {
+                    toleranceOverride = Double.parseDouble(token.substring("tolerance=".length()));
+                } else if (token.startsWith("record=")) {
+                    record = Boolean.parseBoolean(token.substring("record=".length()));
+                } else if (token.startsWith("output=")) {
+                    output = token.substring("output=".length());
+                }
+            }
+        }
+
+        final File baselinesDir = new File(baselinesPath);
+        final File jmhBaselineFile = new File(baselinesDir, JMH_BASELINE);
+        final File loadBaselineFile = new File(baselinesDir, LOAD_HARNESS_BASELINE);
+        final File heapBaselineFile = new File(baselinesDir, HEAP_BASELINE);
+        final JSONObject jmhBaseline = new JSONObject(read(jmhBaselineFile));
+        final JSONObject loadBaseline = new JSONObject(read(loadBaselineFile));
+        final JSONObject heapBaseline = new JSONObject(read(heapBaselineFile));
+
+        final Map<String, JSONObject> jmhResults =
+                jmhResultsPath != null
+                        ? parseJmhResults(new JSONArray(read(new File(jmhResultsPath))))
+                        : new TreeMap<String, JSONObject>();
+        final JSONObject heapReport =
+                heapResultsPath != null ? new JSONObject(read(new File(heapResultsPath))) : null;
+        final JSONObject loadReport =
+                new OptimizeLoadHarness(
+                                OptimizeLoadHarness.Config.fromArgs(
+                                        new String[] {loadBaseline.optString("args", "")}))
+                        .run();
+
+        if (record) {
+            write(jmhBaselineFile, recordJmh(jmhBaseline, jmhResults));
+            write(loadBaselineFile, recordLoadHarness(loadBaseline, loadReport));
+            if (heapReport != null) {
+                write(heapBaselineFile, recordHeap(heapBaseline, heapReport));
+            }
+            System.out.println("Recorded performance baselines in " + baselinesDir);
+            System.exit(0);
+        }
+
+        final List<Check> checks = new ArrayList<>();
+        checks.addAll(compareJmh(jmhBaseline, jmhResults, toleranceOverride));
+        checks.addAll(compareLoadHarness(loadBaseline, loadReport, toleranceOverride));
+        if (heapReport != null) {
+            checks.addAll(compareHeap(heapBaseline, heapReport, toleranceOverride));
+        }
+        final List<String> notes = new ArrayList<>();
+        notes.addAll(unmatchedJmh(jmhBaseline, jmhResults));
+        if (!isRecorded(jmhBaseline.optJSONObject("benchmarks"))) {
+            notes.add(notRecordedNote(JMH_BASELINE));
+        }
+        if (!isRecorded(loadBaseline.optJSONObject("metrics"))) {
+            notes.add(notRecordedNote(LOAD_HARNESS_BASELINE));
+        }
+        if (heapReport == null) {
+            notes.add("no heap results, the retained heap is not checked");
+        } else if (!isRecorded(heapBaseline.optJSONObject("results"))) {
+            notes.add(notRecordedNote(HEAP_BASELINE));
+        }
+        notes.addAll(verifyLoadHarnessCorrectness(loadReport));
+
+        int regressions = 0;
+        final JSONArray checksJson = new JSONArray();
+        for (final Check check : checks) {
+            System.out.println(check);
+            checksJson.put(check.toJson());
+            if (check.regressed) {
+                regressions++;
+            }
+        }
+        for (final String note : notes) {
+            System.out.println(note);
+        }
+
+        boolean incorrect = false;
+        for (final String counter : CORRECTNESS_COUNTERS) {
+            incorrect |= loadReport.optLong(counter, 0) > 0;
+        }
+        final JSONObject report = new JSONObject();
+        report.put("checks", checksJson);
+        report.put("notes", new JSONArray(notes));
+        report.put("regressions", regressions);
+        report.put("loadHarness", loadReport);
+        if (output != null) {
+            write(new File(output), report);
+        }
+
+        if (regressions > 0 || incorrect) {
+            System.out.println(
+                    "Performance gate failed: "
+                            + regressions
+                            + " regression(s) or missing baseline(s)"
+                            + (incorrect ? " and incorrect load harness responses." : "."));
+            System.exit(1);
+        }
+        System.out.println("Performance gate passed, " + checks.size() + " metric(s) checked.");
+        // the extension dispatcher threads started by the load harness are not daemon threads.
+        System.exit(0);
+    }
+
+    /**
+     * Parses the JMH JSON results, keyed by benchmark name and parameters.
+     *
+     * <p>Each result contains the primary {@code score}, the {@code metric} of the benchmark mode,
+     * whether a higher score is better, and the {@code allocBytesPerOp} reported by the gc
+     * profiler, if it was enabled.
+     *
+     * @param results {@link JSONArray} containing the JMH results.
+     * @return {@code Map<String, JSONObject>} containing the results, sorted by key.
+     */
+    static Map<String, JSONObject> parseJmhResults(final JSONArray results) throws Exception {
+        final Map<String, JSONObject> parsed = new TreeMap<>();
+        for (int i = 0; i < results.length(); i++) {
+            final JSONObject result = results.getJSONObject(i);
+            final JSONObject primaryMetric = result.getJSONObject("primaryMetric");
+
+            final JSONObject measurement = new JSONObject();
+            measurement.put("score", primaryMetric.getDouble("score"));
+            measurement.put("scoreUnit", primaryMetric.optString("scoreUnit", ""));
+            final String mode = result.optString("mode", "");
+            measurement.put("metric", jmhMetric(mode));
+            measurement.put("higherIsBetter", "thrpt".equals(mode));
+            final JSONObject secondaryMetrics = result.optJSONObject("secondaryMetrics");
+            if (secondaryMetrics != null) {
+                for (final String allocationMetric : ALLOCATION_METRICS) {
+                    final JSONObject allocation = secondaryMetrics.optJSONObject(allocationMetric);
+                    if (allocation != null) {
+                        measurement.put("allocBytesPerOp", allocation.getDouble("score"));
+                        break;
+                    }
+                }
+            }
+            parsed.put(jmhKey(result), measurement);
+        }
+        return parsed;
+    }
+
+    /**
+     * Compares the JMH results against the benchmarks in the JMH baseline.
+     *
+     * <p>The score of each result is checked under the metric of its benchmark mode, with the
+     * tolerance configured for that metric. Results without a baseline are returned as failed
+     * checks, unless the JMH baseline was never recorded, in which case no check is returned.
+     *
+     * @param baseline {@link JSONObject} containing the JMH baseline.
+     * @param results {@code Map<String, JSONObject>} containing the parsed JMH results.
+     * @param toleranceOverride {@code double} tolerance for all the metrics, or negative to use the
+     *     baseline tolerances.
+     * @return {@code List<Check>} containing the score and allocation checks.
+     */
+    static List<Check> compareJmh(
+            final JSONObject baseline,
+            final Map<String, JSONObject> results,
+            final double toleranceOverride)
+            throws Exception {
+        final List<Check> checks = new ArrayList<>();
+        final JSONObject benchmarks = baseline.optJSONObject("benchmarks");
+        if (!isRecorded(benchmarks)) {
+            return checks;
+        }
+        final double allocationTolerance = tolerance(baseline, ALLOCATION, toleranceOverride);
+        final double allocationSlackBytes = baseline.optDouble("allocationSlackBytes", 0);
+
+        for (final Map.Entry<String, JSONObject> entry : results.entrySet()) {
+            final JSONObject current = entry.getValue();
+            final String metric = current.optString("metric", THROUGHPUT);
+            final double currentScore = current.getDouble("score");
+            final JSONObject expected = benchmarks.optJSONObject(entry.getKey());
+            if (expected == null) {
+                checks.add(Check.missingBaseline(entry.getKey(), metric, currentScore));
+                continue;
+            }
+            final boolean higherIsBetter = current.optBoolean("higherIsBetter", true);
+            final double baselineScore = expected.getDouble("score");
+            final double scoreTolerance = tolerance(baseline, metric, toleranceOverride);
+            checks.add(
+                    new Check(
+                            entry.getKey(),
+                            metric,
+                            baselineScore,
+                            currentScore,
+                            scoreTolerance,
+                            isRegression(
+                                    baselineScore,
+                                    currentScore,
+                                    higherIsBetter,
+                                    scoreTolerance,
+                                    0)));
+
+            if (expected.has("allocBytesPerOp") && current.has("allocBytesPerOp")) {
+                final double baselineBytes = expected.getDouble("allocBytesPerOp");
+                final double currentBytes = current.getDouble("allocBytesPerOp");
+                checks.add(
+                        new Check(
+                                entry.getKey(),
+                                ALLOCATION,
+                                baselineBytes,
+                                currentBytes,
+                                allocationTolerance,
+                                isRegression(
+                                        baselineBytes,
+                                        currentBytes,
+                                        false,
+                                        allocationTolerance,
+                                        allocationSlackBytes)));
+            }
+        }
+        return checks;
+    }
+
+    /**
+     * Compares the load harness report against the metrics in the load harness baseline.
+     *
+     * <p>Report metrics without a baseline are returned as failed checks, unless the load harness
+     * baseline was never recorded, in which case no check is returned.
+     *
+     * @param baseline {@link JSONObject} containing the load harness baseline.
+     * @param report {@link JSONObject} containing the load harness report.
+     * @param toleranceOverride {@code double} tolerance for all the metrics, or negative to use the
+     *     baseline tolerances.
+     * @return {@code List<Check>} containing the throughput and p99 latency checks.
+     */
+    static List<Check> compareLoadHarness(
+            final JSONObject baseline, final JSONObject report, final double toleranceOverride)
+            throws Exception {
+        final List<Check> checks = new ArrayList<>();
+        final JSONObject metrics = baseline.optJSONObject("metrics");
+        if (!isRecorded(metrics)) {
+            return checks;
+        }
+        final Map<String, Double> current = loadHarnessMetrics(report);
+        final double throughputTolerance = tolerance(baseline, THROUGHPUT, toleranceOverride);
+        final double p99Tolerance = tolerance(baseline, P99, toleranceOverride);
+
+        for (final Map.Entry<String, Double> entry : current.entrySet()) {
+            final boolean isThroughput = entry.getKey().equals("throughputPerSecond");
+            if (!metrics.has(entry.getKey())) {
+                checks.add(
+                        Check.missingBaseline(
+                                "loadHarness." + entry.getKey(),
+                                isThroughput ? THROUGHPUT : P99,
+                                entry.getValue()));
+                continue;
+            }
+            final double expected = metrics.getDouble(entry.getKey());
+            final double tolerance = isThroughput ? throughputTolerance : p99Tolerance;
+            checks.add(
+                    new Check(
+                            "loadHarness." + entry.getKey(),
+                            isThroughput ? THROUGHPUT : P99,
+                            expected,
+                            entry.getValue(),
+                            tolerance,
+                            isRegression(expected, entry.getValue(), isThroughput, tolerance, 0)));
+        }
+        return checks;
+    }
+
+    /**
+     * Compares the retained heap results against the heap baseline.
+     *
+     * <p>The retained bytes of the propositions cache are compared for each payload size and cache
+     * size, with the {@code retainedBytes} tolerance. Results without a baseline are returned as
+     * failed checks, unless the heap baseline was never recorded, in which case no check is
+     * returned.
+     *
+     * @param baseline {@link JSONObject} containing the heap baseline.
+     * @param report {@link JSONObject} containing the heap benchmark report.
+     * @param toleranceOverride {@code double} containing a tolerance overriding the baseline ones,
+     *     or a negative value to use the baseline tolerances.
+     * @return {@code List<Check>} containing one check per heap result.
+     */
+    static List<Check> compareHeap(
+            final JSONObject baseline, final JSONObject report, final double toleranceOverride)
+            throws Exception {
+        final List<Check> checks = new ArrayList<>();
+        final JSONObject results = baseline.optJSONObject("results");
+        if (!isRecorded(results)) {
+            return checks;
+        }
+        final double tolerance = tolerance(baseline, RETAINED_BYTES, toleranceOverride);
+        for (final Map.Entry<String, Double> entry : heapResults(report).entrySet()) {
+            final String name = "heap." + entry.getKey();
+            if (!results.has(entry.getKey())) {
+                checks.add(Check.missingBaseline(name, RETAINED_BYTES, entry.getValue()));
+                continue;
+            }
+            final double expected = results.getDouble(entry.getKey());
+            checks.add(
+                    new Check(
+                            name,
+                            RETAINED_BYTES,
+                            expected,
+                            entry.getValue(),
+                            tolerance,
+                            isRegression(expected, entry.getValue(), false, tolerance, 0)));
+        }
+        return checks;
+    }
+
+    /**
+     * Replaces the benchmarks in the JMH baseline with the given results.
+     *
+     * @param baseline {@link JSONObject} containing the JMH baseline.
+     * @param results {@code Map<String, JSONObject>} containing the parsed JMH results.
+     * @return {@link JSONObject} containing the new JMH baseline.
+     */
+    static JSONObject recordJmh(final JSONObject baseline, final Map<String, JSONObject> results)
+            throws Exception {
+        final JSONObject benchmarks = new JSONObject();
+        for (final Map.Entry<String, JSONObject> entry : results.entrySet()) {
+            benchmarks.put(entry.getKey(), entry.getValue());
+        }
+        baseline.put("benchmarks", benchmarks);
+        return baseline;
+    }
+
+    /**
+     * Replaces the metrics in the load harness baseline with the given report metrics.
+     *
+     * @param baseline {@link JSONObject} containing the load harness baseline.
+     * @param report {@link JSONObject} containing the load harness report.
+     * @return {@link JSONObject} containing the new load harness baseline.
+     */
+    static JSONObject recordLoadHarness(final JSONObject baseline, final JSONObject report)
+            throws Exception {
+        baseline.put("metrics", new JSONObject(loadHarnessMetrics(report)));
+        return baseline;
+    }
+
+    /**
+     * Replaces the results in the heap baseline with the given heap benchmark report.
+     *
+     * @param baseline {@link JSONObject} containing the heap baseline.
+     * @param report {@link JSONObject} containing the heap benchmark report.
+     * @return {@link JSONObject} containing the new heap baseline.
+     */
+    static JSONObject recordHeap(final JSONObject baseline, final JSONObject report)
+            throws Exception {
+        baseline.put("results", new JSONObject(heapResults(report)));
+        return baseline;
+    }
+
+    /**
+     * Checks whether the {@code current} value regressed from the {@code baseline} value.
+     *
+     * @param baseline {@code double} containing the baseline value.
+     * @param current {@code double} containing the current value.
+     * @param higherIsBetter {@code boolean} indicating whether a higher value is better.
+     * @param tolerance {@code double} containing the allowed relative change, e.g. 0.1 for 10%.
+     * @param slack {@code double} containing an additional allowed absolute change.
+     * @return {@code boolean} indicating whether the value regressed beyond the tolerance.
+     */
+    static boolean isRegression(
+            final double baseline,
+            final double current,
+            final boolean higherIsBetter,
+            final double tolerance,
+            final double slack) {
+        if (Double.isNaN(baseline) || Double.isNaN(current)) {
+            return false;
+        }
+        return higherIsBetter
+                ? current < baseline * (1 - tolerance) - slack
+                : current > baseline * (1 + tolerance) + slack;
+    }
+
+    /**
+     * Checks whether a baseline section was recorded.
+     *
+     * @param section {@link JSONObject} containing the recorded benchmarks or metrics.
+     * @return {@code boolean} indicating whether the section contains any baseline.
+     */
+    static boolean isRecorded(final JSONObject section) {
+        return section != null && section.length() > 0;
+    }
+
+    private static String notRecordedNote(final String baselineFile) {
+        return "WARNING: "
+                + baselineFile
+                + " is not recorded, its results are not checked. Record the baselines with"
+                + " record=true on the reference machine.";
+    }
+
+    private static List<String> unmatchedJmh(
+            final JSONObject baseline, final Map<String, JSONObject> results) {
+        final List<String> notes = new ArrayList<>();
+        final JSONObject benchmarks = baseline.optJSONObject("benchmarks");
+        if (benchmarks != null) {
+            final Iterator<String> keys = benchmarks.keys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                if (!results.containsKey(key)) {
+                    notes.add("not run " + key);
+                }
+            }
+        }
+        return notes;
+    }
+
+    private static List<String> verifyLoadHarnessCorrectness(final JSONObject report) {
+        final List<String> notes = new ArrayList<>();
+        for (final String counter : CORRECTNESS_COUNTERS) {
+            final long value = report.optLong(counter, 0);
+            if (value > 0) {
+                notes.add("load harness reported " + value + " " + counter);
+            }
+        }
+        return notes;
+    }
+
+    private static Map<String, Double> loadHarnessMetrics(final JSONObject report)
+            throws Exception {
+        final Map<String, Double> metrics = new TreeMap<>();
+        metrics.put("throughputPerSecond", report.getDouble("throughputPerSecond"));
+        for (final String latency : LATENCY_REPORTS) {
+            final JSONObject snapshot = report.optJSONObject(latency);
+            if (snapshot != null && snapshot.optLong(OptimizeConstants.Metrics.COUNT, 0) > 0) {
+                metrics.put(
+                        latency + "." + OptimizeConstants.Metrics.P99_MICROS,
+                        snapshot.getDouble(OptimizeConstants.Metrics.P99_MICROS));
+            }
+        }
+        return metrics;
+    }
+
+    private static Map<String, Double> heapResults(final JSONObject report) throws Exception {
+        final Map<String, Double> results = new TreeMap<>();
+        final String payloadSize = report.getString("payloadSize");
+        final JSONArray entries = report.getJSONArray("results");
+        for (int i = 0; i < entries.length(); i++) {
+            final JSONObject entry = entries.getJSONObject(i);
+            results.put(
+                    payloadSize + ":count=" + entry.getInt("count"),
+                    entry.getDouble("retainedBytes"));
+        }
+        return results;
+    }
+
+    private static String jmhMetric(final String mode) {
+        switch (mode) {
+            case "avgt":
+                return AVERAGE_TIME;
+            case "sample":
+                return SAMPLE_TIME;
+            case "ss":
+                return SINGLE_SHOT_TIME;
+            default:
+                return THROUGHPUT;
+        }
+    }
+
+    private static double tolerance(
+            final JSONObject baseline, final String metric, final double toleranceOverride) {
+        if (toleranceOverride >= 0) {
+            return toleranceOverride;
+        }
+        final JSONObject tolerances = baseline.optJSONObject("tolerances");
+        return tolerances != null ? tolerances.optDouble(metric, 0.1) : 0.1;
+    }
+
+    private static String jmhKey(final JSONObject result) throws Exception {
+        String benchmark = result.getString("benchmark");
+        if (benchmark.startsWith(BENCHMARK_PACKAGE)) {
+            benchmark = benchmark.substring(BENCHMARK_PACKAGE.length());
+        }
+        final JSONObject params = result.optJSONObject("params");
+        if (params == null || params.length() == 0) {
+            return benchmark;
+        }
+
+        final Map<String, String> sortedParams = new TreeMap<>();
+        final Iterator<String> keys = params.keys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            sortedParams.put(key, params.optString(key, ""));
+        }
+        final StringBuilder key = new StringBuilder(benchmark).append(':');
+        boolean first = true;
+        for (final Map.Entry<String, String> param : sortedParams.entrySet()) {
+            if (!first) {
+                key.append(',');
+            }
+            key.append(param.getKey()).append('=').append(param.getValue());
+            first = false;
+        }
+        return key.toString();
+    }
+
+    private static String read(final File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void write(final File file, final JSONObject json) throws Exception {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (Writer writer =
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(json.toString(2));
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PerformanceGateTests {
+    private static final String JMH_RESULTS =
+            "[{\"benchmark\":\"com.adobe.marketing.mobile.optimize.OfferBenchmark.toEventData\","
+                    + "\"mode\":\"thrpt\",\"params\":{\"contentLength\":\"64\","
+                    + "\"content\":\"STRING\"},\"primaryMetric\":{\"score\":1000.0,"
+                    + "\"scoreUnit\":\"ops/s\"},\"secondaryMetrics\":{\"gc.alloc.rate.norm\":"
+                    + "{\"score\":120.0,\"scoreUnit\":\"B/op\"}}}]";
+    private static final String HEAP_RESULTS =
+            "{\"payloadSize\":\"SMALL\",\"results\":[{\"count\":1000,"
+                    + "\"retainedBytes\":1050000,\"bytesPerEntry\":1050.0},{\"count\":10000,"
+                    + "\"retainedBytes\":11500000,\"bytesPerEntry\":1150.0}]}";
+    private static final String JMH_KEY =
+            "OfferBenchmark.toEventData:content=STRING,contentLength=64";
+
+    @Test
+    public void testParseJmhResults_keyAndMetrics() throws Exception {
+        // test
+        final Map<String, JSONObject> results =
+                PerformanceGate.parseJmhResults(new JSONArray(JMH_RESULTS));
+
+        // verify
+        Assert.assertEquals(1, results.size());
+        final JSONObject result = results.get(JMH_KEY);
+        Assert.assertNotNull(result);
+        Assert.assertEquals(1000.0, result.getDouble("score"), 0.001);
+        Assert.assertEquals(120.0, result.getDouble("allocBytesPerOp"), 0.001);
+        Assert.assertTrue(result.getBoolean("higherIsBetter"));
+        Assert.assertEquals(PerformanceGate.THROUGHPUT, result.getString("metric"));
+    }
+
+    @Test
+    public void testCompareJmh_averageTimeCheckedUnderItsMode() throws Exception {
+        // setup
+        final String results =
+                "[{\"benchmark\":\"com.adobe.marketing.mobile.optimize."
+                        + "OptimizePropositionSnapshotBenchmark.openAndGetOne\",\"mode\":\"avgt\","
+                        + "\"params\":{\"count\":\"100\"},\"primaryMetric\":{\"score\":12.0,"
+                        + "\"scoreUnit\":\"us/op\"}}]";
+        final JSONObject baseline =
+                new JSONObject(
+                        "{\"tolerances\":{\"throughput\":0.5,\"averageTime\":0.1},"
+                                + "\"benchmarks\":{\"OptimizePropositionSnapshotBenchmark."
+                                + "openAndGetOne:count=100\":{\"score\":10.0}}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareJmh(
+                        baseline, PerformanceGate.parseJmhResults(new JSONArray(results)), -1);
+
+        // verify
+        Assert.assertEquals(1, checks.size());
+        final PerformanceGate.Check check = checks.get(0);
+        Assert.assertEquals(PerformanceGate.AVERAGE_TIME, check.metric);
+        Assert.assertEquals(0.1, check.tolerance, 0.001);
+        Assert.assertTrue(check.regressed);
+    }
+
+    @Test
+    public void testCompareJmh_missingBaselineFails() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject(
+                        "{\"tolerances\":{\"throughput\":0.1},\"benchmarks\":{\"other\":"
+                                + "{\"score\":1000.0}}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareJmh(
+                        baseline, PerformanceGate.parseJmhResults(new JSONArray(JMH_RESULTS)), -1);
+
+        // verify
+        Assert.assertEquals(1, checks.size());
+        final PerformanceGate.Check check = checks.get(0);
+        Assert.assertEquals(JMH_KEY, check.name);
+        Assert.assertTrue(check.missingBaseline);
+        Assert.assertTrue(check.regressed);
+    }
+
+    @Test
+    public void testCompareJmh_notRecordedBaselineSkipped() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject("{\"tolerances\":{\"throughput\":0.1},\"benchmarks\":{}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareJmh(
+                        baseline, PerformanceGate.parseJmhResults(new JSONArray(JMH_RESULTS)), -1);
+
+        // verify
+        Assert.assertTrue(checks.isEmpty());
+        Assert.assertFalse(PerformanceGate.isRecorded(baseline.optJSONObject("benchmarks")));
+    }
+
+    @Test
+    public void testCompareJmh_withinTolerance() throws Exception {
+        // setup
+        final JSONObject baseline = jmhBaseline(1050.0, 115.0);
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareJmh(
+                        baseline, PerformanceGate.parseJmhResults(new JSONArray(JMH_RESULTS)), -1);
+
+        // verify
+        Assert.assertEquals(2, checks.size());
+        for (final PerformanceGate.Check check : checks) {
+            Assert.assertFalse(check.regressed);
+        }
+    }
+
+    @Test
+    public void testCompareJmh_throughputAndAllocationRegressions() throws Exception {
+        // setup
+        final JSONObject baseline = jmhBaseline(2000.0, 60.0);
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareJmh(
+                        baseline, PerformanceGate.parseJmhResults(new JSONArray(JMH_RESULTS)), -1);
+
+        // verify
+        Assert.assertEquals(2, checks.size());
+        for (final PerformanceGate.Check check : checks) {
+            Assert.assertTrue(check.metric + " should regress", check.regressed);
+        }
+    }
+
+    @Test
+    public void testCompareJmh_toleranceOverride() throws Exception {
+        // setup
+        final JSONObject baseline = jmhBaseline(2000.0, 60.0);
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareJmh(
+                        baseline,
+                        PerformanceGate.parseJmhResults(new JSONArray(JMH_RESULTS)),
+                        1.5);
+
+        // verify
+        for (final PerformanceGate.Check check : checks) {
+            Assert.assertFalse(check.regressed);
+        }
+    }
+
+    @Test
+    public void testCompareLoadHarness_p99Regression() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject(
+                        "{\"tolerances\":{\"throughput\":0.15,\"p99\":0.25},\"metrics\":"
+                                + "{\"throughputPerSecond\":500.0,"
+                                + "\"updateLatency.p99Micros\":10000.0}}");
+        final JSONObject report =
+                new JSONObject(
+                        "{\"throughputPerSecond\":480.0,\"updateLatency\":{\"count\":10,"
+                                + "\"p99Micros\":20000},\"getLatency\":{\"count\":0,"
+                                + "\"p99Micros\":0}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareLoadHarness(baseline, report, -1);
+
+        // verify
+        Assert.assertEquals(2, checks.size());
+        for (final PerformanceGate.Check check : checks) {
+            Assert.assertEquals(PerformanceGate.P99.equals(check.metric), check.regressed);
+        }
+    }
+
+    @Test
+    public void testCompareLoadHarness_missingBaselineFails() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject(
+                        "{\"tolerances\":{\"throughput\":0.15},\"metrics\":"
+                                + "{\"updateLatency.p99Micros\":900.0}}");
+        final JSONObject report =
+                new JSONObject(
+                        "{\"throughputPerSecond\":480.0,\"updateLatency\":{\"count\":0,"
+                                + "\"p99Micros\":0}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareLoadHarness(baseline, report, -1);
+
+        // verify
+        Assert.assertEquals(1, checks.size());
+        Assert.assertEquals("loadHarness.throughputPerSecond", checks.get(0).name);
+        Assert.assertTrue(checks.get(0).missingBaseline);
+        Assert.assertTrue(checks.get(0).regressed);
+    }
+
+    @Test
+    public void testCompareLoadHarness_notRecordedBaselineSkipped() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject("{\"tolerances\":{\"throughput\":0.15},\"metrics\":{}}");
+        final JSONObject report =
+                new JSONObject(
+                        "{\"throughputPerSecond\":480.0,\"updateLatency\":{\"count\":0,"
+                                + "\"p99Micros\":0}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareLoadHarness(baseline, report, -1);
+
+        // verify
+        Assert.assertTrue(checks.isEmpty());
+    }
+
+    @Test
+    public void testCompareHeap_retainedBytesRegressed() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject(
+                        "{\"tolerances\":{\"retainedBytes\":0.1},\"results\":"
+                                + "{\"SMALL:count=1000\":1000000.0,"
+                                + "\"SMALL:count=10000\":10000000.0}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareHeap(baseline, new JSONObject(HEAP_RESULTS), -1);
+
+        // verify
+        Assert.assertEquals(2, checks.size());
+        Assert.assertEquals("heap.SMALL:count=1000", checks.get(0).name);
+        Assert.assertEquals(PerformanceGate.RETAINED_BYTES, checks.get(0).metric);
+        Assert.assertFalse(checks.get(0).regressed);
+        Assert.assertEquals("heap.SMALL:count=10000", checks.get(1).name);
+        Assert.assertTrue(checks.get(1).regressed);
+    }
+
+    @Test
+    public void testCompareHeap_missingBaselineFails() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject(
+                        "{\"tolerances\":{\"retainedBytes\":0.1},\"results\":"
+                                + "{\"SMALL:count=1000\":1000000.0}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareHeap(baseline, new JSONObject(HEAP_RESULTS), -1);
+
+        // verify
+        Assert.assertEquals(2, checks.size());
+        Assert.assertFalse(checks.get(0).missingBaseline);
+        Assert.assertTrue(checks.get(1).missingBaseline);
+        Assert.assertTrue(checks.get(1).regressed);
+    }
+
+    @Test
+    public void testCompareHeap_notRecordedBaselineSkipped() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject("{\"tolerances\":{\"retainedBytes\":0.1},\"results\":{}}");
+
+        // test
+        final List<PerformanceGate.Check> checks =
+                PerformanceGate.compareHeap(baseline, new JSONObject(HEAP_RESULTS), -1);
+
+        // verify
+        Assert.assertTrue(checks.isEmpty());
+    }
+
+    @Test
+    public void testRecordHeap_resultsReplaced() throws Exception {
+        // setup
+        final JSONObject baseline =
+                new JSONObject(
+                        "{\"tolerances\":{\"retainedBytes\":0.1},\"results\":"
+                                + "{\"MEDIUM:count=1000\":1.0}}");
+
+        // test
+        final JSONObject recorded =
+                PerformanceGate.recordHeap(baseline, new JSONObject(HEAP_RESULTS));
+
+        // verify
+        final JSONObject results = recorded.getJSONObject("results");
+        Assert.assertEquals(2, results.length());
+        Assert.assertEquals(1050000.0, results.getDouble("SMALL:count=1000"), 0.001);
+        Assert.assertEquals(11500000.0, results.getDouble("SMALL:count=10000"), 0.001);
+        Assert.assertEquals(
+                0.1, recorded.getJSONObject("tolerances").getDouble("retainedBytes"), 0.001);
+    }
+
+    @Test
+    public void testIsRegression_lowerIsBetterWithSlack() {
+        Assert.assertFalse(PerformanceGate.isRegression(100.0, 115.0, false, 0.1, 8));
+        Assert.assertTrue(PerformanceGate.isRegression(100.0, 120.0, false, 0.1, 8));
+        Assert.assertFalse(PerformanceGate.isRegression(100.0, Double.NaN, false, 0.1, 0));
+    }
+
+    private static JSONObject jmhBaseline(final double score, final double allocBytesPerOp)
+            throws Exception {
+        return new JSONObject(
+                "{\"tolerances\":{\"throughput\":0.1,\"allocation\":0.05},"
+                        + "\"allocationSlackBytes\":0,\"benchmarks\":{\""
+                        + JMH_KEY
+                        + "\":{\"score\":"
+                        + score
+                        + ",\"allocBytesPerOp\":"
+                        + allocBytesPerOp
+                        + "}}}");
+    }
+}
@@ -0,0 +1,502 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.json.JSONObject;
+
+/**
+ * Seedable generator of Edge {@code personalization:decisions} payloads, shaped like production
+ * responses, for the benchmarks, the load harness and the stress tests.
+ *
+ * <p>Target propositions contain HTML, JSON and default content items, with {@code scopeDetails}
+ * carrying strategies and event tokens. Offer Decisioning (ODE) propositions contain HTML, JSON,
+ * text and image items, the latter with a {@code deliveryURL} instead of content, along with the
+ * activity and placement. The number of items, the content length, the number of strategies and
+ * the event tokens length are sampled from the size distributions of the selected {@link Profile}.
+ *
+ * <p>The same seed and profile always generate the same payloads. Instances are not thread-safe.
+ */
+public final class PersonalizationPayloadGenerator {
+    private static final String ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final List<String> TARGET_SCHEMAS =
+            Arrays.asList(
+                    OptimizeConstants.JsonValues.SCHEMA_TARGET_HTML,
+                    OptimizeConstants.JsonValues.SCHEMA_TARGET_JSON,
+                    OptimizeConstants.JsonValues.SCHEMA_TARGET_DEFAULT);
+    private static final int[] TARGET_SCHEMA_WEIGHTS = {40, 50, 10};
+    private static final List<String> ODE_SCHEMAS =
+            Arrays.asList(
+                    OptimizeConstants.JsonValues.SCHEMA_OFFER_HTML,
+                    OptimizeConstants.JsonValues.SCHEMA_OFFER_JSON,
+                    OptimizeConstants.JsonValues.SCHEMA_OFFER_TEXT,
+                    OptimizeConstants.JsonValues.SCHEMA_OFFER_IMAGE);
+    private static final int[] ODE_SCHEMA_WEIGHTS = {30, 30, 20, 20};
+
+    private final Random random;
+    private final Profile profile;
+
+    /** Distribution of a payload size, e.g. the number of items or the content length. */
+    static final class Distribution {
+        private final int min;
+        private final int max;
+        private final double median;
+        private final double sigma;
+
+        private Distribution(
+                final int min, final int max, final double median, final double sigma) {
+            this.min = min;
+            this.max = Math.max(min, max);
+            this.median = median;
+            this.sigma = sigma;
+        }
+
+        /**
+         * Creates a distribution always returning the given {@code value}.
+         *
+         * @param value {@code int} containing the value.
+         * @return {@link Distribution} with a single value.
+         */
+        static Distribution fixed(final int value) {
+            return new Distribution(value, value, value, 0);
+        }
+
+        /**
+         * Creates a uniform distribution between {@code min} and {@code max}, inclusive.
+         *
+         * @param min {@code int} containing the minimum value.
+         * @param max {@code int} containing the maximum value.
+         * @return {@link Distribution} with uniformly distributed values.
+         */
+        static Distribution uniform(final int min, final int max) {
+            return new Distribution(min, max, Double.NaN, 0);
+        }
+
+        /**
+         * Creates a log-normal distribution, clamped between {@code min} and {@code max}.
+         *
+         * <p>Production payload sizes are long-tailed, most values are close to the median with a
+         * few much larger ones.
+         *
+         * @param median {@code double} containing the median value.
+         * @param sigma {@code double} containing the standard deviation of the value logarithm.
+         * @param min {@code int} containing the minimum value.
+         * @param max {@code int} containing the maximum value.
+         * @return {@link Distribution} with log-normally distributed values.
+         */
+        static Distribution logNormal(
+                final double median, final double sigma, final int min, final int max) {
+            return new Distribution(min, max, median, sigma);
+        }
+
+        int sample(final Random random) {
+            if (min == max) {
+                return min;
+            }
+            if (Double.isNaN(median)) {
+                return min + random.nextInt(max - min + 1);
+            }
+            final long value = Math.round(median * Math.exp(sigma * random.nextGaussian()));
+            return (int) Math.max(min, Math.min(max, value));
+        }
+    }
+
+    /**
+     * Payload profiles, with the provider mix and the size distributions.
+     *
+     * <p>The enum is public as it can be referenced by the JMH generated code.
+     */
+    public enum Profile {
+        /** Target propositions, mostly a single item with a few hundred characters of content. */
+        TARGET(
+                0.0,
+                Distribution.logNormal(1, 0.5, 1, 5),
+                Distribution.logNormal(512, 1.0, 16, 32 * 1024),
+                Distribution.uniform(1, 2),
+                Distribution.logNormal(88, 0.3, 24, 256)),
+        /** Offer Decisioning propositions, with a few offers per placement. */
+        ODE(
+                1.0,
+                Distribution.logNormal(2, 0.6, 1, 10),
+                Distribution.logNormal(256, 1.0, 16, 16 * 1024),
+                Distribution.fixed(0),
+                Distribution.fixed(0)),
+        /** Mix of 70% Target and 30% Offer Decisioning propositions. */
+        MIXED(
+                0.3,
+                Distribution.logNormal(2, 0.6, 1, 10),
+                Distribution.logNormal(512, 1.0, 16, 32 * 1024),
+                Distribution.uniform(1, 4),
+                Distribution.logNormal(88, 0.3, 24, 256)),
+        /** Large propositions, with many items, large content and large {@code scopeDetails}. */
+        HEAVY(
+                0.2,
+                Distribution.uniform(10, 50),
+                Distribution.logNormal(4096, 1.0, 256, 64 * 1024),
+                Distribution.uniform(8, 32),
+                Distribution.logNormal(512, 0.5, 128, 4096));
+
+        final double odeRatio;
+        final Distribution itemCount;
+        final Distribution contentLength;
+        final Distribution strategyCount;
+        final Distribution tokenLength;
+
+        Profile(
+                final double odeRatio,
+                final Distribution itemCount,
+                final Distribution contentLength,
+                final Distribution strategyCount,
+                final Distribution tokenLength) {
+            this.odeRatio = odeRatio;
+            this.itemCount = itemCount;
+            this.contentLength = contentLength;
+            this.strategyCount = strategyCount;
+            this.tokenLength = tokenLength;
+        }
+    }
+
+    PersonalizationPayloadGenerator(final long seed, final Profile profile) {
+        this.random = new Random(seed);
+        this.profile = profile;
+    }
+
+    /**
+     * Generates a proposition payload for the given {@code scope}, from Target or Offer Decisioning
+     * according to the profile provider mix.
+     *
+     * @param scope {@code String} containing the proposition scope.
+     * @return {@code Map<String, Object>} containing the proposition event data.
+     */
+    Map<String, Object> proposition(final String scope) {
+        return random.nextDouble() < profile.odeRatio
+                ? odeProposition(scope)
+                : targetProposition(scope);
+    }
+
+    /**
+     * Generates a Target proposition payload for the given {@code scope}.
+     *
+     * @param scope {@code String} containing the mbox name.
+     * @return {@code Map<String, Object>} containing the proposition event data.
+     */
+    Map<String, Object> targetProposition(final String scope) {
+        final String activityId = String.valueOf(100000 + random.nextInt(900000));
+        final String experienceId = String.valueOf(random.nextInt(4));
+
+        final List<Map<String, Object>> items = new ArrayList<>();
+        final int itemCount = profile.itemCount.sample(random);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(targetItem(String.valueOf(200000 + random.nextInt(800000))));
+        }
+
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put(
+                "id",
+                "AT:"
+                        + OptimizeUtils.base64Encode(
+                                String.format(
+                                        "{\"activityId\":\"%s\",\"experienceId\":\"%s\"}",
+                                        activityId, experienceId)));
+        proposition.put("scope", scope);
+        proposition.put("scopeDetails", targetScopeDetails(activityId, experienceId));
+        proposition.put("items", items);
+        return proposition;
+    }
+
+    /**
+     * Generates an Offer Decisioning proposition payload for the given {@code scope}.
+     *
+     * @param scope {@code String} containing the encoded decision scope.
+     * @return {@code Map<String, Object>} containing the proposition event data.
+     */
+    Map<String, Object> odeProposition(final String scope) {
+        final List<Map<String, Object>> items = new ArrayList<>();
+        final int itemCount = profile.itemCount.sample(random);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(odeItem("xcore:personalized-offer:" + hexId()));
+        }
+
+        final Map<String, Object> activity = new HashMap<>();
+        activity.put("id", "xcore:offer-activity:" + hexId());
+        activity.put("etag", String.valueOf(1 + random.nextInt(20)));
+        final Map<String, Object> placement = new HashMap<>();
+        placement.put("id", "xcore:offer-placement:" + hexId());
+        placement.put("etag", String.valueOf(1 + random.nextInt(20)));
+
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", randomUuid());
+        proposition.put("scope", scope);
+        proposition.put("activity", activity);
+        proposition.put("placement", placement);
+        proposition.put("items", items);
+        return proposition;
+    }
+
+    /**
+     * Generates the event data of the {@code personalization:decisions} events returned for an
+     * Edge request, with the propositions for the given {@code scopes} split in {@code chunkCount}
+     * events.
+     *
+     * @param requestEventId {@code String} containing the Edge request event id.
+     * @param scopes {@code List<String>} containing the requested scopes.
+     * @param chunkCount {@code int} containing the number of events to split the response in.
+     * @return {@code List<Map<String, Object>>} containing the event data of each event.
+     */
+    List<Map<String, Object>> decisionsEventData(
+            final String requestEventId, final List<String> scopes, final int chunkCount) {
+        final int chunks = Math.max(1, Math.min(chunkCount, scopes.size()));
+        final List<List<Map<String, Object>>> payloads = new ArrayList<>();
+        for (int i = 0; i < chunks; i++) {
+            payloads.add(new ArrayList<Map<String, Object>>());
+        }
+        for (int i = 0; i < scopes.size(); i++) {
+            payloads.get(i % chunks).add(proposition(scopes.get(i)));
+        }
+
+        final String requestId = randomUuid();
+        final List<Map<String, Object>> events = new ArrayList<>();
+        for (final List<Map<String, Object>> payload : payloads) {
+            final Map<String, Object> eventData = new HashMap<>();
+            eventData.put(OptimizeConstants.Edge.PAYLOAD, payload);
+            eventData.put(
+                    OptimizeConstants.Edge.EVENT_HANDLE,
+                    OptimizeConstants.Edge.EVENT_HANDLE_TYPE_PERSONALIZATION);
+            eventData.put(OptimizeConstants.EventDataKeys.REQUEST_EVENT_ID, requestEventId);
+            eventData.put("requestId", requestId);
+            events.add(eventData);
+        }
+        return events;
+    }
+
+    /**
+     * Generates an encoded Offer Decisioning decision scope name.
+     *
+     * @return {@code String} containing the encoded decision scope.
+     */
+    String odeScope() {
+        return new DecisionScope(
+                        "xcore:offer-activity:" + hexId(), "xcore:offer-placement:" + hexId())
+                .getName();
+    }
+
+    private Map<String, Object> targetItem(final String id) {
+        final String schema = pick(TARGET_SCHEMAS, TARGET_SCHEMA_WEIGHTS);
+
+        final Map<String, Object> meta = new HashMap<>();
+        meta.put("activity.name", "Activity " + random.nextInt(1000));
+        meta.put("experience.name", "Experience " + (char) ('A' + random.nextInt(4)));
+        meta.put("profile.marketingCloudVisitorId", digits(38));
+
+        final Map<String, Object> item = new HashMap<>();
+        item.put("id", id);
+        item.put("schema", schema);
+        item.put("meta", meta);
+        if (OptimizeConstants.JsonValues.SCHEMA_TARGET_DEFAULT.equals(schema)) {
+            return item;
+        }
+
+        final Map<String, Object> data = new HashMap<>();
+        data.put("id", id);
+        if (OptimizeConstants.JsonValues.SCHEMA_TARGET_JSON.equals(schema)) {
+            data.put("format", "application/json");
+            data.put("content", jsonContent(profile.contentLength.sample(random)));
+        } else {
+            data.put("format", "text/html");
+            data.put("content", htmlContent(profile.contentLength.sample(random)));
+        }
+        item.put("data", data);
+        return item;
+    }
+
+    private Map<String, Object> odeItem(final String id) {
+        final String schema = pick(ODE_SCHEMAS, ODE_SCHEMA_WEIGHTS);
+
+        final Map<String, Object> characteristics = new HashMap<>();
+        characteristics.put("mobile", "true");
+        characteristics.put("placement", "banner-" + random.nextInt(8));
+
+        final Map<String, Object> data = new HashMap<>();
+        data.put("id", id);
+        data.put("language", Arrays.asList("en-us"));
+        data.put("characteristics", characteristics);
+        if (OptimizeConstants.JsonValues.SCHEMA_OFFER_IMAGE.equals(schema)) {
+            data.put("format", random.nextBoolean() ? "image/png" : "image/jpeg");
+            data.put(
+                    "deliveryURL",
+                    "https://assets.example.com/offers/" + hexId() + ".png?alt=media");
+        } else if (OptimizeConstants.JsonValues.SCHEMA_OFFER_JSON.equals(schema)) {
+            data.put("format", "application/json");
+            // ODE returns JSON content as a string.
+            data.put(
+                    "content",
+                    new JSONObject(jsonContent(profile.contentLength.sample(random)))
+                            .toString());
+        } else if (OptimizeConstants.JsonValues.SCHEMA_OFFER_TEXT.equals(schema)) {
+            data.put("format", "text/plain");
+            data.put("content", textContent(profile.contentLength.sample(random)));
+        } else {
+            data.put("format", "text/html");
+            data.put("content", htmlContent(profile.contentLength.sample(random)));
+        }
+
+        final Map<String, Object> item = new HashMap<>();
+        item.put("id", id);
+        item.put("etag", String.valueOf(1 + random.nextInt(20)));
+        item.put("score", random.nextInt(10));
+        item.put("schema", schema);
+        item.put("data", data);
+        return item;
+    }
+
+    private Map<String, Object> targetScopeDetails(
+            final String activityId, final String experienceId) {
+        final Map<String, Object> activity = new HashMap<>();
+        activity.put("id", activityId);
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("id", experienceId);
+
+        final List<Map<String, Object>> strategies = new ArrayList<>();
+        final int strategyCount = profile.strategyCount.sample(random);
+        for (int i = 0; i < strategyCount; i++) {
+            final Map<String, Object> strategy = new HashMap<>();
+            strategy.put("step", i % 2 == 0 ? "entry" : "display");
+            strategy.put("algorithmID", String.valueOf(random.nextInt(4)));
+            strategy.put("trafficType", String.valueOf(random.nextInt(2)));
+            strategies.add(strategy);
+        }
+
+        final Map<String, Object> characteristics = new HashMap<>();
+        final int tokenLength = profile.tokenLength.sample(random);
+        if (tokenLength > 0) {
+            final Map<String, Object> eventTokens = new HashMap<>();
+            eventTokens.put("display", token(tokenLength));
+            eventTokens.put("click", token(Math.max(24, tokenLength / 4)));
+            characteristics.put("stateToken", token(tokenLength * 3 / 2));
+            characteristics.put("eventTokens", eventTokens);
+        }
+
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        scopeDetails.put("activity", activity);
+        scopeDetails.put("experience", experience);
+        scopeDetails.put("strategies", strategies);
+        scopeDetails.put("characteristics", characteristics);
+        return scopeDetails;
+    }
+
+    private String pick(final List<String> values, final int[] weights) {
+        int total = 0;
+        for (final int weight : weights) {
+            total += weight;
+        }
+        int sample = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            sample -= weights[i];
+            if (sample < 0) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+
+    private String htmlContent(final int length) {
+        final StringBuilder builder = new StringBuilder(length + 64);
+        builder.append("<div class=\"offer-").append(random.nextInt(100)).append("\">");
+        while (builder.length() < length) {
+            builder.append("<p>").append(words(8)).append("</p>");
+        }
+        return builder.append("</div>").toString();
+    }
+
+    private String textContent(final int length) {
+        final StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            builder.append(words(8)).append(". ");
+        }
+        return builder.toString();
+    }
+
+    private Map<String, Object> jsonContent(final int length) {
+        final Map<String, Object> content = new HashMap<>();
+        int approximateLength = 2;
+        for (int i = 0; approximateLength < length; i++) {
+            final String key = "key" + i;
+            final Object value;
+            switch (random.nextInt(4)) {
+                case 0:
+                    value = random.nextInt(100000);
+                    break;
+                case 1:
+                    value = random.nextBoolean();
+                    break;
+                case 2:
+                    final Map<String, Object> nested = new HashMap<>();
+                    nested.put("label", words(2));
+                    nested.put("url", "https://www.example.com/" + token(12));
+                    value = nested;
+                    break;
+                default:
+                    value = words(4);
+                    break;
+            }
+            content.put(key, value);
+            approximateLength += key.length() + String.valueOf(value).length() + 6;
+        }
+        return content;
+    }
+
+    private String words(final int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            final int length = 2 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return builder.toString();
+    }
+
+    private String token(final int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    private String digits(final int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('0' + random.nextInt(10)));
+        }
+        return builder.toString();
+    }
+
+    private String hexId() {
+        return String.format("%016x", random.nextLong());
+    }
+
+    private String randomUuid() {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+public class PersonalizationPayloadGeneratorTests {
+    @Test
+    public void testProposition_sameSeedGeneratesSamePayloads() {
+        for (final PersonalizationPayloadGenerator.Profile profile :
+                PersonalizationPayloadGenerator.Profile.values()) {
+            // setup
+            final PersonalizationPayloadGenerator generator =
+                    new PersonalizationPayloadGenerator(7, profile);
+            final PersonalizationPayloadGenerator sameSeedGenerator =
+                    new PersonalizationPayloadGenerator(7, profile);
+
+            // test and verify
+            for (int i = 0; i < 20; i++) {
+                Assert.assertEquals(
+                        profile.name(),
+                        generator.proposition("mbox" + i),
+                        sameSeedGenerator.proposition("mbox" + i));
+            }
+        }
+    }
+
+    @Test
+    public void testTargetProposition_parsesAllItems() {
+        // setup
+        final PersonalizationPayloadGenerator generator =
+                new PersonalizationPayloadGenerator(
+                        42, PersonalizationPayloadGenerator.Profile.HEAVY);
+
+        for (int i = 0; i < 20; i++) {
+            // test
+            final Map<String, Object> propositionData = generator.targetProposition("mbox" + i);
+            final OptimizeProposition proposition =
+                    OptimizeProposition.fromEventData(propositionData);
+
+            // verify
+            Assert.assertNotNull(proposition);
+            Assert.assertEquals("mbox" + i, proposition.getScope());
+            Assert.assertTrue(proposition.getId().startsWith("AT:"));
+            Assert.assertEquals(
+                    ((List<Object>) propositionData.get("items")).size(),
+                    proposition.getOffers().size());
+            Assert.assertEquals("TGT", proposition.getScopeDetails().get("decisionProvider"));
+            final List<Object> strategies =
+                    (List<Object>) proposition.getScopeDetails().get("strategies");
+            Assert.assertTrue(strategies.size() >= 8);
+            for (final Offer offer : proposition.getOffers()) {
+                if (OptimizeConstants.JsonValues.SCHEMA_TARGET_DEFAULT.equals(offer.getSchema())) {
+                    Assert.assertEquals("", offer.getContent());
+                } else {
+                    Assert.assertFalse(offer.getContent().isEmpty());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOdeProposition_parsesAllItems() {
+        // setup
+        final PersonalizationPayloadGenerator generator =
+                new PersonalizationPayloadGenerator(
+                        42, PersonalizationPayloadGenerator.Profile.ODE);
+        int imageOffers = 0;
+
+        for (int i = 0; i < 50; i++) {
+            // test
+            final String scope = generator.odeScope();
+            final Map<String, Object> propositionData = generator.proposition(scope);
+            final OptimizeProposition proposition =
+                    OptimizeProposition.fromEventData(propositionData);
+
+            // verify
+            Assert.assertNotNull(proposition);
+            Assert.assertEquals(scope, proposition.getScope());
+            Assert.assertEquals(
+                    ((List<Object>) propositionData.get("items")).size(),
+                    proposition.getOffers().size());
+            for (final Offer offer : proposition.getOffers()) {
+                Assert.assertNotNull(offer.getEtag());
+                Assert.assertEquals("true", offer.getCharacteristics().get("mobile"));
+                if (OptimizeConstants.JsonValues.SCHEMA_OFFER_IMAGE.equals(offer.getSchema())) {
+                    Assert.assertTrue(offer.getContent().startsWith("https://"));
+                    imageOffers++;
+                }
+            }
+        }
+        Assert.assertTrue(imageOffers > 0);
+    }
+
+    @Test
+    public void testDistribution_samplesWithinBounds() {
+        // setup
+        final PersonalizationPayloadGenerator.Distribution distribution =
+                PersonalizationPayloadGenerator.Distribution.logNormal(100, 2.0, 10, 1000);
+        final Random random = new Random(1);
+
+        // test and verify
+        for (int i = 0; i < 1000; i++) {
+            final int value = distribution.sample(random);
+            Assert.assertTrue(value >= 10 && value <= 1000);
+        }
+        Assert.assertEquals(
+                5, PersonalizationPayloadGenerator.Distribution.fixed(5).sample(random));
+    }
+
+    @Test
+    public void testDecisionsEventData_chunksContainAllScopes() {
+        // setup
+        final PersonalizationPayloadGenerator generator =
+                new PersonalizationPayloadGenerator(
+                        42, PersonalizationPayloadGenerator.Profile.MIXED);
+        final List<String> scopes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            scopes.add("mbox" + i);
+        }
+
+        // test
+        final List<Map<String, Object>> events =
+                generator.decisionsEventData("requestEventId", scopes, 3);
+
+        // verify
+        Assert.assertEquals(3, events.size());
+        final Set<String> responseScopes = new HashSet<>();
+        for (final Map<String, Object> eventData : events) {
+            Assert.assertEquals("personalization:decisions", eventData.get("type"));
+            Assert.assertEquals("requestEventId", eventData.get("requestEventId"));
+            Assert.assertEquals(events.get(0).get("requestId"), eventData.get("requestId"));
+            for (final Map<String, Object> propositionData :
+                    (List<Map<String, Object>>) eventData.get("payload")) {
+                Assert.assertNotNull(OptimizeProposition.fromEventData(propositionData));
+                responseScopes.add((String) propositionData.get("scope"));
+            }
+        }
+        Assert.assertEquals(new HashSet<>(scopes), responseScopes);
+    }
+}
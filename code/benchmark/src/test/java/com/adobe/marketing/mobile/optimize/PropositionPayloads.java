@@ -0,0 +1,175 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds synthetic proposition event data, shaped like the Edge {@code personalization:decisions}
+ * payloads, for the benchmarks.
+ *
+ * <p>The class and its enums are public as they are referenced by the JMH generated code.
+ */
+public final class PropositionPayloads {
+
+    /** Payload size profiles, from a single small offer to many large offers. */
+    public enum Size {
+        SMALL(1, 64, 0),
+        MEDIUM(5, 1024, 4),
+        LARGE(20, 16 * 1024, 16);
+
+        final int offerCount;
+        final int contentLength;
+        final int strategyCount;
+
+        Size(final int offerCount, final int contentLength, final int strategyCount) {
+            this.offerCount = offerCount;
+            this.contentLength = contentLength;
+            this.strategyCount = strategyCount;
+        }
+    }
+
+    /** Offer content shapes, as returned by Edge. */
+    public enum Content {
+        STRING,
+        MAP
+    }
+
+    private PropositionPayloads() {}
+
+    /**
+     * Creates a Target proposition payload with the given {@code size} and {@code content} shape.
+     *
+     * @param scope {@code String} containing the proposition scope.
+     * @param size {@link Size} profile of the payload.
+     * @param content {@link Content} shape of the offers content.
+     * @return {@code Map<String, Object>} containing the proposition event data.
+     */
+    static Map<String, Object> proposition(
+            final String scope, final Size size, final Content content) {
+        final List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < size.offerCount; i++) {
+            items.add(offer(scope + "-" + i, size.contentLength, content));
+        }
+        return proposition(scope, items, size.strategyCount);
+    }
+
+    /**
+     * Creates a Target proposition payload containing the given {@code offers}.
+     *
+     * @param scope {@code String} containing the proposition scope.
+     * @param offers {@code List<Map<String, Object>>} containing the offers event data.
+     * @return {@code Map<String, Object>} containing the proposition event data.
+     */
+    static Map<String, Object> proposition(
+            final String scope, final List<Map<String, Object>> offers) {
+        return proposition(scope, offers, 1);
+    }
+
+    /**
+     * Creates an offer payload with content of approximately {@code contentLength} characters.
+     *
+     * @param id {@code String} containing the offer id.
+     * @param contentLength {@code int} containing the approximate content length.
+     * @param content {@link Content} shape of the offer content.
+     * @return {@code Map<String, Object>} containing the offer event data.
+     */
+    static Map<String, Object> offer(
+            final String id, final int contentLength, final Content content) {
+        final Map<String, Object> data = new HashMap<>();
+        data.put("id", id);
+        if (content == Content.MAP) {
+            data.put("format", "application/json");
+            data.put("content", jsonContent(contentLength));
+        } else {
+            data.put("format", "text/html");
+            data.put("content", htmlContent(contentLength));
+        }
+
+        final Map<String, Object> meta = new HashMap<>();
+        meta.put("activity.name", "Benchmark Activity");
+        meta.put("experience.name", "Experience B");
+
+        final Map<String, Object> offer = new HashMap<>();
+        offer.put("id", id);
+        offer.put("etag", "7");
+        offer.put("score", 1);
+        offer.put(
+                "schema",
+                content == Content.MAP
+                        ? "https://ns.adobe.com/personalization/json-content-item"
+                        : "https://ns.adobe.com/personalization/html-content-item");
+        offer.put("meta", meta);
+        offer.put("data", data);
+        return offer;
+    }
+
+    private static Map<String, Object> proposition(
+            final String scope, final List<Map<String, Object>> offers, final int strategyCount) {
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", "AT:" + scope);
+        proposition.put("scope", scope);
+        proposition.put("scopeDetails", scopeDetails(strategyCount));
+        proposition.put("items", offers);
+        return proposition;
+    }
+
+    private static Map<String, Object> scopeDetails(final int strategyCount) {
+        final Map<String, Object> activity = new HashMap<>();
+        activity.put("id", "125589");
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("id", "0");
+
+        final List<Map<String, Object>> strategies = new ArrayList<>();
+        for (int i = 0; i < strategyCount; i++) {
+            final Map<String, Object> strategy = new HashMap<>();
+            strategy.put("algorithmID", String.valueOf(i));
+            strategy.put("trafficType", "0");
+            strategies.add(strategy);
+        }
+
+        final Map<String, Object> characteristics = new HashMap<>();
+        characteristics.put("eventToken", "bXZ0WGRhdGFfYmVuY2htYXJrX2V2ZW50X3Rva2Vu");
+
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        scopeDetails.put("activity", activity);
+        scopeDetails.put("experience", experience);
+        scopeDetails.put("strategies", strategies);
+        scopeDetails.put("characteristics", characteristics);
+        return scopeDetails;
+    }
+
+    private static String htmlContent(final int length) {
+        final StringBuilder builder = new StringBuilder(length + 32);
+        builder.append("<div>");
+        while (builder.length() < length) {
+            builder.append("<p>Personalized content</p>");
+        }
+        return builder.append("</div>").toString();
+    }
+
+    private static Map<String, Object> jsonContent(final int length) {
+        final Map<String, Object> content = new HashMap<>();
+        int approximateLength = 0;
+        for (int i = 0; approximateLength < length; i++) {
+            final String key = "key" + i;
+            final String value = "Personalized value " + i;
+            content.put(key, value);
+            approximateLength += key.length() + value.length() + 6;
+        }
+        return content;
+    }
+}
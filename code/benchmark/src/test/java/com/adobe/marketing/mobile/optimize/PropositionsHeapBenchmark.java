@@ -0,0 +1,126 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.adobe.marketing.mobile.ExtensionApi;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Retained heap benchmark for the propositions cache of {@link OptimizeExtension}.
+ *
+ * <p>For each configured cache size, synthetic propositions are loaded in the extension cache and
+ * the retained size of the whole cache object graph is measured with JOL. This includes the cache
+ * map, the {@link DecisionScope} keys, the {@link OptimizeProposition} and {@link Offer} objects
+ * and their event data maps. The measured bytes per entry are reported next to the estimate from
+ * {@link OptimizeFootprint}.
+ *
+ * <p>Usage: {@code ./gradlew -p code/benchmark heapBenchmark -PheapBenchmarkArgs="counts=1000,10000
+ * payloadSize=MEDIUM"}.
+ */
+public final class PropositionsHeapBenchmark {
+
+    private PropositionsHeapBenchmark() {}
+
+    public static void main(final String[] args) throws Exception {
+        int[] counts = {1000, 10000, 100000};
+        PropositionPayloads.Size payloadSize = PropositionPayloads.Size.SMALL;
+        String output = null;
+        for (final String arg : args) {
+            for (final String token : arg.trim().split("\\s+")) {
+                if (token.startsWith("counts=")) {
+                    final String[] values = token.substring("counts=".length()).split(",");
+                    counts = new int[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        counts[i] = Integer.parseInt(values[i]);
+                    }
+                } else if (token.startsWith("payloadSize=")) {
+                    payloadSize =
+                            PropositionPayloads.Size.valueOf(
+                                    token.substring("payloadSize=".length()));
+                } else if (token.startsWith("output=")) {
+                    output = token.substring("output=".length());
+                }
+            }
+        }
+
+        final JSONArray results = new JSONArray();
+        for (final int count : counts) {
+            final JSONObject result = measure(count, payloadSize);
+            System.out.println(result.toString());
+            results.put(result);
+        }
+
+        final JSONObject report = new JSONObject();
+        report.put("payloadSize", payloadSize.name());
+        report.put("results", results);
+        if (output != null) {
+            final File outputFile = new File(output);
+            if (outputFile.getParentFile() != null) {
+                outputFile.getParentFile().mkdirs();
+            }
+            try (Writer writer =
+                    new OutputStreamWriter(
+                            new FileOutputStream(outputFile), StandardCharsets.UTF_8)) {
+                writer.write(report.toString(2));
+            }
+        }
+    }
+
+    /**
+     * Loads {@code count} propositions in a new extension cache and measures its retained size.
+     *
+     * @param count {@code int} containing the number of cached propositions.
+     * @param payloadSize {@link PropositionPayloads.Size} profile of the propositions.
+     * @return {@link JSONObject} containing the measurement.
+     */
+    static JSONObject measure(final int count, final PropositionPayloads.Size payloadSize)
+            throws Exception {
+        final OptimizeExtension extension =
+                new OptimizeExtension(Mockito.mock(ExtensionApi.class));
+        final Map<DecisionScope, OptimizeProposition> propositions = new HashMap<>();
+        long estimatedBytes = 0;
+        for (int i = 0; i < count; i++) {
+            final String scope = "heapMbox-" + i;
+            final OptimizeProposition proposition =
+                    OptimizeProposition.fromEventData(
+                            PropositionPayloads.proposition(
+                                    scope, payloadSize, PropositionPayloads.Content.STRING));
+            // as in handleEdgeResponse, the propositions are interned when they are first cached.
+            proposition.intern();
+            propositions.put(new DecisionScope(scope), proposition);
+            estimatedBytes += proposition.getEstimatedRetainedBytes();
+        }
+        extension.setCachedPropositions(propositions);
+
+        final GraphLayout layout = GraphLayout.parseInstance(extension.getCachedPropositions());
+        final long retainedBytes = layout.totalSize();
+        System.out.println(layout.toFootprint());
+
+        final JSONObject result = new JSONObject();
+        result.put("count", count);
+        result.put("retainedBytes", retainedBytes);
+        result.put("objectCount", layout.totalCount());
+        result.put("bytesPerEntry", retainedBytes / (double) count);
+        result.put("estimatedBytesPerEntry", estimatedBytes / (double) count);
+        return result;
+    }
+}
@@ -18,15 +18,20 @@ import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 public class Offer {
 
     private static final String SELF_TAG = "Offer";
+    private static final Map<String, Object> INVALID_JSON_CONTENT =
+            Collections.unmodifiableMap(new HashMap<String, Object>());
     private String id;
     private String etag;
     private int score;
@@ -35,10 +40,21 @@ public class Offer {
     private OfferType type;
     private List<String> language;
     private String content;
+    private int contentHash;
     private Map<String, String> characteristics;
 
     SoftReference<OptimizeProposition> propositionReference;
 
+    // Event data for this offer, created once when its proposition is first dispatched.
+    private volatile Map<String, Object> eventData;
+
+    // Parsed content for JSON offers, parsed from the content on first access. It is softly
+    // referenced, so that the content isn't kept twice in memory when the heap runs low.
+    private volatile SoftReference<Map<String, Object>> jsonContent;
+
+    // Deflate compressed content, set in place of the content when it is compressed.
+    private byte[] compressedContent;
+
     /**
      * Private constructor.
      *
@@ -65,6 +81,7 @@ public class Offer {
             offer.id = id != null ? id : "";
             offer.type = type != null ? type : OfferType.UNKNOWN;
             offer.content = content != null ? content : "";
+            offer.contentHash = offer.content.hashCode();
             offer.etag = "";
             offer.score = 0;
             offer.schema = "";
@@ -242,9 +259,24 @@ public class Offer {
     /**
      * Gets the {@code Offer} language.
      *
+     * <p>A new copy of the language is returned on every call, it can be modified without
+     * affecting this {@code Offer}.
+     *
      * @return {@code List<String>} containing the supported {@link Offer} language.
      */
     public List<String> getLanguage() {
+        return language != null ? new ArrayList<>(language) : null;
+    }
+
+    /**
+     * Gets this {@code Offer}'s language without copying it.
+     *
+     * <p>The language of offers cached by the SDK is unmodifiable and may be shared with other
+     * offers, it must not be modified.
+     *
+     * @return {@code List<String>} containing the supported {@link Offer} language.
+     */
+    List<String> getSharedLanguage() {
         return language;
     }
 
@@ -254,15 +286,107 @@ public class Offer {
      * @return {@link String} containing the {@link Offer} content.
      */
     public String getContent() {
-        return content;
+        final byte[] compressed = compressedContent;
+        return compressed != null ? OptimizeContentCompressor.decompress(compressed) : content;
+    }
+
+    /**
+     * Compresses this {@code Offer}'s content if its length is at least {@code threshold}
+     * characters.
+     *
+     * <p>The compressed content replaces the content, which is decompressed on access and kept in
+     * the {@link OptimizeContentCompressor} cache. The content is left uncompressed if it doesn't
+     * get smaller. This method must be called before the {@code Offer} is shared with other
+     * threads.
+     *
+     * @param threshold {@code int} containing the minimum content length to be compressed, a
+     *     non-positive value disables compression.
+     */
+    void compressContent(final int threshold) {
+        if (threshold <= 0 || compressedContent != null || content.length() < threshold) {
+            return;
+        }
+        final byte[] compressed = OptimizeContentCompressor.compress(content);
+        if (compressed == null) {
+            return;
+        }
+        compressedContent = compressed;
+        content = null;
+        // the parsed JSON content is created again on access.
+        jsonContent = null;
+        eventData = null;
+    }
+
+    /**
+     * Replaces this {@code Offer}'s content, language, characteristics and JSON content with the
+     * instances shared through {@link OptimizeInternPool} by equal offers, as the same content is
+     * often received for many decision scopes.
+     *
+     * <p>This method must be called before the {@code Offer} is shared with other threads, and
+     * before its content is compressed.
+     */
+    void intern() {
+        content = OptimizeInternPool.internContent(content);
+        language = OptimizeInternPool.internStringList(language);
+        characteristics = OptimizeInternPool.internStringMap(characteristics);
+        eventData = null;
+    }
+
+    /**
+     * Gets this {@code Offer}'s compressed content.
+     *
+     * @return {@code byte[]} containing the compressed content, or null if it isn't compressed.
+     */
+    byte[] getCompressedContent() {
+        return compressedContent;
+    }
+
+    /**
+     * Gets the {@code Offer} JSON content, parsed into a {@code Map<String, Object>}.
+     *
+     * <p>The content is parsed on first access and reused afterwards, unless the parsed content is
+     * reclaimed when the heap runs low, nested JSON objects and arrays are returned as unmodifiable
+     * maps and lists.
+     *
+     * @return {@code Map<String, Object>} containing the parsed {@link Offer} content, or null if
+     *     the {@code Offer} type is not {@link OfferType#JSON} or its content is not a valid JSON
+     *     object.
+     */
+    public Map<String, Object> getJsonContent() {
+        if (type != OfferType.JSON) {
+            return null;
+        }
+        final SoftReference<Map<String, Object>> parsedContentReference = jsonContent;
+        Map<String, Object> parsedContent =
+                parsedContentReference != null ? parsedContentReference.get() : null;
+        if (parsedContent == null) {
+            parsedContent = parseJsonContent();
+            jsonContent = new SoftReference<>(parsedContent);
+        }
+        return parsedContent != INVALID_JSON_CONTENT ? parsedContent : null;
     }
 
     /**
      * Gets the {@code Offer} characteristics.
      *
+     * <p>A new copy of the characteristics is returned on every call, it can be modified without
+     * affecting this {@code Offer}.
+     *
      * @return {@code Map<String, String>} containing the {@link Offer} characteristics.
      */
     public Map<String, String> getCharacteristics() {
+        return characteristics != null ? new HashMap<>(characteristics) : null;
+    }
+
+    /**
+     * Gets this {@code Offer}'s characteristics without copying them.
+     *
+     * <p>The characteristics of offers cached by the SDK are unmodifiable and may be shared with
+     * other offers, they must not be modified.
+     *
+     * @return {@code Map<String, String>} containing the {@link Offer} characteristics.
+     */
+    Map<String, String> getSharedCharacteristics() {
         return characteristics;
     }
 
@@ -357,7 +481,7 @@ public class Offer {
                 optimizeProposition.getScope());
         propositionsData.put(
                 OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_SCOPEDETAILS,
-                optimizeProposition.getScopeDetails());
+                optimizeProposition.getSharedScopeDetails());
 
         final Map<String, Object> propositionItem = new HashMap<>();
         propositionItem.put(OptimizeConstants.JsonKeys.DECISIONING_PROPOSITIONS_ITEMS_ID, id);
@@ -553,10 +677,18 @@ public class Offer {
     /**
      * Creates a {@code Map<String, Object>} using this {@code Offer}'s attributes.
      *
+     * <p>The event data is created on first access and reused afterwards, unless the content is
+     * compressed. The returned map and its item data map are unmodifiable.
+     *
      * @return {@code Map<String, Object>} containing {@link Offer} data.
      */
     Map<String, Object> toEventData() {
-        final Map<String, Object> offerMap = new HashMap<>();
+        Map<String, Object> offerMap = eventData;
+        if (offerMap != null) {
+            return offerMap;
+        }
+
+        offerMap = new HashMap<>();
         offerMap.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_ID, this.id);
         offerMap.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_ETAG, this.etag);
         offerMap.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_SCORE, this.score);
@@ -566,12 +698,18 @@ public class Offer {
         final Map<String, Object> data = new HashMap<>();
         data.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_ID, this.id);
         data.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_TYPE, this.type.toString());
-        data.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_CONTENT, this.content);
+        data.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_CONTENT, getContent());
         data.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_LANGUAGE, this.language);
         data.put(
                 OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA_CHARACTERISTICS, this.characteristics);
 
-        offerMap.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA, data);
+        offerMap.put(
+                OptimizeConstants.JsonKeys.PAYLOAD_ITEM_DATA, Collections.unmodifiableMap(data));
+        offerMap = Collections.unmodifiableMap(offerMap);
+        if (compressedContent == null) {
+            // the decompressed content isn't retained by the event data.
+            eventData = offerMap;
+        }
         return offerMap;
     }
 
@@ -581,6 +719,8 @@ public class Offer {
         if (o == null || getClass() != o.getClass()) return false;
 
         Offer that = (Offer) o;
+        // offers with different content are told apart without comparing the content.
+        if (contentHash != that.contentHash) return false;
         if (id != null ? !id.equals(that.id) : that.id != null) return false;
         if (score != that.score) return false;
         if (etag != null ? !etag.equals(that.etag) : that.etag != null) return false;
@@ -589,7 +729,15 @@ public class Offer {
         if (type != that.type) return false;
         if (language != null ? !language.equals(that.language) : that.language != null)
             return false;
-        if (content != null ? !content.equals(that.content) : that.content != null) return false;
+        if (compressedContent != null && that.compressedContent != null) {
+            // deflate at a fixed level is deterministic, equal content is equally compressed.
+            if (!Arrays.equals(compressedContent, that.compressedContent)) return false;
+        } else {
+            final String thisContent = getContent();
+            final String thatContent = that.getContent();
+            if (thisContent != null ? !thisContent.equals(thatContent) : thatContent != null)
+                return false;
+        }
         return characteristics != null
                 ? characteristics.equals(that.characteristics)
                 : that.characteristics == null;
@@ -597,7 +745,21 @@ public class Offer {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, etag, score, schema, type, language, content, characteristics);
+        return Objects.hash(id, etag, score, schema, type, language, contentHash, characteristics);
+    }
+
+    private Map<String, Object> parseJsonContent() {
+        try {
+            return OptimizeUtils.toMap(new JSONObject(getContent()));
+        } catch (final JSONException e) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot parse the JSON content for Offer (%s), failed with exception: %s",
+                    id,
+                    e.getLocalizedMessage());
+            return INVALID_JSON_CONTENT;
+        }
     }
 
     private static String getContentFromOfferData(final Map<String, Object> offerData) {
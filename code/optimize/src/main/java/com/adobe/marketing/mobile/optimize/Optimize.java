@@ -91,7 +91,13 @@ public class Optimize {
             @Nullable final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
         final double defaultTimeoutSeconds =
                 OptimizeConstants.EDGE_CONTENT_COMPLETE_RESPONSE_TIMEOUT;
-        updatePropositionsInternal(decisionScopes, xdm, data, defaultTimeoutSeconds, callback);
+        updatePropositionsInternal(
+                decisionScopes,
+                xdm,
+                data,
+                defaultTimeoutSeconds,
+                RequestPriority.FOREGROUND,
+                callback);
     }
 
     /**
@@ -119,15 +125,117 @@ public class Optimize {
             @Nullable final Map<String, Object> data,
             final double timeoutSeconds,
             @Nullable final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
-        updatePropositionsInternal(decisionScopes, xdm, data, timeoutSeconds, callback);
+        updatePropositionsInternal(
+                decisionScopes, xdm, data, timeoutSeconds, RequestPriority.FOREGROUND, callback);
     }
 
-    private static void updatePropositionsInternal(
+    /**
+     * This API dispatches an Event for the Edge network extension to fetch decision propositions,
+     * for the provided decision scopes list, from the decisioning services enabled in the
+     * Experience Edge network, using the provided request {@code priority}.
+     *
+     * <p>A {@link RequestPriority#PREFETCH} request is deferred while any foreground update
+     * request is in progress and it only holds back get propositions requests for its own
+     * decision scopes. The provided {@code timeoutSeconds} includes any time the request spends
+     * deferred.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to
+     *     be updated.
+     * @param xdm {@code Map<String, Object>} containing additional XDM-formatted data to be sent in
+     *     the personalization query request.
+     * @param data {@code Map<String, Object>} containing additional free-form data to be sent in
+     *     the personalization query request.
+     * @param timeoutSeconds {@code Double} containing additional configurable timeout(seconds) to
+     *     be sent in the personalization query request.
+     * @param priority {@link RequestPriority} of the personalization query request.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, OptimizeProposition>>} which will be
+     *     invoked when decision propositions are received from the Edge network.
+     */
+    public static void updatePropositions(
+            @NonNull final List<DecisionScope> decisionScopes,
+            @Nullable final Map<String, Object> xdm,
+            @Nullable final Map<String, Object> data,
+            final double timeoutSeconds,
+            @NonNull final RequestPriority priority,
+            @Nullable final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        updatePropositionsInternal(decisionScopes, xdm, data, timeoutSeconds, priority, callback);
+    }
+
+    /**
+     * This API dispatches an Event for the Edge network extension to fetch decision propositions,
+     * for the provided decision scopes list, from the decisioning services enabled in the
+     * Experience Edge network, and returns a handle which can be used to cancel the request.
+     *
+     * <p>The returned decision propositions are cached in-memory in the Optimize SDK extension and
+     * can be retrieved using {@link #getPropositions(List, double, AdobeCallback)} API. If the
+     * request is cancelled using {@link UpdatePropositionsHandle#cancel()} before it completes,
+     * the provided {@code callback} is not invoked and any propositions received later for this
+     * request are discarded.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to
+     *     be updated.
+     * @param xdm {@code Map<String, Object>} containing additional XDM-formatted data to be sent in
+     *     the personalization query request.
+     * @param data {@code Map<String, Object>} containing additional free-form data to be sent in
+     *     the personalization query request.
+     * @param timeoutSeconds {@code Double} containing additional configurable timeout(seconds) to
+     *     be sent in the personalization query request.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, OptimizeProposition>>} which will be
+     *     invoked when decision propositions are received from the Edge network.
+     * @return {@link UpdatePropositionsHandle} for the dispatched request, or null if no request
+     *     was dispatched because the provided decision scopes are invalid.
+     */
+    @Nullable public static UpdatePropositionsHandle updatePropositionsCancellable(
+            @NonNull final List<DecisionScope> decisionScopes,
+            @Nullable final Map<String, Object> xdm,
+            @Nullable final Map<String, Object> data,
+            final double timeoutSeconds,
+            @Nullable final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        return updatePropositionsInternal(
+                decisionScopes, xdm, data, timeoutSeconds, RequestPriority.FOREGROUND, callback);
+    }
+
+    /**
+     * This API dispatches an Event for the Edge network extension to fetch decision propositions,
+     * for the provided decision scopes list, using the provided request {@code priority}, and
+     * returns a handle which can be used to cancel the request.
+     *
+     * <p>A {@link RequestPriority#PREFETCH} request cancelled while it is still deferred is never
+     * sent to the Edge network.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to
+     *     be updated.
+     * @param xdm {@code Map<String, Object>} containing additional XDM-formatted data to be sent in
+     *     the personalization query request.
+     * @param data {@code Map<String, Object>} containing additional free-form data to be sent in
+     *     the personalization query request.
+     * @param timeoutSeconds {@code Double} containing additional configurable timeout(seconds) to
+     *     be sent in the personalization query request.
+     * @param priority {@link RequestPriority} of the personalization query request.
+     * @param callback {@code AdobeCallback<Map<DecisionScope, OptimizeProposition>>} which will be
+     *     invoked when decision propositions are received from the Edge network.
+     * @return {@link UpdatePropositionsHandle} for the dispatched request, or null if no request
+     *     was dispatched because the provided decision scopes are invalid.
+     */
+    @Nullable public static UpdatePropositionsHandle updatePropositionsCancellable(
+            @NonNull final List<DecisionScope> decisionScopes,
+            @Nullable final Map<String, Object> xdm,
+            @Nullable final Map<String, Object> data,
+            final double timeoutSeconds,
+            @NonNull final RequestPriority priority,
+            @Nullable final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        return updatePropositionsInternal(
+                decisionScopes, xdm, data, timeoutSeconds, priority, callback);
+    }
+
+    private static UpdatePropositionsHandle updatePropositionsInternal(
             @NonNull final List<DecisionScope> decisionScopes,
             @Nullable final Map<String, Object> xdm,
             @Nullable final Map<String, Object> data,
             final double timeoutSeconds,
+            @NonNull final RequestPriority priority,
             @Nullable final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        final long startNanos = System.nanoTime();
 
         if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
             Log.warning(
@@ -139,7 +247,7 @@ public class Optimize {
             AEPOptimizeError aepOptimizeError = AEPOptimizeError.Companion.getUnexpectedError();
             failWithOptimizeError(callback, aepOptimizeError);
 
-            return;
+            return null;
         }
 
         final List<DecisionScope> validScopes = new ArrayList<>();
@@ -156,7 +264,7 @@ public class Optimize {
                     SELF_TAG,
                     "Cannot update propositions, provided list of decision scopes has no valid"
                             + " scope.");
-            return;
+            return null;
         }
 
         final List<Map<String, Object>> flattenedDecisionScopes = new ArrayList<>();
@@ -178,6 +286,10 @@ public class Optimize {
             eventData.put(OptimizeConstants.EventDataKeys.DATA, data);
         }
 
+        if (priority == RequestPriority.PREFETCH) {
+            eventData.put(OptimizeConstants.EventDataKeys.PRIORITY, priority.toString());
+        }
+
         long timeoutMillis = (long) (timeoutSeconds * OptimizeConstants.TIMEOUT_CONVERSION_FACTOR);
 
         eventData.put(OptimizeConstants.EventDataKeys.TIMEOUT, timeoutMillis);
@@ -190,12 +302,30 @@ public class Optimize {
                         .setEventData(eventData)
                         .build();
 
+        final UpdatePropositionsHandle handle =
+                new UpdatePropositionsHandle(event.getUniqueIdentifier());
+        OptimizeMetrics.recordSince(OptimizeConstants.Metrics.STAGE_API_VALIDATION, startNanos);
+        if (OptimizeTracer.isEnabled()) {
+            final Map<String, Object> attributes = new HashMap<>();
+            attributes.put(OptimizeTraceSpan.ATTRIBUTE_SCOPE_COUNT, validScopes.size());
+            OptimizeTracer.recordSpan(
+                    event.getUniqueIdentifier(),
+                    OptimizeTraceSpan.UPDATE_PROPOSITIONS,
+                    startNanos,
+                    attributes);
+        }
+
         MobileCore.dispatchEventWithResponseCallback(
                 event,
                 timeoutMillis,
                 new AdobeCallbackWithError<Event>() {
                     @Override
                     public void fail(final AdobeError adobeError) {
+                        if (handle.isCancelled()) {
+                            return;
+                        }
+
+                        final long failStartNanos = System.nanoTime();
                         AEPOptimizeError aepOptimizeError;
                         if (adobeError == AdobeError.CALLBACK_TIMEOUT) {
                             aepOptimizeError = AEPOptimizeError.Companion.getTimeoutError();
@@ -203,10 +333,26 @@ public class Optimize {
                             aepOptimizeError = AEPOptimizeError.Companion.getUnexpectedError();
                         }
                         failWithOptimizeError(callback, aepOptimizeError);
+
+                        if (OptimizeTracer.isEnabled()) {
+                            final Map<String, Object> attributes = new HashMap<>();
+                            attributes.put(
+                                    OptimizeTraceSpan.ATTRIBUTE_ERROR, adobeError.getErrorName());
+                            OptimizeTracer.recordSpan(
+                                    handle.getRequestEventId(),
+                                    OptimizeTraceSpan.RESPONSE_CALLBACK,
+                                    failStartNanos,
+                                    attributes);
+                        }
                     }
 
                     @Override
                     public void call(final Event event) {
+                        if (handle.isCancelled()) {
+                            return;
+                        }
+
+                        final long parseStartNanos = System.nanoTime();
                         try {
                             final Map<String, Object> eventData = event.getEventData();
                             if (OptimizeUtils.isNullOrEmpty(eventData)) {
@@ -257,6 +403,20 @@ public class Optimize {
                                 }
                             }
 
+                            OptimizeMetrics.recordSince(
+                                    OptimizeConstants.Metrics.STAGE_CALLBACK_PARSE,
+                                    parseStartNanos);
+                            if (OptimizeTracer.isEnabled()) {
+                                final Map<String, Object> attributes = new HashMap<>();
+                                attributes.put(
+                                        OptimizeTraceSpan.ATTRIBUTE_PROPOSITION_COUNT,
+                                        propositionsMap.size());
+                                OptimizeTracer.recordSpan(
+                                        handle.getRequestEventId(),
+                                        OptimizeTraceSpan.RESPONSE_CALLBACK,
+                                        parseStartNanos,
+                                        attributes);
+                            }
                             if (callback != null) {
                                 callback.call(propositionsMap);
                             }
@@ -266,6 +426,8 @@ public class Optimize {
                         }
                     }
                 });
+
+        return handle;
     }
 
     /**
@@ -304,6 +466,7 @@ public class Optimize {
             @NonNull final List<DecisionScope> decisionScopes,
             final double timeoutSeconds,
             @NonNull final AdobeCallback<Map<DecisionScope, OptimizeProposition>> callback) {
+        final long startNanos = System.nanoTime();
         if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
             Log.warning(
                     OptimizeConstants.LOG_TAG,
@@ -351,6 +514,7 @@ public class Optimize {
                         .build();
 
         long timeoutMillis = (long) (timeoutSeconds * OptimizeConstants.TIMEOUT_CONVERSION_FACTOR);
+        OptimizeMetrics.recordSince(OptimizeConstants.Metrics.STAGE_API_VALIDATION, startNanos);
 
         MobileCore.dispatchEventWithResponseCallback(
                 event,
@@ -363,6 +527,7 @@ public class Optimize {
 
                     @Override
                     public void call(final Event event) {
+                        final long parseStartNanos = System.nanoTime();
                         try {
                             final Map<String, Object> eventData = event.getEventData();
                             if (OptimizeUtils.isNullOrEmpty(eventData)) {
@@ -402,6 +567,9 @@ public class Optimize {
                                     }
                                 }
                             }
+                            OptimizeMetrics.recordSince(
+                                    OptimizeConstants.Metrics.STAGE_CALLBACK_PARSE,
+                                    parseStartNanos);
                             callback.call(propositionsMap);
                         } catch (DataReaderException e) {
                             failWithError(callback, AdobeError.UNEXPECTED_ERROR);
@@ -410,6 +578,164 @@ public class Optimize {
                 });
     }
 
+    /**
+     * This API synchronously retrieves the previously fetched propositions, for the provided
+     * decision scopes, from the in-memory extension propositions cache.
+     *
+     * <p>Unlike {@link #getPropositions(List, AdobeCallback)}, this API does not dispatch an event
+     * and does not wait for any in-progress update propositions requests to complete. It returns
+     * immediately with the propositions currently committed to the cache, which makes it suitable
+     * for rendering personalized content in the first frame. The returned {@link
+     * OptimizeProposition} objects are the cached instances and should be treated as read-only.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing scopes for which offers need to
+     *     be requested.
+     * @return {@code Map<DecisionScope, OptimizeProposition>} containing the cached propositions
+     *     for the provided decision scopes, or an empty map if none are cached.
+     */
+    @NonNull public static Map<DecisionScope, OptimizeProposition> peekCachedPropositions(
+            @NonNull final List<DecisionScope> decisionScopes) {
+        if (OptimizeUtils.isNullOrEmpty(decisionScopes)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot peek cached propositions, provided list of decision scopes is null or"
+                            + " empty.");
+            return new HashMap<>();
+        }
+
+        final List<DecisionScope> validScopes = new ArrayList<>();
+        for (final DecisionScope scope : decisionScopes) {
+            if (!scope.isValid()) {
+                continue;
+            }
+            validScopes.add(scope);
+        }
+
+        if (validScopes.size() == 0) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot peek cached propositions, provided list of decision scopes has no valid"
+                            + " scope.");
+            return new HashMap<>();
+        }
+
+        return OptimizeExtension.peekCachedPropositions(validScopes);
+    }
+
+    /**
+     * This API registers a prefetch manifest, mapping screen names or tags to the decision scopes
+     * needed by them, with the Optimize extension.
+     *
+     * <p>Upon registration, the extension schedules a single batched prefetch request for all the
+     * decision scopes in the manifest which are not already fetched within the provided {@code
+     * ttlSeconds}. Prefetch requests are deferred while any foreground update propositions request
+     * is in progress, see {@link RequestPriority#PREFETCH}. A newly registered manifest replaces
+     * any previously registered manifest.
+     *
+     * @param manifest {@code Map<String, List<DecisionScope>>} containing tags and the
+     *     corresponding decision scopes to be prefetched.
+     * @param ttlSeconds {@code double} containing the time(seconds) for which fetched propositions
+     *     are considered fresh and are not prefetched again.
+     */
+    public static void registerPrefetchManifest(
+            @NonNull final Map<String, List<DecisionScope>> manifest, final double ttlSeconds) {
+        if (OptimizeUtils.isNullOrEmpty(manifest)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot register prefetch manifest, provided manifest is null or empty.");
+            return;
+        }
+
+        final Map<String, Object> flattenedManifest = new HashMap<>();
+        for (final Map.Entry<String, List<DecisionScope>> entry : manifest.entrySet()) {
+            if (OptimizeUtils.isNullOrEmpty(entry.getKey())
+                    || OptimizeUtils.isNullOrEmpty(entry.getValue())) {
+                continue;
+            }
+
+            final List<Map<String, Object>> flattenedDecisionScopes = new ArrayList<>();
+            for (final DecisionScope scope : entry.getValue()) {
+                if (scope == null || !scope.isValid()) {
+                    continue;
+                }
+                flattenedDecisionScopes.add(scope.toEventData());
+            }
+
+            if (!flattenedDecisionScopes.isEmpty()) {
+                flattenedManifest.put(entry.getKey(), flattenedDecisionScopes);
+            }
+        }
+
+        if (flattenedManifest.isEmpty()) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot register prefetch manifest, provided manifest has no tag with a valid"
+                            + " decision scope.");
+            return;
+        }
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_REGISTER_PREFETCH_MANIFEST);
+        eventData.put(OptimizeConstants.EventDataKeys.PREFETCH_MANIFEST, flattenedManifest);
+        eventData.put(
+                OptimizeConstants.EventDataKeys.PREFETCH_TTL,
+                (long) (ttlSeconds * OptimizeConstants.TIMEOUT_CONVERSION_FACTOR));
+
+        final Event event =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.REGISTER_PREFETCH_MANIFEST_REQUEST,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .build();
+
+        MobileCore.dispatchEvent(event);
+    }
+
+    /**
+     * This API requests the Optimize extension to prefetch the decision scopes registered for the
+     * provided {@code tag} in the prefetch manifest, e.g. when the app is about to navigate to the
+     * corresponding screen.
+     *
+     * <p>Decision scopes already fetched within the manifest TTL, or already being fetched, are not
+     * requested again.
+     *
+     * @param tag {@link String} containing the prefetch manifest tag.
+     * @see #registerPrefetchManifest(Map, double)
+     */
+    public static void prefetchPropositions(@NonNull final String tag) {
+        if (OptimizeUtils.isNullOrEmpty(tag)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot prefetch propositions, provided prefetch manifest tag is null or"
+                            + " empty.");
+            return;
+        }
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_PREFETCH);
+        eventData.put(OptimizeConstants.EventDataKeys.PREFETCH_TAG, tag);
+
+        final Event event =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.PREFETCH_PROPOSITIONS_REQUEST,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .build();
+
+        MobileCore.dispatchEvent(event);
+    }
+
     /**
      * This API registers a permanent callback which is invoked whenever the Edge extension
      * dispatches a response Event received from the Experience Edge Network upon a personalization
@@ -482,6 +808,76 @@ public class Optimize {
         MobileCore.dispatchEvent(event);
     }
 
+    /**
+     * This API returns a snapshot of the latency and counter metrics recorded by the Optimize SDK
+     * since the application was launched.
+     *
+     * <p>The returned map contains a {@code stages} map with the {@code count}, {@code
+     * totalMicros}, {@code maxMicros}, {@code p50Micros}, {@code p90Micros} and {@code p99Micros}
+     * latencies for each request pipeline stage, and a {@code counters} map with the value of each
+     * request counter.
+     *
+     * @return {@code Map<String, Object>} containing the metrics snapshot.
+     */
+    @NonNull public static Map<String, Object> getMetrics() {
+        return OptimizeMetrics.snapshot();
+    }
+
+    /**
+     * This API returns the propositions cache usage statistics, recorded by the get propositions
+     * requests since the application was launched, for each requested decision scope.
+     *
+     * <p>The returned map is keyed by decision scope name, and each value is a map containing the
+     * {@code requests}, {@code hits}, {@code misses}, {@code inFlightWaits} and {@code
+     * staleServes} counts, along with the {@code lastAccessTimestamp} (milliseconds since epoch)
+     * and the average {@code requestsPerMinute}. These can be used to tune the prefetch manifest
+     * and the decision scopes fetched on launch.
+     *
+     * @return {@code Map<String, Object>} containing the usage statistics for each decision scope.
+     */
+    @NonNull public static Map<String, Object> getCacheStatistics() {
+        return OptimizeCacheStats.snapshot();
+    }
+
+    /**
+     * This API returns the estimated heap retained by the propositions held in the SDK.
+     *
+     * <p>The returned map contains the {@code cachedPropositionsBytes}, {@code
+     * previewCachedPropositionsBytes} and {@code propositionsInProgressBytes} estimates along with
+     * their {@code totalBytes}, and a {@code topScopes} list with the {@code scope} name and
+     * {@code bytes} of the heaviest cached decision scopes, sorted by decreasing size. The
+     * estimates are computed once when propositions are received, so this API returns without
+     * walking the cached offers.
+     *
+     * @param topScopesCount {@code int} containing the maximum number of heaviest decision scopes
+     *     to be returned.
+     * @return {@code Map<String, Object>} containing the estimated footprint of the propositions.
+     */
+    @NonNull public static Map<String, Object> getPropositionsFootprint(final int topScopesCount) {
+        if (topScopesCount < 0) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Top scopes count (%d) cannot be negative, no top scopes will be returned.",
+                    topScopesCount);
+        }
+        return OptimizeExtension.getPropositionsFootprint(Math.max(0, topScopesCount));
+    }
+
+    /**
+     * This API registers the {@link OptimizeTraceSink} receiving the {@link OptimizeTraceSpan}
+     * objects recorded at each stage of an update propositions request.
+     *
+     * <p>All the spans of an update propositions request share the same trace identifier, which is
+     * the request event identifier, so that they can be correlated in an APM tool. Only one sink
+     * can be registered, registering a new sink replaces the previous one.
+     *
+     * @param traceSink {@link OptimizeTraceSink} receiving the spans, or null to stop tracing.
+     */
+    public static void setTraceSink(@Nullable final OptimizeTraceSink traceSink) {
+        OptimizeTracer.setSink(traceSink);
+    }
+
     /**
      * Invokes fail method with the provided {@code error}, if the callback is an instance of {@code
      * AdobeCallbackWithError}.
@@ -0,0 +1,134 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code OptimizeCacheStats} is the process-wide registry of propositions cache usage statistics
+ * for each decision scope requested through get propositions requests.
+ *
+ * <p>Each access is classified as a cache hit, a cache miss or a wait on an in-flight update
+ * request. Cache hits for propositions older than the prefetch TTL are also counted as stale
+ * serves.
+ */
+final class OptimizeCacheStats {
+
+    private static final ConcurrentHashMap<String, ScopeStats> scopeStats =
+            new ConcurrentHashMap<>();
+
+    private OptimizeCacheStats() {}
+
+    /**
+     * Records a get propositions request for the given {@code scope} served from the cache.
+     *
+     * @param scope {@link DecisionScope} for which propositions are requested.
+     * @param stale {@code boolean} indicating whether the cached propositions are stale.
+     */
+    static void recordHit(@NonNull final DecisionScope scope, final boolean stale) {
+        final ScopeStats stats = statsFor(scope);
+        stats.hits.incrementAndGet();
+        if (stale) {
+            stats.staleServes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a get propositions request for the given {@code scope} not present in the cache.
+     *
+     * @param scope {@link DecisionScope} for which propositions are requested.
+     */
+    static void recordMiss(@NonNull final DecisionScope scope) {
+        statsFor(scope).misses.incrementAndGet();
+    }
+
+    /**
+     * Records a get propositions request for the given {@code scope} waiting on an in-flight update
+     * propositions request.
+     *
+     * @param scope {@link DecisionScope} for which propositions are requested.
+     */
+    static void recordInFlightWait(@NonNull final DecisionScope scope) {
+        statsFor(scope).inFlightWaits.incrementAndGet();
+    }
+
+    /**
+     * Creates a point-in-time snapshot of the usage statistics, keyed by decision scope name.
+     *
+     * @return {@code Map<String, Object>} containing the usage statistics for each decision scope.
+     */
+    @NonNull static Map<String, Object> snapshot() {
+        final long now = System.currentTimeMillis();
+        final Map<String, Object> snapshot = new HashMap<>();
+        for (final Map.Entry<String, ScopeStats> entry : scopeStats.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().toMap(now));
+        }
+        return snapshot;
+    }
+
+    /** Clears all the recorded usage statistics. */
+    static void reset() {
+        scopeStats.clear();
+    }
+
+    private static ScopeStats statsFor(@NonNull final DecisionScope scope) {
+        ScopeStats stats = scopeStats.get(scope.getName());
+        if (stats == null) {
+            final ScopeStats newStats = new ScopeStats(System.currentTimeMillis());
+            final ScopeStats existing = scopeStats.putIfAbsent(scope.getName(), newStats);
+            stats = existing != null ? existing : newStats;
+        }
+        stats.requests.incrementAndGet();
+        stats.lastAccessMillis.set(System.currentTimeMillis());
+        return stats;
+    }
+
+    private static final class ScopeStats {
+        private final long firstAccessMillis;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong inFlightWaits = new AtomicLong();
+        private final AtomicLong staleServes = new AtomicLong();
+        private final AtomicLong lastAccessMillis = new AtomicLong();
+
+        ScopeStats(final long firstAccessMillis) {
+            this.firstAccessMillis = firstAccessMillis;
+        }
+
+        Map<String, Object> toMap(final long now) {
+            final long requestCount = requests.get();
+            // frequency is averaged over at least a minute to avoid spikes for new scopes.
+            final double elapsedMinutes =
+                    Math.max(
+                            1.0,
+                            (now - firstAccessMillis) / (double) TimeUnit.MINUTES.toMillis(1));
+
+            final Map<String, Object> stats = new HashMap<>();
+            stats.put(OptimizeConstants.CacheStats.REQUESTS, requestCount);
+            stats.put(OptimizeConstants.CacheStats.HITS, hits.get());
+            stats.put(OptimizeConstants.CacheStats.MISSES, misses.get());
+            stats.put(OptimizeConstants.CacheStats.IN_FLIGHT_WAITS, inFlightWaits.get());
+            stats.put(OptimizeConstants.CacheStats.STALE_SERVES, staleServes.get());
+            stats.put(OptimizeConstants.CacheStats.LAST_ACCESS_TIMESTAMP, lastAccessMillis.get());
+            stats.put(
+                    OptimizeConstants.CacheStats.REQUESTS_PER_MINUTE,
+                    requestCount / elapsedMinutes);
+            return stats;
+        }
+    }
+}
@@ -18,7 +18,12 @@ class OptimizeConstants {
     static final String FRIENDLY_NAME = "Optimize";
     static final double GET_RESPONSE_CALLBACK_TIMEOUT = 10;
     static final double EDGE_CONTENT_COMPLETE_RESPONSE_TIMEOUT = 10;
+    static final long DEFAULT_DISPATCHER_WAIT_WARNING_THRESHOLD_MILLIS = 2000;
     static final long TIMEOUT_CONVERSION_FACTOR = 1000;
+    static final String PROPOSITIONS_SNAPSHOT_FILE = "aepsdk-optimize/propositions.snapshot";
+    static final int DECOMPRESSED_CONTENT_CACHE_SIZE = 16;
+    static final int MAX_INTERNED_CONTENT_LENGTH = 4096;
+    static final int MAX_CANCELLED_UPDATE_REQUESTS = 100;
 
     static final String ACTIVITY_ID = "activityId";
     static final String XDM_ACTIVITY_ID = "xdm:activityId";
@@ -38,12 +43,19 @@ class OptimizeConstants {
         static final String GET_PROPOSITIONS_REQUEST = "Optimize Get Propositions Request";
         static final String TRACK_PROPOSITIONS_REQUEST = "Optimize Track Propositions Request";
         static final String CLEAR_PROPOSITIONS_REQUEST = "Optimize Clear Propositions Request";
+        static final String CANCEL_UPDATE_PROPOSITIONS_REQUEST =
+                "Optimize Cancel Update Propositions Request";
+        static final String REGISTER_PREFETCH_MANIFEST_REQUEST =
+                "Optimize Register Prefetch Manifest Request";
+        static final String PREFETCH_PROPOSITIONS_REQUEST =
+                "Optimize Prefetch Propositions Request";
         static final String OPTIMIZE_NOTIFICATION = "Optimize Notification";
         static final String EDGE_PERSONALIZATION_REQUEST = "Edge Optimize Personalization Request";
         static final String EDGE_PROPOSITION_INTERACTION_REQUEST =
                 "Edge Optimize Proposition Interaction Request";
         static final String OPTIMIZE_RESPONSE = "Optimize Response";
         static final String OPTIMIZE_UPDATE_COMPLETE = "Optimize Update Propositions Complete";
+        static final String OPTIMIZE_METRICS = "Optimize Metrics";
 
         private EventNames() {}
     }
@@ -65,12 +77,14 @@ class OptimizeConstants {
         static final String EDGE_PERSONALIZATION_DECISIONS = "personalization:decisions";
         static final String CONTENT_COMPLETE = "com.adobe.eventSource.contentComplete";
         static final String DEBUG = "com.adobe.eventSource.debug";
+        static final String SHARED_STATE = "com.adobe.eventSource.sharedState";
 
         private EventSource() {}
     }
 
     static final class EventDataKeys {
         static final String REQUEST_TYPE = "requesttype";
+        static final String STATE_OWNER = "stateowner";
         static final String DECISION_SCOPES = "decisionscopes";
         static final String DECISION_SCOPE_NAME = "name";
         static final String XDM = "xdm";
@@ -81,6 +95,12 @@ class OptimizeConstants {
         static final String PROPOSITION_INTERACTIONS = "propositioninteractions";
         static final String REQUEST_EVENT_ID = "requestEventId";
         static final String COMPLETED_UPDATE_EVENT_ID = "completedUpdateRequestForEventId";
+        static final String CANCEL_UPDATE_EVENT_ID = "cancelUpdateRequestForEventId";
+        static final String PRIORITY = "priority";
+        static final String PREFETCH_MANIFEST = "prefetchmanifest";
+        static final String PREFETCH_TTL = "prefetchttl";
+        static final String PREFETCH_TAG = "prefetchtag";
+        static final String METRICS = "metrics";
 
         private EventDataKeys() {}
     }
@@ -89,6 +109,9 @@ class OptimizeConstants {
         static final String REQUEST_TYPE_UPDATE = "updatepropositions";
         static final String REQUEST_TYPE_GET = "getpropositions";
         static final String REQUEST_TYPE_TRACK = "trackpropositions";
+        static final String REQUEST_TYPE_CANCEL_UPDATE = "cancelupdatepropositions";
+        static final String REQUEST_TYPE_REGISTER_PREFETCH_MANIFEST = "registerprefetchmanifest";
+        static final String REQUEST_TYPE_PREFETCH = "prefetchpropositions";
 
         private EventDataValues() {}
     }
@@ -115,10 +138,77 @@ class OptimizeConstants {
     static final class Configuration {
         static final String EXTENSION_NAME = "com.adobe.module.configuration";
         static final String OPTIMIZE_OVERRIDE_DATASET_ID = "optimize.datasetId";
+        static final String OPTIMIZE_SCOPES_CHUNK_SIZE = "optimize.scopesChunkSize";
+        static final String OPTIMIZE_STREAM_PROPOSITIONS = "optimize.streamPropositions";
+        static final String OPTIMIZE_METRICS_EVENTS_ENABLED = "optimize.metricsEventsEnabled";
+        static final String OPTIMIZE_DISPATCHER_WAIT_WARNING_THRESHOLD =
+                "optimize.dispatcherWaitWarningThresholdMillis";
+        static final String OPTIMIZE_PERSIST_PROPOSITIONS = "optimize.persistPropositions";
+        static final String OPTIMIZE_COMPRESS_OFFER_CONTENT_THRESHOLD =
+                "optimize.compressOfferContentThreshold";
 
         private Configuration() {}
     }
 
+    static final class Metrics {
+        static final String STAGES = "stages";
+        static final String COUNTERS = "counters";
+        static final String GAUGES = "gauges";
+
+        static final String STAGE_API_VALIDATION = "apiValidation";
+        static final String STAGE_EVENT_HUB_HOP = "eventHubHop";
+        static final String STAGE_DISPATCHER_WAIT = "dispatcherWait";
+        static final String STAGE_DISPATCHER_PAUSE = "dispatcherPause";
+        static final String STAGE_EDGE_ROUND_TRIP = "edgeRoundTrip";
+        static final String STAGE_CHUNK_ACCUMULATION = "chunkAccumulation";
+        static final String STAGE_CACHE_COMMIT = "cacheCommit";
+        static final String STAGE_CALLBACK_PARSE = "callbackParse";
+
+        static final String COUNTER_UPDATE_REQUESTS = "updateRequests";
+        static final String COUNTER_GET_REQUESTS = "getRequests";
+        static final String COUNTER_EDGE_REQUESTS = "edgeRequests";
+        static final String COUNTER_EDGE_TIMEOUTS = "edgeTimeouts";
+        static final String COUNTER_EDGE_ERRORS = "edgeErrors";
+        static final String COUNTER_CANCELLED_REQUESTS = "cancelledRequests";
+        static final String COUNTER_DISPATCHER_WAIT_WARNINGS = "dispatcherWaitWarnings";
+
+        static final String GAUGE_EVENTS_QUEUE_DEPTH = "eventsQueueDepth";
+        static final String GAUGE_EVENTS_QUEUE_MAX_DEPTH = "eventsQueueMaxDepth";
+
+        static final String COUNT = "count";
+        static final String TOTAL_MICROS = "totalMicros";
+        static final String MAX_MICROS = "maxMicros";
+        static final String P50_MICROS = "p50Micros";
+        static final String P90_MICROS = "p90Micros";
+        static final String P99_MICROS = "p99Micros";
+
+        private Metrics() {}
+    }
+
+    static final class CacheStats {
+        static final String REQUESTS = "requests";
+        static final String HITS = "hits";
+        static final String MISSES = "misses";
+        static final String IN_FLIGHT_WAITS = "inFlightWaits";
+        static final String STALE_SERVES = "staleServes";
+        static final String LAST_ACCESS_TIMESTAMP = "lastAccessTimestamp";
+        static final String REQUESTS_PER_MINUTE = "requestsPerMinute";
+
+        private CacheStats() {}
+    }
+
+    static final class Footprint {
+        static final String CACHED_PROPOSITIONS_BYTES = "cachedPropositionsBytes";
+        static final String PREVIEW_CACHED_PROPOSITIONS_BYTES = "previewCachedPropositionsBytes";
+        static final String PROPOSITIONS_IN_PROGRESS_BYTES = "propositionsInProgressBytes";
+        static final String TOTAL_BYTES = "totalBytes";
+        static final String TOP_SCOPES = "topScopes";
+        static final String SCOPE = "scope";
+        static final String BYTES = "bytes";
+
+        private Footprint() {}
+    }
+
     static final class JsonKeys {
         static final String PAYLOAD_ID = "id";
         static final String PAYLOAD_SCOPE = "scope";
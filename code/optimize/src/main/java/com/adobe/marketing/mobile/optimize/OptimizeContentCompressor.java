@@ -0,0 +1,140 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Log;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@code OptimizeContentCompressor} compresses large {@link Offer} content with deflate, and keeps
+ * the most recently decompressed content in a small LRU cache.
+ *
+ * <p>The cache is keyed by the compressed byte array instance, so each compressed content is
+ * cached separately, even when the contents are equal.
+ */
+final class OptimizeContentCompressor {
+    private static final String SELF_TAG = "OptimizeContentCompressor";
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Map<byte[], String> decompressedContents =
+            new LinkedHashMap<byte[], String>(
+                    OptimizeConstants.DECOMPRESSED_CONTENT_CACHE_SIZE + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<byte[], String> eldest) {
+                    return size() > OptimizeConstants.DECOMPRESSED_CONTENT_CACHE_SIZE;
+                }
+            };
+
+    private OptimizeContentCompressor() {}
+
+    /**
+     * Compresses the given {@code content}, UTF-8 encoded, with deflate.
+     *
+     * @param content {@link String} containing the content to be compressed.
+     * @return {@code byte[]} containing the compressed content, or null if it isn't smaller than
+     *     the content.
+     */
+    @Nullable static byte[] compress(@NonNull final String content) {
+        final byte[] input = content.getBytes(StandardCharsets.UTF_8);
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 4);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+                if (output.size() >= input.length) {
+                    return null;
+                }
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Gets the content for the given {@code compressed} content, decompressing it if it isn't in
+     * the decompressed content cache.
+     *
+     * @param compressed {@code byte[]} containing content compressed with {@link
+     *     #compress(String)}.
+     * @return {@link String} containing the content, or an empty string if it cannot be
+     *     decompressed.
+     */
+    @NonNull static String decompress(@NonNull final byte[] compressed) {
+        synchronized (decompressedContents) {
+            final String content = decompressedContents.get(compressed);
+            if (content != null) {
+                return content;
+            }
+        }
+
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final ByteArrayOutputStream output =
+                    new ByteArrayOutputStream(compressed.length * 4);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed content.");
+                }
+                output.write(buffer, 0, length);
+            }
+            final String content = new String(output.toByteArray(), StandardCharsets.UTF_8);
+            synchronized (decompressedContents) {
+                decompressedContents.put(compressed, content);
+            }
+            return content;
+        } catch (final DataFormatException e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot decompress Offer content, failed with exception: %s",
+                    e.getLocalizedMessage());
+            return "";
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Gets the number of contents in the decompressed content cache.
+     *
+     * @return {@code int} containing the decompressed content cache size.
+     */
+    @VisibleForTesting
+    static int cacheSize() {
+        synchronized (decompressedContents) {
+            return decompressedContents.size();
+        }
+    }
+
+    /** Clears the decompressed content cache. */
+    static void clearCache() {
+        synchronized (decompressedContents) {
+            decompressedContents.clear();
+        }
+    }
+}
@@ -12,6 +12,7 @@
 package com.adobe.marketing.mobile.optimize;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.AdobeCallbackWithError;
 import com.adobe.marketing.mobile.AdobeError;
@@ -23,17 +24,28 @@ import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.SharedStateResolution;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
+import com.adobe.marketing.mobile.services.DeviceInforming;
 import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
 import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 class OptimizeExtension extends Extension {
 
@@ -42,11 +54,49 @@ class OptimizeExtension extends Extension {
     // Concurrent Map containing the cached propositions returned in various
     // personalization:decisions events
     // for the same Edge personalization request.
-    // This is accessed from multiple threads.
-    private Map<DecisionScope, OptimizeProposition> cachedPropositions = new ConcurrentHashMap<>();
+    // This is accessed from multiple threads, including the public API thread through
+    // peekCachedPropositions.
+    private volatile Map<DecisionScope, OptimizeProposition> cachedPropositions =
+            new ConcurrentHashMap<>();
+
+    // Read-only view over the propositions cache persisted in the snapshot file by a previous
+    // session, read lazily for the decision scopes that are not in cachedPropositions. It is null
+    // if no snapshot is persisted.
+    private volatile OptimizePropositionSnapshot persistedPropositions = null;
+
+    // Whether the propositions cache is persisted in the snapshot file after each update.
+    private volatile boolean persistPropositionsEnabled = false;
+
+    // Whether persistPropositionsEnabled has been applied from the Configuration shared state.
+    private volatile boolean persistPropositionsConfigured = false;
+
+    // Whether a propositions snapshot write is queued in the persist dispatcher and not started.
+    private final AtomicBoolean persistScheduled = new AtomicBoolean(false);
+
+    // Propositions snapshot file, resolved from the application cache directory.
+    private File propositionsSnapshotFile = null;
+
+    // Persist dispatcher used to write or delete the propositions snapshot file off the event hub
+    // and Edge response threads, in the order the changes are made. A true item writes the latest
+    // propositions cache, a false item deletes the snapshot file.
+    private final SerialWorkDispatcher<Boolean> persistDispatcher =
+            new SerialWorkDispatcher<>(
+                    "OptimizePersistDispatcher",
+                    new SerialWorkDispatcher.WorkHandler<Boolean>() {
+                        @Override
+                        public boolean doWork(final Boolean write) {
+                            if (write) {
+                                persistScheduled.set(false);
+                                writePropositionsSnapshot();
+                            } else {
+                                deletePropositionsSnapshot();
+                            }
+                            return true;
+                        }
+                    });
 
     // Concurrent Map containing propositions simulated for preview and cached in-memory in the SDK
-    private Map<DecisionScope, OptimizeProposition> previewCachedPropositions =
+    private volatile Map<DecisionScope, OptimizeProposition> previewCachedPropositions =
             new ConcurrentHashMap<>();
 
     // Events dispatcher used to maintain the processing order of update and get propositions
@@ -61,22 +111,147 @@ class OptimizeExtension extends Extension {
                         @Override
                         public boolean doWork(final Event event) {
                             if (OptimizeUtils.isGetEvent(event)) {
+                                // wait for in-progress prefetch or streaming requests for the
+                                // requested scopes
+                                if (isAnyScopeAwaitingUngatedUpdate(event)) {
+                                    return onEventsDispatcherWork(event, false);
+                                }
+                                onEventsDispatcherWork(event, true);
                                 handleGetPropositions(event);
                             } else if (event.getType()
                                     .equalsIgnoreCase(OptimizeConstants.EventType.EDGE)) {
-                                return !updateRequestEventIdsInProgress.containsKey(
-                                        event.getUniqueIdentifier());
+                                return onEventsDispatcherWork(
+                                        event,
+                                        !updateRequestEventIdsInProgress.containsKey(
+                                                event.getUniqueIdentifier()));
                             }
                             return true;
                         }
                     });
 
+    // Prefetch dispatcher used to hold the update propositions requests with prefetch priority.
+    // It defers sending a prefetch request to the Edge network while any foreground update
+    // propositions request is in progress, so foreground requests are not delayed by speculative
+    // traffic.
+    private SerialWorkDispatcher prefetchDispatcher =
+            new SerialWorkDispatcher(
+                    "OptimizePrefetchDispatcher",
+                    new SerialWorkDispatcher.WorkHandler<Event>() {
+                        @Override
+                        public boolean doWork(final Event event) {
+                            final String eventId = event.getUniqueIdentifier();
+                            if (!queuedPrefetchRequestEventIds.contains(eventId)) {
+                                // prefetch request was cancelled while it was deferred.
+                                scheduledPrefetchScopes.remove(eventId);
+                                return true;
+                            }
+                            if (isForegroundUpdateInProgress()) {
+                                return false;
+                            }
+                            if (queuedPrefetchRequestEventIds.remove(eventId)) {
+                                handleUpdatePropositions(event);
+                            }
+                            scheduledPrefetchScopes.remove(eventId);
+                            return true;
+                        }
+                    });
+
+    // Concurrent Set containing the prefetch update request event IDs waiting in the prefetch
+    // dispatcher.
+    // This is accessed from multiple threads.
+    private final Set<String> queuedPrefetchRequestEventIds =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    // Concurrent Map containing the prefetch manifest, registered tags and the corresponding
+    // decision scopes to be prefetched.
+    // This is accessed from multiple threads.
+    private final Map<String, List<DecisionScope>> prefetchManifest = new ConcurrentHashMap<>();
+
+    // Time (milliseconds) for which fetched propositions are considered fresh and are not
+    // prefetched again.
+    private volatile long prefetchTtlMillis = 0;
+
+    // Concurrent Map containing the prefetch update request event IDs (and corresponding decision
+    // scopes) scheduled by the extension from the prefetch manifest, that are not yet sent.
+    // This is accessed from multiple threads.
+    private final Map<String, List<DecisionScope>> scheduledPrefetchScopes =
+            new ConcurrentHashMap<>();
+
+    // Concurrent Map containing the decision scopes and the time (milliseconds since epoch) they
+    // were last fetched from the Edge network, used to skip prefetching fresh decision scopes.
+    // This is accessed from multiple threads.
+    private final Map<DecisionScope, Long> scopeRefreshTimestamps = new ConcurrentHashMap<>();
+
+    // Concurrent Set containing the Edge event IDs for prefetch update requests that haven't yet
+    // received an Edge completion response. These Edge events are not added to the events
+    // dispatcher, only get propositions requests for the prefetched scopes wait for them.
+    // This is accessed from multiple threads.
+    private final Set<String> prefetchEdgeEventIds =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    // Concurrent Map containing the get propositions request event IDs queued in the events
+    // dispatcher and the time (System.nanoTime()) they were queued, used for dispatcher wait
+    // metrics.
+    // This is accessed from multiple threads.
+    private final Map<String, Long> getEventOfferTimes = new ConcurrentHashMap<>();
+
+    // Number of events queued in the events dispatcher that are not yet processed.
+    private final AtomicInteger eventsQueueDepth = new AtomicInteger(0);
+
+    // The event at the head of the events dispatcher queue which paused the queue, and the time
+    // (System.nanoTime()) the queue was paused. These are only accessed from the events dispatcher
+    // thread.
+    private String eventsDispatcherPausedEventId = null;
+    private long eventsDispatcherPausedAtNanos = 0;
+
+    // Time (milliseconds) a get propositions request can wait in the events dispatcher before a
+    // warning is logged and counted in the metrics.
+    private volatile long dispatcherWaitWarningThresholdMillis =
+            OptimizeConstants.DEFAULT_DISPATCHER_WAIT_WARNING_THRESHOLD_MILLIS;
+
+    // Whether a metrics snapshot event is dispatched when an update propositions request completes.
+    private volatile boolean metricsEventsEnabled = false;
+
+    // Minimum length of the offer content compressed in the propositions cache, 0 if disabled.
+    private volatile int offerContentCompressionThreshold = 0;
+
+    // Concurrent Map containing the Edge event IDs for streaming update requests that haven't yet
+    // received an Edge completion response, and the decision scopes for which propositions are
+    // already committed to the cache. These Edge events are not added to the events dispatcher,
+    // get propositions requests only wait for the scopes that are not yet delivered.
+    // This is accessed from multiple threads.
+    private final Map<String, Set<DecisionScope>> streamedScopes = new ConcurrentHashMap<>();
+
     // Concurrent Map containing the update event IDs (and corresponding requested scopes) for Edge
     // events that haven't yet received an Edge completion response.
     // This is accessed from multiple threads.
     private final Map<String, List<DecisionScope>> updateRequestEventIdsInProgress =
             new ConcurrentHashMap<>();
 
+    // Concurrent Map containing the Optimize update request event IDs and the corresponding Edge
+    // event IDs, one per chunk, for requests that haven't yet received all the Edge completion
+    // responses.
+    // It is used to look up the Edge requests when an update request is cancelled.
+    private final Map<String, List<String>> updateRequestEdgeEventIds = new ConcurrentHashMap<>();
+
+    // Synchronized Set containing the Edge event IDs for cancelled update requests, used to drop
+    // any personalization:decisions events or Edge completion responses received after
+    // cancellation. An ID is removed when the Edge completion response is received or times out,
+    // the oldest IDs are evicted when more than MAX_CANCELLED_UPDATE_REQUESTS are kept, in case the
+    // Edge request was never dispatched.
+    // This is accessed from multiple threads.
+    private final Set<String> cancelledUpdateRequestEventIds =
+            Collections.synchronizedSet(
+                    Collections.newSetFromMap(
+                            new LinkedHashMap<String, Boolean>() {
+                                @Override
+                                protected boolean removeEldestEntry(
+                                        final Map.Entry<String, Boolean> eldest) {
+                                    return size()
+                                            > OptimizeConstants.MAX_CANCELLED_UPDATE_REQUESTS;
+                                }
+                            }));
+
     // Concurrent Map to accumulate propositions returned in various personalization:decisions
     // events
     // for the same Edge personalization request.
@@ -112,6 +287,13 @@ class OptimizeExtension extends Extension {
     private static final Map<String, AEPOptimizeError> updateRequestEventIdsErrors =
             new ConcurrentHashMap<>();
 
+    // The registered extension, whose propositions caches are read synchronously from the public
+    // API thread without going through the event hub.
+    private static volatile OptimizeExtension registeredExtension = null;
+
+    // Estimated heap retained by the propositions accumulated in propositionsInProgress.
+    private volatile long propositionsInProgressRetainedBytes = 0;
+
     /**
      * Constructor for {@code OptimizeExtension}.
      *
@@ -131,7 +313,9 @@ class OptimizeExtension extends Extension {
      *       OptimizeConstants.EventSource#REQUEST_RESET} Listener for {@code Event} type {@value
      *       OptimizeConstants.EventType#OPTIMIZE} and source {@value
      *       OptimizeConstants.EventSource#CONTENT_COMPLETE} Listener for {@code Event} type {@value
-     *       EventType#SYSTEM} and source {@value OptimizeConstants.EventSource#DEBUG}
+     *       EventType#SYSTEM} and source {@value OptimizeConstants.EventSource#DEBUG} Listener for
+     *       {@code Event} type {@value EventType#HUB} and source {@value
+     *       OptimizeConstants.EventSource#SHARED_STATE}
      * </ul>
      *
      * @param extensionApi {@link ExtensionApi} instance.
@@ -179,7 +363,25 @@ class OptimizeExtension extends Extension {
                         OptimizeConstants.EventSource.DEBUG,
                         this::handleDebugEvent);
 
+        getApi().registerEventListener(
+                        EventType.HUB,
+                        OptimizeConstants.EventSource.SHARED_STATE,
+                        this::handleSharedStateUpdate);
+
+        applyConfiguration(retrieveConfigurationSharedState(null));
+
         eventsDispatcher.start();
+        prefetchDispatcher.start();
+        persistDispatcher.start();
+
+        registeredExtension = this;
+    }
+
+    @Override
+    protected void onUnregistered() {
+        if (registeredExtension == this) {
+            registeredExtension = null;
+        }
     }
 
     @Override
@@ -248,15 +450,30 @@ class OptimizeExtension extends Extension {
             return;
         }
 
+        if (event.getTimestamp() > 0) {
+            OptimizeMetrics.recordMillis(
+                    OptimizeConstants.Metrics.STAGE_EVENT_HUB_HOP,
+                    System.currentTimeMillis() - event.getTimestamp());
+        }
+
         final Map<String, Object> eventData = event.getEventData();
         final String requestType =
                 DataReader.optString(eventData, OptimizeConstants.EventDataKeys.REQUEST_TYPE, "");
 
         switch (requestType) {
             case OptimizeConstants.EventDataValues.REQUEST_TYPE_UPDATE:
-                handleUpdatePropositions(event);
+                OptimizeMetrics.increment(OptimizeConstants.Metrics.COUNTER_UPDATE_REQUESTS);
+                if (OptimizeUtils.isPrefetchUpdateEvent(event)) {
+                    // add the prefetch request to the prefetch queue, it is sent to the Edge
+                    // network once no foreground update request is in progress.
+                    queuedPrefetchRequestEventIds.add(event.getUniqueIdentifier());
+                    prefetchDispatcher.offer(event);
+                } else {
+                    handleUpdatePropositions(event);
+                }
                 break;
             case OptimizeConstants.EventDataValues.REQUEST_TYPE_GET:
+                OptimizeMetrics.increment(OptimizeConstants.Metrics.COUNTER_GET_REQUESTS);
                 try {
                     // Fetch decision scopes from the event
                     List<Map<String, Object>> decisionScopesData =
@@ -283,22 +500,34 @@ class OptimizeExtension extends Extension {
                     // Fetch propositions for the decision scopes from the cache
                     Map<DecisionScope, OptimizeProposition> fetchedPropositions = new HashMap<>();
                     for (DecisionScope scope : eventDecisionScopes) {
-                        if (cachedPropositions.containsKey(scope)) {
-                            fetchedPropositions.put(scope, cachedPropositions.get(scope));
+                        final OptimizeProposition cachedProposition = getCachedProposition(scope);
+                        if (cachedProposition != null) {
+                            fetchedPropositions.put(scope, cachedProposition);
                         }
                     }
 
                     // Check if all scopes are cached and none are in progress
                     boolean anyScopeInProgress = false;
                     HashSet<DecisionScope> scopesInProgress = new HashSet<>();
-                    for (List<DecisionScope> updatingScope :
-                            updateRequestEventIdsInProgress.values()) {
-                        scopesInProgress.addAll(updatingScope);
+                    for (Map.Entry<String, List<DecisionScope>> updatingScope :
+                            updateRequestEventIdsInProgress.entrySet()) {
+                        scopesInProgress.addAll(updatingScope.getValue());
+                        // propositions for streamed scopes are already committed to the cache
+                        final Set<DecisionScope> deliveredScopes =
+                                streamedScopes.get(updatingScope.getKey());
+                        if (deliveredScopes != null) {
+                            scopesInProgress.removeAll(deliveredScopes);
+                        }
                     }
+                    final long now = System.currentTimeMillis();
                     for (DecisionScope scope : eventDecisionScopes) {
                         if (scopesInProgress.contains(scope)) {
                             anyScopeInProgress = true;
-                            break;
+                            OptimizeCacheStats.recordInFlightWait(scope);
+                        } else if (fetchedPropositions.containsKey(scope)) {
+                            OptimizeCacheStats.recordHit(scope, isStale(scope, now));
+                        } else {
+                            OptimizeCacheStats.recordMiss(scope);
                         }
                     }
 
@@ -318,7 +547,8 @@ class OptimizeExtension extends Extension {
                                 SELF_TAG,
                                 "handleOptimizeRequestContent - Scopes are not fully cached or are"
                                         + " in progress, adding event to dispatcher.");
-                        eventsDispatcher.offer(event);
+                        getEventOfferTimes.put(event.getUniqueIdentifier(), System.nanoTime());
+                        offerToEventsDispatcher(event);
                     }
                     break;
                 } catch (final Exception e) {
@@ -333,6 +563,15 @@ class OptimizeExtension extends Extension {
             case OptimizeConstants.EventDataValues.REQUEST_TYPE_TRACK:
                 handleTrackPropositions(event);
                 break;
+            case OptimizeConstants.EventDataValues.REQUEST_TYPE_CANCEL_UPDATE:
+                handleCancelUpdatePropositions(event);
+                break;
+            case OptimizeConstants.EventDataValues.REQUEST_TYPE_REGISTER_PREFETCH_MANIFEST:
+                handleRegisterPrefetchManifest(event);
+                break;
+            case OptimizeConstants.EventDataValues.REQUEST_TYPE_PREFETCH:
+                handlePrefetchPropositions(event);
+                break;
             default:
                 Log.debug(
                         OptimizeConstants.LOG_TAG,
@@ -352,9 +591,16 @@ class OptimizeExtension extends Extension {
      * query request to the Experience Edge network. The dispatched event contains additional XDM
      * and/ or free-form data, read from the incoming event, to be attached to the Edge request.
      *
+     * <p>If {@value OptimizeConstants.Configuration#OPTIMIZE_SCOPES_CHUNK_SIZE} is configured and
+     * the number of requested decision scopes exceeds it, the decision scopes are split in chunks
+     * and an Edge event is dispatched for each chunk. The propositions for each chunk are cached as
+     * soon as the chunk completes, and a single response, merging all the chunks, is dispatched
+     * for the incoming event.
+     *
      * @param event incoming {@link Event} object to be processed.
      */
     void handleUpdatePropositions(@NonNull final Event event) {
+        final long startNanos = System.nanoTime();
         final Map<String, Object> eventData = event.getEventData();
 
         final Map<String, Object> configData = retrieveConfigurationSharedState(event);
@@ -385,20 +631,6 @@ class OptimizeExtension extends Extension {
 
             final Map<String, Object> edgeEventData = new HashMap<>();
 
-            // Add query
-            final Map<String, Object> queryPersonalization = new HashMap<>();
-            queryPersonalization.put(OptimizeConstants.JsonKeys.SCHEMAS, supportedSchemas);
-
-            final List<String> validScopeNames = new ArrayList<>();
-            for (final DecisionScope scope : validScopes) {
-                validScopeNames.add(scope.getName());
-            }
-            queryPersonalization.put(OptimizeConstants.JsonKeys.DECISION_SCOPES, validScopeNames);
-
-            final Map<String, Object> query = new HashMap<>();
-            query.put(OptimizeConstants.JsonKeys.QUERY_PERSONALIZATION, queryPersonalization);
-            edgeEventData.put(OptimizeConstants.JsonKeys.QUERY, query);
-
             // Add xdm
             final Map<String, Object> xdm = new HashMap<>();
             if (eventData.containsKey(OptimizeConstants.EventDataKeys.XDM)) {
@@ -443,62 +675,233 @@ class OptimizeExtension extends Extension {
                 }
             }
 
-            final Event edgeEvent =
-                    new Event.Builder(
-                                    OptimizeConstants.EventNames.EDGE_PERSONALIZATION_REQUEST,
-                                    OptimizeConstants.EventType.EDGE,
-                                    OptimizeConstants.EventSource.REQUEST_CONTENT)
-                            .setEventData(edgeEventData)
-                            .chainToParentEvent(event)
-                            .build();
+            // Split the requested scopes in chunks, if configured.
+            final int chunkSize =
+                    DataReader.optInt(
+                            configData,
+                            OptimizeConstants.Configuration.OPTIMIZE_SCOPES_CHUNK_SIZE,
+                            0);
+            final List<List<DecisionScope>> scopeChunks = new ArrayList<>();
+            if (chunkSize > 0 && validScopes.size() > chunkSize) {
+                for (int i = 0; i < validScopes.size(); i += chunkSize) {
+                    scopeChunks.add(
+                            new ArrayList<>(
+                                    validScopes.subList(
+                                            i, Math.min(i + chunkSize, validScopes.size()))));
+                }
+            } else {
+                scopeChunks.add(validScopes);
+            }
 
-            // In AEP Response Event handle, `requestEventId` corresponds to the unique identifier
-            // for the Edge request.
-            // Storing the request event unique identifier to compare and process only the
-            // anticipated response in the extension.
-            updateRequestEventIdsInProgress.put(edgeEvent.getUniqueIdentifier(), validScopes);
+            final boolean isPrefetch = OptimizeUtils.isPrefetchUpdateEvent(event);
+            final boolean isStreaming =
+                    DataReader.optBoolean(
+                            configData,
+                            OptimizeConstants.Configuration.OPTIMIZE_STREAM_PROPOSITIONS,
+                            false);
+            final List<Event> edgeEvents = new ArrayList<>();
+            final List<String> edgeEventIds = new ArrayList<>();
+            for (final List<DecisionScope> chunkScopes : scopeChunks) {
+                // Add query
+                final Map<String, Object> queryPersonalization = new HashMap<>();
+                queryPersonalization.put(OptimizeConstants.JsonKeys.SCHEMAS, supportedSchemas);
+
+                final List<String> scopeNames = new ArrayList<>();
+                for (final DecisionScope scope : chunkScopes) {
+                    scopeNames.add(scope.getName());
+                }
+                queryPersonalization.put(OptimizeConstants.JsonKeys.DECISION_SCOPES, scopeNames);
+
+                final Map<String, Object> query = new HashMap<>();
+                query.put(OptimizeConstants.JsonKeys.QUERY_PERSONALIZATION, queryPersonalization);
+
+                final Map<String, Object> chunkEdgeEventData = new HashMap<>(edgeEventData);
+                chunkEdgeEventData.put(OptimizeConstants.JsonKeys.QUERY, query);
+
+                final Event edgeEvent =
+                        new Event.Builder(
+                                        OptimizeConstants.EventNames.EDGE_PERSONALIZATION_REQUEST,
+                                        OptimizeConstants.EventType.EDGE,
+                                        OptimizeConstants.EventSource.REQUEST_CONTENT)
+                                .setEventData(chunkEdgeEventData)
+                                .chainToParentEvent(event)
+                                .build();
+
+                // In AEP Response Event handle, `requestEventId` corresponds to the unique
+                // identifier for the Edge request.
+                // Storing the request event unique identifier to compare and process only the
+                // anticipated response in the extension.
+                if (isPrefetch) {
+                    prefetchEdgeEventIds.add(edgeEvent.getUniqueIdentifier());
+                }
+                if (isStreaming) {
+                    streamedScopes.put(
+                            edgeEvent.getUniqueIdentifier(),
+                            Collections.newSetFromMap(
+                                    new ConcurrentHashMap<DecisionScope, Boolean>()));
+                }
+                updateRequestEventIdsInProgress.put(edgeEvent.getUniqueIdentifier(), chunkScopes);
+                edgeEvents.add(edgeEvent);
+                edgeEventIds.add(edgeEvent.getUniqueIdentifier());
+            }
+            updateRequestEdgeEventIds.put(event.getUniqueIdentifier(), edgeEventIds);
+
+            // add the Edge events to update propositions in the events queue. Prefetch and
+            // streaming requests are not queued, only get requests for the scopes not yet
+            // delivered wait for their completion.
+            if (!isPrefetch && !isStreaming) {
+                for (final Event edgeEvent : edgeEvents) {
+                    offerToEventsDispatcher(edgeEvent);
+                }
+            }
 
-            // add the Edge event to update propositions in the events queue.
-            eventsDispatcher.offer(edgeEvent);
-            long timeoutMillis =
+            final long timeoutMillis =
                     DataReader.getLong(eventData, OptimizeConstants.EventDataKeys.TIMEOUT);
-            MobileCore.dispatchEventWithResponseCallback(
-                    edgeEvent,
-                    timeoutMillis,
-                    new AdobeCallbackWithError<Event>() {
-                        @Override
-                        public void fail(final AdobeError error) {
-                            // response event failed or timed out, remove this event's unique
-                            // identifier from the requested event IDs dictionary and kick-off
-                            // queue.
-                            updateRequestEventIdsInProgress.remove(edgeEvent.getUniqueIdentifier());
-                            propositionsInProgress.clear();
+            final UpdateRequestChunks chunks =
+                    edgeEvents.size() > 1 ? new UpdateRequestChunks(edgeEvents.size()) : null;
+            for (int i = 0; i < edgeEvents.size(); i++) {
+                dispatchEdgePersonalizationRequest(
+                        event, edgeEvents.get(i), scopeChunks.get(i), timeoutMillis, chunks);
+            }
 
-                            AEPOptimizeError aepOptimizeError;
-                            if (error == AdobeError.CALLBACK_TIMEOUT) {
-                                aepOptimizeError = AEPOptimizeError.Companion.getTimeoutError();
-                            } else {
-                                aepOptimizeError = AEPOptimizeError.Companion.getUnexpectedError();
-                            }
+            if (OptimizeTracer.isEnabled()) {
+                final Map<String, Object> attributes = new HashMap<>();
+                attributes.put(OptimizeTraceSpan.ATTRIBUTE_SCOPE_COUNT, validScopes.size());
+                attributes.put(OptimizeTraceSpan.ATTRIBUTE_CHUNK_COUNT, edgeEvents.size());
+                OptimizeTracer.recordSpan(
+                        event.getUniqueIdentifier(),
+                        OptimizeTraceSpan.HANDLE_UPDATE_PROPOSITIONS,
+                        startNanos,
+                        attributes);
+            }
+        } catch (final Exception e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handleUpdatePropositions - Failed to process update propositions request event"
+                            + " due to an exception (%s)!",
+                    e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Dispatches the given Edge personalization {@code edgeEvent} and handles its Edge completion
+     * response.
+     *
+     * <p>Upon completion, an optimize response event is dispatched for the update propositions
+     * {@code event}, unless the request is split in chunks in which case the response is
+     * dispatched once all the chunks are completed.
+     *
+     * @param event update propositions request {@link Event}.
+     * @param edgeEvent Edge personalization request {@code Event} to be dispatched.
+     * @param requestedScopes a {@code List<DecisionScope>} requested in the {@code edgeEvent}.
+     * @param timeoutMillis {@code long} containing the Edge completion response timeout.
+     * @param chunks {@link UpdateRequestChunks} tracking the chunks of the update request, or null
+     *     if the request is not split in chunks.
+     */
+    private void dispatchEdgePersonalizationRequest(
+            @NonNull final Event event,
+            @NonNull final Event edgeEvent,
+            @NonNull final List<DecisionScope> requestedScopes,
+            final long timeoutMillis,
+            @Nullable final UpdateRequestChunks chunks) {
+        OptimizeMetrics.increment(OptimizeConstants.Metrics.COUNTER_EDGE_REQUESTS);
+        final long startNanos = System.nanoTime();
+        dispatchEventWithResponseCallback(
+                edgeEvent,
+                timeoutMillis,
+                new AdobeCallbackWithError<Event>() {
+                    @Override
+                    public void fail(final AdobeError error) {
+                        // request was cancelled, the cancellation has already released the
+                        // events queue and no one is waiting on the response.
+                        if (cancelledUpdateRequestEventIds.remove(
+                                edgeEvent.getUniqueIdentifier())) {
+                            return;
+                        }
+
+                        OptimizeMetrics.recordSince(
+                                OptimizeConstants.Metrics.STAGE_EDGE_ROUND_TRIP, startNanos);
+                        recordEdgeRequestSpan(event, edgeEvent, startNanos, error);
+                        AEPOptimizeError aepOptimizeError;
+                        if (error == AdobeError.CALLBACK_TIMEOUT) {
+                            OptimizeMetrics.increment(
+                                    OptimizeConstants.Metrics.COUNTER_EDGE_TIMEOUTS);
+                            aepOptimizeError = AEPOptimizeError.Companion.getTimeoutError();
+                        } else {
+                            OptimizeMetrics.increment(
+                                    OptimizeConstants.Metrics.COUNTER_EDGE_ERRORS);
+                            aepOptimizeError = AEPOptimizeError.Companion.getUnexpectedError();
+                        }
+
+                        // keep the propositions received before the failure for the merged
+                        // response of a chunked request.
+                        if (chunks != null) {
+                            chunks.addPropositions(collectPropositionsInProgress(requestedScopes));
+                            chunks.setError(aepOptimizeError);
+                        }
 
+                        // response event failed or timed out, remove this event's unique
+                        // identifier from the requested event IDs dictionary and kick-off
+                        // queue.
+                        prefetchEdgeEventIds.remove(edgeEvent.getUniqueIdentifier());
+                        streamedScopes.remove(edgeEvent.getUniqueIdentifier());
+                        final List<DecisionScope> failedScopes =
+                                updateRequestEventIdsInProgress.remove(
+                                        edgeEvent.getUniqueIdentifier());
+                        if (failedScopes != null) {
+                            removePropositionsInProgress(failedScopes);
+                        } else {
+                            propositionsInProgress.clear();
+                            publishPropositionsInProgressFootprint();
+                        }
+
+                        if (chunks != null) {
+                            completeChunk(event, chunks);
+                        } else {
+                            updateRequestEdgeEventIds.remove(event.getUniqueIdentifier());
                             getApi().dispatch(
                                             createResponseEventWithError(event, aepOptimizeError));
+                        }
 
-                            eventsDispatcher.resume();
+                        eventsDispatcher.resume();
+                        prefetchDispatcher.resume();
+                    }
+
+                    @Override
+                    public void call(final Event callbackEvent) {
+                        if (cancelledUpdateRequestEventIds.remove(
+                                edgeEvent.getUniqueIdentifier())) {
+                            Log.debug(
+                                    OptimizeConstants.LOG_TAG,
+                                    SELF_TAG,
+                                    "handleUpdatePropositions - Ignoring Edge completion response,"
+                                            + " update request (%s) was cancelled.",
+                                    event.getUniqueIdentifier());
+                            return;
                         }
 
-                        @Override
-                        public void call(final Event callbackEvent) {
-                            final String requestEventId =
-                                    OptimizeUtils.getRequestEventId(callbackEvent);
-                            if (OptimizeUtils.isNullOrEmpty(requestEventId)) {
-                                fail(AdobeError.UNEXPECTED_ERROR);
-                                return;
-                            }
+                        final String requestEventId =
+                                OptimizeUtils.getRequestEventId(callbackEvent);
+                        if (OptimizeUtils.isNullOrEmpty(requestEventId)) {
+                            fail(AdobeError.UNEXPECTED_ERROR);
+                            return;
+                        }
+                        OptimizeMetrics.recordSince(
+                                OptimizeConstants.Metrics.STAGE_EDGE_ROUND_TRIP, startNanos);
+                        recordEdgeRequestSpan(event, edgeEvent, startNanos, null);
+
+                        final AEPOptimizeError aepOptimizeError =
+                                updateRequestEventIdsErrors.get(requestEventId);
+
+                        if (chunks != null) {
+                            chunks.addPropositions(collectPropositionsInProgress(requestedScopes));
+                            chunks.setError(aepOptimizeError);
+                            completeChunk(event, chunks);
+                        } else {
+                            updateRequestEdgeEventIds.remove(event.getUniqueIdentifier());
 
                             final Map<String, Object> responseEventData = new HashMap<>();
-                            AEPOptimizeError aepOptimizeError =
-                                    updateRequestEventIdsErrors.get(requestEventId);
                             if (aepOptimizeError != null) {
                                 responseEventData.put(
                                         OptimizeConstants.EventDataKeys.RESPONSE_ERROR,
@@ -507,9 +910,10 @@ class OptimizeExtension extends Extension {
 
                             final List<Map<String, Object>> propositionsList = new ArrayList<>();
 
-                            for (Map.Entry<DecisionScope, OptimizeProposition> entry :
-                                    propositionsInProgress.entrySet()) {
-                                OptimizeProposition optimizeProposition = entry.getValue();
+                            // only respond with the requested scopes, other update requests
+                            // may be accumulating propositions concurrently.
+                            for (final OptimizeProposition optimizeProposition :
+                                    collectPropositionsInProgress(requestedScopes).values()) {
                                 propositionsList.add(optimizeProposition.toEventData());
                             }
 
@@ -526,36 +930,426 @@ class OptimizeExtension extends Extension {
                                             .build();
 
                             getApi().dispatch(responseEvent);
+                        }
 
-                            final Event updateCompleteEvent =
-                                    new Event.Builder(
-                                                    OptimizeConstants.EventNames
-                                                            .OPTIMIZE_UPDATE_COMPLETE,
-                                                    OptimizeConstants.EventType.OPTIMIZE,
-                                                    OptimizeConstants.EventSource.CONTENT_COMPLETE)
-                                            .setEventData(
-                                                    new HashMap<String, Object>() {
-                                                        {
-                                                            put(
-                                                                    OptimizeConstants.EventDataKeys
-                                                                            .COMPLETED_UPDATE_EVENT_ID,
-                                                                    requestEventId);
-                                                        }
-                                                    })
-                                            .chainToParentEvent(event)
-                                            .build();
+                        final Event updateCompleteEvent =
+                                new Event.Builder(
+                                                OptimizeConstants.EventNames
+                                                        .OPTIMIZE_UPDATE_COMPLETE,
+                                                OptimizeConstants.EventType.OPTIMIZE,
+                                                OptimizeConstants.EventSource.CONTENT_COMPLETE)
+                                        .setEventData(
+                                                new HashMap<String, Object>() {
+                                                    {
+                                                        put(
+                                                                OptimizeConstants.EventDataKeys
+                                                                        .COMPLETED_UPDATE_EVENT_ID,
+                                                                requestEventId);
+                                                    }
+                                                })
+                                        .chainToParentEvent(event)
+                                        .build();
+
+                        getApi().dispatch(updateCompleteEvent);
+                    }
+                });
+    }
 
-                            getApi().dispatch(updateCompleteEvent);
-                        }
-                    });
-        } catch (final Exception e) {
-            Log.warning(
+    /**
+     * Dispatches the given {@code event} and registers the {@code callback} to be invoked with its
+     * response event, or with an error if no response is received within {@code timeoutMillis}.
+     *
+     * <p>This method delegates to {@link MobileCore#dispatchEventWithResponseCallback(Event, long,
+     * AdobeCallbackWithError)}, it is overridden by the JVM load harness to stand in for the Edge
+     * network.
+     *
+     * @param event {@link Event} to be dispatched.
+     * @param timeoutMillis {@code long} containing the response timeout in milliseconds.
+     * @param callback {@code AdobeCallbackWithError<Event>} invoked with the response event.
+     */
+    @VisibleForTesting
+    void dispatchEventWithResponseCallback(
+            @NonNull final Event event,
+            final long timeoutMillis,
+            @NonNull final AdobeCallbackWithError<Event> callback) {
+        MobileCore.dispatchEventWithResponseCallback(event, timeoutMillis, callback);
+    }
+
+    /**
+     * Records the {@value OptimizeTraceSpan#EDGE_REQUEST} span for the given Edge personalization
+     * {@code edgeEvent}.
+     *
+     * @param event update propositions request {@link Event}.
+     * @param edgeEvent Edge personalization request {@code Event}.
+     * @param startNanos {@code long} containing the {@link System#nanoTime()} when the Edge
+     *     request was dispatched.
+     * @param error {@link AdobeError} returned for the Edge request, or null if it succeeded.
+     */
+    private void recordEdgeRequestSpan(
+            @NonNull final Event event,
+            @NonNull final Event edgeEvent,
+            final long startNanos,
+            @Nullable final AdobeError error) {
+        if (!OptimizeTracer.isEnabled()) {
+            return;
+        }
+
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(OptimizeTraceSpan.ATTRIBUTE_EDGE_EVENT_ID, edgeEvent.getUniqueIdentifier());
+        if (error != null) {
+            attributes.put(OptimizeTraceSpan.ATTRIBUTE_ERROR, error.getErrorName());
+        }
+        OptimizeTracer.recordSpan(
+                event.getUniqueIdentifier(),
+                OptimizeTraceSpan.EDGE_REQUEST,
+                startNanos,
+                attributes);
+    }
+
+    /**
+     * Marks a chunk of the given chunked update propositions request as completed.
+     *
+     * <p>Once all the chunks are completed, a single optimize response event containing the
+     * merged propositions, and the first error if any, is dispatched for the update propositions
+     * {@code event}.
+     *
+     * @param event update propositions request {@link Event}.
+     * @param chunks {@link UpdateRequestChunks} tracking the chunks of the update request.
+     */
+    private void completeChunk(
+            @NonNull final Event event, @NonNull final UpdateRequestChunks chunks) {
+        if (!chunks.completeChunk()) {
+            return;
+        }
+
+        OptimizeMetrics.recordSince(
+                OptimizeConstants.Metrics.STAGE_CHUNK_ACCUMULATION, chunks.getStartNanos());
+        updateRequestEdgeEventIds.remove(event.getUniqueIdentifier());
+
+        final Map<DecisionScope, OptimizeProposition> propositions = chunks.getPropositions();
+        final AEPOptimizeError aepOptimizeError = chunks.getError();
+        if (propositions.isEmpty() && aepOptimizeError != null) {
+            getApi().dispatch(createResponseEventWithError(event, aepOptimizeError));
+            return;
+        }
+
+        final Map<String, Object> responseEventData = new HashMap<>();
+        if (aepOptimizeError != null) {
+            responseEventData.put(
+                    OptimizeConstants.EventDataKeys.RESPONSE_ERROR, aepOptimizeError.toEventData());
+        }
+
+        final List<Map<String, Object>> propositionsList = new ArrayList<>();
+        for (final OptimizeProposition optimizeProposition : propositions.values()) {
+            propositionsList.add(optimizeProposition.toEventData());
+        }
+        responseEventData.put(OptimizeConstants.EventDataKeys.PROPOSITIONS, propositionsList);
+
+        final Event responseEvent =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.OPTIMIZE_RESPONSE,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.RESPONSE_CONTENT)
+                        .setEventData(responseEventData)
+                        .inResponseToEvent(event)
+                        .build();
+
+        getApi().dispatch(responseEvent);
+    }
+
+    /**
+     * Retrieves the accumulated in-progress propositions for the given {@code scopes}.
+     *
+     * @param scopes a {@code List<DecisionScope>} for which in-progress propositions are needed.
+     * @return {@code Map<DecisionScope, OptimizeProposition>} containing in-progress propositions.
+     */
+    private Map<DecisionScope, OptimizeProposition> collectPropositionsInProgress(
+            @NonNull final List<DecisionScope> scopes) {
+        final Map<DecisionScope, OptimizeProposition> propositions = new HashMap<>();
+        for (final DecisionScope scope : scopes) {
+            final OptimizeProposition optimizeProposition = propositionsInProgress.get(scope);
+            if (optimizeProposition != null) {
+                propositions.put(scope, optimizeProposition);
+            }
+        }
+        return propositions;
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value
+     * OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     *
+     * <p>This method cancels an in-progress update propositions request. It stops tracking the
+     * corresponding Edge request, discards any propositions accumulated for it and resumes the
+     * events dispatcher so that get propositions requests waiting on it are processed right away.
+     * Any personalization:decisions events or Edge completion response received later for the
+     * cancelled request are ignored.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleCancelUpdatePropositions(@NonNull final Event event) {
+        final String requestEventId =
+                DataReader.optString(
+                        event.getEventData(),
+                        OptimizeConstants.EventDataKeys.CANCEL_UPDATE_EVENT_ID,
+                        null);
+        if (OptimizeUtils.isNullOrEmpty(requestEventId)) {
+            Log.debug(
                     OptimizeConstants.LOG_TAG,
                     SELF_TAG,
-                    "handleUpdatePropositions - Failed to process update propositions request event"
-                            + " due to an exception (%s)!",
-                    e.getLocalizedMessage());
+                    "handleCancelUpdatePropositions - Ignoring the cancel update propositions"
+                            + " request event, request event Id is not present in event data.");
+            return;
+        }
+
+        if (queuedPrefetchRequestEventIds.remove(requestEventId)) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handleCancelUpdatePropositions - Cancelled prefetch update propositions"
+                            + " request (%s) before it was sent.",
+                    requestEventId);
+            // Resume prefetch dispatcher processing so the cancelled request is dropped.
+            prefetchDispatcher.resume();
+            return;
+        }
+
+        final List<String> edgeEventIds = updateRequestEdgeEventIds.remove(requestEventId);
+        final List<DecisionScope> cancelledScopes = new ArrayList<>();
+        if (edgeEventIds != null) {
+            for (final String edgeEventId : edgeEventIds) {
+                final List<DecisionScope> chunkScopes =
+                        updateRequestEventIdsInProgress.remove(edgeEventId);
+                if (chunkScopes == null) {
+                    // chunk is already completed.
+                    continue;
+                }
+                cancelledUpdateRequestEventIds.add(edgeEventId);
+                prefetchEdgeEventIds.remove(edgeEventId);
+                streamedScopes.remove(edgeEventId);
+                updateRequestEventIdsErrors.remove(edgeEventId);
+                cancelledScopes.addAll(chunkScopes);
+            }
+        }
+        if (cancelledScopes.isEmpty()) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handleCancelUpdatePropositions - Ignoring the cancel update propositions"
+                            + " request event, update request (%s) is not in progress.",
+                    requestEventId);
+            return;
+        }
+
+        removePropositionsInProgress(cancelledScopes);
+        OptimizeMetrics.increment(OptimizeConstants.Metrics.COUNTER_CANCELLED_REQUESTS);
+
+        Log.debug(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "handleCancelUpdatePropositions - Cancelled update propositions request (%s).",
+                requestEventId);
+
+        // Resume events dispatcher processing as the cancelled request is no longer awaited.
+        eventsDispatcher.resume();
+        prefetchDispatcher.resume();
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value
+     * OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     *
+     * <p>This method stores the prefetch manifest, read from the incoming event, replacing any
+     * previously registered manifest. It then schedules a prefetch request for all the decision
+     * scopes in the manifest.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleRegisterPrefetchManifest(@NonNull final Event event) {
+        final Map<String, Object> eventData = event.getEventData();
+        final Map<String, Object> manifestData =
+                DataReader.optTypedMap(
+                        Object.class,
+                        eventData,
+                        OptimizeConstants.EventDataKeys.PREFETCH_MANIFEST,
+                        null);
+        if (OptimizeUtils.isNullOrEmpty(manifestData)) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handleRegisterPrefetchManifest - Cannot process the register prefetch manifest"
+                            + " request event, prefetch manifest is null or empty.");
+            return;
+        }
+
+        final Map<String, List<DecisionScope>> manifest = new HashMap<>();
+        final Set<DecisionScope> manifestScopes = new LinkedHashSet<>();
+        for (final String tag : manifestData.keySet()) {
+            final List<DecisionScope> validScopes =
+                    retrieveValidDecisionScopes(
+                            DataReader.optTypedListOfMap(Object.class, manifestData, tag, null));
+            if (OptimizeUtils.isNullOrEmpty(validScopes)) {
+                continue;
+            }
+            manifest.put(tag, validScopes);
+            manifestScopes.addAll(validScopes);
+        }
+
+        if (manifest.isEmpty()) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handleRegisterPrefetchManifest - Cannot process the register prefetch manifest"
+                            + " request event, prefetch manifest has no valid decision scope.");
+            return;
+        }
+
+        prefetchManifest.clear();
+        prefetchManifest.putAll(manifest);
+        prefetchTtlMillis =
+                Math.max(
+                        0,
+                        DataReader.optLong(
+                                eventData, OptimizeConstants.EventDataKeys.PREFETCH_TTL, 0));
+
+        schedulePrefetch(new ArrayList<>(manifestScopes), event);
+    }
+
+    /**
+     * Handles the event with type {@value OptimizeConstants.EventType#OPTIMIZE} and source {@value
+     * OptimizeConstants.EventSource#REQUEST_CONTENT}.
+     *
+     * <p>This method schedules a prefetch request for the decision scopes registered in the
+     * prefetch manifest for the tag provided in the incoming event.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handlePrefetchPropositions(@NonNull final Event event) {
+        final String tag =
+                DataReader.optString(
+                        event.getEventData(), OptimizeConstants.EventDataKeys.PREFETCH_TAG, null);
+        final List<DecisionScope> tagScopes =
+                !OptimizeUtils.isNullOrEmpty(tag) ? prefetchManifest.get(tag) : null;
+        if (OptimizeUtils.isNullOrEmpty(tagScopes)) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "handlePrefetchPropositions - Ignoring the prefetch propositions request event,"
+                            + " tag (%s) is not registered in the prefetch manifest.",
+                    tag);
+            return;
+        }
+
+        schedulePrefetch(tagScopes, event);
+    }
+
+    /**
+     * Schedules a prefetch update propositions request for the given decision {@code scopes}.
+     *
+     * <p>Decision scopes fetched within the prefetch manifest TTL, or already requested by an
+     * in-progress or scheduled update request, are skipped. The remaining scopes are batched in a
+     * single request added to the prefetch dispatcher.
+     *
+     * @param scopes a {@code List<DecisionScope>} to be prefetched.
+     * @param parentEvent the {@link Event} which triggered the prefetch.
+     */
+    private void schedulePrefetch(
+            @NonNull final List<DecisionScope> scopes, @NonNull final Event parentEvent) {
+        final Set<DecisionScope> pendingScopes = new HashSet<>();
+        for (final List<DecisionScope> updatingScopes : updateRequestEventIdsInProgress.values()) {
+            pendingScopes.addAll(updatingScopes);
+        }
+        for (final List<DecisionScope> scheduledScopes : scheduledPrefetchScopes.values()) {
+            pendingScopes.addAll(scheduledScopes);
+        }
+
+        final long now = System.currentTimeMillis();
+        final List<DecisionScope> staleScopes = new ArrayList<>();
+        for (final DecisionScope scope : scopes) {
+            if (pendingScopes.contains(scope) || staleScopes.contains(scope)) {
+                continue;
+            }
+            final Long refreshedAt = scopeRefreshTimestamps.get(scope);
+            if (refreshedAt != null && now - refreshedAt < prefetchTtlMillis) {
+                continue;
+            }
+            staleScopes.add(scope);
+        }
+
+        if (staleScopes.isEmpty()) {
+            Log.trace(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "schedulePrefetch - Not scheduling a prefetch request, all decision scopes are"
+                            + " either fresh or already being fetched.");
+            return;
+        }
+
+        final List<Map<String, Object>> flattenedDecisionScopes = new ArrayList<>();
+        for (final DecisionScope scope : staleScopes) {
+            flattenedDecisionScopes.add(scope.toEventData());
+        }
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_UPDATE);
+        eventData.put(OptimizeConstants.EventDataKeys.DECISION_SCOPES, flattenedDecisionScopes);
+        eventData.put(
+                OptimizeConstants.EventDataKeys.PRIORITY, RequestPriority.PREFETCH.toString());
+        eventData.put(
+                OptimizeConstants.EventDataKeys.TIMEOUT,
+                (long)
+                        (OptimizeConstants.EDGE_CONTENT_COMPLETE_RESPONSE_TIMEOUT
+                                * OptimizeConstants.TIMEOUT_CONVERSION_FACTOR));
+
+        final Event prefetchEvent =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.UPDATE_PROPOSITIONS_REQUEST,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .chainToParentEvent(parentEvent)
+                        .build();
+
+        Log.debug(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "schedulePrefetch - Scheduling a prefetch request (%s) for %d decision scope(s).",
+                prefetchEvent.getUniqueIdentifier(),
+                staleScopes.size());
+
+        scheduledPrefetchScopes.put(prefetchEvent.getUniqueIdentifier(), staleScopes);
+        queuedPrefetchRequestEventIds.add(prefetchEvent.getUniqueIdentifier());
+        prefetchDispatcher.offer(prefetchEvent);
+    }
+
+    /**
+     * Removes the accumulated propositions for the given {@code scopes} from the in-progress
+     * propositions, unless they are also requested by another in-progress update request.
+     *
+     * <p>All in-progress propositions are cleared if no other update request is in progress.
+     *
+     * @param scopes a {@code List<DecisionScope>} for which accumulated propositions are removed.
+     */
+    private void removePropositionsInProgress(@NonNull final List<DecisionScope> scopes) {
+        if (updateRequestEventIdsInProgress.isEmpty()) {
+            propositionsInProgress.clear();
+            publishPropositionsInProgressFootprint();
+            return;
+        }
+
+        final Set<DecisionScope> scopesInProgress = new HashSet<>();
+        for (final List<DecisionScope> updatingScopes : updateRequestEventIdsInProgress.values()) {
+            scopesInProgress.addAll(updatingScopes);
+        }
+
+        for (final DecisionScope scope : scopes) {
+            if (!scopesInProgress.contains(scope)) {
+                propositionsInProgress.remove(scope);
+            }
         }
+        publishPropositionsInProgressFootprint();
     }
 
     /**
@@ -568,6 +1362,8 @@ class OptimizeExtension extends Extension {
      * @param event incoming {@link Event} object to be processed.
      */
     void handleUpdatePropositionsCompleted(@NonNull final Event event) {
+        final long startNanos = System.nanoTime();
+        List<DecisionScope> requestedScopes = null;
         try {
             final String requestCompletedForEventId =
                     DataReader.getString(
@@ -582,8 +1378,7 @@ class OptimizeExtension extends Extension {
                 return;
             }
 
-            final List<DecisionScope> requestedScopes =
-                    updateRequestEventIdsInProgress.get(requestCompletedForEventId);
+            requestedScopes = updateRequestEventIdsInProgress.get(requestCompletedForEventId);
             if (OptimizeUtils.isNullOrEmpty(requestedScopes)) {
                 Log.debug(
                         OptimizeConstants.LOG_TAG,
@@ -599,6 +1394,23 @@ class OptimizeExtension extends Extension {
 
             // remove completed event's ID from the request event IDs dictionary.
             updateRequestEventIdsInProgress.remove(requestCompletedForEventId);
+            prefetchEdgeEventIds.remove(requestCompletedForEventId);
+            streamedScopes.remove(requestCompletedForEventId);
+
+            if (metricsEventsEnabled) {
+                dispatchMetricsEvent();
+            }
+
+            if (OptimizeTracer.isEnabled()) {
+                final Map<String, Object> attributes = new HashMap<>();
+                attributes.put(
+                        OptimizeTraceSpan.ATTRIBUTE_EDGE_EVENT_ID, requestCompletedForEventId);
+                OptimizeTracer.recordSpan(
+                        event.getParentID(),
+                        OptimizeTraceSpan.HANDLE_UPDATE_COMPLETED,
+                        startNanos,
+                        attributes);
+            }
         } catch (final DataReaderException e) {
             Log.warning(
                     OptimizeConstants.LOG_TAG,
@@ -607,11 +1419,194 @@ class OptimizeExtension extends Extension {
                             + " complete event due to an exception (%s)!",
                     e.getLocalizedMessage());
         } finally {
-            propositionsInProgress.clear();
+            if (requestedScopes != null) {
+                removePropositionsInProgress(requestedScopes);
+            } else {
+                propositionsInProgress.clear();
+                publishPropositionsInProgressFootprint();
+            }
 
             // Resume events dispatcher processing after update propositions request is completed.
             eventsDispatcher.resume();
+            prefetchDispatcher.resume();
+        }
+    }
+
+    /**
+     * Retrieves the trace identifier, i.e. the update propositions request event identifier, for
+     * the given Edge personalization request event identifier.
+     *
+     * @param edgeEventId {@link String} containing the Edge personalization request event Id.
+     * @return {@code String} containing the update propositions request event Id, or null if the
+     *     update request is not in progress.
+     */
+    @Nullable private String getTraceId(@NonNull final String edgeEventId) {
+        for (final Map.Entry<String, List<String>> entry : updateRequestEdgeEventIds.entrySet()) {
+            if (entry.getValue().contains(edgeEventId)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the cached propositions for the given {@code scope} are older than the
+     * prefetch manifest TTL.
+     *
+     * @param scope {@link DecisionScope} for which propositions are cached.
+     * @param now {@code long} containing the current time in milliseconds since epoch.
+     * @return {@code boolean} indicating whether the cached propositions are stale.
+     */
+    private boolean isStale(@NonNull final DecisionScope scope, final long now) {
+        final long ttlMillis = prefetchTtlMillis;
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        final Long refreshedAt = scopeRefreshTimestamps.get(scope);
+        return refreshedAt != null && now - refreshedAt > ttlMillis;
+    }
+
+    /**
+     * Adds the given {@code event} to the events dispatcher queue and updates the queue depth
+     * metrics.
+     *
+     * @param event {@link Event} to be queued.
+     */
+    private void offerToEventsDispatcher(@NonNull final Event event) {
+        final int queueDepth = eventsQueueDepth.incrementAndGet();
+        OptimizeMetrics.setGauge(OptimizeConstants.Metrics.GAUGE_EVENTS_QUEUE_DEPTH, queueDepth);
+        OptimizeMetrics.setGaugeMax(
+                OptimizeConstants.Metrics.GAUGE_EVENTS_QUEUE_MAX_DEPTH, queueDepth);
+        eventsDispatcher.offer(event);
+    }
+
+    /**
+     * Records the events dispatcher metrics for the given {@code event} at the head of the queue.
+     *
+     * <p>If the event is not {@code completed}, the queue is paused until it is resumed and the
+     * event is processed again. Once the event is completed, the time the queue was paused on it
+     * and, for get propositions requests, the time the request waited in the queue are recorded.
+     * A warning is logged if the wait exceeds the configured threshold.
+     *
+     * <p>This method should only be invoked from the events dispatcher thread.
+     *
+     * @param event {@link Event} at the head of the events dispatcher queue.
+     * @param completed {@code boolean} indicating whether the event processing is completed.
+     * @return {@code boolean} containing the provided {@code completed} value.
+     */
+    private boolean onEventsDispatcherWork(@NonNull final Event event, final boolean completed) {
+        final String eventId = event.getUniqueIdentifier();
+        if (!completed) {
+            if (!eventId.equals(eventsDispatcherPausedEventId)) {
+                eventsDispatcherPausedEventId = eventId;
+                eventsDispatcherPausedAtNanos = System.nanoTime();
+            }
+            return false;
+        }
+
+        if (eventId.equals(eventsDispatcherPausedEventId)) {
+            OptimizeMetrics.recordSince(
+                    OptimizeConstants.Metrics.STAGE_DISPATCHER_PAUSE,
+                    eventsDispatcherPausedAtNanos);
+            eventsDispatcherPausedEventId = null;
+        }
+
+        final Long offeredAtNanos = getEventOfferTimes.remove(eventId);
+        if (offeredAtNanos != null) {
+            final long waitNanos = System.nanoTime() - offeredAtNanos;
+            OptimizeMetrics.recordNanos(OptimizeConstants.Metrics.STAGE_DISPATCHER_WAIT, waitNanos);
+
+            final long waitMillis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+            final long thresholdMillis = dispatcherWaitWarningThresholdMillis;
+            if (thresholdMillis > 0 && waitMillis > thresholdMillis) {
+                OptimizeMetrics.increment(
+                        OptimizeConstants.Metrics.COUNTER_DISPATCHER_WAIT_WARNINGS);
+                Log.warning(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Get propositions request (%s) waited %d ms in the events queue, exceeding"
+                                + " the %d ms threshold.",
+                        eventId,
+                        waitMillis,
+                        thresholdMillis);
+            }
+        }
+
+        OptimizeMetrics.setGauge(
+                OptimizeConstants.Metrics.GAUGE_EVENTS_QUEUE_DEPTH,
+                Math.max(0, eventsQueueDepth.decrementAndGet()));
+        return true;
+    }
+
+    /** Dispatches an Optimize notification event containing the current metrics snapshot. */
+    private void dispatchMetricsEvent() {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(OptimizeConstants.EventDataKeys.METRICS, OptimizeMetrics.snapshot());
+
+        final Event metricsEvent =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.OPTIMIZE_METRICS,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.NOTIFICATION)
+                        .setEventData(eventData)
+                        .build();
+        getApi().dispatch(metricsEvent);
+    }
+
+    /**
+     * Checks whether any update propositions request without prefetch priority is in progress.
+     *
+     * @return {@code boolean} indicating whether a foreground update request is in progress.
+     */
+    private boolean isForegroundUpdateInProgress() {
+        for (final String edgeEventId : updateRequestEventIdsInProgress.keySet()) {
+            if (!prefetchEdgeEventIds.contains(edgeEventId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any decision scope requested in the given get propositions {@code event} is
+     * being fetched by an in-progress update request that is not queued in the events dispatcher,
+     * i.e. a prefetch request or a streaming request that hasn't yet delivered the scope.
+     *
+     * @param event get propositions request {@link Event}.
+     * @return {@code boolean} indicating whether the get request should wait for an update
+     *     request.
+     */
+    private boolean isAnyScopeAwaitingUngatedUpdate(@NonNull final Event event) {
+        if (prefetchEdgeEventIds.isEmpty() && streamedScopes.isEmpty()) {
+            return false;
+        }
+
+        final List<Map<String, Object>> decisionScopesData =
+                DataReader.optTypedListOfMap(
+                        Object.class,
+                        event.getEventData(),
+                        OptimizeConstants.EventDataKeys.DECISION_SCOPES,
+                        null);
+        final List<DecisionScope> requestedScopes = retrieveValidDecisionScopes(decisionScopesData);
+        if (OptimizeUtils.isNullOrEmpty(requestedScopes)) {
+            return false;
+        }
+
+        for (final Map.Entry<String, List<DecisionScope>> entry :
+                updateRequestEventIdsInProgress.entrySet()) {
+            final String edgeEventId = entry.getKey();
+            final Set<DecisionScope> deliveredScopes = streamedScopes.get(edgeEventId);
+            if (deliveredScopes == null && !prefetchEdgeEventIds.contains(edgeEventId)) {
+                continue;
+            }
+            for (final DecisionScope scope : requestedScopes) {
+                if (entry.getValue().contains(scope)
+                        && (deliveredScopes == null || !deliveredScopes.contains(scope))) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     /**
@@ -623,9 +1618,17 @@ class OptimizeExtension extends Extension {
      * @param requestedScopes a {@code List<DecisionScope>} for which propositions are requested.
      */
     private void updateCachedPropositions(@NonNull final List<DecisionScope> requestedScopes) {
+        final long startNanos = System.nanoTime();
+
         // update cache with accumulated propositions
         cachedPropositions.putAll(propositionsInProgress);
 
+        // record the fetch time for requested scopes, used for the prefetch manifest TTL.
+        final long now = System.currentTimeMillis();
+        for (final DecisionScope scope : requestedScopes) {
+            scopeRefreshTimestamps.put(scope, now);
+        }
+
         // remove cached propositions for requested scopes for which no propositions are returned.
         final List<DecisionScope> returnedScopes = new ArrayList<>(propositionsInProgress.keySet());
         final List<DecisionScope> scopesToRemove = new ArrayList<>(requestedScopes);
@@ -634,6 +1637,308 @@ class OptimizeExtension extends Extension {
         for (final DecisionScope scope : scopesToRemove) {
             cachedPropositions.remove(scope);
         }
+
+        // the persisted propositions for requested scopes are outdated.
+        final OptimizePropositionSnapshot snapshot = persistedPropositions;
+        if (snapshot != null) {
+            for (final DecisionScope scope : requestedScopes) {
+                snapshot.supersede(scope.getName());
+            }
+        }
+
+        schedulePropositionsSnapshotWrite();
+        OptimizeMetrics.recordSince(OptimizeConstants.Metrics.STAGE_CACHE_COMMIT, startNanos);
+    }
+
+    /**
+     * Commits the propositions received in a personalization:decisions event for a streaming update
+     * request to the in-memory propositions cache.
+     *
+     * <p>The decision scopes are marked as delivered and the events dispatcher is resumed so that
+     * get propositions requests waiting on them are processed right away, without waiting for the
+     * Edge completion response. Requested scopes for which no propositions are returned are only
+     * removed from the cache when the request is completed.
+     *
+     * @param propositions {@code Map<DecisionScope, OptimizeProposition>} received in the event.
+     * @param deliveredScopes {@code Set<DecisionScope>} delivered for the streaming request.
+     */
+    private void commitStreamedPropositions(
+            @NonNull final Map<DecisionScope, OptimizeProposition> propositions,
+            @NonNull final Set<DecisionScope> deliveredScopes) {
+        final long startNanos = System.nanoTime();
+        cachedPropositions.putAll(propositions);
+
+        final long now = System.currentTimeMillis();
+        for (final DecisionScope scope : propositions.keySet()) {
+            scopeRefreshTimestamps.put(scope, now);
+        }
+        schedulePropositionsSnapshotWrite();
+        OptimizeMetrics.recordSince(OptimizeConstants.Metrics.STAGE_CACHE_COMMIT, startNanos);
+
+        deliveredScopes.addAll(propositions.keySet());
+        eventsDispatcher.resume();
+    }
+
+    /**
+     * Retrieves the cached proposition for the given {@code scope}, from the in-memory propositions
+     * cache or, if absent, from the propositions snapshot persisted by a previous session.
+     *
+     * @param scope {@link DecisionScope} for which the proposition is requested.
+     * @return {@link OptimizeProposition} cached for the scope or null.
+     */
+    private OptimizeProposition getCachedProposition(@NonNull final DecisionScope scope) {
+        final OptimizeProposition optimizeProposition = cachedPropositions.get(scope);
+        if (optimizeProposition != null) {
+            return optimizeProposition;
+        }
+        return getPersistedProposition(scope);
+    }
+
+    /**
+     * Retrieves the persisted proposition for the given {@code scope} from the propositions
+     * snapshot persisted by a previous session, if any.
+     *
+     * <p>If the snapshot data is found to be invalid, the snapshot is discarded and its file is
+     * deleted, it is written again on the next propositions cache update.
+     *
+     * @param scope {@link DecisionScope} for which the proposition is requested.
+     * @return {@link OptimizeProposition} persisted for the scope or null.
+     */
+    private OptimizeProposition getPersistedProposition(@NonNull final DecisionScope scope) {
+        final OptimizePropositionSnapshot snapshot = persistedPropositions;
+        if (snapshot == null) {
+            return null;
+        }
+        final OptimizeProposition optimizeProposition = snapshot.get(scope.getName());
+        if (optimizeProposition == null && snapshot.isCorrupted()) {
+            discardPersistedPropositions(snapshot);
+        }
+        return optimizeProposition;
+    }
+
+    /**
+     * Discards the given corrupted propositions {@code snapshot} and deletes the snapshot file,
+     * unless the persisted propositions were replaced in the meantime.
+     *
+     * @param snapshot {@link OptimizePropositionSnapshot} found to be corrupted.
+     */
+    private void discardPersistedPropositions(
+            @NonNull final OptimizePropositionSnapshot snapshot) {
+        if (persistedPropositions != snapshot) {
+            return;
+        }
+        Log.warning(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "discardPersistedPropositions - The propositions snapshot is corrupted, deleting"
+                        + " it.");
+        persistedPropositions = null;
+        persistDispatcher.offer(false);
+    }
+
+    /**
+     * Opens the propositions snapshot file persisted by a previous session, if any.
+     *
+     * <p>The snapshot file is only memory-mapped, the propositions are read when they are first
+     * requested. The persisted propositions for the decision scopes already requested in this
+     * session are outdated.
+     */
+    @VisibleForTesting
+    void loadPersistedPropositions() {
+        final File snapshotFile = getPropositionsSnapshotFile();
+        if (snapshotFile == null) {
+            return;
+        }
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+        if (snapshot != null) {
+            for (final DecisionScope scope : scopeRefreshTimestamps.keySet()) {
+                snapshot.supersede(scope.getName());
+            }
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "loadPersistedPropositions - Opened the propositions snapshot with (%d)"
+                            + " propositions.",
+                    snapshot.size());
+        }
+        persistedPropositions = snapshot;
+    }
+
+    /**
+     * Enables or disables persisting the propositions cache in the snapshot file.
+     *
+     * <p>Enabling it opens the snapshot file persisted by a previous session, disabling it drops
+     * the persisted propositions and deletes the snapshot file. Nothing is done if the setting is
+     * unchanged since it was last applied.
+     *
+     * @param enabled {@code boolean} indicating whether the propositions cache is persisted.
+     */
+    private void setPersistPropositionsEnabled(final boolean enabled) {
+        if (persistPropositionsConfigured && persistPropositionsEnabled == enabled) {
+            return;
+        }
+        persistPropositionsConfigured = true;
+        persistPropositionsEnabled = enabled;
+        if (enabled) {
+            loadPersistedPropositions();
+        } else {
+            persistedPropositions = null;
+            persistDispatcher.offer(false);
+        }
+    }
+
+    /**
+     * Queues a write of the propositions snapshot file, if persisting the propositions cache is
+     * enabled.
+     *
+     * <p>Writes are coalesced, a single write is queued at a time and it persists the propositions
+     * cache as it is when the write starts.
+     */
+    private void schedulePropositionsSnapshotWrite() {
+        if (persistPropositionsEnabled && persistScheduled.compareAndSet(false, true)) {
+            persistDispatcher.offer(true);
+        }
+    }
+
+    /**
+     * Writes the in-memory propositions cache, merged with the persisted propositions that are not
+     * superseded, to the propositions snapshot file.
+     */
+    @VisibleForTesting
+    void writePropositionsSnapshot() {
+        final File snapshotFile = getPropositionsSnapshotFile();
+        if (snapshotFile == null) {
+            return;
+        }
+
+        // the persisted propositions are copied without being decoded.
+        OptimizePropositionSnapshot.write(
+                snapshotFile, cachedPropositions.values(), persistedPropositions);
+    }
+
+    /** Deletes the propositions snapshot file. */
+    private void deletePropositionsSnapshot() {
+        final File snapshotFile = getPropositionsSnapshotFile();
+        if (snapshotFile != null && snapshotFile.exists() && !snapshotFile.delete()) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "deletePropositionsSnapshot - Failed to delete the propositions snapshot"
+                            + " file.");
+        }
+    }
+
+    /**
+     * Retrieves the propositions snapshot file, in the application cache directory.
+     *
+     * @return {@link File} for the propositions snapshot or null if the application cache
+     *     directory is not available.
+     */
+    private File getPropositionsSnapshotFile() {
+        if (propositionsSnapshotFile == null) {
+            final DeviceInforming deviceInfoService =
+                    ServiceProvider.getInstance().getDeviceInfoService();
+            final File cacheDir =
+                    deviceInfoService != null ? deviceInfoService.getApplicationCacheDir() : null;
+            if (cacheDir != null) {
+                propositionsSnapshotFile =
+                        new File(cacheDir, OptimizeConstants.PROPOSITIONS_SNAPSHOT_FILE);
+            }
+        }
+        return propositionsSnapshotFile;
+    }
+
+    /**
+     * Republishes the estimated heap retained by {@code propositionsInProgress}, read by {@link
+     * #getPropositionsFootprint(int)}.
+     *
+     * <p>This method should be invoked after every modification to {@code propositionsInProgress}.
+     */
+    private void publishPropositionsInProgressFootprint() {
+        propositionsInProgressRetainedBytes = OptimizeFootprint.totalBytes(propositionsInProgress);
+    }
+
+    /**
+     * Retrieves the estimated heap retained by the propositions held in the SDK.
+     *
+     * <p>The estimates are computed once for each proposition when it is inserted, so this method
+     * only sums them over the propositions caches and returns immediately.
+     *
+     * @param topScopesCount {@code int} containing the maximum number of heaviest decision scopes,
+     *     from the propositions cache, to be returned.
+     * @return {@code Map<String, Object>} containing the estimated retained bytes for the
+     *     propositions cache, the preview propositions cache and the in-progress propositions,
+     *     their total and the heaviest cached decision scopes.
+     */
+    static Map<String, Object> getPropositionsFootprint(final int topScopesCount) {
+        final OptimizeExtension extension = registeredExtension;
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions =
+                extension != null
+                        ? extension.cachedPropositions
+                        : Collections.<DecisionScope, OptimizeProposition>emptyMap();
+        final long cachedBytes = OptimizeFootprint.totalBytes(cachedPropositions);
+        final long previewBytes =
+                extension != null
+                        ? OptimizeFootprint.totalBytes(extension.previewCachedPropositions)
+                        : 0;
+        final long inProgressBytes =
+                extension != null ? extension.propositionsInProgressRetainedBytes : 0;
+
+        final Map<String, Object> footprint = new HashMap<>();
+        footprint.put(OptimizeConstants.Footprint.CACHED_PROPOSITIONS_BYTES, cachedBytes);
+        footprint.put(OptimizeConstants.Footprint.PREVIEW_CACHED_PROPOSITIONS_BYTES, previewBytes);
+        footprint.put(OptimizeConstants.Footprint.PROPOSITIONS_IN_PROGRESS_BYTES, inProgressBytes);
+        footprint.put(
+                OptimizeConstants.Footprint.TOTAL_BYTES,
+                cachedBytes + previewBytes + inProgressBytes);
+        footprint.put(
+                OptimizeConstants.Footprint.TOP_SCOPES,
+                OptimizeFootprint.topScopes(cachedPropositions, topScopesCount));
+        return footprint;
+    }
+
+    /**
+     * Retrieves the cached propositions for the provided decision scopes from the propositions
+     * caches.
+     *
+     * <p>This method does not dispatch any event and does not wait for in-progress update requests
+     * to complete, it returns immediately with whatever is currently committed to the cache.
+     * Similar to {@link #handleGetPropositions(Event)}, preview propositions take precedence if any
+     * of the provided scopes are present in the preview cache.
+     *
+     * @param decisionScopes {@code List<DecisionScope>} containing valid scopes.
+     * @return {@code Map<DecisionScope, OptimizeProposition>} containing the cached propositions,
+     *     empty if the extension isn't registered.
+     */
+    static Map<DecisionScope, OptimizeProposition> peekCachedPropositions(
+            @NonNull final List<DecisionScope> decisionScopes) {
+        final Map<DecisionScope, OptimizeProposition> propositions = new HashMap<>();
+        final OptimizeExtension extension = registeredExtension;
+        if (extension == null) {
+            return propositions;
+        }
+
+        final Map<DecisionScope, OptimizeProposition> previewCachedPropositions =
+                extension.previewCachedPropositions;
+        for (final DecisionScope scope : decisionScopes) {
+            final OptimizeProposition optimizeProposition = previewCachedPropositions.get(scope);
+            if (optimizeProposition != null) {
+                propositions.put(scope, optimizeProposition);
+            }
+        }
+
+        if (!propositions.isEmpty()) {
+            Log.debug(OptimizeConstants.LOG_TAG, SELF_TAG, "Preview Mode is enabled.");
+            return propositions;
+        }
+
+        for (final DecisionScope scope : decisionScopes) {
+            final OptimizeProposition optimizeProposition = extension.getCachedProposition(scope);
+            if (optimizeProposition != null) {
+                propositions.put(scope, optimizeProposition);
+            }
+        }
+        return propositions;
     }
 
     /**
@@ -646,10 +1951,22 @@ class OptimizeExtension extends Extension {
      * @param event incoming {@link Event} object to be processed.
      */
     void handleEdgeResponse(@NonNull final Event event) {
+        final long startNanos = System.nanoTime();
         try {
             final Map<String, Object> eventData = event.getEventData();
             final String requestEventId = OptimizeUtils.getRequestEventId(event);
 
+            if (!OptimizeUtils.isNullOrEmpty(requestEventId)
+                    && cancelledUpdateRequestEventIds.contains(requestEventId)) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "handleEdgeResponse - Ignoring Edge personalization:decisions event, update"
+                                + " request (%s) was cancelled.",
+                        requestEventId);
+                return;
+            }
+
             if (!OptimizeUtils.isPersonalizationDecisionsResponse(event)
                     || OptimizeUtils.isNullOrEmpty(requestEventId)
                     || !updateRequestEventIdsInProgress.containsKey(requestEventId)) {
@@ -659,7 +1976,11 @@ class OptimizeExtension extends Extension {
                         "handleEdgeResponse - Ignoring Edge event, either handle type is not"
                             + " personalization:decisions, or the response isn't intended for this"
                             + " extension.");
-                propositionsInProgress.clear();
+                // keep the propositions accumulated for other in-progress update requests.
+                if (updateRequestEventIdsInProgress.isEmpty()) {
+                    propositionsInProgress.clear();
+                    publishPropositionsInProgressFootprint();
+                }
                 return;
             }
 
@@ -677,12 +1998,22 @@ class OptimizeExtension extends Extension {
             }
 
             final Map<DecisionScope, OptimizeProposition> propositionsMap = new HashMap<>();
+            final Map<DecisionScope, Map<String, Object>> propositionsEventData = new HashMap<>();
+            final int compressionThreshold = offerContentCompressionThreshold;
             for (final Map<String, Object> propositionData : payload) {
                 final OptimizeProposition optimizeProposition =
                         OptimizeProposition.fromEventData(propositionData);
                 if (optimizeProposition != null
                         && !OptimizeUtils.isNullOrEmpty(optimizeProposition.getOffers())) {
                     final DecisionScope scope = new DecisionScope(optimizeProposition.getScope());
+                    // share the data repeated across propositions before they are cached.
+                    optimizeProposition.intern();
+                    // the notification data is built from the content before it is compressed.
+                    propositionsEventData.put(scope, optimizeProposition.toEventData());
+                    // compress large offer content before the proposition is shared.
+                    optimizeProposition.compressContent(compressionThreshold);
+                    // estimate the retained size once, when the proposition is first cached.
+                    optimizeProposition.getEstimatedRetainedBytes();
                     propositionsMap.put(scope, optimizeProposition);
                 }
             }
@@ -699,11 +2030,16 @@ class OptimizeExtension extends Extension {
 
             // accumulate propositions in in-progress propositions dictionary
             propositionsInProgress.putAll(propositionsMap);
+            publishPropositionsInProgressFootprint();
 
-            final List<Map<String, Object>> propositionsList = new ArrayList<>();
-            for (final OptimizeProposition optimizeProposition : propositionsMap.values()) {
-                propositionsList.add(optimizeProposition.toEventData());
+            // commit the streamed propositions to the cache right away
+            final Set<DecisionScope> deliveredScopes = streamedScopes.get(requestEventId);
+            if (deliveredScopes != null) {
+                commitStreamedPropositions(propositionsMap, deliveredScopes);
             }
+
+            final List<Map<String, Object>> propositionsList =
+                    new ArrayList<>(propositionsEventData.values());
             final Map<String, Object> notificationData = new HashMap<>();
             notificationData.put(OptimizeConstants.EventDataKeys.PROPOSITIONS, propositionsList);
 
@@ -717,6 +2053,18 @@ class OptimizeExtension extends Extension {
 
             // Dispatch notification event
             getApi().dispatch(edgeEvent);
+
+            if (OptimizeTracer.isEnabled()) {
+                final Map<String, Object> attributes = new HashMap<>();
+                attributes.put(OptimizeTraceSpan.ATTRIBUTE_EDGE_EVENT_ID, requestEventId);
+                attributes.put(
+                        OptimizeTraceSpan.ATTRIBUTE_PROPOSITION_COUNT, propositionsMap.size());
+                OptimizeTracer.recordSpan(
+                        getTraceId(requestEventId),
+                        OptimizeTraceSpan.HANDLE_EDGE_RESPONSE,
+                        startNanos,
+                        attributes);
+            }
         } catch (final Exception e) {
             Log.warning(
                     OptimizeConstants.LOG_TAG,
@@ -737,6 +2085,7 @@ class OptimizeExtension extends Extension {
      * @param event incoming {@link Event} object to be processed.
      */
     void handleEdgeErrorResponse(@NonNull final Event event) {
+        final long startNanos = System.nanoTime();
         try {
             final Map<String, Object> eventData = event.getEventData();
             final String requestEventId = OptimizeUtils.getRequestEventId(event);
@@ -803,6 +2152,17 @@ class OptimizeExtension extends Extension {
                     errorStatus,
                     errorReport);
 
+            if (OptimizeTracer.isEnabled()) {
+                final Map<String, Object> attributes = new HashMap<>();
+                attributes.put(OptimizeTraceSpan.ATTRIBUTE_EDGE_EVENT_ID, requestEventId);
+                attributes.put(OptimizeTraceSpan.ATTRIBUTE_ERROR, errorStatus);
+                OptimizeTracer.recordSpan(
+                        getTraceId(requestEventId),
+                        OptimizeTraceSpan.HANDLE_EDGE_ERROR_RESPONSE,
+                        startNanos,
+                        attributes);
+            }
+
             // Check if the errorStatus is in the list of recoverable error codes
             if (recoverableNetworkErrorCodes.contains(errorStatus)) {
                 Log.debug(
@@ -859,8 +2219,8 @@ class OptimizeExtension extends Extension {
 
             final List<Map<String, Object>> propositionsList = new ArrayList<>();
             for (final DecisionScope scope : validScopes) {
-                if (cachedPropositions.containsKey(scope)) {
-                    final OptimizeProposition optimizeProposition = cachedPropositions.get(scope);
+                final OptimizeProposition optimizeProposition = getCachedProposition(scope);
+                if (optimizeProposition != null) {
                     propositionsList.add(optimizeProposition.toEventData());
                 }
             }
@@ -993,6 +2353,64 @@ class OptimizeExtension extends Extension {
     void handleClearPropositions(@NonNull final Event event) {
         cachedPropositions.clear();
         previewCachedPropositions.clear();
+        scopeRefreshTimestamps.clear();
+        persistedPropositions = null;
+        OptimizeContentCompressor.clearCache();
+        persistDispatcher.offer(false);
+    }
+
+    /**
+     * Handles the event with type {@value EventType#HUB} and source {@value
+     * OptimizeConstants.EventSource#SHARED_STATE}.
+     *
+     * <p>This method applies the Optimize configuration whenever the Configuration shared state is
+     * updated.
+     *
+     * @param event incoming {@link Event} object to be processed.
+     */
+    void handleSharedStateUpdate(@NonNull final Event event) {
+        final String stateOwner =
+                DataReader.optString(
+                        event.getEventData(), OptimizeConstants.EventDataKeys.STATE_OWNER, "");
+        if (!OptimizeConstants.Configuration.EXTENSION_NAME.equals(stateOwner)) {
+            return;
+        }
+        applyConfiguration(retrieveConfigurationSharedState(event));
+    }
+
+    /**
+     * Applies the Optimize settings that outlive a single request from the given Configuration
+     * shared state.
+     *
+     * <p>This method is invoked on registration and whenever the Configuration shared state is
+     * updated. It does nothing if the Configuration shared state is not available yet.
+     *
+     * @param configData {@code Map<String, Object>} containing the Configuration shared state.
+     */
+    private void applyConfiguration(@Nullable final Map<String, Object> configData) {
+        if (OptimizeUtils.isNullOrEmpty(configData)) {
+            return;
+        }
+        setPersistPropositionsEnabled(
+                DataReader.optBoolean(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_PERSIST_PROPOSITIONS,
+                        false));
+        offerContentCompressionThreshold =
+                DataReader.optInt(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_COMPRESS_OFFER_CONTENT_THRESHOLD,
+                        0);
+        metricsEventsEnabled =
+                DataReader.optBoolean(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_METRICS_EVENTS_ENABLED,
+                        false);
+        dispatcherWaitWarningThresholdMillis =
+                DataReader.optLong(
+                        configData,
+                        OptimizeConstants.Configuration.OPTIMIZE_DISPATCHER_WAIT_WARNING_THRESHOLD,
+                        OptimizeConstants.DEFAULT_DISPATCHER_WAIT_WARNING_THRESHOLD_MILLIS);
     }
 
     /**
@@ -1039,12 +2457,22 @@ class OptimizeExtension extends Extension {
             }
 
             final Map<DecisionScope, OptimizeProposition> propositionsMap = new HashMap<>();
+            final Map<DecisionScope, Map<String, Object>> propositionsEventData = new HashMap<>();
+            final int compressionThreshold = offerContentCompressionThreshold;
             for (final Map<String, Object> propositionData : payload) {
                 final OptimizeProposition optimizeProposition =
                         OptimizeProposition.fromEventData(propositionData);
                 if (optimizeProposition != null
                         && !OptimizeUtils.isNullOrEmpty(optimizeProposition.getOffers())) {
                     final DecisionScope scope = new DecisionScope(optimizeProposition.getScope());
+                    // share the data repeated across propositions before they are cached.
+                    optimizeProposition.intern();
+                    // the notification data is built from the content before it is compressed.
+                    propositionsEventData.put(scope, optimizeProposition.toEventData());
+                    // compress large offer content before the proposition is shared.
+                    optimizeProposition.compressContent(compressionThreshold);
+                    // estimate the retained size once, when the proposition is first cached.
+                    optimizeProposition.getEstimatedRetainedBytes();
                     propositionsMap.put(scope, optimizeProposition);
                 }
             }
@@ -1060,10 +2488,8 @@ class OptimizeExtension extends Extension {
 
             previewCachedPropositions.putAll(propositionsMap);
 
-            final List<Map<String, Object>> propositionsList = new ArrayList<>();
-            for (final OptimizeProposition optimizeProposition : propositionsMap.values()) {
-                propositionsList.add(optimizeProposition.toEventData());
-            }
+            final List<Map<String, Object>> propositionsList =
+                    new ArrayList<>(propositionsEventData.values());
             final Map<String, Object> notificationData = new HashMap<>();
             notificationData.put(OptimizeConstants.EventDataKeys.PROPOSITIONS, propositionsList);
 
@@ -1187,6 +2613,16 @@ class OptimizeExtension extends Extension {
         this.cachedPropositions = cachedPropositions;
     }
 
+    @VisibleForTesting
+    void setPropositionsSnapshotFile(final File propositionsSnapshotFile) {
+        this.propositionsSnapshotFile = propositionsSnapshotFile;
+    }
+
+    @VisibleForTesting
+    OptimizePropositionSnapshot getPersistedPropositions() {
+        return persistedPropositions;
+    }
+
     @VisibleForTesting
     Map<DecisionScope, OptimizeProposition> getPreviewCachedPropositions() {
         return previewCachedPropositions;
@@ -1208,6 +2644,7 @@ class OptimizeExtension extends Extension {
             final Map<DecisionScope, OptimizeProposition> propositionsInProgress) {
         this.propositionsInProgress.clear();
         this.propositionsInProgress.putAll(propositionsInProgress);
+        publishPropositionsInProgressFootprint();
     }
 
     @VisibleForTesting
@@ -1215,6 +2652,11 @@ class OptimizeExtension extends Extension {
         return updateRequestEventIdsInProgress;
     }
 
+    @VisibleForTesting
+    Set<String> getCancelledUpdateRequestEventIds() {
+        return cancelledUpdateRequestEventIds;
+    }
+
     @VisibleForTesting
     void setUpdateRequestEventIdsInProgress(
             final String eventId, final List<DecisionScope> expectedScopes) {
@@ -1225,4 +2667,61 @@ class OptimizeExtension extends Extension {
     void setEventsDispatcher(final SerialWorkDispatcher<Event> eventsDispatcher) {
         this.eventsDispatcher = eventsDispatcher;
     }
+
+    @VisibleForTesting
+    Map<String, List<DecisionScope>> getPrefetchManifest() {
+        return prefetchManifest;
+    }
+
+    @VisibleForTesting
+    void setPrefetchDispatcher(final SerialWorkDispatcher<Event> prefetchDispatcher) {
+        this.prefetchDispatcher = prefetchDispatcher;
+    }
+
+    /**
+     * {@code UpdateRequestChunks} class tracks an update propositions request split in multiple
+     * Edge requests, accumulating the propositions and the first error across its chunks.
+     */
+    private static final class UpdateRequestChunks {
+        private final AtomicInteger remainingChunks;
+        private final Map<DecisionScope, OptimizeProposition> propositions =
+                new ConcurrentHashMap<>();
+        private final AtomicReference<AEPOptimizeError> error = new AtomicReference<>();
+        private final long startNanos = System.nanoTime();
+
+        UpdateRequestChunks(final int chunkCount) {
+            this.remainingChunks = new AtomicInteger(chunkCount);
+        }
+
+        void addPropositions(@NonNull final Map<DecisionScope, OptimizeProposition> chunk) {
+            propositions.putAll(chunk);
+        }
+
+        void setError(@Nullable final AEPOptimizeError chunkError) {
+            if (chunkError != null) {
+                error.compareAndSet(null, chunkError);
+            }
+        }
+
+        /**
+         * Marks a chunk as completed.
+         *
+         * @return {@code boolean} indicating whether all the chunks are completed.
+         */
+        boolean completeChunk() {
+            return remainingChunks.decrementAndGet() == 0;
+        }
+
+        Map<DecisionScope, OptimizeProposition> getPropositions() {
+            return propositions;
+        }
+
+        AEPOptimizeError getError() {
+            return error.get();
+        }
+
+        long getStartNanos() {
+            return startNanos;
+        }
+    }
 }
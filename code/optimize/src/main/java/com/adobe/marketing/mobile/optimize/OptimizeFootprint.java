@@ -0,0 +1,188 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code OptimizeFootprint} estimates the heap retained by {@link OptimizeProposition} objects
+ * held in the propositions caches.
+ *
+ * <p>The estimate assumes a 64-bit runtime with compressed references and UTF-16 string storage.
+ * It is meant to compare decision scopes and size cache budgets, not to report exact heap usage.
+ * Structures shared through {@link OptimizeInternPool} are counted for each proposition.
+ */
+final class OptimizeFootprint {
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24;
+    private static final int BOXED_PRIMITIVE_BYTES = 16;
+    private static final int MAP_BYTES = 48;
+    private static final int MAP_ENTRY_BYTES = 32;
+    private static final int LIST_BYTES = 24;
+
+    private OptimizeFootprint() {}
+
+    /**
+     * Estimates the heap retained by the given {@code proposition}, including its offers.
+     *
+     * @param proposition {@link OptimizeProposition} to be measured.
+     * @return {@code long} containing the estimated retained bytes.
+     */
+    static long estimateProposition(@NonNull final OptimizeProposition proposition) {
+        long bytes = align(OBJECT_HEADER_BYTES + 4 * REFERENCE_BYTES);
+        bytes += estimateValue(proposition.getId());
+        bytes += estimateValue(proposition.getScope());
+        bytes += estimateValue(proposition.getSharedScopeDetails());
+
+        final List<Offer> offers = proposition.getOffers();
+        bytes += estimateListShell(offers.size());
+        for (final Offer offer : offers) {
+            bytes += estimateOffer(offer);
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the heap retained by the given {@code offer}.
+     *
+     * @param offer {@link Offer} to be measured.
+     * @return {@code long} containing the estimated retained bytes.
+     */
+    static long estimateOffer(@NonNull final Offer offer) {
+        // object with 8 references, an int score and the proposition soft reference object.
+        long bytes = align(OBJECT_HEADER_BYTES + 9 * REFERENCE_BYTES + 4);
+        bytes += align(OBJECT_HEADER_BYTES + 4 * REFERENCE_BYTES);
+        bytes += estimateValue(offer.getId());
+        bytes += estimateValue(offer.getEtag());
+        bytes += estimateValue(offer.getSchema());
+        bytes += estimateValue(offer.getMeta());
+        bytes += estimateValue(offer.getSharedLanguage());
+        final byte[] compressedContent = offer.getCompressedContent();
+        bytes +=
+                compressedContent != null
+                        ? align(ARRAY_HEADER_BYTES + (long) compressedContent.length)
+                        : estimateValue(offer.getContent());
+        bytes += estimateValue(offer.getSharedCharacteristics());
+        return bytes;
+    }
+
+    /**
+     * Estimates the heap retained by the given event data {@code value}.
+     *
+     * <p>Strings, boxed primitives, maps and lists are measured recursively, any other object is
+     * counted as an empty object.
+     *
+     * @param value {@link Object} to be measured.
+     * @return {@code long} containing the estimated retained bytes.
+     */
+    static long estimateValue(@Nullable final Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return align(STRING_BYTES) + align(ARRAY_HEADER_BYTES + 2L * ((String) value).length());
+        }
+        if (value instanceof Number) {
+            return BOXED_PRIMITIVE_BYTES;
+        }
+        if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            long bytes = MAP_BYTES;
+            bytes += align(ARRAY_HEADER_BYTES + (long) map.size() * REFERENCE_BYTES);
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += MAP_ENTRY_BYTES;
+                bytes += estimateValue(entry.getKey());
+                bytes += estimateValue(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            long bytes = estimateListShell(list.size());
+            for (final Object element : list) {
+                bytes += estimateValue(element);
+            }
+            return bytes;
+        }
+        return align(OBJECT_HEADER_BYTES);
+    }
+
+    /**
+     * Sums the estimated retained bytes of the given {@code propositions}.
+     *
+     * @param propositions {@code Map<DecisionScope, OptimizeProposition>} to be measured.
+     * @return {@code long} containing the total estimated retained bytes.
+     */
+    static long totalBytes(@NonNull final Map<DecisionScope, OptimizeProposition> propositions) {
+        long total = 0;
+        for (final OptimizeProposition proposition : propositions.values()) {
+            total += proposition.getEstimatedRetainedBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the {@code limit} decision scopes, in the given {@code propositions}, with the
+     * largest estimated retained bytes.
+     *
+     * @param propositions {@code Map<DecisionScope, OptimizeProposition>} to be measured.
+     * @param limit {@code int} containing the maximum number of scopes returned.
+     * @return {@code List<Map<String, Object>>} containing the scope name and the estimated
+     *     retained bytes, sorted by decreasing size.
+     */
+    @NonNull static List<Map<String, Object>> topScopes(
+            @NonNull final Map<DecisionScope, OptimizeProposition> propositions, final int limit) {
+        final List<Map.Entry<DecisionScope, OptimizeProposition>> entries =
+                new ArrayList<>(propositions.entrySet());
+        Collections.sort(
+                entries,
+                new Comparator<Map.Entry<DecisionScope, OptimizeProposition>>() {
+                    @Override
+                    public int compare(
+                            final Map.Entry<DecisionScope, OptimizeProposition> first,
+                            final Map.Entry<DecisionScope, OptimizeProposition> second) {
+                        return Long.compare(
+                                second.getValue().getEstimatedRetainedBytes(),
+                                first.getValue().getEstimatedRetainedBytes());
+                    }
+                });
+
+        final List<Map<String, Object>> topScopes = new ArrayList<>();
+        for (int i = 0; i < Math.min(Math.max(0, limit), entries.size()); i++) {
+            final Map.Entry<DecisionScope, OptimizeProposition> entry = entries.get(i);
+            final Map<String, Object> scopeFootprint = new HashMap<>();
+            scopeFootprint.put(OptimizeConstants.Footprint.SCOPE, entry.getKey().getName());
+            scopeFootprint.put(
+                    OptimizeConstants.Footprint.BYTES,
+                    entry.getValue().getEstimatedRetainedBytes());
+            topScopes.add(scopeFootprint);
+        }
+        return topScopes;
+    }
+
+    private static long estimateListShell(final int size) {
+        return LIST_BYTES + align(ARRAY_HEADER_BYTES + (long) size * REFERENCE_BYTES);
+    }
+
+    private static long align(final long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
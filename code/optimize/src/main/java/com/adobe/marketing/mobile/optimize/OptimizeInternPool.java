@@ -0,0 +1,165 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * {@code OptimizeInternPool} canonicalizes the event data structures shared by many propositions,
+ * such as the {@code scopeDetails} of propositions from the same activity, the offer {@code
+ * language} and {@code characteristics}, and the offer content repeated across decision scopes.
+ *
+ * <p>Interning a map or a list returns an unmodifiable deep copy, or the instance already pooled
+ * for an equal structure. Nested maps and lists are interned first, so equal nested structures are
+ * shared even when their parents differ. The pool holds its instances weakly, an instance is
+ * dropped once no proposition references it anymore.
+ *
+ * <p>The pool is split in stripes selected by hash code, each guarded by its own lock, so that
+ * threads interning different structures rarely contend. Propositions are interned when they are
+ * first cached, not when they are created from event data.
+ */
+final class OptimizeInternPool {
+    // Number of stripes, a power of two.
+    private static final int STRIPES_COUNT = 16;
+
+    private static final Map<Object, WeakReference<Object>>[] stripes = createStripes();
+
+    private OptimizeInternPool() {}
+
+    /**
+     * Interns the given {@code map}, recursively interning its nested maps and lists.
+     *
+     * @param map {@code Map<String, Object>} to be interned.
+     * @return unmodifiable {@code Map<String, Object>} shared for equal maps, or null if the given
+     *     {@code map} is null.
+     */
+    @Nullable static Map<String, Object> internMap(@Nullable final Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+        final Map<String, Object> copy = new HashMap<>(map.size());
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            copy.put(entry.getKey(), internValue(entry.getValue()));
+        }
+        return canonicalize(Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Interns the given {@code map} of strings.
+     *
+     * @param map {@code Map<String, String>} to be interned.
+     * @return unmodifiable {@code Map<String, String>} shared for equal maps, or null if the given
+     *     {@code map} is null.
+     */
+    @Nullable static Map<String, String> internStringMap(@Nullable final Map<String, String> map) {
+        if (map == null) {
+            return null;
+        }
+        return canonicalize(Collections.unmodifiableMap(new HashMap<>(map)));
+    }
+
+    /**
+     * Interns the given {@code list} of strings.
+     *
+     * @param list {@code List<String>} to be interned.
+     * @return unmodifiable {@code List<String>} shared for equal lists, or null if the given {@code
+     *     list} is null.
+     */
+    @Nullable static List<String> internStringList(@Nullable final List<String> list) {
+        if (list == null) {
+            return null;
+        }
+        return canonicalize(Collections.unmodifiableList(new ArrayList<>(list)));
+    }
+
+    /**
+     * Interns the given offer {@code content}, unless it is longer than {@value
+     * OptimizeConstants#MAX_INTERNED_CONTENT_LENGTH} characters.
+     *
+     * <p>The pool is addressed by the content hash code, which {@link String} computes once and
+     * caches. Interning equal content also compares it in full under the pool lock, so larger
+     * content is left as is.
+     *
+     * @param content {@link String} containing the offer content to be interned.
+     * @return {@code String} shared for equal content, the given {@code content} if it is too long
+     *     to be interned, or null if the given {@code content} is null.
+     */
+    @Nullable static String internContent(@Nullable final String content) {
+        if (content == null || content.length() > OptimizeConstants.MAX_INTERNED_CONTENT_LENGTH) {
+            return content;
+        }
+        return canonicalize(content);
+    }
+
+    /**
+     * Gets the number of structures currently held in the pool.
+     *
+     * @return {@code int} containing the pool size.
+     */
+    static int size() {
+        int size = 0;
+        for (final Map<Object, WeakReference<Object>> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object internValue(final Object value) {
+        if (value instanceof Map) {
+            return internMap((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            final List<Object> copy = new ArrayList<>(list.size());
+            for (final Object element : list) {
+                copy.add(internValue(element));
+            }
+            return canonicalize(Collections.unmodifiableList(copy));
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T canonicalize(final T value) {
+        final int hash = value.hashCode();
+        final Map<Object, WeakReference<Object>> stripe =
+                stripes[(hash ^ (hash >>> 16)) & (STRIPES_COUNT - 1)];
+        synchronized (stripe) {
+            final WeakReference<Object> reference = stripe.get(value);
+            final Object pooled = reference != null ? reference.get() : null;
+            if (pooled != null) {
+                return (T) pooled;
+            }
+            stripe.put(value, new WeakReference<Object>(value));
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, WeakReference<Object>>[] createStripes() {
+        final Map<Object, WeakReference<Object>>[] created = new Map[STRIPES_COUNT];
+        for (int i = 0; i < STRIPES_COUNT; i++) {
+            created[i] = new WeakHashMap<>();
+        }
+        return created;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code OptimizeMetrics} is the process-wide registry of latency histograms and counters for the
+ * Optimize request pipeline stages.
+ *
+ * <p>Recording is lock-free, so it can be done from the public API threads, the event hub thread
+ * and the extension dispatcher threads without contention.
+ */
+final class OptimizeMetrics {
+
+    private static final ConcurrentHashMap<String, LatencyHistogram> histograms =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, AtomicLong> counters =
+            new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, AtomicLong> gauges = new ConcurrentHashMap<>();
+
+    private OptimizeMetrics() {}
+
+    /**
+     * Records the time elapsed since {@code startNanos} for the given pipeline {@code stage}.
+     *
+     * @param stage {@link String} containing the pipeline stage name.
+     * @param startNanos {@code long} containing the {@link System#nanoTime()} at the start of the
+     *     stage.
+     */
+    static void recordSince(@NonNull final String stage, final long startNanos) {
+        recordNanos(stage, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records the given latency, in milliseconds, for the given pipeline {@code stage}.
+     *
+     * @param stage {@link String} containing the pipeline stage name.
+     * @param millis {@code long} containing the stage latency in milliseconds.
+     */
+    static void recordMillis(@NonNull final String stage, final long millis) {
+        recordNanos(stage, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Records the given latency, in nanoseconds, for the given pipeline {@code stage}.
+     *
+     * @param stage {@link String} containing the pipeline stage name.
+     * @param nanos {@code long} containing the stage latency in nanoseconds.
+     */
+    static void recordNanos(@NonNull final String stage, final long nanos) {
+        LatencyHistogram histogram = histograms.get(stage);
+        if (histogram == null) {
+            final LatencyHistogram newHistogram = new LatencyHistogram();
+            final LatencyHistogram existing = histograms.putIfAbsent(stage, newHistogram);
+            histogram = existing != null ? existing : newHistogram;
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+
+    /**
+     * Increments the given {@code counter} by one.
+     *
+     * @param counter {@link String} containing the counter name.
+     */
+    static void increment(@NonNull final String counter) {
+        AtomicLong value = counters.get(counter);
+        if (value == null) {
+            final AtomicLong newValue = new AtomicLong();
+            final AtomicLong existing = counters.putIfAbsent(counter, newValue);
+            value = existing != null ? existing : newValue;
+        }
+        value.incrementAndGet();
+    }
+
+    /**
+     * Sets the given {@code gauge} to the provided {@code value}.
+     *
+     * @param gauge {@link String} containing the gauge name.
+     * @param value {@code long} containing the current gauge value.
+     */
+    static void setGauge(@NonNull final String gauge, final long value) {
+        gaugeFor(gauge).set(value);
+    }
+
+    /**
+     * Sets the given {@code gauge} to the provided {@code value}, if it is greater than the current
+     * gauge value.
+     *
+     * @param gauge {@link String} containing the gauge name.
+     * @param value {@code long} containing the candidate maximum value.
+     */
+    static void setGaugeMax(@NonNull final String gauge, final long value) {
+        final AtomicLong current = gaugeFor(gauge);
+        long currentValue = current.get();
+        while (value > currentValue && !current.compareAndSet(currentValue, value)) {
+            currentValue = current.get();
+        }
+    }
+
+    /**
+     * Creates a point-in-time snapshot of all the recorded metrics.
+     *
+     * <p>The snapshot contains a {@value OptimizeConstants.Metrics#STAGES} map with the count,
+     * total, max and percentile latencies (microseconds) for each recorded stage, a {@value
+     * OptimizeConstants.Metrics#COUNTERS} map with the value of each counter and a {@value
+     * OptimizeConstants.Metrics#GAUGES} map with the value of each gauge.
+     *
+     * @return {@code Map<String, Object>} containing the metrics snapshot.
+     */
+    @NonNull static Map<String, Object> snapshot() {
+        final Map<String, Object> stages = new HashMap<>();
+        for (final Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            stages.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        final Map<String, Object> counterValues = new HashMap<>();
+        for (final Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            counterValues.put(entry.getKey(), entry.getValue().get());
+        }
+
+        final Map<String, Object> gaugeValues = new HashMap<>();
+        for (final Map.Entry<String, AtomicLong> entry : gauges.entrySet()) {
+            gaugeValues.put(entry.getKey(), entry.getValue().get());
+        }
+
+        final Map<String, Object> metrics = new HashMap<>();
+        metrics.put(OptimizeConstants.Metrics.STAGES, stages);
+        metrics.put(OptimizeConstants.Metrics.COUNTERS, counterValues);
+        metrics.put(OptimizeConstants.Metrics.GAUGES, gaugeValues);
+        return metrics;
+    }
+
+    /** Clears all the recorded metrics. */
+    static void reset() {
+        histograms.clear();
+        counters.clear();
+        gauges.clear();
+    }
+
+    private static AtomicLong gaugeFor(@NonNull final String gauge) {
+        AtomicLong value = gauges.get(gauge);
+        if (value == null) {
+            final AtomicLong newValue = new AtomicLong();
+            final AtomicLong existing = gauges.putIfAbsent(gauge, newValue);
+            value = existing != null ? existing : newValue;
+        }
+        return value;
+    }
+
+    /**
+     * Lock-free log-linear latency histogram, with microsecond resolution.
+     *
+     * <p>Values below {@value #LINEAR_BUCKETS} microseconds get their own bucket, larger values are
+     * grouped in {@value #SUB_BUCKETS} sub-buckets per power of two, which bounds the relative
+     * error of the reported percentiles to 12.5%.
+     */
+    static final class LatencyHistogram {
+        private static final int LINEAR_BUCKETS = 16;
+        private static final int SUB_BUCKETS = 8;
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int MIN_EXPONENT = 4;
+        private static final int MAX_EXPONENT = 40;
+        private static final int BUCKET_COUNT =
+                LINEAR_BUCKETS + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(final long micros) {
+            buckets.incrementAndGet(bucketIndex(micros));
+            total.addAndGet(micros);
+
+            long currentMax = max.get();
+            while (micros > currentMax && !max.compareAndSet(currentMax, micros)) {
+                currentMax = max.get();
+            }
+        }
+
+        @NonNull Map<String, Object> snapshot() {
+            final long[] counts = new long[BUCKET_COUNT];
+            long recorded = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets.get(i);
+                recorded += counts[i];
+            }
+
+            final long maxMicros = max.get();
+            final Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put(OptimizeConstants.Metrics.COUNT, recorded);
+            snapshot.put(OptimizeConstants.Metrics.TOTAL_MICROS, total.get());
+            snapshot.put(OptimizeConstants.Metrics.MAX_MICROS, maxMicros);
+            snapshot.put(
+                    OptimizeConstants.Metrics.P50_MICROS,
+                    percentile(counts, recorded, 0.50, maxMicros));
+            snapshot.put(
+                    OptimizeConstants.Metrics.P90_MICROS,
+                    percentile(counts, recorded, 0.90, maxMicros));
+            snapshot.put(
+                    OptimizeConstants.Metrics.P99_MICROS,
+                    percentile(counts, recorded, 0.99, maxMicros));
+            return snapshot;
+        }
+
+        static int bucketIndex(final long micros) {
+            if (micros < LINEAR_BUCKETS) {
+                return (int) Math.max(0, micros);
+            }
+
+            final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            if (exponent > MAX_EXPONENT) {
+                return BUCKET_COUNT - 1;
+            }
+            final int subBucket =
+                    (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+            return LINEAR_BUCKETS + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+        }
+
+        static long bucketUpperBound(final int index) {
+            if (index < LINEAR_BUCKETS) {
+                return index;
+            }
+
+            final int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + MIN_EXPONENT;
+            final int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+            final long width = 1L << (exponent - SUB_BUCKET_BITS);
+            return ((long) (SUB_BUCKETS + subBucket)) * width + width - 1;
+        }
+
+        private static long percentile(
+                final long[] counts,
+                final long recorded,
+                final double percentile,
+                final long maxMicros) {
+            if (recorded == 0) {
+                return 0;
+            }
+
+            final long rank = (long) Math.ceil(percentile * recorded);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,7 +28,13 @@ public class OptimizeProposition {
     private final String id;
     private final List<Offer> offers;
     private final String scope;
-    private final Map<String, Object> scopeDetails;
+    private Map<String, Object> scopeDetails;
+
+    // Estimated heap retained by this proposition, computed once when it is first cached.
+    private volatile long estimatedRetainedBytes = -1;
+
+    // Event data for this proposition, created once when it is first dispatched.
+    private volatile Map<String, Object> eventData;
 
     /**
      * Constructor creates a {@code OptimizeProposition} using the provided proposition {@code id},
@@ -86,12 +93,82 @@ public class OptimizeProposition {
     /**
      * Gets the {@code OptimizeProposition} scope details.
      *
+     * <p>A new copy of the scope details, including their nested maps and lists, is returned on
+     * every call, it can be modified without affecting this {@code OptimizeProposition}.
+     *
      * @return {@code Map<String, Object>} containing the {@link OptimizeProposition} scope details.
      */
     public Map<String, Object> getScopeDetails() {
+        return OptimizeUtils.mutableCopy(scopeDetails);
+    }
+
+    /**
+     * Gets this {@code OptimizeProposition}'s scope details without copying them.
+     *
+     * <p>The scope details of propositions cached by the SDK are unmodifiable and may be shared
+     * with other propositions, they must not be modified.
+     *
+     * @return {@code Map<String, Object>} containing the {@link OptimizeProposition} scope details.
+     */
+    Map<String, Object> getSharedScopeDetails() {
         return scopeDetails;
     }
 
+    /**
+     * Replaces this {@code OptimizeProposition}'s scope details, and its offers data, with the
+     * instances shared through {@link OptimizeInternPool} by equal propositions, as the scope
+     * details are shared by the propositions from the same activity.
+     *
+     * <p>This method must be called before the {@code OptimizeProposition} is shared with other
+     * threads, when it is first cached.
+     */
+    void intern() {
+        scopeDetails = OptimizeInternPool.internMap(scopeDetails);
+        for (final Offer offer : offers) {
+            offer.intern();
+        }
+        eventData = null;
+    }
+
+    /**
+     * Compresses the content of this {@code OptimizeProposition}'s offers that is at least {@code
+     * threshold} characters long, see {@link Offer#compressContent(int)}.
+     *
+     * <p>This method must be called before the {@code OptimizeProposition} is shared with other
+     * threads, when it is first cached.
+     *
+     * @param threshold {@code int} containing the minimum content length to be compressed, 0 to
+     *     disable compression.
+     */
+    void compressContent(final int threshold) {
+        boolean hasCompressedContent = false;
+        for (final Offer offer : offers) {
+            offer.compressContent(threshold);
+            hasCompressedContent |= offer.getCompressedContent() != null;
+        }
+        if (hasCompressedContent) {
+            // the event data retaining the uncompressed offers content is created again on access.
+            eventData = null;
+        }
+    }
+
+    /**
+     * Gets the estimated heap retained by this {@code OptimizeProposition}, including its offers.
+     *
+     * <p>The estimate is computed on first access and reused afterwards, as propositions are not
+     * modified once they are cached.
+     *
+     * @return {@code long} containing the estimated retained bytes.
+     */
+    long getEstimatedRetainedBytes() {
+        long bytes = estimatedRetainedBytes;
+        if (bytes < 0) {
+            bytes = OptimizeFootprint.estimateProposition(this);
+            estimatedRetainedBytes = bytes;
+        }
+        return bytes;
+    }
+
     /**
      * Generates a map containing XDM formatted data for {@code Experience Event -
      * OptimizeProposition Reference} field group from this {@code OptimizeProposition}.
@@ -185,19 +262,37 @@ public class OptimizeProposition {
     /**
      * Creates a {@code Map<String, Object>} using this {@code OptimizeProposition}'s attributes.
      *
+     * <p>The event data is created on first access and reused afterwards, as propositions are not
+     * modified once they are created, unless an offer content is compressed. The returned map and
+     * its offers list are unmodifiable.
+     *
      * @return {@code Map<String, Object>} containing {@link OptimizeProposition} data.
      */
     Map<String, Object> toEventData() {
-        final Map<String, Object> propositionMap = new HashMap<>();
+        Map<String, Object> propositionMap = eventData;
+        if (propositionMap != null) {
+            return propositionMap;
+        }
+
+        propositionMap = new HashMap<>();
         propositionMap.put(OptimizeConstants.JsonKeys.PAYLOAD_ID, this.id);
         propositionMap.put(OptimizeConstants.JsonKeys.PAYLOAD_SCOPE, this.scope);
         propositionMap.put(OptimizeConstants.JsonKeys.PAYLOAD_SCOPEDETAILS, this.scopeDetails);
 
-        List<Map<String, Object>> offersList = new ArrayList<>();
+        boolean hasCompressedContent = false;
+        List<Map<String, Object>> offersList = new ArrayList<>(this.offers.size());
         for (final Offer offer : this.offers) {
             offersList.add(offer.toEventData());
+            hasCompressedContent |= offer.getCompressedContent() != null;
+        }
+        propositionMap.put(
+                OptimizeConstants.JsonKeys.PAYLOAD_ITEMS,
+                Collections.unmodifiableList(offersList));
+        propositionMap = Collections.unmodifiableMap(propositionMap);
+        if (!hasCompressedContent) {
+            // the decompressed offers content isn't retained by the event data.
+            eventData = propositionMap;
         }
-        propositionMap.put(OptimizeConstants.JsonKeys.PAYLOAD_ITEMS, offersList);
         return propositionMap;
     }
 
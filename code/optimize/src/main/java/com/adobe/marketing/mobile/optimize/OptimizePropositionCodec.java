@@ -0,0 +1,841 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.services.Log;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code OptimizePropositionCodec} encodes {@link OptimizeProposition} objects, including their
+ * offers, in a compact versioned binary format.
+ *
+ * <p>The encoded data starts with a header followed by two fixed width offset tables, one for the
+ * string table entries and one for the proposition records, so that a {@link Reader} can be
+ * opened in constant time and read any proposition without reading the preceding ones:
+ *
+ * <pre>
+ * int magic, byte version
+ * int stringCount, int[stringCount] stringOffsets
+ * int propositionCount, int[propositionCount] propositionOffsets
+ * string table entries: varint length, UTF-8 bytes
+ * proposition records
+ * </pre>
+ *
+ * <p>Map keys, schemas, etags, offer types, languages, characteristics and string values nested in
+ * the scope details or offer metadata are written once in the string table and referenced by
+ * index. Proposition ids, scopes and offer content are written inline, length-prefixed. Integers
+ * are written as zigzag varints. All offsets are absolute, from the start of the encoded data.
+ *
+ * <p>Nested values keep their JSON types, {@code Short} and {@code Byte} values are read back as
+ * {@code Integer} and {@code Float} values as {@code Double}.
+ *
+ * <p>Element counts are checked against the remaining encoded bytes before anything is allocated
+ * and nested values are read up to {@link #MAX_VALUE_DEPTH} levels, so that invalid data is
+ * reported as invalid rather than exhausting the heap or the stack.
+ */
+final class OptimizePropositionCodec {
+    private static final String SELF_TAG = "OptimizePropositionCodec";
+
+    static final int MAGIC = 0x4F505450; // "OPTP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5;
+    static final int MAX_VALUE_DEPTH = 100;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_FALSE = 3;
+    private static final int TAG_INT = 4;
+    private static final int TAG_LONG = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_MAP = 7;
+    private static final int TAG_LIST = 8;
+
+    // minimum encoded sizes, used to check the element counts against the remaining bytes.
+    private static final int MIN_VALUE_BYTES = 1;
+    private static final int MIN_MAP_ENTRY_BYTES = 2;
+    private static final int MIN_OFFER_BYTES = 9;
+
+    private OptimizePropositionCodec() {}
+
+    /**
+     * Encodes the given {@code propositions}.
+     *
+     * @param propositions {@code List<OptimizeProposition>} to be encoded.
+     * @return {@code byte[]} containing the encoded propositions.
+     */
+    @NonNull static byte[] encode(@NonNull final List<OptimizeProposition> propositions) {
+        return encode(propositions, null, new int[0]);
+    }
+
+    /**
+     * Encodes the given {@code propositions}, followed by the propositions at the given {@code
+     * sourceIndexes} of the {@code source} reader.
+     *
+     * <p>The source propositions are copied record by record, with their string table references
+     * remapped, without decoding them. Source records that cannot be read are skipped and reported
+     * as invalid by the source reader.
+     *
+     * @param propositions {@code List<OptimizeProposition>} to be encoded.
+     * @param source {@link Reader} over already encoded propositions to be copied, or null.
+     * @param sourceIndexes {@code int[]} containing the indexes of the source propositions to be
+     *     copied.
+     * @return {@code byte[]} containing the encoded propositions.
+     */
+    @NonNull static byte[] encode(
+            @NonNull final List<OptimizeProposition> propositions,
+            @Nullable final Reader source,
+            @NonNull final int[] sourceIndexes) {
+        final Output records = new Output(1024);
+        final Map<String, Integer> stringIndexes = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        final int[] recordOffsets =
+                new int[propositions.size() + (source != null ? sourceIndexes.length : 0)];
+        int recordCount = 0;
+        for (int i = 0; i < propositions.size(); i++) {
+            recordOffsets[recordCount++] = records.size;
+            writeProposition(records, propositions.get(i), stringIndexes, strings);
+        }
+        if (source != null) {
+            for (final int index : sourceIndexes) {
+                final int recordOffset = records.size;
+                if (source.copyProposition(index, records, stringIndexes, strings)) {
+                    recordOffsets[recordCount++] = recordOffset;
+                } else {
+                    records.size = recordOffset;
+                }
+            }
+        }
+
+        final Output stringData = new Output(strings.size() * 16);
+        final int[] stringOffsets = new int[strings.size()];
+        for (int i = 0; i < strings.size(); i++) {
+            stringOffsets[i] = stringData.size;
+            stringData.writeBytes(strings.get(i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        final int stringDataOffset = HEADER_BYTES + 4 + 4 * strings.size() + 4 + 4 * recordCount;
+        final int recordsOffset = stringDataOffset + stringData.size;
+        final ByteBuffer buffer = ByteBuffer.allocate(recordsOffset + records.size);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        buffer.putInt(strings.size());
+        for (final int offset : stringOffsets) {
+            buffer.putInt(stringDataOffset + offset);
+        }
+        buffer.putInt(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            buffer.putInt(recordsOffset + recordOffsets[i]);
+        }
+        buffer.put(stringData.bytes, 0, stringData.size);
+        buffer.put(records.bytes, 0, records.size);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes all the propositions encoded in the given {@code buffer}.
+     *
+     * <p>This method returns null if the {@code buffer} doesn't contain valid encoded data.
+     *
+     * @param buffer {@link ByteBuffer} containing the encoded propositions.
+     * @return {@code List<OptimizeProposition>} containing the decoded propositions or null.
+     */
+    @Nullable static List<OptimizeProposition> decode(@NonNull final ByteBuffer buffer) {
+        final Reader reader = Reader.open(buffer);
+        if (reader == null) {
+            return null;
+        }
+
+        final List<OptimizeProposition> propositions =
+                new ArrayList<>(reader.getPropositionCount());
+        for (int i = 0; i < reader.getPropositionCount(); i++) {
+            final OptimizeProposition proposition = reader.readProposition(i);
+            if (proposition == null) {
+                return null;
+            }
+            propositions.add(proposition);
+        }
+        return propositions;
+    }
+
+    /**
+     * Random access reader over encoded propositions.
+     *
+     * <p>The reader uses absolute reads on the given buffer, it never copies the buffer nor changes
+     * its position, so it can read straight from a heap, direct or memory-mapped buffer. String
+     * table entries are decoded on first use and shared by all the propositions read afterwards.
+     * The reader can be used from multiple threads.
+     */
+    static final class Reader {
+        private final ByteBuffer buffer;
+        private final int stringCount;
+        private final int propositionCount;
+        private final int propositionOffsetsPosition;
+        private final String[] strings;
+        private volatile boolean invalidRecords = false;
+
+        private Reader(
+                final ByteBuffer buffer,
+                final int stringCount,
+                final int propositionCount,
+                final int propositionOffsetsPosition) {
+            this.buffer = buffer;
+            this.stringCount = stringCount;
+            this.propositionCount = propositionCount;
+            this.propositionOffsetsPosition = propositionOffsetsPosition;
+            this.strings = new String[stringCount];
+        }
+
+        /**
+         * Opens a reader over the encoded propositions in the given {@code buffer}, starting at
+         * its current position.
+         *
+         * <p>This method returns null if the {@code buffer} doesn't start with a supported header.
+         *
+         * @param buffer {@link ByteBuffer} containing the encoded propositions.
+         * @return {@link Reader} over the encoded propositions or null.
+         */
+        @Nullable static Reader open(@NonNull final ByteBuffer buffer) {
+            final ByteBuffer data = buffer.slice();
+            if (data.remaining() < HEADER_BYTES + 8 || data.getInt(0) != MAGIC) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Cannot read propositions, the provided data is not encoded"
+                                + " propositions.");
+                return null;
+            }
+            final int version = data.get(4);
+            if (version != VERSION) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Cannot read propositions, unsupported encoding version (%d).",
+                        version);
+                return null;
+            }
+
+            final int stringCount = data.getInt(HEADER_BYTES);
+            final long propositionCountPosition = HEADER_BYTES + 4 + 4L * stringCount;
+            if (stringCount < 0 || propositionCountPosition + 4 > data.limit()) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Cannot read propositions, the string table is truncated.");
+                return null;
+            }
+            final int propositionCount = data.getInt((int) propositionCountPosition);
+            if (propositionCount < 0
+                    || propositionCountPosition + 4 + 4L * propositionCount > data.limit()) {
+                Log.debug(
+                        OptimizeConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Cannot read propositions, the proposition offsets table is truncated.");
+                return null;
+            }
+            return new Reader(
+                    data, stringCount, propositionCount, (int) propositionCountPosition + 4);
+        }
+
+        /**
+         * Gets the number of encoded propositions.
+         *
+         * @return {@code int} containing the proposition count.
+         */
+        int getPropositionCount() {
+            return propositionCount;
+        }
+
+        /**
+         * Checks whether invalid data was found while reading the encoded propositions.
+         *
+         * @return {@code boolean} indicating whether a record could not be read.
+         */
+        boolean hasInvalidRecords() {
+            return invalidRecords;
+        }
+
+        /**
+         * Reads the scope of the proposition at the given {@code index}, without reading the rest
+         * of the proposition.
+         *
+         * @param index {@code int} containing the proposition index.
+         * @return {@link String} containing the proposition scope or null if the data is invalid.
+         */
+        @Nullable String readScope(final int index) {
+            try {
+                final Input input = new Input(buffer, propositionOffset(index));
+                input.skipInlineString();
+                return input.readInlineString();
+            } catch (final RuntimeException e) {
+                logInvalidRecord(index, e);
+                return null;
+            }
+        }
+
+        /**
+         * Reads the proposition at the given {@code index}.
+         *
+         * @param index {@code int} containing the proposition index.
+         * @return {@link OptimizeProposition} read or null if the data is invalid.
+         */
+        @Nullable OptimizeProposition readProposition(final int index) {
+            try {
+                final Input input = new Input(buffer, propositionOffset(index));
+                final String id = input.readInlineString();
+                final String scope = input.readInlineString();
+                final Map<String, Object> scopeDetails =
+                        OptimizeInternPool.internMap(readMap(input));
+
+                final int offerCount = input.readCount(MIN_OFFER_BYTES);
+                final List<Offer> offers = new ArrayList<>(offerCount);
+                for (int i = 0; i < offerCount; i++) {
+                    offers.add(readOffer(input));
+                }
+                return new OptimizeProposition(id, offers, scope, scopeDetails);
+            } catch (final RuntimeException e) {
+                logInvalidRecord(index, e);
+                return null;
+            }
+        }
+
+        /**
+         * Copies the proposition at the given {@code index} to the {@code output}, without
+         * decoding it, with its string table references remapped to the output string table.
+         *
+         * @param index {@code int} containing the proposition index.
+         * @param output {@link Output} receiving the proposition record.
+         * @param stringIndexes {@code Map<String, Integer>} containing the output string indexes.
+         * @param strings {@code List<String>} containing the output string table.
+         * @return {@code boolean} indicating whether the proposition is copied, partially copied
+         *     data is left in the output if the data is invalid.
+         */
+        private boolean copyProposition(
+                final int index,
+                final Output output,
+                final Map<String, Integer> stringIndexes,
+                final List<String> strings) {
+            try {
+                final Input input = new Input(buffer, propositionOffset(index));
+                input.copyInlineString(output);
+                input.copyInlineString(output);
+                copyValue(input, output, stringIndexes, strings, 0);
+
+                final int offerCount = input.readCount(MIN_OFFER_BYTES);
+                output.writeVarint(offerCount);
+                for (int i = 0; i < offerCount; i++) {
+                    input.copyInlineString(output);
+                    copyTableString(input, output, stringIndexes, strings);
+                    output.writeVarint(input.readVarint());
+                    copyTableString(input, output, stringIndexes, strings);
+                    copyTableString(input, output, stringIndexes, strings);
+                    copyValue(input, output, stringIndexes, strings, 0);
+
+                    final int languageCount = input.readNullableCount(1);
+                    output.writeVarint(languageCount + 1);
+                    for (int j = 0; j < languageCount; j++) {
+                        copyTableString(input, output, stringIndexes, strings);
+                    }
+                    final int characteristicsCount = input.readNullableCount(2);
+                    output.writeVarint(characteristicsCount + 1);
+                    for (int j = 0; j < characteristicsCount; j++) {
+                        copyTableString(input, output, stringIndexes, strings);
+                        copyTableString(input, output, stringIndexes, strings);
+                    }
+                    input.copyInlineString(output);
+                }
+                return true;
+            } catch (final RuntimeException e) {
+                logInvalidRecord(index, e);
+                return false;
+            }
+        }
+
+        private void copyValue(
+                final Input input,
+                final Output output,
+                final Map<String, Integer> stringIndexes,
+                final List<String> strings,
+                final int depth) {
+            checkDepth(depth);
+            final int tag = input.readByte();
+            output.writeByte(tag);
+            switch (tag) {
+                case TAG_NULL:
+                case TAG_TRUE:
+                case TAG_FALSE:
+                    return;
+                case TAG_STRING:
+                    copyTableString(input, output, stringIndexes, strings);
+                    return;
+                case TAG_INT:
+                case TAG_LONG:
+                    output.writeVarLong(input.readVarLong());
+                    return;
+                case TAG_DOUBLE:
+                    output.writeLong(input.readLong());
+                    return;
+                case TAG_MAP:
+                    {
+                        final int size = input.readCount(MIN_MAP_ENTRY_BYTES);
+                        output.writeVarint(size);
+                        for (int i = 0; i < size; i++) {
+                            copyTableString(input, output, stringIndexes, strings);
+                            copyValue(input, output, stringIndexes, strings, depth + 1);
+                        }
+                        return;
+                    }
+                case TAG_LIST:
+                    {
+                        final int size = input.readCount(MIN_VALUE_BYTES);
+                        output.writeVarint(size);
+                        for (int i = 0; i < size; i++) {
+                            copyValue(input, output, stringIndexes, strings, depth + 1);
+                        }
+                        return;
+                    }
+                default:
+                    throw new IllegalStateException("Unknown value tag " + tag);
+            }
+        }
+
+        private void copyTableString(
+                final Input input,
+                final Output output,
+                final Map<String, Integer> stringIndexes,
+                final List<String> strings) {
+            writeTableString(output, readTableString(input), stringIndexes, strings);
+        }
+
+        private Offer readOffer(final Input input) {
+            final String id = input.readInlineString();
+            final String etag = readTableString(input);
+            final int score = decodeZigZag(input.readVarint());
+            final String schema = readTableString(input);
+            final OfferType type = OfferType.from(readTableString(input));
+            final Map<String, Object> meta = readMap(input);
+
+            List<String> language = null;
+            final int languageCount = input.readNullableCount(1);
+            if (languageCount >= 0) {
+                language = new ArrayList<>(languageCount);
+                for (int i = 0; i < languageCount; i++) {
+                    language.add(readTableString(input));
+                }
+            }
+
+            Map<String, String> characteristics = null;
+            final int characteristicsCount = input.readNullableCount(2);
+            if (characteristicsCount >= 0) {
+                characteristics = new HashMap<>();
+                for (int i = 0; i < characteristicsCount; i++) {
+                    characteristics.put(readTableString(input), readTableString(input));
+                }
+            }
+
+            final String content = OptimizeInternPool.internContent(input.readInlineString());
+            return new Offer.Builder(id, type, content)
+                    .setEtag(etag)
+                    .setScore(score)
+                    .setSchema(schema)
+                    .setMeta(meta)
+                    .setLanguage(OptimizeInternPool.internStringList(language))
+                    .setCharacteristics(OptimizeInternPool.internStringMap(characteristics))
+                    .build();
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<String, Object> readMap(final Input input) {
+            return (Map<String, Object>) readValue(input, 0);
+        }
+
+        private Object readValue(final Input input, final int depth) {
+            checkDepth(depth);
+            final int tag = input.readByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return null;
+                case TAG_STRING:
+                    return readTableString(input);
+                case TAG_TRUE:
+                    return Boolean.TRUE;
+                case TAG_FALSE:
+                    return Boolean.FALSE;
+                case TAG_INT:
+                    return decodeZigZag(input.readVarint());
+                case TAG_LONG:
+                    return decodeZigZag(input.readVarLong());
+                case TAG_DOUBLE:
+                    return Double.longBitsToDouble(input.readLong());
+                case TAG_MAP:
+                    {
+                        final int size = input.readCount(MIN_MAP_ENTRY_BYTES);
+                        final Map<String, Object> map = new HashMap<>();
+                        for (int i = 0; i < size; i++) {
+                            final String key = readTableString(input);
+                            map.put(key, readValue(input, depth + 1));
+                        }
+                        return map;
+                    }
+                case TAG_LIST:
+                    {
+                        final int size = input.readCount(MIN_VALUE_BYTES);
+                        final List<Object> list = new ArrayList<>(size);
+                        for (int i = 0; i < size; i++) {
+                            list.add(readValue(input, depth + 1));
+                        }
+                        return list;
+                    }
+                default:
+                    throw new IllegalStateException("Unknown value tag " + tag);
+            }
+        }
+
+        private String readTableString(final Input input) {
+            final int index = input.readVarint() - 1;
+            if (index < 0) {
+                return null;
+            }
+            if (index >= stringCount) {
+                throw new IndexOutOfBoundsException("String table index " + index);
+            }
+            String value = strings[index];
+            if (value == null) {
+                final Input stringInput =
+                        new Input(buffer, buffer.getInt(HEADER_BYTES + 4 + 4 * index));
+                value = stringInput.readString(stringInput.readVarint());
+                // racing readers decode equal strings, either one can be kept.
+                strings[index] = value;
+            }
+            return value;
+        }
+
+        private int propositionOffset(final int index) {
+            if (index < 0 || index >= propositionCount) {
+                throw new IndexOutOfBoundsException("Proposition index " + index);
+            }
+            return buffer.getInt(propositionOffsetsPosition + 4 * index);
+        }
+
+        private void checkDepth(final int depth) {
+            if (depth > MAX_VALUE_DEPTH) {
+                throw new IllegalStateException("Values nested deeper than " + MAX_VALUE_DEPTH);
+            }
+        }
+
+        private void logInvalidRecord(final int index, final RuntimeException e) {
+            invalidRecords = true;
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot read proposition at index (%d), the encoded data is invalid: %s",
+                    index,
+                    e.getLocalizedMessage());
+        }
+    }
+
+    private static void writeProposition(
+            final Output output,
+            final OptimizeProposition proposition,
+            final Map<String, Integer> stringIndexes,
+            final List<String> strings) {
+        output.writeInlineString(proposition.getId());
+        output.writeInlineString(proposition.getScope());
+        writeValue(output, proposition.getSharedScopeDetails(), stringIndexes, strings);
+
+        final List<Offer> offers = proposition.getOffers();
+        output.writeVarint(offers.size());
+        for (final Offer offer : offers) {
+            output.writeInlineString(offer.getId());
+            writeTableString(output, offer.getEtag(), stringIndexes, strings);
+            output.writeVarint(encodeZigZag(offer.getScore()));
+            writeTableString(output, offer.getSchema(), stringIndexes, strings);
+            writeTableString(output, offer.getType().toString(), stringIndexes, strings);
+            writeValue(output, offer.getMeta(), stringIndexes, strings);
+
+            final List<String> language = offer.getSharedLanguage();
+            output.writeVarint(language != null ? language.size() + 1 : 0);
+            if (language != null) {
+                for (final String value : language) {
+                    writeTableString(output, value, stringIndexes, strings);
+                }
+            }
+
+            final Map<String, String> characteristics = offer.getSharedCharacteristics();
+            output.writeVarint(characteristics != null ? characteristics.size() + 1 : 0);
+            if (characteristics != null) {
+                for (final Map.Entry<String, String> entry : characteristics.entrySet()) {
+                    writeTableString(output, entry.getKey(), stringIndexes, strings);
+                    writeTableString(output, entry.getValue(), stringIndexes, strings);
+                }
+            }
+
+            output.writeInlineString(offer.getContent());
+        }
+    }
+
+    private static void writeValue(
+            final Output output,
+            final Object value,
+            final Map<String, Integer> stringIndexes,
+            final List<String> strings) {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TAG_STRING);
+            writeTableString(output, (String) value, stringIndexes, strings);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            output.writeByte(TAG_INT);
+            output.writeVarint(encodeZigZag(((Number) value).intValue()));
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeVarLong(encodeZigZag((long) (Long) value));
+        } else if (value instanceof Double || value instanceof Float) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            output.writeByte(TAG_MAP);
+            output.writeVarint(map.size());
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                writeTableString(output, String.valueOf(entry.getKey()), stringIndexes, strings);
+                writeValue(output, entry.getValue(), stringIndexes, strings);
+            }
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            output.writeByte(TAG_LIST);
+            output.writeVarint(list.size());
+            for (final Object element : list) {
+                writeValue(output, element, stringIndexes, strings);
+            }
+        } else if (value instanceof Object[]) {
+            writeValue(output, Arrays.asList((Object[]) value), stringIndexes, strings);
+        } else {
+            output.writeByte(TAG_STRING);
+            writeTableString(output, String.valueOf(value), stringIndexes, strings);
+        }
+    }
+
+    private static void writeTableString(
+            final Output output,
+            final String value,
+            final Map<String, Integer> stringIndexes,
+            final List<String> strings) {
+        if (value == null) {
+            output.writeVarint(0);
+            return;
+        }
+        Integer index = stringIndexes.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndexes.put(value, index);
+        }
+        output.writeVarint(index + 1);
+    }
+
+    private static int encodeZigZag(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long encodeZigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int decodeZigZag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long decodeZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** Growable byte array with the varint and length-prefixed string writers. */
+    private static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(final int initialCapacity) {
+            bytes = new byte[Math.max(16, initialCapacity)];
+        }
+
+        void writeByte(final int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeVarint(final int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(final long value) {
+            ensureCapacity(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            bytes[size++] = (byte) remaining;
+        }
+
+        void writeLong(final long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeBytes(final byte[] value) {
+            writeVarint(value.length);
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, size, value.length);
+            size += value.length;
+        }
+
+        /** Writes a nullable string, its length is incremented by one so that 0 means null. */
+        void writeInlineString(final String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(encoded.length + 1);
+            ensureCapacity(encoded.length);
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            size += encoded.length;
+        }
+
+        private void ensureCapacity(final int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+    }
+
+    /** Cursor reading a buffer with absolute gets, leaving the buffer position unchanged. */
+    private static final class Input {
+        private final ByteBuffer buffer;
+        private int position;
+
+        Input(final ByteBuffer buffer, final int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readByte() {
+            return buffer.get(position++) & 0xFF;
+        }
+
+        int readVarint() {
+            return (int) readVarLong();
+        }
+
+        /**
+         * Reads an element count, checking that the remaining bytes can hold that many elements of
+         * at least {@code elementBytes} each.
+         */
+        int readCount(final int elementBytes) {
+            return checkCount(readVarint(), elementBytes);
+        }
+
+        /** Reads a nullable element count, incremented by one so that 0 means null, or -1. */
+        int readNullableCount(final int elementBytes) {
+            final int value = readVarint();
+            return value == 0 ? -1 : checkCount(value - 1, elementBytes);
+        }
+
+        private int checkCount(final int count, final int elementBytes) {
+            if (count < 0 || (long) count * elementBytes > buffer.limit() - position) {
+                throw new IllegalStateException(
+                        "Invalid element count " + count + " at position " + position);
+            }
+            return count;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Malformed varint at position " + position);
+        }
+
+        long readLong() {
+            final long value = buffer.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        void skipInlineString() {
+            final int length = readVarint() - 1;
+            position += Math.max(0, length);
+        }
+
+        /** Copies a nullable inline string to the {@code output}, without decoding it. */
+        void copyInlineString(final Output output) {
+            final int encodedLength = readVarint();
+            final int length = encodedLength - 1;
+            if (length > 0 && position + length > buffer.limit()) {
+                throw new IndexOutOfBoundsException("String of length " + length);
+            }
+            output.writeVarint(encodedLength);
+            if (length > 0) {
+                output.ensureCapacity(length);
+                final ByteBuffer slice = buffer.duplicate();
+                slice.position(position);
+                slice.get(output.bytes, output.size, length);
+                output.size += length;
+                position += length;
+            }
+        }
+
+        String readInlineString() {
+            final int length = readVarint() - 1;
+            return length < 0 ? null : readString(length);
+        }
+
+        String readString(final int length) {
+            if (length < 0 || position + length > buffer.limit()) {
+                throw new IndexOutOfBoundsException("String of length " + length);
+            }
+            final String value;
+            if (buffer.hasArray()) {
+                value =
+                        new String(
+                                buffer.array(),
+                                buffer.arrayOffset() + position,
+                                length,
+                                StandardCharsets.UTF_8);
+            } else {
+                final ByteBuffer slice = buffer.duplicate();
+                slice.limit(position + length).position(position);
+                value = StandardCharsets.UTF_8.decode(slice).toString();
+            }
+            position += length;
+            return value;
+        }
+    }
+}
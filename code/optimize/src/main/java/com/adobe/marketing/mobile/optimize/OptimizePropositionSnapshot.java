@@ -0,0 +1,378 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.services.Log;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@code OptimizePropositionSnapshot} is a read-only view over the propositions cache persisted in
+ * an indexed snapshot file, memory-mapped when it is opened.
+ *
+ * <p>The snapshot file contains a header, an open addressing hash index from the scope name hash
+ * to the proposition index, and the propositions encoded with {@link OptimizePropositionCodec},
+ * whose offset table locates each proposition:
+ *
+ * <pre>
+ * int magic, byte version, int indexCapacity
+ * int[indexCapacity * 2] index slots: scope hash, proposition index + 1 (0 for an empty slot)
+ * encoded propositions
+ * </pre>
+ *
+ * <p>Opening a snapshot only maps the file and validates the header, so its cost doesn't depend
+ * on the number of propositions. Propositions are decoded on first lookup, straight from the
+ * mapped file, and reused afterwards. Scopes updated after the snapshot was written are marked as
+ * superseded so that their persisted propositions are no longer returned.
+ */
+final class OptimizePropositionSnapshot {
+    private static final String SELF_TAG = "OptimizePropositionSnapshot";
+
+    static final int MAGIC = 0x4F505453; // "OPTS"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 9;
+    private static final int SLOT_BYTES = 8;
+
+    private final ByteBuffer index;
+    private final int indexCapacity;
+    private final OptimizePropositionCodec.Reader reader;
+    private final ConcurrentMap<String, OptimizeProposition> decodedPropositions =
+            new ConcurrentHashMap<>();
+    private final Set<String> supersededScopes =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private OptimizePropositionSnapshot(
+            final ByteBuffer index,
+            final int indexCapacity,
+            final OptimizePropositionCodec.Reader reader) {
+        this.index = index;
+        this.indexCapacity = indexCapacity;
+        this.reader = reader;
+    }
+
+    /**
+     * Writes the given {@code propositions} to the snapshot {@code file}.
+     *
+     * <p>The snapshot is written to a temporary file first, then renamed, so that a snapshot
+     * already mapped by a reader is never modified.
+     *
+     * @param file {@link File} to be written.
+     * @param propositions {@code Collection<OptimizeProposition>} to be persisted, with distinct
+     *     scopes.
+     * @return {@code boolean} indicating whether the snapshot file is written.
+     */
+    static boolean write(
+            @NonNull final File file, @NonNull final Collection<OptimizeProposition> propositions) {
+        return write(file, propositions, null);
+    }
+
+    /**
+     * Writes the given {@code propositions}, merged with the propositions of the {@code persisted}
+     * snapshot that are not superseded, to the snapshot {@code file}.
+     *
+     * <p>The persisted propositions whose scope is not in {@code propositions} are copied from the
+     * persisted snapshot without being decoded.
+     *
+     * @param file {@link File} to be written.
+     * @param propositions {@code Collection<OptimizeProposition>} to be persisted, with distinct
+     *     scopes.
+     * @param persisted {@link OptimizePropositionSnapshot} to be merged or null.
+     * @return {@code boolean} indicating whether the snapshot file is written.
+     */
+    static boolean write(
+            @NonNull final File file,
+            @NonNull final Collection<OptimizeProposition> propositions,
+            @Nullable final OptimizePropositionSnapshot persisted) {
+        final List<OptimizeProposition> propositionsList = new ArrayList<>(propositions);
+        final byte[] encoded;
+        if (persisted != null) {
+            final Set<String> scopes = new HashSet<>();
+            for (final OptimizeProposition proposition : propositionsList) {
+                scopes.add(proposition.getScope());
+            }
+            encoded =
+                    OptimizePropositionCodec.encode(
+                            propositionsList, persisted.reader, persisted.retainedIndexes(scopes));
+        } else {
+            encoded = OptimizePropositionCodec.encode(propositionsList);
+        }
+        final OptimizePropositionCodec.Reader encodedReader =
+                OptimizePropositionCodec.Reader.open(ByteBuffer.wrap(encoded));
+        final int propositionCount = encodedReader.getPropositionCount();
+
+        int capacity = 16;
+        while (capacity < propositionCount * 2) {
+            capacity <<= 1;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + capacity * SLOT_BYTES);
+        header.putInt(MAGIC);
+        header.put((byte) VERSION);
+        header.putInt(capacity);
+        for (int i = 0; i < propositionCount; i++) {
+            final String scope =
+                    i < propositionsList.size()
+                            ? propositionsList.get(i).getScope()
+                            : encodedReader.readScope(i);
+            final int hash = scope.hashCode();
+            int slot = hash & (capacity - 1);
+            while (header.getInt(HEADER_BYTES + slot * SLOT_BYTES + 4) != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            header.putInt(HEADER_BYTES + slot * SLOT_BYTES, hash);
+            header.putInt(HEADER_BYTES + slot * SLOT_BYTES + 4, i + 1);
+        }
+
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot write propositions snapshot, failed to create directory (%s).",
+                    parent.getPath());
+            return false;
+        }
+        final File tempFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(tempFile)) {
+            output.write(header.array());
+            output.write(encoded);
+            output.getFD().sync();
+        } catch (final IOException e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot write propositions snapshot (%s), failed with exception: %s",
+                    tempFile.getPath(),
+                    e.getLocalizedMessage());
+            tempFile.delete();
+            return false;
+        }
+        if (!tempFile.renameTo(file)) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot write propositions snapshot, failed to rename (%s).",
+                    tempFile.getPath());
+            tempFile.delete();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Opens the given snapshot {@code file}, memory-mapping it.
+     *
+     * <p>This method returns null if the file doesn't exist or isn't a valid snapshot file.
+     *
+     * @param file {@link File} containing the snapshot.
+     * @return {@link OptimizePropositionSnapshot} view over the snapshot file or null.
+     */
+    @Nullable static OptimizePropositionSnapshot open(@NonNull final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        final ByteBuffer buffer;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = randomAccessFile.getChannel();
+            // the mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (final IOException e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot open propositions snapshot (%s), failed with exception: %s",
+                    file.getPath(),
+                    e.getLocalizedMessage());
+            return null;
+        }
+        return open(buffer);
+    }
+
+    /**
+     * Opens a snapshot view over the given {@code buffer}, containing a snapshot file content.
+     *
+     * @param buffer {@link ByteBuffer} containing the snapshot.
+     * @return {@link OptimizePropositionSnapshot} view over the snapshot or null.
+     */
+    @Nullable static OptimizePropositionSnapshot open(@NonNull final ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_BYTES
+                || buffer.getInt(0) != MAGIC
+                || buffer.get(4) != VERSION) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot open propositions snapshot, unsupported snapshot format.");
+            return null;
+        }
+
+        final int capacity = buffer.getInt(5);
+        final long dataOffset = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0 || dataOffset > buffer.limit()) {
+            Log.debug(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cannot open propositions snapshot, the scope index is invalid.");
+            return null;
+        }
+
+        final ByteBuffer data = buffer.duplicate();
+        data.position((int) dataOffset);
+        final OptimizePropositionCodec.Reader reader = OptimizePropositionCodec.Reader.open(data);
+        if (reader == null) {
+            return null;
+        }
+        return new OptimizePropositionSnapshot(buffer, capacity, reader);
+    }
+
+    /**
+     * Gets the persisted proposition for the given {@code scopeName}, unless the scope is
+     * superseded.
+     *
+     * @param scopeName {@link String} containing the decision scope name.
+     * @return {@link OptimizeProposition} persisted for the scope or null.
+     */
+    @Nullable OptimizeProposition get(@NonNull final String scopeName) {
+        if (supersededScopes.contains(scopeName)) {
+            return null;
+        }
+        OptimizeProposition proposition = decodedPropositions.get(scopeName);
+        if (proposition != null) {
+            return proposition;
+        }
+
+        final int propositionIndex = find(scopeName);
+        if (propositionIndex < 0) {
+            return null;
+        }
+        proposition = reader.readProposition(propositionIndex);
+        if (proposition == null) {
+            return null;
+        }
+        final OptimizeProposition existing =
+                decodedPropositions.putIfAbsent(scopeName, proposition);
+        if (supersededScopes.contains(scopeName)) {
+            // superseded while it was decoded.
+            decodedPropositions.remove(scopeName);
+            return null;
+        }
+        return existing != null ? existing : proposition;
+    }
+
+    /**
+     * Marks the given {@code scopeName} as superseded, its persisted proposition is no longer
+     * returned.
+     *
+     * @param scopeName {@link String} containing the decision scope name.
+     */
+    void supersede(@NonNull final String scopeName) {
+        supersededScopes.add(scopeName);
+        decodedPropositions.remove(scopeName);
+    }
+
+    /**
+     * Gets all the persisted propositions, except for the superseded scopes.
+     *
+     * <p>This method decodes all the persisted propositions that were not looked up yet, without
+     * keeping them for later lookups.
+     *
+     * @return {@code List<OptimizeProposition>} containing the persisted propositions.
+     */
+    @NonNull List<OptimizeProposition> getAll() {
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        for (int i = 0; i < reader.getPropositionCount(); i++) {
+            final String scopeName = reader.readScope(i);
+            if (scopeName == null || supersededScopes.contains(scopeName)) {
+                continue;
+            }
+            OptimizeProposition proposition = decodedPropositions.get(scopeName);
+            if (proposition == null) {
+                proposition = reader.readProposition(i);
+            }
+            if (proposition != null) {
+                propositions.add(proposition);
+            }
+        }
+        return propositions;
+    }
+
+    /**
+     * Checks whether invalid data was found in the snapshot, in which case it should be discarded.
+     *
+     * @return {@code boolean} indicating whether the snapshot is corrupted.
+     */
+    boolean isCorrupted() {
+        return reader.hasInvalidRecords();
+    }
+
+    /**
+     * Gets the number of persisted propositions, including the superseded scopes.
+     *
+     * @return {@code int} containing the proposition count.
+     */
+    int size() {
+        return reader.getPropositionCount();
+    }
+
+    /**
+     * Gets the indexes of the persisted propositions that are neither superseded nor in the given
+     * {@code excludedScopes}.
+     *
+     * @param excludedScopes {@code Set<String>} containing the scope names to be excluded.
+     * @return {@code int[]} containing the proposition indexes.
+     */
+    private int[] retainedIndexes(final Set<String> excludedScopes) {
+        final int[] indexes = new int[reader.getPropositionCount()];
+        int count = 0;
+        for (int i = 0; i < reader.getPropositionCount(); i++) {
+            final String scopeName = reader.readScope(i);
+            if (scopeName != null
+                    && !supersededScopes.contains(scopeName)
+                    && !excludedScopes.contains(scopeName)) {
+                indexes[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    private int find(final String scopeName) {
+        final int hash = scopeName.hashCode();
+        int slot = hash & (indexCapacity - 1);
+        for (int probes = 0; probes < indexCapacity; probes++) {
+            final int position = HEADER_BYTES + slot * SLOT_BYTES;
+            final int propositionIndex = index.getInt(position + 4) - 1;
+            if (propositionIndex < 0) {
+                return -1;
+            }
+            if (index.getInt(position) == hash
+                    && scopeName.equals(reader.readScope(propositionIndex))) {
+                return propositionIndex;
+            }
+            slot = (slot + 1) & (indexCapacity - 1);
+        }
+        return -1;
+    }
+}
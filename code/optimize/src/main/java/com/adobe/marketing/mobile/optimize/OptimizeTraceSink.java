@@ -0,0 +1,32 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@code OptimizeTraceSink} interface is implemented to export the {@link OptimizeTraceSpan}
+ * objects recorded for each update propositions request, e.g. to an APM tool.
+ *
+ * <p>The sink is registered using {@link Optimize#setTraceSink(OptimizeTraceSink)}. Spans are
+ * delivered synchronously on the thread where the corresponding stage completes, which can be the
+ * application thread, the event hub thread or an extension thread, so implementations should be
+ * thread-safe and return quickly.
+ */
+public interface OptimizeTraceSink {
+    /**
+     * Invoked when a stage of an update propositions request completes.
+     *
+     * @param span {@link OptimizeTraceSpan} recorded for the completed stage.
+     */
+    void onSpan(@NonNull final OptimizeTraceSpan span);
+}
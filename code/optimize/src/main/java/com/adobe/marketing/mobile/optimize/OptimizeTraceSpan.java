@@ -0,0 +1,133 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code OptimizeTraceSpan} class represents a stage of an update propositions request, such as
+ * the public API call, the Edge network round trip or a personalization:decisions chunk.
+ *
+ * <p>All the spans recorded for an update propositions request share the same trace identifier,
+ * which is the unique identifier of the update propositions request event.
+ */
+public class OptimizeTraceSpan {
+    static final String UPDATE_PROPOSITIONS = "optimize.updatePropositions";
+    static final String RESPONSE_CALLBACK = "optimize.responseCallback";
+    static final String HANDLE_UPDATE_PROPOSITIONS = "extension.handleUpdatePropositions";
+    static final String EDGE_REQUEST = "extension.edgeRequest";
+    static final String HANDLE_EDGE_RESPONSE = "extension.handleEdgeResponse";
+    static final String HANDLE_EDGE_ERROR_RESPONSE = "extension.handleEdgeErrorResponse";
+    static final String HANDLE_UPDATE_COMPLETED = "extension.handleUpdatePropositionsCompleted";
+
+    static final String ATTRIBUTE_EDGE_EVENT_ID = "edgeEventId";
+    static final String ATTRIBUTE_SCOPE_COUNT = "scopeCount";
+    static final String ATTRIBUTE_CHUNK_COUNT = "chunkCount";
+    static final String ATTRIBUTE_PROPOSITION_COUNT = "propositionCount";
+    static final String ATTRIBUTE_ERROR = "error";
+
+    private final String traceId;
+    private final String name;
+    private final long startTimestamp;
+    private final long durationNanos;
+    private final Map<String, Object> attributes;
+
+    /**
+     * Constructor creates a {@code OptimizeTraceSpan} using the provided {@code traceId}, {@code
+     * name}, {@code startTimestamp}, {@code durationNanos} and {@code attributes}.
+     *
+     * @param traceId {@link String} containing the update propositions request event identifier.
+     * @param name {@code String} containing the stage name.
+     * @param startTimestamp {@code long} containing the stage start time in milliseconds since
+     *     epoch.
+     * @param durationNanos {@code long} containing the stage duration in nanoseconds.
+     * @param attributes {@code Map<String, Object>} containing additional stage details.
+     */
+    OptimizeTraceSpan(
+            @NonNull final String traceId,
+            @NonNull final String name,
+            final long startTimestamp,
+            final long durationNanos,
+            final Map<String, Object> attributes) {
+        this.traceId = traceId;
+        this.name = name;
+        this.startTimestamp = startTimestamp;
+        this.durationNanos = durationNanos;
+        this.attributes =
+                attributes != null
+                        ? Collections.unmodifiableMap(new HashMap<>(attributes))
+                        : Collections.<String, Object>emptyMap();
+    }
+
+    /**
+     * Gets the trace identifier shared by all the spans of an update propositions request.
+     *
+     * @return {@link String} containing the update propositions request event identifier.
+     */
+    @NonNull public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * Gets the name of the stage represented by this span.
+     *
+     * @return {@link String} containing the stage name.
+     */
+    @NonNull public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the stage start time.
+     *
+     * @return {@code long} containing the stage start time in milliseconds since epoch.
+     */
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    /**
+     * Gets the stage duration.
+     *
+     * @return {@code long} containing the stage duration in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Gets the additional stage details, such as the Edge event identifier or the error.
+     *
+     * @return {@code Map<String, Object>} containing the span attributes.
+     */
+    @NonNull public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "OptimizeTraceSpan{traceId="
+                + traceId
+                + ", name="
+                + name
+                + ", startTimestamp="
+                + startTimestamp
+                + ", durationNanos="
+                + durationNanos
+                + ", attributes="
+                + attributes
+                + "}";
+    }
+}
@@ -0,0 +1,86 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code OptimizeTracer} delivers the {@link OptimizeTraceSpan} objects recorded for update
+ * propositions requests to the registered {@link OptimizeTraceSink}.
+ *
+ * <p>When no sink is registered, recording a span is a no-op.
+ */
+final class OptimizeTracer {
+    private static final String SELF_TAG = "OptimizeTracer";
+
+    private static volatile OptimizeTraceSink sink;
+
+    private OptimizeTracer() {}
+
+    /**
+     * Sets the {@code OptimizeTraceSink} receiving the recorded spans.
+     *
+     * @param traceSink {@link OptimizeTraceSink} to be registered, or null to stop tracing.
+     */
+    static void setSink(@Nullable final OptimizeTraceSink traceSink) {
+        sink = traceSink;
+    }
+
+    /**
+     * Checks whether a {@code OptimizeTraceSink} is registered.
+     *
+     * @return {@code boolean} indicating whether spans are recorded.
+     */
+    static boolean isEnabled() {
+        return sink != null;
+    }
+
+    /**
+     * Records a span for a stage which started at {@code startNanos} and ends now.
+     *
+     * @param traceId {@link String} containing the update propositions request event identifier.
+     * @param name {@code String} containing the stage name.
+     * @param startNanos {@code long} containing the {@link System#nanoTime()} at the start of the
+     *     stage.
+     * @param attributes {@code Map<String, Object>} containing additional stage details.
+     */
+    static void recordSpan(
+            @Nullable final String traceId,
+            @NonNull final String name,
+            final long startNanos,
+            @Nullable final Map<String, Object> attributes) {
+        final OptimizeTraceSink traceSink = sink;
+        if (traceSink == null || OptimizeUtils.isNullOrEmpty(traceId)) {
+            return;
+        }
+
+        final long durationNanos = Math.max(0, System.nanoTime() - startNanos);
+        final long startTimestamp =
+                System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        try {
+            traceSink.onSpan(
+                    new OptimizeTraceSpan(
+                            traceId, name, startTimestamp, durationNanos, attributes));
+        } catch (final Exception e) {
+            Log.warning(
+                    OptimizeConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Trace sink failed to process span (%s) due to an exception (%s).",
+                    name,
+                    e.getLocalizedMessage());
+        }
+    }
+}
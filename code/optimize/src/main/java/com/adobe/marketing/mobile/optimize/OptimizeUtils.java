@@ -17,8 +17,16 @@ import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 class OptimizeUtils {
 
@@ -184,6 +192,26 @@ class OptimizeUtils {
                 && requestType.equalsIgnoreCase(OptimizeConstants.EventDataValues.REQUEST_TYPE_GET);
     }
 
+    /**
+     * Checks whether the given event is an update propositions request with {@link
+     * RequestPriority#PREFETCH} priority.
+     *
+     * <p>The prefetch request should have {@code priority} set to {@literal prefetch} in the
+     * event's data.
+     *
+     * @param event instance of {@link Event}
+     * @return true if event is a prefetch update propositions request, false otherwise
+     */
+    static boolean isPrefetchUpdateEvent(final Event event) {
+        final Map<String, Object> eventData = event.getEventData();
+        final String requestType =
+                DataReader.optString(eventData, OptimizeConstants.EventDataKeys.REQUEST_TYPE, "");
+        final String priority =
+                DataReader.optString(eventData, OptimizeConstants.EventDataKeys.PRIORITY, "");
+        return requestType.equalsIgnoreCase(OptimizeConstants.EventDataValues.REQUEST_TYPE_UPDATE)
+                && RequestPriority.from(priority) == RequestPriority.PREFETCH;
+    }
+
     /**
      * Returns event's parentID or {@code requestEventId} present in the event's data.
      *
@@ -201,4 +229,74 @@ class OptimizeUtils {
         }
         return requestEventId;
     }
+
+    /**
+     * Converts the given {@code jsonObject} to an unmodifiable {@code Map<String, Object>}.
+     *
+     * <p>Nested JSON objects and arrays are converted to unmodifiable maps and lists, and {@link
+     * JSONObject#NULL} values are converted to null.
+     *
+     * @param jsonObject {@link JSONObject} to be converted.
+     * @return {@code Map<String, Object>} containing the JSON object data.
+     * @throws JSONException if a JSON value cannot be read.
+     */
+    static Map<String, Object> toMap(final JSONObject jsonObject) throws JSONException {
+        final Map<String, Object> map = new HashMap<>();
+        final Iterator<String> keys = jsonObject.keys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            map.put(key, fromJsonValue(jsonObject.get(key)));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Creates a modifiable deep copy of the given {@code map}.
+     *
+     * <p>Nested maps and lists are copied to modifiable maps and lists.
+     *
+     * @param map {@code Map<String, Object>} to be copied.
+     * @return {@code Map<String, Object>} copy, or null if the given {@code map} is null.
+     */
+    static Map<String, Object> mutableCopy(final Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+        final Map<String, Object> copy = new HashMap<>(map.size());
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            copy.put(entry.getKey(), mutableCopyOf(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object mutableCopyOf(final Object value) {
+        if (value instanceof Map) {
+            return mutableCopy((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            final List<Object> copy = new ArrayList<>(list.size());
+            for (final Object element : list) {
+                copy.add(mutableCopyOf(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private static Object fromJsonValue(final Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            return toMap((JSONObject) value);
+        }
+        if (value instanceof JSONArray) {
+            final JSONArray jsonArray = (JSONArray) value;
+            final List<Object> list = new ArrayList<>(jsonArray.length());
+            for (int i = 0; i < jsonArray.length(); i++) {
+                list.add(fromJsonValue(jsonArray.get(i)));
+            }
+            return Collections.unmodifiableList(list);
+        }
+        return value == JSONObject.NULL ? null : value;
+    }
 }
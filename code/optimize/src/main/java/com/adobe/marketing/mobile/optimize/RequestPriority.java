@@ -0,0 +1,56 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+/**
+ * {@code RequestPriority} enum represents the scheduling priority of an update propositions
+ * request.
+ */
+public enum RequestPriority {
+    /**
+     * Request for decision scopes currently visible to the user. It is sent right away and get
+     * propositions requests issued after it wait for its completion.
+     */
+    FOREGROUND,
+
+    /**
+     * Speculative request for decision scopes which may be needed later. It is deferred while any
+     * foreground update request is in progress, and only get propositions requests for its own
+     * decision scopes wait for its completion.
+     */
+    PREFETCH;
+
+    @Override
+    public String toString() {
+        switch (this) {
+            case PREFETCH:
+                return "prefetch";
+
+            default:
+                return "foreground";
+        }
+    }
+
+    /**
+     * Returns the {@code RequestPriority} for the given {@code priority}.
+     *
+     * @param priority {@link String} containing the request priority.
+     * @return {@link RequestPriority} of the update propositions request, defaults to {@link
+     *     #FOREGROUND}.
+     */
+    static RequestPriority from(final String priority) {
+        if ("prefetch".equalsIgnoreCase(priority)) {
+            return PREFETCH;
+        }
+        return FOREGROUND;
+    }
+}
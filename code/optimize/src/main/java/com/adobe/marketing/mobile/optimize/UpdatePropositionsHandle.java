@@ -0,0 +1,98 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.MobileCore;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code UpdatePropositionsHandle} class represents an update propositions request dispatched
+ * using {@link Optimize#updatePropositionsCancellable(List, Map, Map, double,
+ * com.adobe.marketing.mobile.AdobeCallback)}, which can be cancelled before it completes.
+ */
+public class UpdatePropositionsHandle {
+    private static final String SELF_TAG = "UpdatePropositionsHandle";
+
+    private final String requestEventId;
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    /**
+     * Constructor creates a {@code UpdatePropositionsHandle} using the provided {@code
+     * requestEventId}.
+     *
+     * @param requestEventId {@link String} containing the unique identifier of the update
+     *     propositions request event.
+     */
+    UpdatePropositionsHandle(@NonNull final String requestEventId) {
+        this.requestEventId = requestEventId;
+    }
+
+    /**
+     * Gets the unique identifier of the update propositions request event.
+     *
+     * @return {@link String} containing the request event identifier.
+     */
+    @NonNull public String getRequestEventId() {
+        return requestEventId;
+    }
+
+    /**
+     * Determines whether this update propositions request has been cancelled.
+     *
+     * @return {@code boolean} indicating whether {@link #cancel()} was invoked.
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Cancels this update propositions request.
+     *
+     * <p>This method dispatches an event to the Optimize extension which stops tracking the
+     * request, immediately releases any get propositions requests waiting on it and drops any
+     * decision propositions received later for it. The callback provided with the request is not
+     * invoked after this method is called. Calling this method more than once has no effect.
+     */
+    public void cancel() {
+        if (!cancelled.compareAndSet(false, true)) {
+            return;
+        }
+
+        Log.debug(
+                OptimizeConstants.LOG_TAG,
+                SELF_TAG,
+                "Cancelling update propositions request (%s).",
+                requestEventId);
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(
+                OptimizeConstants.EventDataKeys.REQUEST_TYPE,
+                OptimizeConstants.EventDataValues.REQUEST_TYPE_CANCEL_UPDATE);
+        eventData.put(OptimizeConstants.EventDataKeys.CANCEL_UPDATE_EVENT_ID, requestEventId);
+
+        final Event event =
+                new Event.Builder(
+                                OptimizeConstants.EventNames.CANCEL_UPDATE_PROPOSITIONS_REQUEST,
+                                OptimizeConstants.EventType.OPTIMIZE,
+                                OptimizeConstants.EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .build();
+
+        MobileCore.dispatchEvent(event);
+    }
+}
@@ -233,6 +233,199 @@ public class OfferTests {
         Assert.assertNull(offer.getCharacteristics());
     }
 
+    @Test
+    public void testGetJsonContent_receivedContentMap() throws Exception {
+        Map<String, Object> offerData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/OFFER_VALID_JSON_TARGET.json"),
+                                HashMap.class);
+        final Offer offer = Offer.fromEventData(offerData);
+        Assert.assertNotNull(offer);
+        // the received content map is not kept, the content is parsed from the content string.
+        ((Map<String, Object>) ((Map<String, Object>) offerData.get("data")).get("content"))
+                .put("testing", "ha-ha");
+
+        // test
+        final Map<String, Object> jsonContent = offer.getJsonContent();
+
+        // verify
+        final Map<String, Object> expectedContent = new HashMap<>();
+        expectedContent.put("testing", "ho-ho");
+        Assert.assertEquals(expectedContent, jsonContent);
+        Assert.assertSame(jsonContent, offer.getJsonContent());
+        try {
+            jsonContent.put("testing", "ha-ha");
+            Assert.fail("JSON content should be unmodifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testGetJsonContent_parsedContentString() throws Exception {
+        Map<String, Object> offerData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/OFFER_VALID_JSON.json"),
+                                HashMap.class);
+        final Offer offer = Offer.fromEventData(offerData);
+        Assert.assertNotNull(offer);
+        final Offer nestedOffer =
+                new Offer.Builder(
+                                "offerId",
+                                OfferType.JSON,
+                                "{\"list\":[1,{\"key\":null}],\"nested\":{\"enabled\":true}}")
+                        .build();
+
+        // test
+        final Map<String, Object> jsonContent = offer.getJsonContent();
+        final Map<String, Object> nestedContent = nestedOffer.getJsonContent();
+
+        // verify
+        Assert.assertNotNull(jsonContent);
+        Assert.assertEquals("ho-ho", jsonContent.get("testing"));
+        Assert.assertSame(jsonContent, offer.getJsonContent());
+        Assert.assertNotNull(nestedContent);
+        final List<Object> list = (List<Object>) nestedContent.get("list");
+        Assert.assertEquals(1, list.get(0));
+        Assert.assertTrue(((Map<String, Object>) list.get(1)).containsKey("key"));
+        Assert.assertNull(((Map<String, Object>) list.get(1)).get("key"));
+        final Map<String, Object> nested = (Map<String, Object>) nestedContent.get("nested");
+        Assert.assertEquals(true, nested.get("enabled"));
+    }
+
+    @Test
+    public void testGetJsonContent_invalidContentOrNonJsonOffer() {
+        // setup
+        final Offer invalidOffer =
+                new Offer.Builder("offerId", OfferType.JSON, "not a JSON object").build();
+        final Offer textOffer =
+                new Offer.Builder("offerId", OfferType.TEXT, "{\"testing\":\"ho-ho\"}").build();
+
+        // verify
+        Assert.assertNull(invalidOffer.getJsonContent());
+        Assert.assertNull(invalidOffer.getJsonContent());
+        Assert.assertNull(textOffer.getJsonContent());
+    }
+
+    @Test
+    public void testCompressContent_largeContent() {
+        // setup
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            builder.append("<p class=\"item\">Paragraph ").append(i).append("</p>");
+        }
+        final String content = builder.toString();
+        final Offer offer = new Offer.Builder("offerId", OfferType.HTML, content).build();
+        final Offer uncompressedOffer =
+                new Offer.Builder("offerId", OfferType.HTML, content).build();
+
+        // test
+        offer.compressContent(1024);
+
+        // verify
+        Assert.assertNotNull(offer.getCompressedContent());
+        Assert.assertEquals(content, offer.getContent());
+        Assert.assertEquals(uncompressedOffer, offer);
+        Assert.assertEquals(uncompressedOffer.hashCode(), offer.hashCode());
+        final Map<String, Object> eventData = offer.toEventData();
+        Assert.assertEquals(uncompressedOffer.toEventData(), eventData);
+        Assert.assertNotSame(eventData, offer.toEventData());
+        Assert.assertTrue(
+                OptimizeFootprint.estimateOffer(offer)
+                        < OptimizeFootprint.estimateOffer(uncompressedOffer));
+        OptimizeContentCompressor.clearCache();
+    }
+
+    @Test
+    public void testEquals_compressedContentNotDecompressed() {
+        // setup
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            builder.append("<p class=\"item\">Paragraph ").append(i).append("</p>");
+        }
+        final String content = builder.toString();
+        final Offer offer = new Offer.Builder("offerId", OfferType.HTML, content).build();
+        final Offer equalOffer =
+                new Offer.Builder("offerId", OfferType.HTML, new String(content)).build();
+        final Offer otherOffer =
+                new Offer.Builder("offerId", OfferType.HTML, content + "<p>Footer</p>").build();
+        offer.compressContent(1024);
+        equalOffer.compressContent(1024);
+        otherOffer.compressContent(1024);
+        OptimizeContentCompressor.clearCache();
+
+        // verify
+        Assert.assertNotSame(offer.getCompressedContent(), equalOffer.getCompressedContent());
+        Assert.assertEquals(offer, equalOffer);
+        Assert.assertNotEquals(offer, otherOffer);
+        Assert.assertEquals(0, OptimizeContentCompressor.cacheSize());
+    }
+
+    @Test
+    public void testCompressContent_belowThresholdOrDisabled() {
+        // setup
+        final Offer smallOffer =
+                new Offer.Builder("offerId", OfferType.HTML, "<h1>Hello, Welcome!</h1>").build();
+        final Offer disabledOffer =
+                new Offer.Builder("offerId", OfferType.HTML, new String(new char[4096])).build();
+
+        // test
+        smallOffer.compressContent(1024);
+        disabledOffer.compressContent(0);
+
+        // verify
+        Assert.assertNull(smallOffer.getCompressedContent());
+        Assert.assertEquals("<h1>Hello, Welcome!</h1>", smallOffer.getContent());
+        Assert.assertNull(disabledOffer.getCompressedContent());
+    }
+
+    @Test
+    public void testIntern_identicalContentShared() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Object> offerData =
+                objectMapper.readValue(
+                        getClass().getClassLoader().getResource("json/OFFER_VALID_HTML.json"),
+                        HashMap.class);
+        Map<String, Object> otherOfferData =
+                objectMapper.readValue(
+                        getClass().getClassLoader().getResource("json/OFFER_VALID_HTML.json"),
+                        HashMap.class);
+
+        final Offer offer = Offer.fromEventData(offerData);
+        final Offer otherOffer = Offer.fromEventData(otherOfferData);
+        Assert.assertNotNull(offer);
+        Assert.assertNotNull(otherOffer);
+
+        // test
+        offer.intern();
+        otherOffer.intern();
+
+        // verify
+        Assert.assertSame(offer.getContent(), otherOffer.getContent());
+        Assert.assertEquals(offer, otherOffer);
+        Assert.assertEquals(offer.hashCode(), otherOffer.hashCode());
+    }
+
+    @Test
+    public void testEquals_differentContent() {
+        // setup
+        final Offer offer = new Offer.Builder("offerId", OfferType.TEXT, "content A").build();
+        final Offer otherOffer = new Offer.Builder("offerId", OfferType.TEXT, "content B").build();
+        final Offer equalOffer =
+                new Offer.Builder("offerId", OfferType.TEXT, new String("content A")).build();
+
+        // verify
+        Assert.assertNotEquals(offer, otherOffer);
+        Assert.assertEquals(offer, equalOffer);
+        Assert.assertEquals(offer.hashCode(), equalOffer.hashCode());
+    }
+
     @Test
     public void testFromEventData_validHtmlOfferFromTarget() throws Exception {
         Map<String, Object> offerData =
@@ -1015,4 +1208,32 @@ public class OfferTests {
                                     ArgumentMatchers.anyString()));
         }
     }
+
+    @Test
+    public void testGetLanguageAndCharacteristics_internedOfferReturnsModifiableCopies() {
+        // setup
+        final List<String> language = new ArrayList<>();
+        language.add("en-us");
+        final Map<String, String> characteristics = new HashMap<>();
+        characteristics.put("mobile", "true");
+        final Offer offer =
+                new Offer.Builder(
+                                "xcore:personalized-offer:2222222222222222",
+                                OfferType.TEXT,
+                                "This is a plain text content!")
+                        .setLanguage(language)
+                        .setCharacteristics(characteristics)
+                        .build();
+        offer.intern();
+
+        // test
+        offer.getLanguage().add("fr-fr");
+        offer.getCharacteristics().put("mobile", "false");
+
+        // verify
+        Assert.assertEquals(language, offer.getLanguage());
+        Assert.assertEquals(characteristics, offer.getCharacteristics());
+        Assert.assertNotSame(offer.getLanguage(), offer.getLanguage());
+        Assert.assertNotSame(offer.getCharacteristics(), offer.getCharacteristics());
+    }
 }
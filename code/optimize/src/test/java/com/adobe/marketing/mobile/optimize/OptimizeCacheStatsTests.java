@@ -0,0 +1,81 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+public class OptimizeCacheStatsTests {
+
+    @Before
+    public void setup() {
+        OptimizeCacheStats.reset();
+    }
+
+    @After
+    public void teardown() {
+        OptimizeCacheStats.reset();
+    }
+
+    @Test
+    public void testSnapshot_noAccessRecorded() {
+        // test
+        final Map<String, Object> statistics = OptimizeCacheStats.snapshot();
+
+        // verify
+        Assert.assertTrue(statistics.isEmpty());
+    }
+
+    @Test
+    public void testRecordAccess_countsPerScope() {
+        // setup
+        final DecisionScope scope = new DecisionScope("myMbox");
+        final long beforeAccess = System.currentTimeMillis();
+
+        // test
+        OptimizeCacheStats.recordHit(scope, false);
+        OptimizeCacheStats.recordHit(scope, true);
+        OptimizeCacheStats.recordMiss(scope);
+        OptimizeCacheStats.recordInFlightWait(scope);
+
+        // verify
+        final Map<String, Object> statistics = OptimizeCacheStats.snapshot();
+        Assert.assertEquals(1, statistics.size());
+        final Map<String, Object> scopeStats = (Map<String, Object>) statistics.get("myMbox");
+        Assert.assertEquals(4L, scopeStats.get("requests"));
+        Assert.assertEquals(2L, scopeStats.get("hits"));
+        Assert.assertEquals(1L, scopeStats.get("staleServes"));
+        Assert.assertEquals(1L, scopeStats.get("misses"));
+        Assert.assertEquals(1L, scopeStats.get("inFlightWaits"));
+        Assert.assertTrue((long) scopeStats.get("lastAccessTimestamp") >= beforeAccess);
+        // frequency is averaged over at least a minute
+        Assert.assertEquals(4.0, (double) scopeStats.get("requestsPerMinute"), 0.001);
+    }
+
+    @Test
+    public void testRecordAccess_separateScopes() {
+        // test
+        OptimizeCacheStats.recordHit(new DecisionScope("myMbox1"), false);
+        OptimizeCacheStats.recordMiss(new DecisionScope("myMbox2"));
+
+        // verify
+        final Map<String, Object> statistics = OptimizeCacheStats.snapshot();
+        Assert.assertEquals(2, statistics.size());
+        Assert.assertEquals(1L, ((Map<String, Object>) statistics.get("myMbox1")).get("hits"));
+        Assert.assertEquals(0L, ((Map<String, Object>) statistics.get("myMbox1")).get("misses"));
+        Assert.assertEquals(1L, ((Map<String, Object>) statistics.get("myMbox2")).get("misses"));
+    }
+}
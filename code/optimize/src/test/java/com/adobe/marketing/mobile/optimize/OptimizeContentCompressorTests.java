@@ -0,0 +1,104 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptimizeContentCompressorTests {
+    @After
+    public void teardown() {
+        OptimizeContentCompressor.clearCache();
+    }
+
+    @Test
+    public void testCompressDecompress_largeContent() {
+        // setup
+        final String content = createHtmlContent(500);
+
+        // test
+        final byte[] compressed = OptimizeContentCompressor.compress(content);
+
+        // verify
+        Assert.assertNotNull(compressed);
+        Assert.assertTrue(compressed.length < content.length() / 4);
+        final String decompressed = OptimizeContentCompressor.decompress(compressed);
+        Assert.assertEquals(content, decompressed);
+        // the decompressed content is cached.
+        Assert.assertSame(decompressed, OptimizeContentCompressor.decompress(compressed));
+    }
+
+    @Test
+    public void testCompress_incompressibleContent() {
+        // setup
+        final Random random = new Random(42);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            builder.append((char) ('!' + random.nextInt(90)));
+        }
+
+        // verify
+        Assert.assertNull(OptimizeContentCompressor.compress(builder.toString()));
+    }
+
+    @Test
+    public void testDecompress_leastRecentlyUsedContentEvicted() {
+        // setup
+        final byte[][] compressed = new byte[OptimizeConstants.DECOMPRESSED_CONTENT_CACHE_SIZE][];
+        for (int i = 0; i < compressed.length; i++) {
+            compressed[i] = OptimizeContentCompressor.compress(createHtmlContent(100 + i));
+        }
+        final String first = OptimizeContentCompressor.decompress(compressed[0]);
+        final String second = OptimizeContentCompressor.decompress(compressed[1]);
+        for (int i = 2; i < compressed.length; i++) {
+            OptimizeContentCompressor.decompress(compressed[i]);
+        }
+        OptimizeContentCompressor.decompress(compressed[0]);
+
+        // test
+        OptimizeContentCompressor.decompress(
+                OptimizeContentCompressor.compress(createHtmlContent(99)));
+
+        // verify
+        Assert.assertSame(first, OptimizeContentCompressor.decompress(compressed[0]));
+        final String decompressedSecond = OptimizeContentCompressor.decompress(compressed[1]);
+        Assert.assertEquals(second, decompressedSecond);
+        Assert.assertNotSame(second, decompressedSecond);
+    }
+
+    @Test
+    public void testDecompress_invalidContent() {
+        // setup
+        final byte[] compressed = OptimizeContentCompressor.compress(createHtmlContent(100));
+        Assert.assertNotNull(compressed);
+
+        // verify
+        Assert.assertEquals(
+                "",
+                OptimizeContentCompressor.decompress(
+                        Arrays.copyOf(compressed, compressed.length / 2)));
+        Assert.assertEquals("", OptimizeContentCompressor.decompress(new byte[] {1, 2, 3}));
+    }
+
+    private static String createHtmlContent(final int paragraphs) {
+        final StringBuilder builder = new StringBuilder("<div class=\"offer\">");
+        for (int i = 0; i < paragraphs; i++) {
+            builder.append("<p class=\"item\">Paragraph ")
+                    .append(i)
+                    .append(", caf\u00e9 \u2603</p>");
+        }
+        return builder.append("</div>").toString();
+    }
+}
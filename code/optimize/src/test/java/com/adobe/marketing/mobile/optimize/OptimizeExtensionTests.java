@@ -12,22 +12,27 @@
 package com.adobe.marketing.mobile.optimize;
 
 import android.util.Base64;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
 import com.adobe.marketing.mobile.AdobeError;
 import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.ExtensionApi;
 import com.adobe.marketing.mobile.ExtensionEventListener;
+import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.SharedStateResolution;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -53,6 +58,8 @@ public class OptimizeExtensionTests {
 
     @Mock SerialWorkDispatcher<Event> mockEventsDispatcher;
 
+    @Mock SerialWorkDispatcher<Event> mockPrefetchDispatcher;
+
     @Before
     public void setup() {
         extension = new OptimizeExtension(mockExtensionApi);
@@ -63,6 +70,7 @@ public class OptimizeExtensionTests {
 
     @After
     public void teardown() {
+        extension.onUnregistered();
         responseMap = null;
         responseError = null;
     }
@@ -137,6 +145,11 @@ public class OptimizeExtensionTests {
                         ArgumentMatchers.eq("com.adobe.eventType.optimize"),
                         ArgumentMatchers.eq("com.adobe.eventSource.contentComplete"),
                         ArgumentMatchers.any(ExtensionEventListener.class));
+        Mockito.verify(mockExtensionApi, Mockito.times(1))
+                .registerEventListener(
+                        ArgumentMatchers.eq("com.adobe.eventType.hub"),
+                        ArgumentMatchers.eq("com.adobe.eventSource.sharedState"),
+                        ArgumentMatchers.any(ExtensionEventListener.class));
     }
 
     @Test
@@ -2303,6 +2316,65 @@ public class OptimizeExtensionTests {
         Assert.assertNull(offer.getLanguage());
     }
 
+    @Test
+    public void testHandleDebugEvent_compressesLargeOfferContent() throws Exception {
+        // setup
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.compressOfferContentThreshold", 1024);
+        setConfigurationSharedState(SharedStateStatus.SET, configData);
+        extension.handleSharedStateUpdate(createConfigurationSharedStateEvent());
+
+        final Map<String, Object> edgeResponseData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/EVENT_DATA_EDGE_RESPONSE_VALID.json"),
+                                HashMap.class);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            builder.append("<p class=\"item\">Paragraph ").append(i).append("</p>");
+        }
+        final String content = builder.toString();
+        final Map<String, Object> proposition =
+                ((List<Map<String, Object>>) edgeResponseData.get("payload")).get(0);
+        final Map<String, Object> item =
+                ((List<Map<String, Object>>) proposition.get("items")).get(0);
+        ((Map<String, Object>) item.get("data")).put("content", content);
+        final Event testEvent =
+                new Event.Builder(
+                                "AEP Response Event Handle (Spoof)",
+                                "com.adobe.eventType.system",
+                                "com.adobe.eventSource.debug")
+                        .setEventData(edgeResponseData)
+                        .build();
+        OptimizeContentCompressor.clearCache();
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+        // test
+        extension.handleDebugEvent(testEvent);
+
+        // verify
+        // the notification is built without decompressing the cached content.
+        Assert.assertEquals(0, OptimizeContentCompressor.cacheSize());
+        Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+        final List<Map<String, Object>> propositionsList =
+                (List<Map<String, Object>>)
+                        eventCaptor.getValue().getEventData().get("propositions");
+        final Map<String, Object> notifiedItem =
+                ((List<Map<String, Object>>) propositionsList.get(0).get("items")).get(0);
+        Assert.assertEquals(
+                content, ((Map<String, Object>) notifiedItem.get("data")).get("content"));
+
+        Assert.assertEquals(1, extension.getPreviewCachedPropositions().size());
+        final OptimizeProposition previewProposition =
+                extension.getPreviewCachedPropositions().values().iterator().next();
+        final Offer offer = previewProposition.getOffers().get(0);
+        Assert.assertNotNull(offer.getCompressedContent());
+        Assert.assertEquals(content, offer.getContent());
+        OptimizeContentCompressor.clearCache();
+    }
+
     @Test
     public void testHandleDebugEvent_getPropositionsForMultipleScopes() throws Exception {
         // setup
@@ -2594,6 +2666,41 @@ public class OptimizeExtensionTests {
                 .thenReturn(new SharedStateResult(status, data));
     }
 
+    private File writeSnapshotFile(final OptimizeProposition optimizeProposition)
+            throws IOException {
+        final File snapshotFile = File.createTempFile("propositions", ".snapshot");
+        snapshotFile.deleteOnExit();
+        Assert.assertTrue(
+                OptimizePropositionSnapshot.write(
+                        snapshotFile, Collections.singletonList(optimizeProposition)));
+        return snapshotFile;
+    }
+
+    private Event createConfigurationSharedStateEvent() {
+        return new Event.Builder(
+                        "Shared state change",
+                        "com.adobe.eventType.hub",
+                        "com.adobe.eventSource.sharedState")
+                .setEventData(
+                        new HashMap<String, Object>() {
+                            {
+                                put("stateowner", "com.adobe.module.configuration");
+                            }
+                        })
+                .build();
+    }
+
+    private OptimizeProposition loadProposition(final String resource) throws IOException {
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass().getClassLoader().getResource(resource), HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        return optimizeProposition;
+    }
+
     @Test
     public void testGetPropositions_dispatchPropositionFromCacheBeforeNextUpdate() {
         try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
@@ -2844,4 +2951,2025 @@ public class OptimizeExtensionTests {
         final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
         Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(eventCaptor.capture());
     }
+
+    @Test
+    public void testPeekCachedPropositions_returnsCachedPropositions() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizeProposition =
+                OptimizeProposition.fromEventData(testPropositionData);
+        Assert.assertNotNull(testOptimizeProposition);
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScope, testOptimizeProposition);
+        extension.setCachedPropositions(cachedPropositions);
+
+        // test
+        final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                OptimizeExtension.peekCachedPropositions(
+                        new ArrayList<DecisionScope>() {
+                            {
+                                add(testScope);
+                                add(new DecisionScope("myMbox"));
+                            }
+                        });
+
+        // verify
+        Assert.assertEquals(1, propositionsMap.size());
+        Assert.assertSame(testOptimizeProposition, propositionsMap.get(testScope));
+        Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testPeekCachedPropositions_previewPropositionsTakePrecedence() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionDataA =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizePropositionA =
+                OptimizeProposition.fromEventData(testPropositionDataA);
+        Assert.assertNotNull(testOptimizePropositionA);
+        final DecisionScope testScopeA = new DecisionScope(testOptimizePropositionA.getScope());
+
+        final Map<String, Object> testPropositionDataB =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_B.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizePropositionB =
+                OptimizeProposition.fromEventData(testPropositionDataB);
+        Assert.assertNotNull(testOptimizePropositionB);
+        final DecisionScope testScopeB = new DecisionScope(testOptimizePropositionB.getScope());
+
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScopeA, testOptimizePropositionA);
+        extension.setCachedPropositions(cachedPropositions);
+        final Map<DecisionScope, OptimizeProposition> previewCachedPropositions = new HashMap<>();
+        previewCachedPropositions.put(testScopeB, testOptimizePropositionB);
+        extension.setPreviewCachedPropositions(previewCachedPropositions);
+
+        // test
+        final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                OptimizeExtension.peekCachedPropositions(
+                        new ArrayList<DecisionScope>() {
+                            {
+                                add(testScopeA);
+                                add(testScopeB);
+                            }
+                        });
+
+        // verify
+        Assert.assertEquals(1, propositionsMap.size());
+        Assert.assertSame(testOptimizePropositionB, propositionsMap.get(testScopeB));
+    }
+
+    @Test
+    public void testPeekCachedPropositions_afterClearPropositions() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizeProposition =
+                OptimizeProposition.fromEventData(testPropositionData);
+        Assert.assertNotNull(testOptimizeProposition);
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScope, testOptimizeProposition);
+        extension.setCachedPropositions(cachedPropositions);
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Clear Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestReset")
+                        .build();
+
+        // test
+        extension.handleClearPropositions(testEvent);
+
+        // verify
+        final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                OptimizeExtension.peekCachedPropositions(
+                        new ArrayList<DecisionScope>() {
+                            {
+                                add(testScope);
+                            }
+                        });
+        Assert.assertTrue(propositionsMap.isEmpty());
+    }
+
+    @Test
+    public void testLoadPersistedPropositions_peekReadsSnapshot() throws Exception {
+        // setup
+        final OptimizeProposition testOptimizeProposition =
+                loadProposition("json/PROPOSITION_VALID.json");
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        final File snapshotFile = File.createTempFile("propositions", ".snapshot");
+        snapshotFile.deleteOnExit();
+        Assert.assertTrue(
+                OptimizePropositionSnapshot.write(
+                        snapshotFile, Collections.singletonList(testOptimizeProposition)));
+        extension.setPropositionsSnapshotFile(snapshotFile);
+
+        // test
+        extension.loadPersistedPropositions();
+
+        // verify
+        Assert.assertNotNull(extension.getPersistedPropositions());
+        Assert.assertTrue(extension.getCachedPropositions().isEmpty());
+        final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope));
+        Assert.assertEquals(1, propositionsMap.size());
+        Assert.assertEquals(testOptimizeProposition, propositionsMap.get(testScope));
+    }
+
+    @Test
+    public void testPeekCachedPropositions_extensionUnregistered() throws Exception {
+        // setup
+        final OptimizeProposition testOptimizeProposition =
+                loadProposition("json/PROPOSITION_VALID.json");
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        extension.setCachedPropositions(
+                new HashMap<>(Collections.singletonMap(testScope, testOptimizeProposition)));
+        Assert.assertEquals(
+                1,
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                        .size());
+
+        // test
+        extension.onUnregistered();
+
+        // verify
+        Assert.assertTrue(
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                        .isEmpty());
+        Assert.assertEquals(
+                0L,
+                OptimizeExtension.getPropositionsFootprint(1)
+                        .get(OptimizeConstants.Footprint.TOTAL_BYTES));
+    }
+
+    @Test
+    public void testWritePropositionsSnapshot_mergesCachedAndPersistedPropositions()
+            throws Exception {
+        // setup
+        final OptimizeProposition persistedProposition =
+                loadProposition("json/PROPOSITION_VALID.json");
+        final OptimizeProposition cachedProposition =
+                loadProposition("json/PROPOSITION_VALID_B.json");
+        final File snapshotFile = File.createTempFile("propositions", ".snapshot");
+        snapshotFile.deleteOnExit();
+        Assert.assertTrue(
+                OptimizePropositionSnapshot.write(
+                        snapshotFile, Collections.singletonList(persistedProposition)));
+        extension.setPropositionsSnapshotFile(snapshotFile);
+        extension.loadPersistedPropositions();
+
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(new DecisionScope(cachedProposition.getScope()), cachedProposition);
+        extension.setCachedPropositions(cachedPropositions);
+
+        // test
+        extension.writePropositionsSnapshot();
+
+        // verify
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertEquals(persistedProposition, snapshot.get(persistedProposition.getScope()));
+        Assert.assertEquals(cachedProposition, snapshot.get(cachedProposition.getScope()));
+    }
+
+    @Test
+    public void testOnRegistered_persistPropositionsNotConfiguredIgnoresSnapshot()
+            throws Exception {
+        // setup
+        final OptimizeProposition testOptimizeProposition =
+                loadProposition("json/PROPOSITION_VALID.json");
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        final File snapshotFile = writeSnapshotFile(testOptimizeProposition);
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                    }
+                });
+        extension.onUnregistered();
+        extension = new OptimizeExtension(mockExtensionApi);
+        extension.setPropositionsSnapshotFile(snapshotFile);
+
+        // test
+        extension.onRegistered();
+
+        // verify
+        Assert.assertNull(extension.getPersistedPropositions());
+        Assert.assertTrue(
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                        .isEmpty());
+    }
+
+    @Test
+    public void testHandleSharedStateUpdate_persistPropositionsDisabledIgnoresSnapshot()
+            throws Exception {
+        // setup
+        final OptimizeProposition testOptimizeProposition =
+                loadProposition("json/PROPOSITION_VALID.json");
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        extension.setPropositionsSnapshotFile(writeSnapshotFile(testOptimizeProposition));
+        setConfigurationSharedState(
+                SharedStateStatus.SET,
+                new HashMap<String, Object>() {
+                    {
+                        put("optimize.persistPropositions", false);
+                    }
+                });
+
+        // test
+        extension.handleSharedStateUpdate(createConfigurationSharedStateEvent());
+
+        // verify
+        Assert.assertNull(extension.getPersistedPropositions());
+        Assert.assertTrue(
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                        .isEmpty());
+    }
+
+    @Test
+    public void testHandleSharedStateUpdate_persistPropositionsToggled() throws Exception {
+        // setup
+        final OptimizeProposition testOptimizeProposition =
+                loadProposition("json/PROPOSITION_VALID.json");
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        extension.setPropositionsSnapshotFile(writeSnapshotFile(testOptimizeProposition));
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put("optimize.persistPropositions", true);
+        setConfigurationSharedState(SharedStateStatus.SET, configData);
+
+        // test
+        extension.handleSharedStateUpdate(createConfigurationSharedStateEvent());
+
+        // verify
+        Assert.assertNotNull(extension.getPersistedPropositions());
+        Assert.assertEquals(
+                testOptimizeProposition,
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                        .get(testScope));
+
+        // test
+        configData.put("optimize.persistPropositions", false);
+        extension.handleSharedStateUpdate(createConfigurationSharedStateEvent());
+
+        // verify
+        Assert.assertNull(extension.getPersistedPropositions());
+        Assert.assertTrue(
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                        .isEmpty());
+    }
+
+    @Test
+    public void testPeekCachedPropositions_corruptedSnapshotDiscarded() throws Exception {
+        // setup
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        Map<String, Object> nested = scopeDetails;
+        for (int i = 0; i <= OptimizePropositionCodec.MAX_VALUE_DEPTH; i++) {
+            final Map<String, Object> child = new HashMap<>();
+            nested.put("nested", child);
+            nested = child;
+        }
+        final DecisionScope testScope = new DecisionScope("myMbox");
+        extension.setPropositionsSnapshotFile(
+                writeSnapshotFile(
+                        new OptimizeProposition(
+                                "id",
+                                Collections.<Offer>emptyList(),
+                                testScope.getName(),
+                                scopeDetails)));
+        extension.loadPersistedPropositions();
+        Assert.assertNotNull(extension.getPersistedPropositions());
+
+        // test
+        final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope));
+
+        // verify
+        Assert.assertTrue(propositionsMap.isEmpty());
+        Assert.assertNull(extension.getPersistedPropositions());
+    }
+
+    @Test
+    public void testHandleClearPropositions_dropsPersistedPropositions() throws Exception {
+        // setup
+        final OptimizeProposition testOptimizeProposition =
+                loadProposition("json/PROPOSITION_VALID.json");
+        final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+        final File snapshotFile = File.createTempFile("propositions", ".snapshot");
+        snapshotFile.deleteOnExit();
+        Assert.assertTrue(
+                OptimizePropositionSnapshot.write(
+                        snapshotFile, Collections.singletonList(testOptimizeProposition)));
+        extension.setPropositionsSnapshotFile(snapshotFile);
+        extension.loadPersistedPropositions();
+
+        final Event testEvent =
+                new Event.Builder(
+                                "Optimize Clear Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestReset")
+                        .build();
+
+        // test
+        extension.handleClearPropositions(testEvent);
+
+        // verify
+        Assert.assertNull(extension.getPersistedPropositions());
+        Assert.assertTrue(
+                OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                        .isEmpty());
+    }
+
+    @Test
+    public void testGetPropositionsFootprint_totalsAndTopScopes() throws Exception {
+        // setup
+        final Map<String, Object> testPropositionDataA =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizePropositionA =
+                OptimizeProposition.fromEventData(testPropositionDataA);
+        Assert.assertNotNull(testOptimizePropositionA);
+        final DecisionScope testScopeA = new DecisionScope(testOptimizePropositionA.getScope());
+
+        final Map<String, Object> testPropositionDataB =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_B.json"),
+                                HashMap.class);
+        final OptimizeProposition testOptimizePropositionB =
+                OptimizeProposition.fromEventData(testPropositionDataB);
+        Assert.assertNotNull(testOptimizePropositionB);
+        final DecisionScope testScopeB = new DecisionScope(testOptimizePropositionB.getScope());
+
+        final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+        cachedPropositions.put(testScopeA, testOptimizePropositionA);
+        cachedPropositions.put(testScopeB, testOptimizePropositionB);
+        extension.setCachedPropositions(cachedPropositions);
+        extension.setPreviewCachedPropositions(new HashMap<>());
+        extension.setPropositionsInProgress(
+                Collections.singletonMap(testScopeB, testOptimizePropositionB));
+
+        // test
+        final Map<String, Object> footprint = OptimizeExtension.getPropositionsFootprint(1);
+
+        // verify
+        final long bytesA = testOptimizePropositionA.getEstimatedRetainedBytes();
+        final long bytesB = testOptimizePropositionB.getEstimatedRetainedBytes();
+        Assert.assertEquals(bytesA + bytesB, footprint.get("cachedPropositionsBytes"));
+        Assert.assertEquals(0L, footprint.get("previewCachedPropositionsBytes"));
+        Assert.assertEquals(bytesB, footprint.get("propositionsInProgressBytes"));
+        Assert.assertEquals(bytesA + 2 * bytesB, footprint.get("totalBytes"));
+
+        final List<Map<String, Object>> topScopes =
+                (List<Map<String, Object>>) footprint.get("topScopes");
+        Assert.assertEquals(1, topScopes.size());
+        final DecisionScope heaviestScope = bytesA >= bytesB ? testScopeA : testScopeB;
+        Assert.assertEquals(heaviestScope.getName(), topScopes.get(0).get("scope"));
+        Assert.assertEquals(Math.max(bytesA, bytesB), topScopes.get(0).get("bytes"));
+        Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testHandleCancelUpdatePropositions_updateInProgress() throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
+            final DecisionScope testScope =
+                    new DecisionScope(
+                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+            extension.handleOptimizeRequestContent(testEvent);
+
+            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
+                    extension.getUpdateRequestEventIdsInProgress();
+            Assert.assertEquals(1, updateEventIdsInProgress.size());
+            final String edgeEventId = updateEventIdsInProgress.keySet().iterator().next();
+
+            final Map<String, Object> testCancelEventData = new HashMap<>();
+            testCancelEventData.put("requesttype", "cancelupdatepropositions");
+            testCancelEventData.put(
+                    "cancelUpdateRequestForEventId", testEvent.getUniqueIdentifier());
+            final Event testCancelEvent =
+                    new Event.Builder(
+                                    "Optimize Cancel Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testCancelEventData)
+                            .build();
+
+            // test
+            extension.handleOptimizeRequestContent(testCancelEvent);
+
+            // verify
+            Assert.assertTrue(extension.getUpdateRequestEventIdsInProgress().isEmpty());
+
+            // late personalization:decisions event for the cancelled request is ignored
+            final Map<String, Object> edgeResponseData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource(
+                                                    "json/EVENT_DATA_EDGE_RESPONSE_VALID.json"),
+                                    HashMap.class);
+            edgeResponseData.put("requestEventId", edgeEventId);
+            final Event testEdgeEvent =
+                    new Event.Builder(
+                                    "AEP Response Event Handle",
+                                    "com.adobe.eventType.edge",
+                                    "personalization:decisions")
+                            .setEventData(edgeResponseData)
+                            .build();
+            extension.handleEdgeResponse(testEdgeEvent);
+
+            Assert.assertEquals(0, extension.getPropositionsInProgress().size());
+            Assert.assertEquals(0, extension.getCachedPropositions().size());
+            Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(ArgumentMatchers.any());
+        }
+    }
+
+    @Test
+    public void testHandleCancelUpdatePropositions_requestEventIdNotBeingTracked() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // setup
+            final Map<String, Object> testCancelEventData = new HashMap<>();
+            testCancelEventData.put("requesttype", "cancelupdatepropositions");
+            testCancelEventData.put(
+                    "cancelUpdateRequestForEventId", "AAAAAAAA-BBBB-CCCC-DDDD-EEEEEEEEEEEE");
+            final Event testCancelEvent =
+                    new Event.Builder(
+                                    "Optimize Cancel Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testCancelEventData)
+                            .build();
+
+            // test
+            extension.handleOptimizeRequestContent(testCancelEvent);
+
+            // verify
+            logMockedStatic.verify(
+                    () ->
+                            Log.debug(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.any()));
+            Assert.assertTrue(extension.getUpdateRequestEventIdsInProgress().isEmpty());
+            Mockito.verify(mockExtensionApi, Mockito.never()).dispatch(ArgumentMatchers.any());
+        }
+    }
+}
+    @Test
+    public void
+            testHandleOptimizeRequestContent_PrefetchUpdate_deferredWhileForegroundUpdateInProgress() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myMbox").toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+            extension.handleOptimizeRequestContent(testEvent);
+
+            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
+                    extension.getUpdateRequestEventIdsInProgress();
+            Assert.assertEquals(1, updateEventIdsInProgress.size());
+            final String edgeEventId = updateEventIdsInProgress.keySet().iterator().next();
+
+            final Map<String, Object> testPrefetchEventData = new HashMap<>();
+            testPrefetchEventData.put("requesttype", "updatepropositions");
+            testPrefetchEventData.put("priority", "prefetch");
+            testPrefetchEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myPrefetchMbox").toEventData());
+                        }
+                    });
+            final Event testPrefetchEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testPrefetchEventData)
+                            .build();
+
+            final Event testUpdateCompleteEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Complete",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.contentComplete")
+                            .setEventData(
+                                    new HashMap<String, Object>() {
+                                        {
+                                            put("completedUpdateRequestForEventId", edgeEventId);
+                                        }
+                                    })
+                            .build();
+            Mockito.clearInvocations(mockExtensionApi);
+
+            // test
+            extension.handleOptimizeRequestContent(testPrefetchEvent);
+
+            // verify prefetch request is not sent while foreground update is in progress
+            Mockito.verify(mockExtensionApi, Mockito.after(1000L).never())
+                    .getSharedState(
+                            ArgumentMatchers.anyString(),
+                            ArgumentMatchers.eq(testPrefetchEvent),
+                            ArgumentMatchers.anyBoolean(),
+                            ArgumentMatchers.any());
+
+            // simulate foreground update complete
+            extension.handleUpdatePropositionsCompleted(testUpdateCompleteEvent);
+
+            // verify prefetch request is sent
+            Mockito.verify(mockExtensionApi, Mockito.timeout(2000L).times(1))
+                    .getSharedState(
+                            ArgumentMatchers.eq(OptimizeConstants.Configuration.EXTENSION_NAME),
+                            ArgumentMatchers.eq(testPrefetchEvent),
+                            ArgumentMatchers.eq(false),
+                            ArgumentMatchers.eq(SharedStateResolution.ANY));
+        }
+    }
+
+    @Test
+    public void testHandleCancelUpdatePropositions_deferredPrefetchUpdate() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myMbox").toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+            extension.handleOptimizeRequestContent(testEvent);
+
+            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
+                    extension.getUpdateRequestEventIdsInProgress();
+            Assert.assertEquals(1, updateEventIdsInProgress.size());
+            final String edgeEventId = updateEventIdsInProgress.keySet().iterator().next();
+
+            final Map<String, Object> testPrefetchEventData = new HashMap<>();
+            testPrefetchEventData.put("requesttype", "updatepropositions");
+            testPrefetchEventData.put("priority", "prefetch");
+            testPrefetchEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myPrefetchMbox").toEventData());
+                        }
+                    });
+            final Event testPrefetchEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testPrefetchEventData)
+                            .build();
+
+            final Event testUpdateCompleteEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Complete",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.contentComplete")
+                            .setEventData(
+                                    new HashMap<String, Object>() {
+                                        {
+                                            put("completedUpdateRequestForEventId", edgeEventId);
+                                        }
+                                    })
+                            .build();
+            Mockito.clearInvocations(mockExtensionApi);
+
+            extension.handleOptimizeRequestContent(testPrefetchEvent);
+
+            final Map<String, Object> testCancelEventData = new HashMap<>();
+            testCancelEventData.put("requesttype", "cancelupdatepropositions");
+            testCancelEventData.put(
+                    "cancelUpdateRequestForEventId", testPrefetchEvent.getUniqueIdentifier());
+            final Event testCancelEvent =
+                    new Event.Builder(
+                                    "Optimize Cancel Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testCancelEventData)
+                            .build();
+
+            // test
+            extension.handleOptimizeRequestContent(testCancelEvent);
+            extension.handleUpdatePropositionsCompleted(testUpdateCompleteEvent);
+
+            // verify cancelled prefetch request is never sent
+            Mockito.verify(mockExtensionApi, Mockito.after(1000L).never())
+                    .getSharedState(
+                            ArgumentMatchers.anyString(),
+                            ArgumentMatchers.eq(testPrefetchEvent),
+                            ArgumentMatchers.anyBoolean(),
+                            ArgumentMatchers.any());
+            Assert.assertTrue(extension.getUpdateRequestEventIdsInProgress().isEmpty());
+        }
+    }
+
+    @Test
+    public void testHandleCancelUpdatePropositions_queuedPrefetchUpdateResumesPrefetchDispatcher() {
+        // setup
+        extension.setPrefetchDispatcher(mockPrefetchDispatcher);
+        final Map<String, Object> testPrefetchEventData = new HashMap<>();
+        testPrefetchEventData.put("requesttype", "updatepropositions");
+        testPrefetchEventData.put("priority", "prefetch");
+        testPrefetchEventData.put(
+                "decisionscopes",
+                new ArrayList<Map<String, Object>>() {
+                    {
+                        add(new DecisionScope("myPrefetchMbox").toEventData());
+                    }
+                });
+        final Event testPrefetchEvent =
+                new Event.Builder(
+                                "Optimize Update Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(testPrefetchEventData)
+                        .build();
+        extension.handleOptimizeRequestContent(testPrefetchEvent);
+        Mockito.verify(mockPrefetchDispatcher).offer(testPrefetchEvent);
+
+        final Map<String, Object> testCancelEventData = new HashMap<>();
+        testCancelEventData.put("requesttype", "cancelupdatepropositions");
+        testCancelEventData.put(
+                "cancelUpdateRequestForEventId", testPrefetchEvent.getUniqueIdentifier());
+        final Event testCancelEvent =
+                new Event.Builder(
+                                "Optimize Cancel Update Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(testCancelEventData)
+                        .build();
+
+        // test
+        extension.handleOptimizeRequestContent(testCancelEvent);
+
+        // verify
+        Mockito.verify(mockPrefetchDispatcher).resume();
+    }
+
+    @Test
+    public void testHandleCancelUpdatePropositions_cancelledEdgeEventIdsAreBounded() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myMbox").toEventData());
+                        }
+                    });
+
+            // test
+            String firstEdgeEventId = null;
+            for (int i = 0; i <= OptimizeConstants.MAX_CANCELLED_UPDATE_REQUESTS; i++) {
+                final Event testEvent =
+                        new Event.Builder(
+                                        "Optimize Update Propositions Request",
+                                        "com.adobe.eventType.optimize",
+                                        "com.adobe.eventSource.requestContent")
+                                .setEventData(testEventData)
+                                .build();
+                extension.handleOptimizeRequestContent(testEvent);
+                if (firstEdgeEventId == null) {
+                    firstEdgeEventId =
+                            extension
+                                    .getUpdateRequestEventIdsInProgress()
+                                    .keySet()
+                                    .iterator()
+                                    .next();
+                }
+
+                final Map<String, Object> testCancelEventData = new HashMap<>();
+                testCancelEventData.put("requesttype", "cancelupdatepropositions");
+                testCancelEventData.put(
+                        "cancelUpdateRequestForEventId", testEvent.getUniqueIdentifier());
+                extension.handleOptimizeRequestContent(
+                        new Event.Builder(
+                                        "Optimize Cancel Update Propositions Request",
+                                        "com.adobe.eventType.optimize",
+                                        "com.adobe.eventSource.requestContent")
+                                .setEventData(testCancelEventData)
+                                .build());
+            }
+
+            // verify
+            Assert.assertTrue(extension.getUpdateRequestEventIdsInProgress().isEmpty());
+            final Set<String> cancelledEdgeEventIds = extension.getCancelledUpdateRequestEventIds();
+            Assert.assertEquals(
+                    OptimizeConstants.MAX_CANCELLED_UPDATE_REQUESTS, cancelledEdgeEventIds.size());
+            Assert.assertFalse(cancelledEdgeEventIds.contains(firstEdgeEventId));
+        }
+    }
+
+    @Test
+    public void testHandleRegisterPrefetchManifest_schedulesDeduplicatedPrefetch() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            extension.setPrefetchDispatcher(mockPrefetchDispatcher);
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "registerprefetchmanifest");
+            testEventData.put("prefetchttl", 60000L);
+            testEventData.put(
+                    "prefetchmanifest",
+                    new HashMap<String, Object>() {
+                        {
+                            put(
+                                    "home",
+                                    new ArrayList<Map<String, Object>>() {
+                                        {
+                                            add(
+                                                    new DecisionScope("myTargetLocationA")
+                                                            .toEventData());
+                                            add(
+                                                    new DecisionScope("myTargetLocationB")
+                                                            .toEventData());
+                                        }
+                                    });
+                            put(
+                                    "cart",
+                                    new ArrayList<Map<String, Object>>() {
+                                        {
+                                            add(
+                                                    new DecisionScope("myTargetLocationB")
+                                                            .toEventData());
+                                            add(
+                                                    new DecisionScope("myTargetLocationC")
+                                                            .toEventData());
+                                        }
+                                    });
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Register Prefetch Manifest Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+            // test
+            extension.handleOptimizeRequestContent(testEvent);
+
+            // verify
+            Assert.assertEquals(2, extension.getPrefetchManifest().size());
+            Mockito.verify(mockPrefetchDispatcher, Mockito.times(1)).offer(eventCaptor.capture());
+            final Event prefetchEvent = eventCaptor.getValue();
+            Assert.assertEquals(testEvent.getUniqueIdentifier(), prefetchEvent.getParentID());
+            final Map<String, Object> prefetchEventData = prefetchEvent.getEventData();
+            Assert.assertEquals("updatepropositions", prefetchEventData.get("requesttype"));
+            Assert.assertEquals("prefetch", prefetchEventData.get("priority"));
+            final List<Map<String, Object>> scopesList =
+                    (List<Map<String, Object>>) prefetchEventData.get("decisionscopes");
+            Assert.assertEquals(3, scopesList.size());
+        }
+    }
+
+    @Test
+    public void testHandleRegisterPrefetchManifest_skipsFreshScopes() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            extension.setPrefetchDispatcher(mockPrefetchDispatcher);
+            extension.setUpdateRequestEventIdsInProgress(
+                    "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA",
+                    new ArrayList<DecisionScope>() {
+                        {
+                            add(new DecisionScope("myTargetLocationA"));
+                        }
+                    });
+            extension.handleUpdatePropositionsCompleted(
+                    new Event.Builder(
+                                    "Optimize Update Propositions Complete",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.contentComplete")
+                            .setEventData(
+                                    new HashMap<String, Object>() {
+                                        {
+                                            put(
+                                                    "completedUpdateRequestForEventId",
+                                                    "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA");
+                                        }
+                                    })
+                            .build());
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "registerprefetchmanifest");
+            testEventData.put("prefetchttl", 60000L);
+            testEventData.put(
+                    "prefetchmanifest",
+                    new HashMap<String, Object>() {
+                        {
+                            put(
+                                    "home",
+                                    new ArrayList<Map<String, Object>>() {
+                                        {
+                                            add(
+                                                    new DecisionScope("myTargetLocationA")
+                                                            .toEventData());
+                                            add(
+                                                    new DecisionScope("myTargetLocationB")
+                                                            .toEventData());
+                                        }
+                                    });
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Register Prefetch Manifest Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+            // test
+            extension.handleOptimizeRequestContent(testEvent);
+
+            // verify
+            Mockito.verify(mockPrefetchDispatcher, Mockito.times(1)).offer(eventCaptor.capture());
+            final List<Map<String, Object>> scopesList =
+                    (List<Map<String, Object>>)
+                            eventCaptor.getValue().getEventData().get("decisionscopes");
+            Assert.assertEquals(1, scopesList.size());
+            Assert.assertEquals("myTargetLocationB", scopesList.get(0).get("name"));
+        }
+    }
+
+    @Test
+    public void testHandlePrefetchPropositions_scopesAlreadyScheduled() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            extension.setPrefetchDispatcher(mockPrefetchDispatcher);
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "registerprefetchmanifest");
+            testEventData.put("prefetchttl", 60000L);
+            testEventData.put(
+                    "prefetchmanifest",
+                    new HashMap<String, Object>() {
+                        {
+                            put(
+                                    "home",
+                                    new ArrayList<Map<String, Object>>() {
+                                        {
+                                            add(
+                                                    new DecisionScope("myTargetLocationA")
+                                                            .toEventData());
+                                        }
+                                    });
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Register Prefetch Manifest Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+            extension.handleOptimizeRequestContent(testEvent);
+
+            final Map<String, Object> testPrefetchEventData = new HashMap<>();
+            testPrefetchEventData.put("requesttype", "prefetchpropositions");
+            testPrefetchEventData.put("prefetchtag", "home");
+            final Event testPrefetchEvent =
+                    new Event.Builder(
+                                    "Optimize Prefetch Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testPrefetchEventData)
+                            .build();
+
+            // test
+            extension.handleOptimizeRequestContent(testPrefetchEvent);
+
+            // verify
+            Mockito.verify(mockPrefetchDispatcher, Mockito.times(1))
+                    .offer(ArgumentMatchers.any(Event.class));
+        }
+    }
+
+    @Test
+    public void testHandlePrefetchPropositions_tagNotRegistered() {
+        // setup
+        extension.setPrefetchDispatcher(mockPrefetchDispatcher);
+        final Map<String, Object> testPrefetchEventData = new HashMap<>();
+        testPrefetchEventData.put("requesttype", "prefetchpropositions");
+        testPrefetchEventData.put("prefetchtag", "checkout");
+        final Event testPrefetchEvent =
+                new Event.Builder(
+                                "Optimize Prefetch Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(testPrefetchEventData)
+                        .build();
+
+        // test
+        extension.handleOptimizeRequestContent(testPrefetchEvent);
+
+        // verify
+        Mockito.verify(mockPrefetchDispatcher, Mockito.never())
+                .offer(ArgumentMatchers.any(Event.class));
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_scopesSplitInChunks() {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.scopesChunkSize", 2);
+                        }
+                    });
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myTargetLocationA").toEventData());
+                            add(new DecisionScope("myTargetLocationB").toEventData());
+                            add(new DecisionScope("myTargetLocationC").toEventData());
+                            add(new DecisionScope("myTargetLocationD").toEventData());
+                            add(new DecisionScope("myTargetLocationE").toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+            // test
+            extension.handleOptimizeRequestContent(testEvent);
+
+            // verify
+            final Map<String, List<DecisionScope>> updateEventIdsInProgress =
+                    extension.getUpdateRequestEventIdsInProgress();
+            Assert.assertEquals(3, updateEventIdsInProgress.size());
+
+            Mockito.verify(mockEventsDispatcher, Mockito.times(3)).offer(eventCaptor.capture());
+            final List<Event> edgeEvents = eventCaptor.getAllValues();
+            final int[] expectedChunkSizes = {2, 2, 1};
+            for (int i = 0; i < edgeEvents.size(); i++) {
+                final Event edgeEvent = edgeEvents.get(i);
+                Assert.assertEquals("com.adobe.eventType.edge", edgeEvent.getType());
+                Assert.assertEquals(testEvent.getUniqueIdentifier(), edgeEvent.getParentID());
+
+                final Map<String, Object> query =
+                        (Map<String, Object>) edgeEvent.getEventData().get("query");
+                final Map<String, Object> personalization =
+                        (Map<String, Object>) query.get("personalization");
+                final List<String> scopeNames =
+                        (List<String>) personalization.get("decisionScopes");
+                Assert.assertEquals(expectedChunkSizes[i], scopeNames.size());
+                Assert.assertEquals(
+                        expectedChunkSizes[i],
+                        updateEventIdsInProgress.get(edgeEvent.getUniqueIdentifier()).size());
+            }
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_chunkResponsesMerged() throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class);
+                MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.scopesChunkSize", 1);
+                        }
+                    });
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final Map<String, Object> testPropositionData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource("json/PROPOSITION_VALID.json"),
+                                    HashMap.class);
+            final OptimizeProposition testOptimizeProposition =
+                    OptimizeProposition.fromEventData(testPropositionData);
+            Assert.assertNotNull(testOptimizeProposition);
+            final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("timeout", 10000L);
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                            add(new DecisionScope("myTargetLocationB").toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            extension.handleOptimizeRequestContent(testEvent);
+
+            final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    edgeEventCaptor.capture(),
+                                    ArgumentMatchers.eq(10000L),
+                                    callbackCaptor.capture()),
+                    Mockito.times(2));
+            final List<Event> edgeEvents = edgeEventCaptor.getAllValues();
+            final List<AdobeCallbackWithError<Event>> callbacks = callbackCaptor.getAllValues();
+
+            final Map<DecisionScope, OptimizeProposition> propositionsInProgress = new HashMap<>();
+            propositionsInProgress.put(testScope, testOptimizeProposition);
+            extension.setPropositionsInProgress(propositionsInProgress);
+
+            // test
+            final Map<String, Object> secondChunkResponseData = new HashMap<>();
+            secondChunkResponseData.put("requestEventId", edgeEvents.get(1).getUniqueIdentifier());
+            callbacks
+                    .get(1)
+                    .call(
+                            new Event.Builder(
+                                            "AEP Response Complete",
+                                            "com.adobe.eventType.edge",
+                                            "com.adobe.eventSource.contentComplete")
+                                    .setEventData(secondChunkResponseData)
+                                    .build());
+
+            // verify only chunk completion is dispatched
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+            Assert.assertEquals(
+                    "com.adobe.eventSource.contentComplete", eventCaptor.getValue().getSource());
+
+            final Map<String, Object> firstChunkResponseData = new HashMap<>();
+            firstChunkResponseData.put("requestEventId", edgeEvents.get(0).getUniqueIdentifier());
+            callbacks
+                    .get(0)
+                    .call(
+                            new Event.Builder(
+                                            "AEP Response Complete",
+                                            "com.adobe.eventType.edge",
+                                            "com.adobe.eventSource.contentComplete")
+                                    .setEventData(firstChunkResponseData)
+                                    .build());
+
+            // verify merged response is dispatched once all chunks complete
+            Mockito.verify(mockExtensionApi, Mockito.times(3)).dispatch(eventCaptor.capture());
+            final List<Event> dispatchedEvents = eventCaptor.getAllValues();
+            Event responseEvent = null;
+            for (final Event dispatchedEvent : dispatchedEvents) {
+                if ("com.adobe.eventSource.responseContent".equals(dispatchedEvent.getSource())) {
+                    responseEvent = dispatchedEvent;
+                }
+            }
+            Assert.assertNotNull(responseEvent);
+            Assert.assertEquals(testEvent.getUniqueIdentifier(), responseEvent.getResponseID());
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>) responseEvent.getEventData().get("propositions");
+            Assert.assertEquals(1, propositionsList.size());
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_responseContainsOnlyRequestedScopes()
+            throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class);
+                MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final Map<String, Object> testPropositionData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource("json/PROPOSITION_VALID.json"),
+                                    HashMap.class);
+            final OptimizeProposition testOptimizeProposition =
+                    OptimizeProposition.fromEventData(testPropositionData);
+            Assert.assertNotNull(testOptimizeProposition);
+            final DecisionScope testScope = new DecisionScope(testOptimizeProposition.getScope());
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("timeout", 10000L);
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            extension.handleOptimizeRequestContent(testEvent);
+
+            final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    edgeEventCaptor.capture(),
+                                    ArgumentMatchers.eq(10000L),
+                                    callbackCaptor.capture()),
+                    Mockito.times(1));
+
+            // propositions for another, concurrent update request are also in progress
+            final DecisionScope otherScope = new DecisionScope("myOtherMbox");
+            final Map<DecisionScope, OptimizeProposition> propositionsInProgress = new HashMap<>();
+            propositionsInProgress.put(testScope, testOptimizeProposition);
+            propositionsInProgress.put(
+                    otherScope,
+                    new OptimizeProposition(
+                            "AT:eyJhY3Rpdml0eUlkIjoiMTExMTExIiwiZXhwZXJpZW5jZUlkIjoiMCJ9",
+                            new ArrayList<>(),
+                            "myOtherMbox",
+                            new HashMap<>()));
+            extension.setPropositionsInProgress(propositionsInProgress);
+
+            // test
+            final Map<String, Object> responseData = new HashMap<>();
+            responseData.put("requestEventId", edgeEventCaptor.getValue().getUniqueIdentifier());
+            callbackCaptor
+                    .getValue()
+                    .call(
+                            new Event.Builder(
+                                            "AEP Response Complete",
+                                            "com.adobe.eventType.edge",
+                                            "com.adobe.eventSource.contentComplete")
+                                    .setEventData(responseData)
+                                    .build());
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(2)).dispatch(eventCaptor.capture());
+            final Event responseEvent = eventCaptor.getAllValues().get(0);
+            Assert.assertEquals(
+                    "com.adobe.eventSource.responseContent", responseEvent.getSource());
+            Assert.assertEquals(testEvent.getUniqueIdentifier(), responseEvent.getResponseID());
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>) responseEvent.getEventData().get("propositions");
+            Assert.assertEquals(1, propositionsList.size());
+            Assert.assertEquals(testScope.getName(), propositionsList.get(0).get("scope"));
+        }
+    }
+
+    @Test
+    public void testHandleEdgeResponse_streamingUpdate_commitsPropositionsToCache()
+            throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class);
+                MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.streamPropositions", true);
+                        }
+                    });
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final DecisionScope testScope =
+                    new DecisionScope(
+                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("timeout", 10000L);
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                            add(new DecisionScope("myTargetLocationB").toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            extension.handleOptimizeRequestContent(testEvent);
+
+            // verify streaming Edge request is not queued in the events dispatcher
+            Mockito.verify(mockEventsDispatcher, Mockito.never())
+                    .offer(ArgumentMatchers.any(Event.class));
+            final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    edgeEventCaptor.capture(),
+                                    ArgumentMatchers.eq(10000L),
+                                    ArgumentMatchers.any(AdobeCallbackWithError.class)));
+
+            final Map<String, Object> edgeResponseData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource(
+                                                    "json/EVENT_DATA_EDGE_RESPONSE_VALID.json"),
+                                    HashMap.class);
+            edgeResponseData.put(
+                    "requestEventId", edgeEventCaptor.getValue().getUniqueIdentifier());
+            final Event edgeResponseEvent =
+                    new Event.Builder(
+                                    "AEP Response Event Handle",
+                                    "com.adobe.eventType.edge",
+                                    "personalization:decisions")
+                            .setEventData(edgeResponseData)
+                            .build();
+
+            // test
+            extension.handleEdgeResponse(edgeResponseEvent);
+
+            // verify propositions are committed before the Edge completion response
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions =
+                    extension.getCachedPropositions();
+            Assert.assertEquals(1, cachedPropositions.size());
+            Assert.assertNotNull(cachedPropositions.get(testScope));
+            Assert.assertEquals(
+                    1,
+                    OptimizeExtension.peekCachedPropositions(Collections.singletonList(testScope))
+                            .size());
+            Assert.assertEquals(1, extension.getUpdateRequestEventIdsInProgress().size());
+            Mockito.verify(mockEventsDispatcher, Mockito.times(1)).resume();
+        }
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_GetPropositions_streamedScopeServedImmediately()
+            throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class);
+                MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.streamPropositions", true);
+                        }
+                    });
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final DecisionScope testScope =
+                    new DecisionScope(
+                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ==");
+            final DecisionScope pendingScope = new DecisionScope("myTargetLocationB");
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("timeout", 10000L);
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                            add(pendingScope.toEventData());
+                        }
+                    });
+            extension.handleOptimizeRequestContent(
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build());
+
+            final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    edgeEventCaptor.capture(),
+                                    ArgumentMatchers.eq(10000L),
+                                    ArgumentMatchers.any(AdobeCallbackWithError.class)));
+
+            final Map<String, Object> edgeResponseData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource(
+                                                    "json/EVENT_DATA_EDGE_RESPONSE_VALID.json"),
+                                    HashMap.class);
+            edgeResponseData.put(
+                    "requestEventId", edgeEventCaptor.getValue().getUniqueIdentifier());
+            extension.handleEdgeResponse(
+                    new Event.Builder(
+                                    "AEP Response Event Handle",
+                                    "com.adobe.eventType.edge",
+                                    "personalization:decisions")
+                            .setEventData(edgeResponseData)
+                            .build());
+
+            final Map<String, Object> getEventData = new HashMap<>();
+            getEventData.put("requesttype", "getpropositions");
+            getEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(testScope.toEventData());
+                        }
+                    });
+            final Event getEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(getEventData)
+                            .build();
+
+            final Map<String, Object> pendingGetEventData = new HashMap<>();
+            pendingGetEventData.put("requesttype", "getpropositions");
+            pendingGetEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(pendingScope.toEventData());
+                        }
+                    });
+            final Event pendingGetEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(pendingGetEventData)
+                            .build();
+
+            // test
+            extension.handleOptimizeRequestContent(getEvent);
+            extension.handleOptimizeRequestContent(pendingGetEvent);
+
+            // verify delivered scope is served right away, pending scope waits in the queue
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(2)).dispatch(eventCaptor.capture());
+            final Event responseEvent = eventCaptor.getAllValues().get(1);
+            Assert.assertEquals("com.adobe.eventSource.responseContent", responseEvent.getSource());
+            Assert.assertEquals(getEvent.getUniqueIdentifier(), responseEvent.getResponseID());
+            final List<Map<String, Object>> propositionsList =
+                    (List<Map<String, Object>>) responseEvent.getEventData().get("propositions");
+            Assert.assertEquals(1, propositionsList.size());
+
+            Mockito.verify(mockEventsDispatcher, Mockito.times(1)).offer(pendingGetEvent);
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositionsComplete_metricsEventsEnabled() throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class);
+                MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.metricsEventsEnabled", true);
+                        }
+                    });
+            extension.handleSharedStateUpdate(createConfigurationSharedStateEvent());
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("timeout", 10000L);
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myTargetLocationA").toEventData());
+                        }
+                    });
+            extension.handleOptimizeRequestContent(
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build());
+
+            final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockEventsDispatcher, Mockito.times(1)).offer(edgeEventCaptor.capture());
+            final String edgeEventId = edgeEventCaptor.getValue().getUniqueIdentifier();
+
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Complete",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.contentComplete")
+                            .setEventData(
+                                    new HashMap<String, Object>() {
+                                        {
+                                            put("completedUpdateRequestForEventId", edgeEventId);
+                                        }
+                                    })
+                            .build();
+
+            // test
+            extension.handleUpdatePropositionsCompleted(testEvent);
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            Mockito.verify(mockExtensionApi, Mockito.times(1)).dispatch(eventCaptor.capture());
+            final Event metricsEvent = eventCaptor.getValue();
+            Assert.assertEquals("Optimize Metrics", metricsEvent.getName());
+            Assert.assertEquals("com.adobe.eventType.optimize", metricsEvent.getType());
+            Assert.assertEquals("com.adobe.eventSource.notification", metricsEvent.getSource());
+
+            final Map<String, Object> metrics =
+                    (Map<String, Object>) metricsEvent.getEventData().get("metrics");
+            final Map<String, Object> stages = (Map<String, Object>) metrics.get("stages");
+            Assert.assertTrue(stages.containsKey("cacheCommit"));
+            final Map<String, Object> counters = (Map<String, Object>) metrics.get("counters");
+            Assert.assertTrue((long) counters.get("updateRequests") >= 1L);
+        }
+    }
+
+    @Test
+    public void testHandleOptimizeRequestContent_GetPropositions_recordsCacheStatistics()
+            throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            OptimizeCacheStats.reset();
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final Map<String, Object> testPropositionData =
+                    new ObjectMapper()
+                            .readValue(
+                                    getClass()
+                                            .getClassLoader()
+                                            .getResource("json/PROPOSITION_VALID.json"),
+                                    HashMap.class);
+            final OptimizeProposition testOptimizeProposition =
+                    OptimizeProposition.fromEventData(testPropositionData);
+            final DecisionScope cachedScope = new DecisionScope("myTargetLocationA");
+            final DecisionScope updatingScope = new DecisionScope("myTargetLocationB");
+            final DecisionScope missingScope = new DecisionScope("myTargetLocationC");
+            final Map<DecisionScope, OptimizeProposition> cachedPropositions = new HashMap<>();
+            cachedPropositions.put(cachedScope, testOptimizeProposition);
+            cachedPropositions.put(updatingScope, testOptimizeProposition);
+            extension.setCachedPropositions(cachedPropositions);
+            extension.setUpdateRequestEventIdsInProgress(
+                    "AAAAAAAA-AAAA-AAAA-AAAA-AAAAAAAAAAAA",
+                    new ArrayList<DecisionScope>() {
+                        {
+                            add(updatingScope);
+                        }
+                    });
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "getpropositions");
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(cachedScope.toEventData());
+                            add(updatingScope.toEventData());
+                            add(missingScope.toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            // test
+            extension.handleOptimizeRequestContent(testEvent);
+            extension.handleOptimizeRequestContent(testEvent);
+
+            // verify
+            final Map<String, Object> statistics = OptimizeCacheStats.snapshot();
+            Assert.assertEquals(3, statistics.size());
+
+            final Map<String, Object> cachedScopeStats =
+                    (Map<String, Object>) statistics.get("myTargetLocationA");
+            Assert.assertEquals(2L, cachedScopeStats.get("requests"));
+            Assert.assertEquals(2L, cachedScopeStats.get("hits"));
+            Assert.assertEquals(0L, cachedScopeStats.get("staleServes"));
+
+            final Map<String, Object> updatingScopeStats =
+                    (Map<String, Object>) statistics.get("myTargetLocationB");
+            Assert.assertEquals(2L, updatingScopeStats.get("inFlightWaits"));
+            Assert.assertEquals(0L, updatingScopeStats.get("hits"));
+
+            final Map<String, Object> missingScopeStats =
+                    (Map<String, Object>) statistics.get("myTargetLocationC");
+            Assert.assertEquals(2L, missingScopeStats.get("misses"));
+
+            Mockito.verify(mockEventsDispatcher, Mockito.times(2)).offer(testEvent);
+        }
+    }
+
+    @Test
+    public void testHandleUpdatePropositions_traceSpansCorrelatedByRequestEventId() {
+        final List<OptimizeTraceSpan> spans = new ArrayList<>();
+        OptimizeTracer.setSink(spans::add);
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class);
+                MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                        }
+                    });
+            extension.setEventsDispatcher(mockEventsDispatcher);
+
+            final Map<String, Object> testEventData = new HashMap<>();
+            testEventData.put("requesttype", "updatepropositions");
+            testEventData.put("timeout", 10000L);
+            testEventData.put(
+                    "decisionscopes",
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myTargetLocationA").toEventData());
+                        }
+                    });
+            final Event testEvent =
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(testEventData)
+                            .build();
+
+            // test
+            extension.handleOptimizeRequestContent(testEvent);
+
+            final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    edgeEventCaptor.capture(),
+                                    ArgumentMatchers.eq(10000L),
+                                    callbackCaptor.capture()));
+            callbackCaptor.getValue().fail(AdobeError.CALLBACK_TIMEOUT);
+
+            // verify
+            Assert.assertEquals(2, spans.size());
+            final OptimizeTraceSpan handleUpdateSpan = spans.get(0);
+            Assert.assertEquals(testEvent.getUniqueIdentifier(), handleUpdateSpan.getTraceId());
+            Assert.assertEquals("extension.handleUpdatePropositions", handleUpdateSpan.getName());
+            Assert.assertEquals(1, handleUpdateSpan.getAttributes().get("chunkCount"));
+
+            final OptimizeTraceSpan edgeRequestSpan = spans.get(1);
+            Assert.assertEquals(testEvent.getUniqueIdentifier(), edgeRequestSpan.getTraceId());
+            Assert.assertEquals("extension.edgeRequest", edgeRequestSpan.getName());
+            Assert.assertEquals(
+                    edgeEventCaptor.getValue().getUniqueIdentifier(),
+                    edgeRequestSpan.getAttributes().get("edgeEventId"));
+            Assert.assertEquals(
+                    AdobeError.CALLBACK_TIMEOUT.getErrorName(),
+                    edgeRequestSpan.getAttributes().get("error"));
+        } finally {
+            OptimizeTracer.setSink(null);
+        }
+    }
+
+    @Test
+    public void testEventsDispatcher_recordsQueueDepthPauseAndWaitMetrics() throws Exception {
+        try (MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class);
+                MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // setup
+            OptimizeMetrics.reset();
+            setConfigurationSharedState(
+                    SharedStateStatus.SET,
+                    new HashMap<String, Object>() {
+                        {
+                            put("edge.configId", "ffffffff-ffff-ffff-ffff-ffffffffffff");
+                            put("optimize.dispatcherWaitWarningThresholdMillis", 1L);
+                        }
+                    });
+            extension.handleSharedStateUpdate(createConfigurationSharedStateEvent());
+            final List<Map<String, Object>> decisionScopes =
+                    new ArrayList<Map<String, Object>>() {
+                        {
+                            add(new DecisionScope("myTargetLocationA").toEventData());
+                        }
+                    };
+
+            final Map<String, Object> updateEventData = new HashMap<>();
+            updateEventData.put("requesttype", "updatepropositions");
+            updateEventData.put("timeout", 10000L);
+            updateEventData.put("decisionscopes", decisionScopes);
+            extension.handleOptimizeRequestContent(
+                    new Event.Builder(
+                                    "Optimize Update Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(updateEventData)
+                            .build());
+
+            final Map<String, Object> getEventData = new HashMap<>();
+            getEventData.put("requesttype", "getpropositions");
+            getEventData.put("decisionscopes", decisionScopes);
+            extension.handleOptimizeRequestContent(
+                    new Event.Builder(
+                                    "Optimize Get Propositions Request",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.requestContent")
+                            .setEventData(getEventData)
+                            .build());
+
+            final ArgumentCaptor<Event> edgeEventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    edgeEventCaptor.capture(),
+                                    ArgumentMatchers.eq(10000L),
+                                    ArgumentMatchers.any(AdobeCallbackWithError.class)));
+            Thread.sleep(50);
+
+            // test
+            extension.handleUpdatePropositionsCompleted(
+                    new Event.Builder(
+                                    "Optimize Update Propositions Complete",
+                                    "com.adobe.eventType.optimize",
+                                    "com.adobe.eventSource.contentComplete")
+                            .setEventData(
+                                    new HashMap<String, Object>() {
+                                        {
+                                            put(
+                                                    "completedUpdateRequestForEventId",
+                                                    edgeEventCaptor
+                                                            .getValue()
+                                                            .getUniqueIdentifier());
+                                        }
+                                    })
+                            .build());
+
+            // verify
+            Map<String, Object> gauges = null;
+            for (int i = 0; i < 40; i++) {
+                gauges = (Map<String, Object>) OptimizeMetrics.snapshot().get("gauges");
+                if (Long.valueOf(0L).equals(gauges.get("eventsQueueDepth"))) {
+                    break;
+                }
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(0L, gauges.get("eventsQueueDepth"));
+            Assert.assertEquals(2L, gauges.get("eventsQueueMaxDepth"));
+
+            final Map<String, Object> metrics = OptimizeMetrics.snapshot();
+            final Map<String, Object> stages = (Map<String, Object>) metrics.get("stages");
+            final Map<String, Object> dispatcherPause =
+                    (Map<String, Object>) stages.get("dispatcherPause");
+            Assert.assertEquals(1L, dispatcherPause.get("count"));
+            Assert.assertTrue((long) dispatcherPause.get("maxMicros") >= 50000L);
+            final Map<String, Object> dispatcherWait =
+                    (Map<String, Object>) stages.get("dispatcherWait");
+            Assert.assertEquals(1L, dispatcherWait.get("count"));
+            final Map<String, Object> counters = (Map<String, Object>) metrics.get("counters");
+            Assert.assertEquals(1L, counters.get("dispatcherWaitWarnings"));
+        }
+    }
 }
@@ -0,0 +1,118 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptimizeFootprintTests {
+
+    @Test
+    public void testEstimateValue_string() {
+        // verify
+        Assert.assertEquals(0, OptimizeFootprint.estimateValue(null));
+        Assert.assertTrue(
+                OptimizeFootprint.estimateValue("abcdefghijklmnop")
+                        > OptimizeFootprint.estimateValue("a"));
+        Assert.assertEquals(
+                OptimizeFootprint.estimateValue("abc"), OptimizeFootprint.estimateValue("xyz"));
+    }
+
+    @Test
+    public void testEstimateValue_nestedCollections() {
+        // setup
+        final Map<String, Object> inner = new HashMap<>();
+        inner.put("key", "value");
+        final List<Object> list = new ArrayList<>();
+        list.add(inner);
+        list.add(42);
+        final Map<String, Object> outer = new HashMap<>();
+        outer.put("list", list);
+
+        // verify
+        final long innerBytes = OptimizeFootprint.estimateValue(inner);
+        Assert.assertTrue(innerBytes > OptimizeFootprint.estimateValue(new HashMap<>()));
+        Assert.assertTrue(OptimizeFootprint.estimateValue(list) > innerBytes);
+        Assert.assertTrue(
+                OptimizeFootprint.estimateValue(outer) > OptimizeFootprint.estimateValue(list));
+    }
+
+    @Test
+    public void testEstimateProposition_largerContentRetainsMoreBytes() {
+        // setup
+        final OptimizeProposition smallProposition = createProposition("myMbox1", 10);
+        final OptimizeProposition largeProposition = createProposition("myMbox2", 1000);
+
+        // verify
+        Assert.assertTrue(
+                OptimizeFootprint.estimateProposition(largeProposition)
+                        >= OptimizeFootprint.estimateProposition(smallProposition) + 2 * 990);
+    }
+
+    @Test
+    public void testGetEstimatedRetainedBytes_memoized() {
+        // setup
+        final OptimizeProposition proposition = createProposition("myMbox", 100);
+
+        // test
+        final long estimatedBytes = proposition.getEstimatedRetainedBytes();
+
+        // verify
+        Assert.assertEquals(OptimizeFootprint.estimateProposition(proposition), estimatedBytes);
+        Assert.assertEquals(estimatedBytes, proposition.getEstimatedRetainedBytes());
+    }
+
+    @Test
+    public void testTopScopes_sortedByDecreasingSize() {
+        // setup
+        final Map<DecisionScope, OptimizeProposition> propositions = new HashMap<>();
+        propositions.put(new DecisionScope("small"), createProposition("small", 10));
+        propositions.put(new DecisionScope("large"), createProposition("large", 1000));
+        propositions.put(new DecisionScope("medium"), createProposition("medium", 100));
+
+        // test
+        final List<Map<String, Object>> topScopes = OptimizeFootprint.topScopes(propositions, 2);
+
+        // verify
+        Assert.assertEquals(2, topScopes.size());
+        Assert.assertEquals("large", topScopes.get(0).get("scope"));
+        Assert.assertEquals("medium", topScopes.get(1).get("scope"));
+        final long largeBytes = (long) topScopes.get(0).get("bytes");
+        final long mediumBytes = (long) topScopes.get(1).get("bytes");
+        Assert.assertTrue(largeBytes > mediumBytes);
+        Assert.assertEquals(
+                OptimizeFootprint.totalBytes(propositions),
+                propositions.get(new DecisionScope("small")).getEstimatedRetainedBytes()
+                        + largeBytes
+                        + mediumBytes);
+    }
+
+    private static OptimizeProposition createProposition(
+            final String scope, final int contentLength) {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < contentLength; i++) {
+            content.append('x');
+        }
+        final Offer offer =
+                new Offer.Builder("offer-" + scope, OfferType.TEXT, content.toString()).build();
+        return new OptimizeProposition(
+                "proposition-" + scope,
+                Collections.singletonList(offer),
+                scope,
+                new HashMap<String, Object>());
+    }
+}
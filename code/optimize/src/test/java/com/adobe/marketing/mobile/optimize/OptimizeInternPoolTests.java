@@ -0,0 +1,231 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({"unchecked"})
+public class OptimizeInternPoolTests {
+    @Test
+    public void testInternMap_equalMapsShareInstance() {
+        // setup
+        final Map<String, Object> first = createScopeDetails("111111", "Experience A");
+        final Map<String, Object> second = createScopeDetails("111111", "Experience A");
+        final Map<String, Object> other = createScopeDetails("111111", "Experience B");
+        Assert.assertNotSame(first, second);
+
+        // test
+        final Map<String, Object> internedFirst = OptimizeInternPool.internMap(first);
+        final Map<String, Object> internedSecond = OptimizeInternPool.internMap(second);
+        final Map<String, Object> internedOther = OptimizeInternPool.internMap(other);
+
+        // verify
+        Assert.assertEquals(first, internedFirst);
+        Assert.assertSame(internedFirst, internedSecond);
+        Assert.assertNotSame(internedFirst, internedOther);
+        Assert.assertEquals(other, internedOther);
+        // the equal nested activity is shared by the different scope details.
+        Assert.assertSame(internedFirst.get("activity"), internedOther.get("activity"));
+        Assert.assertSame(internedFirst.get("strategies"), internedOther.get("strategies"));
+    }
+
+    @Test
+    public void testInternMap_unmodifiableCopy() {
+        // setup
+        final Map<String, Object> scopeDetails = createScopeDetails("222222", "Experience A");
+
+        // test
+        final Map<String, Object> interned = OptimizeInternPool.internMap(scopeDetails);
+        scopeDetails.put("decisionProvider", "AJO");
+
+        // verify
+        Assert.assertEquals("TGT", interned.get("decisionProvider"));
+        try {
+            interned.put("decisionProvider", "AJO");
+            Assert.fail("Interned map should be unmodifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            ((Map<String, Object>) interned.get("activity")).put("id", "333333");
+            Assert.fail("Interned nested map should be unmodifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            ((List<Object>) interned.get("strategies")).add("strategy");
+            Assert.fail("Interned nested list should be unmodifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testInternStringListAndMap() {
+        // setup
+        final Map<String, String> characteristics = new HashMap<>();
+        characteristics.put("mobile", "true");
+
+        // verify
+        Assert.assertSame(
+                OptimizeInternPool.internStringList(new ArrayList<>(Arrays.asList("en-us"))),
+                OptimizeInternPool.internStringList(Collections.singletonList("en-us")));
+        Assert.assertSame(
+                OptimizeInternPool.internStringMap(characteristics),
+                OptimizeInternPool.internStringMap(new HashMap<>(characteristics)));
+        Assert.assertNull(OptimizeInternPool.internMap(null));
+        Assert.assertNull(OptimizeInternPool.internStringMap(null));
+        Assert.assertNull(OptimizeInternPool.internStringList(null));
+    }
+
+    @Test
+    public void testInternContent_equalContentShareInstance() {
+        // setup
+        final String content = createContent(100);
+        final String equalContent = new String(content);
+        Assert.assertNotSame(content, equalContent);
+
+        // verify
+        Assert.assertSame(
+                OptimizeInternPool.internContent(content),
+                OptimizeInternPool.internContent(equalContent));
+        Assert.assertNull(OptimizeInternPool.internContent(null));
+    }
+
+    @Test
+    public void testInternContent_largeContentNotInterned() {
+        // setup
+        final String content = createContent(1000);
+        Assert.assertTrue(content.length() > OptimizeConstants.MAX_INTERNED_CONTENT_LENGTH);
+        final String equalContent = new String(content);
+
+        // verify
+        Assert.assertSame(content, OptimizeInternPool.internContent(content));
+        Assert.assertSame(equalContent, OptimizeInternPool.internContent(equalContent));
+    }
+
+    @Test
+    public void testIntern_propositionsShareScopeDetailsAndOfferData() {
+        // setup
+        final OptimizeProposition first =
+                OptimizeProposition.fromEventData(createPropositionData("mbox1"));
+        final OptimizeProposition second =
+                OptimizeProposition.fromEventData(createPropositionData("mbox2"));
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+        // propositions are not interned when they are created from event data.
+        Assert.assertNotSame(first.getSharedScopeDetails(), second.getSharedScopeDetails());
+
+        // test
+        first.intern();
+        second.intern();
+
+        // verify
+        Assert.assertSame(first.getSharedScopeDetails(), second.getSharedScopeDetails());
+        final Offer firstOffer = first.getOffers().get(0);
+        final Offer secondOffer = second.getOffers().get(0);
+        Assert.assertSame(firstOffer.getSharedLanguage(), secondOffer.getSharedLanguage());
+        Assert.assertSame(
+                firstOffer.getSharedCharacteristics(), secondOffer.getSharedCharacteristics());
+        Assert.assertEquals(
+                createScopeDetails("111111", "Experience A"), first.getSharedScopeDetails());
+    }
+
+    @Test
+    public void testInternMap_concurrentThreadsShareInstance() throws Exception {
+        // setup
+        final int threadsCount = 8;
+        final Map<String, Object>[] interned = new Map[threadsCount];
+        final Thread[] threads = new Thread[threadsCount];
+        for (int i = 0; i < threadsCount; i++) {
+            final int index = i;
+            threads[i] =
+                    new Thread(
+                            () -> {
+                                for (int j = 0; j < 100; j++) {
+                                    OptimizeInternPool.internMap(
+                                            createScopeDetails("4444" + j, "Experience " + index));
+                                }
+                                interned[index] =
+                                        OptimizeInternPool.internMap(
+                                                createScopeDetails("555555", "Experience A"));
+                            });
+        }
+
+        // test
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        // verify
+        for (final Map<String, Object> scopeDetails : interned) {
+            Assert.assertSame(interned[0], scopeDetails);
+        }
+    }
+
+    private static String createContent(final int paragraphs) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            builder.append("<p>Legal footer</p>");
+        }
+        return builder.toString();
+    }
+
+    private static Map<String, Object> createScopeDetails(
+            final String activityId, final String experienceName) {
+        final Map<String, Object> activity = new HashMap<>();
+        activity.put("id", activityId);
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("id", "0");
+        experience.put("name", experienceName);
+        final Map<String, Object> strategy = new HashMap<>();
+        strategy.put("algorithmID", "0");
+        strategy.put("trafficType", "0");
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        scopeDetails.put("activity", activity);
+        scopeDetails.put("experience", experience);
+        scopeDetails.put("strategies", new ArrayList<Object>(Collections.singletonList(strategy)));
+        return scopeDetails;
+    }
+
+    private static Map<String, Object> createPropositionData(final String scope) {
+        final Map<String, Object> characteristics = new HashMap<>();
+        characteristics.put("mobile", "true");
+        final Map<String, Object> itemData = new HashMap<>();
+        itemData.put("id", "offer-" + scope);
+        itemData.put("format", "text/html");
+        itemData.put("content", "<h1>" + scope + "</h1>");
+        itemData.put("language", new ArrayList<Object>(Collections.singletonList("en-us")));
+        itemData.put("characteristics", characteristics);
+        final Map<String, Object> item = new HashMap<>();
+        item.put("id", "offer-" + scope);
+        item.put("schema", "https://ns.adobe.com/personalization/html-content-item");
+        item.put("data", itemData);
+        final Map<String, Object> propositionData = new HashMap<>();
+        propositionData.put("id", "proposition-" + scope);
+        propositionData.put("scope", scope);
+        propositionData.put("scopeDetails", createScopeDetails("111111", "Experience A"));
+        propositionData.put("items", new ArrayList<Object>(Collections.singletonList(item)));
+        return propositionData;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+public class OptimizeMetricsTests {
+
+    @Before
+    public void setup() {
+        OptimizeMetrics.reset();
+    }
+
+    @After
+    public void teardown() {
+        OptimizeMetrics.reset();
+    }
+
+    @Test
+    public void testSnapshot_noMetricsRecorded() {
+        // test
+        final Map<String, Object> metrics = OptimizeMetrics.snapshot();
+
+        // verify
+        Assert.assertTrue(((Map<String, Object>) metrics.get("stages")).isEmpty());
+        Assert.assertTrue(((Map<String, Object>) metrics.get("counters")).isEmpty());
+    }
+
+    @Test
+    public void testRecordMillis_stagePercentiles() {
+        // test
+        for (int i = 1; i <= 100; i++) {
+            OptimizeMetrics.recordMillis("edgeRoundTrip", i);
+        }
+
+        // verify
+        final Map<String, Object> stages =
+                (Map<String, Object>) OptimizeMetrics.snapshot().get("stages");
+        final Map<String, Object> edgeRoundTrip = (Map<String, Object>) stages.get("edgeRoundTrip");
+        Assert.assertEquals(100L, edgeRoundTrip.get("count"));
+        Assert.assertEquals(5050000L, edgeRoundTrip.get("totalMicros"));
+        Assert.assertEquals(100000L, edgeRoundTrip.get("maxMicros"));
+        assertWithinBucketError(50000L, (long) edgeRoundTrip.get("p50Micros"));
+        assertWithinBucketError(90000L, (long) edgeRoundTrip.get("p90Micros"));
+        assertWithinBucketError(99000L, (long) edgeRoundTrip.get("p99Micros"));
+    }
+
+    @Test
+    public void testRecordNanos_negativeLatencyRecordedAsZero() {
+        // test
+        OptimizeMetrics.recordNanos("eventHubHop", -5000L);
+
+        // verify
+        final Map<String, Object> stages =
+                (Map<String, Object>) OptimizeMetrics.snapshot().get("stages");
+        final Map<String, Object> eventHubHop = (Map<String, Object>) stages.get("eventHubHop");
+        Assert.assertEquals(1L, eventHubHop.get("count"));
+        Assert.assertEquals(0L, eventHubHop.get("maxMicros"));
+        Assert.assertEquals(0L, eventHubHop.get("p99Micros"));
+    }
+
+    @Test
+    public void testIncrement_concurrentRecording() throws Exception {
+        // setup
+        final int threadCount = 8;
+        final int iterations = 1000;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread =
+                    new Thread(
+                            () -> {
+                                try {
+                                    startLatch.await();
+                                    for (int j = 0; j < iterations; j++) {
+                                        OptimizeMetrics.increment("getRequests");
+                                        OptimizeMetrics.recordNanos("cacheCommit", 1000L * j);
+                                    }
+                                } catch (InterruptedException ignored) {
+                                } finally {
+                                    doneLatch.countDown();
+                                }
+                            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        // test
+        startLatch.countDown();
+        Assert.assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+
+        // verify
+        final Map<String, Object> metrics = OptimizeMetrics.snapshot();
+        final Map<String, Object> counters = (Map<String, Object>) metrics.get("counters");
+        Assert.assertEquals((long) threadCount * iterations, counters.get("getRequests"));
+        final Map<String, Object> cacheCommit =
+                (Map<String, Object>)
+                        ((Map<String, Object>) metrics.get("stages")).get("cacheCommit");
+        Assert.assertEquals((long) threadCount * iterations, cacheCommit.get("count"));
+        Assert.assertEquals((long) iterations - 1, cacheCommit.get("maxMicros"));
+    }
+
+    @Test
+    public void testLatencyHistogram_bucketBounds() {
+        long previousUpperBound = -1;
+        for (long micros = 0; micros < 1_000_000L; micros = micros * 2 + 1) {
+            final int index = OptimizeMetrics.LatencyHistogram.bucketIndex(micros);
+            final long upperBound = OptimizeMetrics.LatencyHistogram.bucketUpperBound(index);
+
+            // verify value falls in its bucket and buckets are ordered
+            Assert.assertTrue(micros <= upperBound);
+            Assert.assertTrue(upperBound > previousUpperBound);
+            assertWithinBucketError(micros, upperBound);
+            previousUpperBound = upperBound;
+        }
+    }
+
+    private static void assertWithinBucketError(final long expected, final long actual) {
+        Assert.assertTrue(
+                "Expected " + actual + " to be within 12.5% of " + expected,
+                Math.abs(actual - expected) <= Math.max(1, expected / 8));
+    }
+}
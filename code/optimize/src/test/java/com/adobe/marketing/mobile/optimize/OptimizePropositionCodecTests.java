@@ -0,0 +1,292 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings({"unchecked"})
+public class OptimizePropositionCodecTests {
+    @Test
+    public void testEncodeDecode_odeAndTargetPropositions() throws Exception {
+        // setup
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        propositions.add(loadProposition("json/PROPOSITION_VALID.json"));
+        propositions.add(loadProposition("json/PROPOSITION_VALID_TARGET.json"));
+        propositions.add(loadProposition("json/PROPOSITION_VALID_B.json"));
+
+        // test
+        final byte[] encoded = OptimizePropositionCodec.encode(propositions);
+        final List<OptimizeProposition> decoded =
+                OptimizePropositionCodec.decode(ByteBuffer.wrap(encoded));
+
+        // verify
+        Assert.assertEquals(propositions, decoded);
+        for (final OptimizeProposition proposition : decoded) {
+            for (final Offer offer : proposition.getOffers()) {
+                Assert.assertSame(proposition, offer.getProposition());
+            }
+        }
+    }
+
+    @Test
+    public void testEncodeDecode_nestedValuesAndNullableFields() {
+        // setup
+        final Map<String, Object> nested = new HashMap<>();
+        nested.put("int", -42);
+        nested.put("long", 1L << 40);
+        nested.put("double", 0.25);
+        nested.put("boolean", true);
+        nested.put("null", null);
+        nested.put("list", Arrays.asList("a", 1, false));
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        scopeDetails.put("nested", nested);
+        final Map<String, String> characteristics = new HashMap<>();
+        characteristics.put("mobile", "true");
+        final Offer offer =
+                new Offer.Builder(
+                                "offer\u00e9", OfferType.JSON, "{\"key\":\"\u00fcnicode \u2603\"}")
+                        .setEtag(null)
+                        .setScore(-7)
+                        .setSchema("https://ns.adobe.com/personalization/json-content-item")
+                        .setMeta(scopeDetails)
+                        .setLanguage(Collections.singletonList("en-us"))
+                        .setCharacteristics(characteristics)
+                        .build();
+        final Offer emptyOffer =
+                new Offer.Builder("emptyOffer", OfferType.UNKNOWN, "")
+                        .setLanguage(null)
+                        .setCharacteristics(null)
+                        .build();
+        final OptimizeProposition proposition =
+                new OptimizeProposition(
+                        "propositionId", Arrays.asList(offer, emptyOffer), "myMbox", scopeDetails);
+
+        // test
+        final List<OptimizeProposition> decoded =
+                OptimizePropositionCodec.decode(
+                        ByteBuffer.wrap(
+                                OptimizePropositionCodec.encode(
+                                        Collections.singletonList(proposition))));
+
+        // verify
+        Assert.assertEquals(1, decoded.size());
+        Assert.assertEquals(proposition, decoded.get(0));
+        final Offer decodedOffer = decoded.get(0).getOffers().get(0);
+        Assert.assertNull(decodedOffer.getEtag());
+        Assert.assertEquals(-7, decodedOffer.getScore());
+        Assert.assertEquals(OfferType.JSON, decodedOffer.getType());
+        Assert.assertNull(decoded.get(0).getOffers().get(1).getLanguage());
+        Assert.assertNull(decoded.get(0).getOffers().get(1).getCharacteristics());
+        final Map<String, Object> decodedNested =
+                (Map<String, Object>) decoded.get(0).getScopeDetails().get("nested");
+        Assert.assertEquals(1L << 40, decodedNested.get("long"));
+        Assert.assertTrue(decodedNested.containsKey("null"));
+    }
+
+    @Test
+    public void testEncode_repeatedStringsWrittenOnce() {
+        // setup
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            propositions.add(createProposition("mbox" + i));
+        }
+
+        // test
+        final byte[] encoded = OptimizePropositionCodec.encode(propositions);
+        final OptimizePropositionCodec.Reader reader =
+                OptimizePropositionCodec.Reader.open(ByteBuffer.wrap(encoded));
+
+        // verify
+        Assert.assertNotNull(reader);
+        Assert.assertEquals(100, reader.getPropositionCount());
+        final String schema = "https://ns.adobe.com/personalization/html-content-item";
+        Assert.assertEquals(1, countOccurrences(encoded, schema.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertSame(
+                reader.readProposition(3).getOffers().get(0).getSchema(),
+                reader.readProposition(97).getOffers().get(0).getSchema());
+    }
+
+    @Test
+    public void testReader_randomAccessFromDirectBuffer() {
+        // setup
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            propositions.add(createProposition("mbox" + i));
+        }
+        final byte[] encoded = OptimizePropositionCodec.encode(propositions);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 3);
+        buffer.put(new byte[] {1, 2, 3}).put(encoded);
+        buffer.position(3);
+
+        // test
+        final OptimizePropositionCodec.Reader reader = OptimizePropositionCodec.Reader.open(buffer);
+
+        // verify
+        Assert.assertNotNull(reader);
+        Assert.assertEquals("mbox7", reader.readScope(7));
+        Assert.assertEquals(propositions.get(7), reader.readProposition(7));
+        Assert.assertEquals(propositions.get(0), reader.readProposition(0));
+        Assert.assertEquals(3, buffer.position());
+        Assert.assertNull(reader.readProposition(10));
+    }
+
+    @Test
+    public void testDecode_invalidData() {
+        // setup
+        final byte[] encoded =
+                OptimizePropositionCodec.encode(
+                        Collections.singletonList(createProposition("myMbox")));
+        final byte[] unsupportedVersion = encoded.clone();
+        unsupportedVersion[4] = (byte) (OptimizePropositionCodec.VERSION + 1);
+        final byte[] truncated = Arrays.copyOf(encoded, encoded.length - 10);
+
+        // verify
+        Assert.assertNull(OptimizePropositionCodec.decode(ByteBuffer.wrap(new byte[0])));
+        Assert.assertNull(OptimizePropositionCodec.decode(ByteBuffer.wrap("{}".getBytes())));
+        Assert.assertNull(OptimizePropositionCodec.decode(ByteBuffer.wrap(unsupportedVersion)));
+        Assert.assertNull(OptimizePropositionCodec.decode(ByteBuffer.wrap(truncated)));
+    }
+
+    @Test
+    public void testReadProposition_countLargerThanDataIsInvalid() {
+        // setup
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("list", Collections.singletonList(true));
+        final byte[] encoded =
+                OptimizePropositionCodec.encode(
+                        Collections.singletonList(
+                                new OptimizeProposition(
+                                        "id",
+                                        Collections.<Offer>emptyList(),
+                                        "myMbox",
+                                        scopeDetails)));
+        // the list, with a single TRUE value, is followed by the offer count.
+        final int listPosition = indexOf(encoded, new byte[] {8, 1, 2, 0});
+        Assert.assertTrue(listPosition > 0);
+        final byte[] corrupted = new byte[encoded.length + 4];
+        System.arraycopy(encoded, 0, corrupted, 0, listPosition + 1);
+        System.arraycopy(
+                new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07},
+                0,
+                corrupted,
+                listPosition + 1,
+                5);
+        System.arraycopy(
+                encoded,
+                listPosition + 2,
+                corrupted,
+                listPosition + 6,
+                encoded.length - listPosition - 2);
+
+        // test
+        final OptimizePropositionCodec.Reader reader =
+                OptimizePropositionCodec.Reader.open(ByteBuffer.wrap(corrupted));
+
+        // verify
+        Assert.assertNotNull(reader);
+        Assert.assertFalse(reader.hasInvalidRecords());
+        Assert.assertNull(reader.readProposition(0));
+        Assert.assertTrue(reader.hasInvalidRecords());
+        Assert.assertNull(OptimizePropositionCodec.decode(ByteBuffer.wrap(corrupted)));
+    }
+
+    @Test
+    public void testReadProposition_valuesNestedTooDeepAreInvalid() {
+        // setup
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        Map<String, Object> nested = scopeDetails;
+        for (int i = 0; i <= OptimizePropositionCodec.MAX_VALUE_DEPTH; i++) {
+            final Map<String, Object> child = new HashMap<>();
+            nested.put("nested", child);
+            nested = child;
+        }
+        final byte[] encoded =
+                OptimizePropositionCodec.encode(
+                        Collections.singletonList(
+                                new OptimizeProposition(
+                                        "id",
+                                        Collections.<Offer>emptyList(),
+                                        "myMbox",
+                                        scopeDetails)));
+
+        // test
+        final OptimizePropositionCodec.Reader reader =
+                OptimizePropositionCodec.Reader.open(ByteBuffer.wrap(encoded));
+
+        // verify
+        Assert.assertNotNull(reader);
+        Assert.assertEquals("myMbox", reader.readScope(0));
+        Assert.assertNull(reader.readProposition(0));
+        Assert.assertTrue(reader.hasInvalidRecords());
+    }
+
+    private OptimizeProposition loadProposition(final String resource) throws Exception {
+        final Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass().getClassLoader().getResource(resource),
+                                HashMap.class);
+        return OptimizeProposition.fromEventData(propositionData);
+    }
+
+    private static OptimizeProposition createProposition(final String scope) {
+        final Map<String, Object> activity = new HashMap<>();
+        activity.put("id", "111111");
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "TGT");
+        scopeDetails.put("activity", activity);
+        final Offer offer =
+                new Offer.Builder("offer-" + scope, OfferType.HTML, "<h1>" + scope + "</h1>")
+                        .setSchema("https://ns.adobe.com/personalization/html-content-item")
+                        .build();
+        return new OptimizeProposition(
+                "proposition-" + scope, Collections.singletonList(offer), scope, scopeDetails);
+    }
+
+    private static int indexOf(final byte[] data, final byte[] pattern) {
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            boolean matches = true;
+            for (int j = 0; j < pattern.length && matches; j++) {
+                matches = data[i + j] == pattern[j];
+            }
+            if (matches) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int countOccurrences(final byte[] data, final byte[] pattern) {
+        int count = 0;
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            boolean matches = true;
+            for (int j = 0; j < pattern.length && matches; j++) {
+                matches = data[i + j] == pattern[j];
+            }
+            if (matches) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
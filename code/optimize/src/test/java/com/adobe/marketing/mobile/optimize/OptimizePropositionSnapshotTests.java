@@ -0,0 +1,200 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OptimizePropositionSnapshotTests {
+    private File snapshotFile;
+
+    @Before
+    public void setup() throws Exception {
+        snapshotFile = File.createTempFile("propositions", ".snapshot");
+    }
+
+    @After
+    public void teardown() {
+        snapshotFile.delete();
+    }
+
+    @Test
+    public void testWriteOpen_lazyLookupByScope() {
+        // setup
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            propositions.add(createProposition("mbox" + i));
+        }
+
+        // test
+        Assert.assertTrue(OptimizePropositionSnapshot.write(snapshotFile, propositions));
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+
+        // verify
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(100, snapshot.size());
+        Assert.assertEquals(propositions.get(42), snapshot.get("mbox42"));
+        Assert.assertSame(snapshot.get("mbox42"), snapshot.get("mbox42"));
+        Assert.assertEquals(propositions.get(0), snapshot.get("mbox0"));
+        Assert.assertNull(snapshot.get("unknownMbox"));
+    }
+
+    @Test
+    public void testGet_scopeHashCollisions() {
+        // setup, "Aa" and "BB" have the same hash code.
+        Assert.assertEquals("Aa".hashCode(), "BB".hashCode());
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        propositions.add(createProposition("Aa"));
+        propositions.add(createProposition("BB"));
+
+        // test
+        Assert.assertTrue(OptimizePropositionSnapshot.write(snapshotFile, propositions));
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+
+        // verify
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(propositions.get(0), snapshot.get("Aa"));
+        Assert.assertEquals(propositions.get(1), snapshot.get("BB"));
+        Assert.assertNull(snapshot.get("C#"));
+    }
+
+    @Test
+    public void testSupersede_excludedFromLookupAndGetAll() {
+        // setup
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        propositions.add(createProposition("mbox1"));
+        propositions.add(createProposition("mbox2"));
+        Assert.assertTrue(OptimizePropositionSnapshot.write(snapshotFile, propositions));
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+        Assert.assertNotNull(snapshot);
+        Assert.assertNotNull(snapshot.get("mbox1"));
+
+        // test
+        snapshot.supersede("mbox1");
+
+        // verify
+        Assert.assertNull(snapshot.get("mbox1"));
+        Assert.assertEquals(Collections.singletonList(propositions.get(1)), snapshot.getAll());
+    }
+
+    @Test
+    public void testGetAll_decodedPropositionsNotRetained() {
+        // setup
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        propositions.add(createProposition("mbox1"));
+        propositions.add(createProposition("mbox2"));
+        Assert.assertTrue(OptimizePropositionSnapshot.write(snapshotFile, propositions));
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+        Assert.assertNotNull(snapshot);
+        final OptimizeProposition lookedUp = snapshot.get("mbox1");
+
+        // test
+        final List<OptimizeProposition> all = snapshot.getAll();
+
+        // verify
+        Assert.assertEquals(propositions, all);
+        Assert.assertSame(lookedUp, all.get(0));
+        Assert.assertNotSame(all.get(1), snapshot.get("mbox2"));
+    }
+
+    @Test
+    public void testWrite_mergesPersistedPropositions() {
+        // setup
+        final List<OptimizeProposition> persisted = new ArrayList<>();
+        persisted.add(createProposition("mbox1"));
+        persisted.add(createProposition("mbox2"));
+        persisted.add(createProposition("mbox3"));
+        Assert.assertTrue(OptimizePropositionSnapshot.write(snapshotFile, persisted));
+        final OptimizePropositionSnapshot previousSnapshot =
+                OptimizePropositionSnapshot.open(snapshotFile);
+        Assert.assertNotNull(previousSnapshot);
+        previousSnapshot.supersede("mbox1");
+        final OptimizeProposition updated =
+                new OptimizeProposition(
+                        "proposition-updated",
+                        Collections.singletonList(
+                                new Offer.Builder("offer-updated", OfferType.TEXT, "updated")
+                                        .build()),
+                        "mbox2",
+                        new HashMap<String, Object>());
+        final List<OptimizeProposition> propositions = new ArrayList<>();
+        propositions.add(updated);
+        propositions.add(createProposition("mbox4"));
+
+        // test
+        Assert.assertTrue(
+                OptimizePropositionSnapshot.write(snapshotFile, propositions, previousSnapshot));
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+
+        // verify
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(3, snapshot.size());
+        Assert.assertNull(snapshot.get("mbox1"));
+        Assert.assertEquals(updated, snapshot.get("mbox2"));
+        Assert.assertEquals(persisted.get(2), snapshot.get("mbox3"));
+        Assert.assertEquals(propositions.get(1), snapshot.get("mbox4"));
+    }
+
+    @Test
+    public void testWrite_replacesExistingSnapshot() {
+        // setup
+        Assert.assertTrue(
+                OptimizePropositionSnapshot.write(
+                        snapshotFile, Collections.singletonList(createProposition("mbox1"))));
+        final OptimizePropositionSnapshot previousSnapshot =
+                OptimizePropositionSnapshot.open(snapshotFile);
+
+        // test
+        Assert.assertTrue(
+                OptimizePropositionSnapshot.write(
+                        snapshotFile, Collections.singletonList(createProposition("mbox2"))));
+        final OptimizePropositionSnapshot snapshot = OptimizePropositionSnapshot.open(snapshotFile);
+
+        // verify
+        Assert.assertNotNull(snapshot);
+        Assert.assertNull(snapshot.get("mbox1"));
+        Assert.assertNotNull(snapshot.get("mbox2"));
+        Assert.assertNotNull(previousSnapshot);
+        Assert.assertEquals(createProposition("mbox1"), previousSnapshot.get("mbox1"));
+        Assert.assertFalse(new File(snapshotFile.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void testOpen_missingOrInvalidFile() throws Exception {
+        // setup
+        try (FileOutputStream output = new FileOutputStream(snapshotFile)) {
+            output.write("not a snapshot".getBytes());
+        }
+
+        // verify
+        Assert.assertNull(OptimizePropositionSnapshot.open(snapshotFile));
+        Assert.assertNull(OptimizePropositionSnapshot.open(new File(snapshotFile + ".missing")));
+    }
+
+    private static OptimizeProposition createProposition(final String scope) {
+        final Offer offer =
+                new Offer.Builder("offer-" + scope, OfferType.TEXT, "content-" + scope).build();
+        return new OptimizeProposition(
+                "proposition-" + scope,
+                Collections.singletonList(offer),
+                scope,
+                new HashMap<String, Object>());
+    }
+}
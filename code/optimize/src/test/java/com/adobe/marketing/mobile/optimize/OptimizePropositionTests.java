@@ -190,4 +190,65 @@ public class OptimizePropositionTests {
                 "AT:eyJhY3Rpdml0eUlkIjoiMTI1NTg5IiwiZXhwZXJpZW5jZUlkIjoiMCJ9",
                 decisioning.get("propositionID"));
     }
+
+    @Test
+    public void testToEventData_createdOnceAndUnmodifiable() throws Exception {
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+
+        // test
+        final Map<String, Object> eventData = optimizeProposition.toEventData();
+
+        // verify
+        Assert.assertSame(eventData, optimizeProposition.toEventData());
+        Assert.assertEquals(optimizeProposition, OptimizeProposition.fromEventData(eventData));
+        final List<Map<String, Object>> items = (List<Map<String, Object>>) eventData.get("items");
+        Assert.assertSame(optimizeProposition.getOffers().get(0).toEventData(), items.get(0));
+        try {
+            eventData.put("scope", "otherScope");
+            Assert.fail("Proposition event data should be unmodifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            items.clear();
+            Assert.fail("Proposition items should be unmodifiable.");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testGetScopeDetails_internedPropositionReturnsModifiableCopy() throws Exception {
+        Map<String, Object> propositionData =
+                new ObjectMapper()
+                        .readValue(
+                                getClass()
+                                        .getClassLoader()
+                                        .getResource("json/PROPOSITION_VALID_TARGET.json"),
+                                HashMap.class);
+        final OptimizeProposition optimizeProposition =
+                OptimizeProposition.fromEventData(propositionData);
+        Assert.assertNotNull(optimizeProposition);
+        optimizeProposition.intern();
+        final Map<String, Object> expectedScopeDetails = optimizeProposition.getScopeDetails();
+
+        // test
+        final Map<String, Object> scopeDetails = optimizeProposition.getScopeDetails();
+        scopeDetails.put("decisionProvider", "AJO");
+        ((Map<String, Object>) scopeDetails.get("activity")).put("id", "111111");
+        ((List<Object>) scopeDetails.get("strategies")).clear();
+
+        // verify
+        Assert.assertEquals(expectedScopeDetails, optimizeProposition.getScopeDetails());
+        Assert.assertEquals("TGT", optimizeProposition.getScopeDetails().get("decisionProvider"));
+    }
 }
@@ -22,6 +22,7 @@ import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.services.Log;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -222,6 +223,150 @@ public class OptimizeTests {
         }
     }
 
+    @Test
+    public void testUpdatePropositionsCancellable_cancel() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            // setup
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            final List<DecisionScope> scopes = new ArrayList<>();
+            scopes.add(
+                    new DecisionScope(
+                            "eyJhY3Rpdml0eUlkIjoieGNvcmU6b2ZmZXItYWN0aXZpdHk6MTExMTExMTExMTExMTExMSIsInBsYWNlbWVudElkIjoieGNvcmU6b2ZmZXItcGxhY2VtZW50OjExMTExMTExMTExMTExMTEifQ=="));
+
+            // test
+            final UpdatePropositionsHandle handle =
+                    Optimize.updatePropositionsCancellable(
+                            scopes,
+                            null,
+                            null,
+                            10,
+                            new AdobeCallbackWithError<Map<DecisionScope, OptimizeProposition>>() {
+                                @Override
+                                public void fail(AdobeError adobeError) {
+                                    responseError = adobeError;
+                                }
+
+                                @Override
+                                public void call(
+                                        Map<DecisionScope, OptimizeProposition> propositionsMap) {
+                                    responseMap = propositionsMap;
+                                }
+                            });
+            Assert.assertNotNull(handle);
+            Assert.assertFalse(handle.isCancelled());
+
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError<Event>> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()));
+            final Event updateEvent = eventCaptor.getValue();
+            Assert.assertEquals(updateEvent.getUniqueIdentifier(), handle.getRequestEventId());
+
+            handle.cancel();
+            handle.cancel();
+
+            // verify
+            Assert.assertTrue(handle.isCancelled());
+            final ArgumentCaptor<Event> cancelEventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(
+                    () -> MobileCore.dispatchEvent(cancelEventCaptor.capture()), times(1));
+            final Event cancelEvent = cancelEventCaptor.getValue();
+            Assert.assertEquals("com.adobe.eventType.optimize", cancelEvent.getType());
+            Assert.assertEquals("com.adobe.eventSource.requestContent", cancelEvent.getSource());
+            final Map<String, Object> cancelEventData = cancelEvent.getEventData();
+            Assert.assertEquals("cancelupdatepropositions", cancelEventData.get("requesttype"));
+            Assert.assertEquals(
+                    updateEvent.getUniqueIdentifier(),
+                    cancelEventData.get("cancelUpdateRequestForEventId"));
+
+            // a response received after cancellation is not delivered to the callback
+            callbackCaptor
+                    .getValue()
+                    .call(
+                            new Event.Builder(
+                                            "Optimize Response",
+                                            "com.adobe.eventType.optimize",
+                                            "com.adobe.eventSource.responseContent")
+                                    .setEventData(new HashMap<>())
+                                    .build());
+            callbackCaptor.getValue().fail(AdobeError.CALLBACK_TIMEOUT);
+            Assert.assertNull(responseMap);
+            Assert.assertNull(responseError);
+        }
+    }
+
+    @Test
+    public void testUpdatePropositionsCancellable_invalidDecisionScopes() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // test
+            final UpdatePropositionsHandle handle =
+                    Optimize.updatePropositionsCancellable(
+                            new ArrayList<>(), null, null, 10, null);
+
+            // verify
+            Assert.assertNull(handle);
+            mobileCoreMockedStatic.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    public void testUpdatePropositions_prefetchPriority() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            // setup
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            final List<DecisionScope> scopes = new ArrayList<>();
+            scopes.add(new DecisionScope("myMbox"));
+
+            // test
+            Optimize.updatePropositions(scopes, null, null, 10, RequestPriority.PREFETCH, null);
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    ArgumentMatchers.any(AdobeCallbackWithError.class)));
+            final Map<String, Object> eventData = eventCaptor.getValue().getEventData();
+            Assert.assertEquals("updatepropositions", eventData.get("requesttype"));
+            Assert.assertEquals("prefetch", eventData.get("priority"));
+            Assert.assertEquals(10000L, eventData.get("timeout"));
+        }
+    }
+
     @Test
     public void testUpdatePropositions_validDecisionScopeWithXDMAndData() {
         try (MockedStatic<MobileCore> mobileCoreMockedStatic =
@@ -717,6 +862,154 @@ public class OptimizeTests {
         }
     }
 
+    @Test
+    public void testPeekCachedPropositions_emptyDecisionScopesList() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // test
+            final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                    Optimize.peekCachedPropositions(new ArrayList<DecisionScope>());
+
+            // verify
+            Assert.assertNotNull(propositionsMap);
+            Assert.assertTrue(propositionsMap.isEmpty());
+            logMockedStatic.verify(
+                    () ->
+                            Log.warning(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString()));
+        }
+    }
+
+    @Test
+    public void testPeekCachedPropositions_nullDecisionScopesList() {
+        try (MockedStatic<Log> logMockedStatic = Mockito.mockStatic(Log.class)) {
+            // test
+            final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                    Optimize.peekCachedPropositions(null);
+
+            // verify
+            Assert.assertNotNull(propositionsMap);
+            Assert.assertTrue(propositionsMap.isEmpty());
+            logMockedStatic.verify(
+                    () ->
+                            Log.warning(
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString(),
+                                    ArgumentMatchers.anyString()));
+        }
+    }
+
+    @Test
+    public void testPeekCachedPropositions_doesNotDispatchEvent() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            // setup
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            // test
+            final List<DecisionScope> scopes = new ArrayList<>();
+            scopes.add(new DecisionScope("myMbox"));
+            final Map<DecisionScope, OptimizeProposition> propositionsMap =
+                    Optimize.peekCachedPropositions(scopes);
+
+            // verify
+            Assert.assertNotNull(propositionsMap);
+            mobileCoreMockedStatic.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    public void testRegisterPrefetchManifest_validManifest() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            // setup
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+
+            final Map<String, List<DecisionScope>> manifest = new HashMap<>();
+            manifest.put(
+                    "home",
+                    new ArrayList<DecisionScope>() {
+                        {
+                            add(new DecisionScope("myTargetLocationA"));
+                            add(new DecisionScope(""));
+                        }
+                    });
+            manifest.put("cart", new ArrayList<>());
+
+            // test
+            Optimize.registerPrefetchManifest(manifest, 300);
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+            final Event event = eventCaptor.getValue();
+            Assert.assertEquals("com.adobe.eventType.optimize", event.getType());
+            Assert.assertEquals("com.adobe.eventSource.requestContent", event.getSource());
+
+            final Map<String, Object> eventData = event.getEventData();
+            Assert.assertEquals("registerprefetchmanifest", eventData.get("requesttype"));
+            Assert.assertEquals(300000L, eventData.get("prefetchttl"));
+            final Map<String, Object> manifestData =
+                    (Map<String, Object>) eventData.get("prefetchmanifest");
+            Assert.assertEquals(1, manifestData.size());
+            final List<Map<String, Object>> scopesList =
+                    (List<Map<String, Object>>) manifestData.get("home");
+            Assert.assertEquals(1, scopesList.size());
+            Assert.assertEquals("myTargetLocationA", scopesList.get(0).get("name"));
+        }
+    }
+
+    @Test
+    public void testRegisterPrefetchManifest_emptyManifest() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // test
+            Optimize.registerPrefetchManifest(new HashMap<>(), 300);
+
+            // verify
+            mobileCoreMockedStatic.verifyNoInteractions();
+        }
+    }
+
+    @Test
+    public void testPrefetchPropositions_validTag() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // test
+            Optimize.prefetchPropositions("home");
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            mobileCoreMockedStatic.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+            final Map<String, Object> eventData = eventCaptor.getValue().getEventData();
+            Assert.assertEquals("prefetchpropositions", eventData.get("requesttype"));
+            Assert.assertEquals("home", eventData.get("prefetchtag"));
+        }
+    }
+
     @Test
     public void testOnPropositionsUpdate_validProposition() throws Exception {
         try (MockedStatic<MobileCore> mobileCoreMockedStatic =
@@ -1015,4 +1308,49 @@ public class OptimizeTests {
                     AEPOptimizeError.Companion.getTimeoutError(), errorCaptor.getValue());
         }
     }
+
+    @Test
+    public void testGetMetrics_updatePropositionsRecordsApiValidation() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                        Mockito.mockStatic(MobileCore.class);
+                MockedStatic<Base64> base64MockedStatic = Mockito.mockStatic(Base64.class)) {
+            base64MockedStatic
+                    .when(
+                            () ->
+                                    Base64.decode(
+                                            ArgumentMatchers.anyString(),
+                                            ArgumentMatchers.anyInt()))
+                    .thenAnswer(
+                            (Answer<byte[]>)
+                                    invocation ->
+                                            java.util.Base64.getDecoder()
+                                                    .decode((String) invocation.getArguments()[0]));
+            OptimizeMetrics.reset();
+
+            // test
+            Optimize.updatePropositions(
+                    Collections.singletonList(new DecisionScope("myTargetLocationA")),
+                    null,
+                    null);
+            final Map<String, Object> metrics = Optimize.getMetrics();
+
+            // verify
+            final Map<String, Object> stages = (Map<String, Object>) metrics.get("stages");
+            Assert.assertNotNull(stages);
+            final Map<String, Object> apiValidation =
+                    (Map<String, Object>) stages.get("apiValidation");
+            Assert.assertEquals(1L, apiValidation.get("count"));
+            Assert.assertNotNull(metrics.get("counters"));
+        }
+    }
+
+    @Test
+    public void testGetPropositionsFootprint_negativeTopScopesCount() {
+        // test
+        final Map<String, Object> footprint = Optimize.getPropositionsFootprint(-1);
+
+        // verify
+        Assert.assertNotNull(footprint.get("totalBytes"));
+        Assert.assertTrue(((List<Map<String, Object>>) footprint.get("topScopes")).isEmpty());
+    }
 }
@@ -0,0 +1,91 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.optimize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptimizeTracerTests {
+
+    @After
+    public void teardown() {
+        OptimizeTracer.setSink(null);
+    }
+
+    @Test
+    public void testRecordSpan_noSinkRegistered() {
+        // test
+        OptimizeTracer.recordSpan("traceId", "stage", System.nanoTime(), null);
+
+        // verify
+        Assert.assertFalse(OptimizeTracer.isEnabled());
+    }
+
+    @Test
+    public void testRecordSpan_deliveredToSink() {
+        // setup
+        final List<OptimizeTraceSpan> spans = new ArrayList<>();
+        OptimizeTracer.setSink(spans::add);
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("edgeEventId", "edgeId");
+        final long beforeSpan = System.currentTimeMillis();
+
+        // test
+        OptimizeTracer.recordSpan("traceId", "stage", System.nanoTime(), attributes);
+        attributes.put("error", "ignored");
+
+        // verify
+        Assert.assertTrue(OptimizeTracer.isEnabled());
+        Assert.assertEquals(1, spans.size());
+        final OptimizeTraceSpan span = spans.get(0);
+        Assert.assertEquals("traceId", span.getTraceId());
+        Assert.assertEquals("stage", span.getName());
+        Assert.assertTrue(span.getDurationNanos() >= 0);
+        Assert.assertTrue(span.getStartTimestamp() >= beforeSpan - 1);
+        Assert.assertEquals(1, span.getAttributes().size());
+        Assert.assertEquals("edgeId", span.getAttributes().get("edgeEventId"));
+    }
+
+    @Test
+    public void testRecordSpan_emptyTraceId() {
+        // setup
+        final List<OptimizeTraceSpan> spans = new ArrayList<>();
+        OptimizeTracer.setSink(spans::add);
+
+        // test
+        OptimizeTracer.recordSpan(null, "stage", System.nanoTime(), null);
+        OptimizeTracer.recordSpan("", "stage", System.nanoTime(), null);
+
+        // verify
+        Assert.assertTrue(spans.isEmpty());
+    }
+
+    @Test
+    public void testRecordSpan_sinkThrowsException() {
+        // setup
+        OptimizeTracer.setSink(
+                span -> {
+                    throw new IllegalStateException("sink failure");
+                });
+
+        // test
+        OptimizeTracer.recordSpan("traceId", "stage", System.nanoTime(), null);
+
+        // verify no exception is propagated
+        Assert.assertTrue(OptimizeTracer.isEnabled());
+    }
+}
@@ -13,6 +13,7 @@ package com.adobe.marketing.mobile.optimize;
 
 import android.util.Base64;
 import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -201,4 +202,35 @@ public class OptimizeUtilsTest {
     public void testConvertToAdobeError_unknownErrorCode() {
         Assert.assertEquals(AdobeError.UNEXPECTED_ERROR, OptimizeUtils.convertToAdobeError(123));
     }
+
+    @Test
+    public void testIsPrefetchUpdateEvent() {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("requesttype", "updatepropositions");
+        eventData.put("priority", "prefetch");
+        final Event event =
+                new Event.Builder(
+                                "Optimize Update Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(eventData)
+                        .build();
+
+        Assert.assertTrue(OptimizeUtils.isPrefetchUpdateEvent(event));
+    }
+
+    @Test
+    public void testIsPrefetchUpdateEvent_foregroundUpdateEvent() {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("requesttype", "updatepropositions");
+        final Event event =
+                new Event.Builder(
+                                "Optimize Update Propositions Request",
+                                "com.adobe.eventType.optimize",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(eventData)
+                        .build();
+
+        Assert.assertFalse(OptimizeUtils.isPrefetchUpdateEvent(event));
+    }
 }
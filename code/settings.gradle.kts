@@ -32,5 +32,6 @@ dependencyResolutionManagement {
 rootProject.name = "aepsdk-optimize-android"
 include (
          ":testapp",
-         ":optimize"
+         ":optimize",
+         ":benchmark"
 )
\ No newline at end of file